@@ -0,0 +1,67 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>
+ * Common configuration of the benchmarks of the CrossPare strategies. Each benchmark measures the
+ * throughput as well as the distribution of the latency of single invocations. The benchmarks
+ * define the size of the data through parameters and create it with {@link BenchmarkData} before
+ * the first invocation.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public abstract class AbstractStrategyBenchmark {
+
+    /**
+     * data of the benchmark
+     */
+    protected BenchmarkData data;
+
+    /**
+     * <p>
+     * Creates the data of the benchmark.
+     * </p>
+     *
+     * @param numTestInstances
+     *            number of instances of the test data; all instances of the test version are used
+     *            if the number is negative
+     * @param numTrainInstances
+     *            number of instances of the training data
+     * @param numAttributes
+     *            number of attributes without the class attribute
+     */
+    protected void createData(int numTestInstances, int numTrainInstances, int numAttributes) {
+        this.data = new BenchmarkData(numTestInstances, numTrainInstances, numAttributes);
+    }
+}
@@ -0,0 +1,196 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.bench;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import de.ugoe.cs.cpdp.loader.CSVFolderLoader;
+import de.ugoe.cs.cpdp.util.WekaUtils;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Data used by the benchmarks. The data is based on the JURECZKO data: the test data is the
+ * product {@link #TEST_VERSION}, the training data are all other products. Both are scaled to the
+ * number of instances and attributes requested by the benchmarks. The scaling is deterministic,
+ * i.e., all executions of a benchmark use the same data.
+ * </p>
+ * <p>
+ * The location of the JURECZKO data is defined by the system property
+ * {@value #DATA_LOCATION_PROPERTY}; the default is {@value #DEFAULT_DATA_LOCATION}.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class BenchmarkData {
+
+    /**
+     * system property that defines the location of the JURECZKO data
+     */
+    public static final String DATA_LOCATION_PROPERTY = "crosspare.bench.data";
+
+    /**
+     * default location of the JURECZKO data
+     */
+    public static final String DEFAULT_DATA_LOCATION = "testdata/JURECZKO";
+
+    /**
+     * version that is used as test data
+     */
+    public static final String TEST_VERSION = "ant-1.7.csv";
+
+    /**
+     * seed for the scaling of the data
+     */
+    private static final long SEED = 42;
+
+    /**
+     * test data
+     */
+    private final Instances testdata;
+
+    /**
+     * training data
+     */
+    private final Instances traindata;
+
+    /**
+     * <p>
+     * Creates the data for a benchmark.
+     * </p>
+     *
+     * @param numTestInstances
+     *            number of instances of the test data; all instances of the test version are used
+     *            in their original order if the number is negative
+     * @param numTrainInstances
+     *            number of instances of the training data
+     * @param numAttributes
+     *            number of attributes without the class attribute
+     */
+    public BenchmarkData(int numTestInstances, int numTrainInstances, int numAttributes) {
+        CSVFolderLoader loader = new CSVFolderLoader();
+        loader.setLocation(System.getProperty(DATA_LOCATION_PROPERTY, DEFAULT_DATA_LOCATION));
+        Instances testversion = null;
+        List<Instances> trainversions = new LinkedList<>();
+        for (SoftwareVersion version : loader.load()) {
+            if (TEST_VERSION.equals(version.getVersion())) {
+                testversion = version.getReadOnlyInstances();
+            }
+            else {
+                trainversions.add(version.getReadOnlyInstances());
+            }
+        }
+        if (testversion == null || trainversions.isEmpty()) {
+            throw new RuntimeException("JURECZKO data with the version " + TEST_VERSION +
+                " not found: " + loader.getLocation());
+        }
+        Random rand = new Random(SEED);
+        this.testdata = scale(testversion, numTestInstances, numAttributes, rand);
+        // the loaded versions are not used otherwise, i.e., the instances can be moved
+        this.traindata = scale(WekaUtils.concatenate(trainversions, false), numTrainInstances,
+                               numAttributes, rand);
+    }
+
+    /**
+     * <p>
+     * returns a copy of the test data
+     * </p>
+     *
+     * @return the test data
+     */
+    public Instances getTestdata() {
+        return new Instances(this.testdata);
+    }
+
+    /**
+     * <p>
+     * returns a copy of the training data
+     * </p>
+     *
+     * @return the training data
+     */
+    public Instances getTraindata() {
+        return new Instances(this.traindata);
+    }
+
+    /**
+     * <p>
+     * Scales data to a number of instances and attributes. The instances are drawn with
+     * replacement from the data. If more attributes than in the data are requested, synthetic
+     * attributes are added, whose values are the values of an attribute of the data with
+     * multiplicative noise. If less attributes are requested, the last attributes are dropped. The
+     * class attribute is always the last attribute of the scaled data.
+     * </p>
+     *
+     * @param data
+     *            data that is scaled
+     * @param numInstances
+     *            number of instances of the scaled data; all instances are used in their original
+     *            order if the number is negative
+     * @param numAttributes
+     *            number of attributes of the scaled data without the class attribute
+     * @param rand
+     *            random number generator used for the scaling
+     * @return scaled data
+     */
+    @SuppressWarnings("boxing")
+    public static Instances scale(Instances data,
+                                  int numInstances,
+                                  int numAttributes,
+                                  Random rand)
+    {
+        List<Integer> sourceIndices = new ArrayList<>();
+        for (int j = 0; j < data.numAttributes(); j++) {
+            if (j != data.classIndex()) {
+                sourceIndices.add(j);
+            }
+        }
+        int numSource = sourceIndices.size();
+
+        ArrayList<Attribute> attributes = new ArrayList<>(numAttributes + 1);
+        for (int j = 0; j < numAttributes; j++) {
+            if (j < numSource) {
+                attributes.add((Attribute) data.attribute(sourceIndices.get(j)).copy());
+            }
+            else {
+                attributes.add(new Attribute("synthetic" + (j - numSource)));
+            }
+        }
+        attributes.add((Attribute) data.classAttribute().copy());
+        int size = numInstances < 0 ? data.numInstances() : numInstances;
+        Instances scaled = new Instances(data.relationName(), attributes, size);
+        scaled.setClassIndex(numAttributes);
+
+        for (int i = 0; i < size; i++) {
+            Instance instance =
+                data.instance(numInstances < 0 ? i : rand.nextInt(data.numInstances()));
+            double[] values = new double[numAttributes + 1];
+            for (int j = 0; j < numAttributes; j++) {
+                double value = instance.value(sourceIndices.get(j % numSource));
+                values[j] = j < numSource ? value : value * (0.9 + 0.2 * rand.nextDouble());
+            }
+            values[numAttributes] = instance.classValue();
+            scaled.add(new DenseInstance(1.0, values));
+        }
+        return scaled;
+    }
+}
@@ -0,0 +1,118 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.ugoe.cs.cpdp.eval.EffortMetricCalculator;
+import de.ugoe.cs.cpdp.loader.AbstractFolderLoader;
+import weka.classifiers.Classifier;
+import weka.classifiers.bayes.NaiveBayes;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Benchmark of the {@link EffortMetricCalculator}, i.e., the scoring and sorting of the test data
+ * and the calculation of the effort-aware metrics. The classifier is trained once before the
+ * benchmark.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class EffortMetricCalculatorBenchmark extends AbstractStrategyBenchmark {
+
+    /**
+     * number of instances of the test data
+     */
+    @Param({ "500", "2000", "8000" })
+    public int numInstances;
+
+    /**
+     * number of attributes of the data
+     */
+    @Param({ "20", "40", "80" })
+    public int numAttributes;
+
+    /**
+     * test data
+     */
+    private Instances testdata;
+
+    /**
+     * classifier used to score the test data
+     */
+    private Classifier classifier;
+
+    /**
+     * efforts of the test data
+     */
+    private List<Double> efforts;
+
+    /**
+     * bug counts of the test data
+     */
+    private List<Double> numBugs;
+
+    /**
+     * <p>
+     * Creates the data and trains the classifier.
+     * </p>
+     *
+     * @throws Exception
+     *             thrown if the training of the classifier fails
+     */
+    @SuppressWarnings("boxing")
+    @Setup
+    public void setup() throws Exception {
+        createData(this.numInstances, 1000, this.numAttributes);
+        this.testdata = this.data.getTestdata();
+        this.classifier = new NaiveBayes();
+        this.classifier.buildClassifier(this.data.getTraindata());
+        this.efforts = AbstractFolderLoader.getEfforts(this.testdata);
+        this.numBugs = new ArrayList<>(this.testdata.size());
+        for (Instance instance : this.testdata) {
+            this.numBugs.add(instance.classValue());
+        }
+    }
+
+    /**
+     * <p>
+     * Calculates the effort-aware metrics.
+     * </p>
+     *
+     * @param blackhole
+     *            consumes the metrics
+     */
+    @Benchmark
+    public void calculate(Blackhole blackhole) {
+        EffortMetricCalculator calculator = new EffortMetricCalculator(this.testdata,
+                                                                       this.classifier,
+                                                                       this.efforts,
+                                                                       this.numBugs);
+        blackhole.consume(calculator.getAUCEC());
+        blackhole.consume(calculator.getNofb20());
+        blackhole.consume(calculator.getRelb20());
+        blackhole.consume(calculator.getNofi80());
+        blackhole.consume(calculator.getReli80());
+        blackhole.consume(calculator.getRele80());
+    }
+}
@@ -0,0 +1,97 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import de.ugoe.cs.cpdp.dataprocessing.MORPH;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Benchmark of the {@link MORPH} data privatization. MORPH modifies the values of the training
+ * data and repeated applications let the values diverge. Therefore, the training data is reset
+ * before each invocation; the reset is not measured.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class MORPHBenchmark extends AbstractStrategyBenchmark {
+
+    /**
+     * number of instances of the training data
+     */
+    @Param({ "500", "2000", "8000" })
+    public int numInstances;
+
+    /**
+     * number of attributes of the data
+     */
+    @Param({ "20", "40", "80" })
+    public int numAttributes;
+
+    /**
+     * benchmarked processor
+     */
+    private MORPH morph;
+
+    /**
+     * test data
+     */
+    private Instances testdata;
+
+    /**
+     * training data; modified by the benchmark
+     */
+    private Instances traindata;
+
+    /**
+     * <p>
+     * Creates the data and the processor.
+     * </p>
+     */
+    @Setup
+    public void setup() {
+        createData(-1, this.numInstances, this.numAttributes);
+        this.testdata = this.data.getTestdata();
+        this.morph = new MORPH();
+    }
+
+    /**
+     * <p>
+     * Resets the training data.
+     * </p>
+     */
+    @Setup(Level.Invocation)
+    public void resetTraindata() {
+        this.traindata = this.data.getTraindata();
+    }
+
+    /**
+     * <p>
+     * Applies the processor.
+     * </p>
+     *
+     * @return modified training data
+     */
+    @Benchmark
+    public Instances apply() {
+        this.morph.apply(this.testdata, this.traindata);
+        return this.traindata;
+    }
+}
@@ -0,0 +1,85 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import de.ugoe.cs.cpdp.dataselection.TurhanFilter;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Benchmark of the {@link TurhanFilter}, i.e., the selection of the nearest neighbors of the
+ * test data within the training data.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class TurhanFilterBenchmark extends AbstractStrategyBenchmark {
+
+    /**
+     * number of instances of the training data
+     */
+    @Param({ "500", "2000", "8000" })
+    public int numInstances;
+
+    /**
+     * number of attributes of the data
+     */
+    @Param({ "20", "40", "80" })
+    public int numAttributes;
+
+    /**
+     * benchmarked filter
+     */
+    private TurhanFilter filter;
+
+    /**
+     * test data
+     */
+    private Instances testdata;
+
+    /**
+     * training data
+     */
+    private Instances traindata;
+
+    /**
+     * <p>
+     * Creates the data and the filter.
+     * </p>
+     */
+    @Setup
+    public void setup() {
+        createData(-1, this.numInstances, this.numAttributes);
+        this.testdata = this.data.getTestdata();
+        this.traindata = this.data.getTraindata();
+        this.filter = new TurhanFilter();
+    }
+
+    /**
+     * <p>
+     * Applies the filter.
+     * </p>
+     *
+     * @return selected training data
+     */
+    @Benchmark
+    public Instances apply() {
+        return this.filter.apply(this.testdata, this.traindata);
+    }
+}
@@ -20,9 +20,13 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.InvocationTargetException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.logging.Level;
 
 import javax.xml.parsers.ParserConfigurationException;
@@ -32,6 +36,7 @@ import javax.xml.parsers.SAXParserFactory;
 import org.xml.sax.Attributes;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
 import org.xml.sax.helpers.DefaultHandler;
 
 import de.ugoe.cs.cpdp.dataprocessing.IProcessesingStrategy;
@@ -40,6 +45,7 @@ import de.ugoe.cs.cpdp.dataselection.IPointWiseDataselectionStrategy;
 import de.ugoe.cs.cpdp.dataselection.ISetWiseDataselectionStrategy;
 import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
 import de.ugoe.cs.cpdp.eval.IResultStorage;
+import de.ugoe.cs.cpdp.loader.DecentFolderLoader;
 import de.ugoe.cs.cpdp.loader.IVersionLoader;
 import de.ugoe.cs.cpdp.training.ISetWiseTestdataAwareTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ISetWiseTrainingStrategy;
@@ -60,6 +66,16 @@ import de.ugoe.cs.util.console.Console;
  */
 public class ExperimentConfiguration extends DefaultHandler {
 
+    /**
+     * names of the elements that define data processing, data selection, training, and evaluation
+     * strategies
+     */
+    private static final Set<String> STRATEGY_ELEMENTS = new HashSet<>(Arrays
+        .asList("versionfilter", "testVersionfilter", "trainVersionfilter", "setwisepreprocessor",
+                "setwiseselector", "setwisepostprocessor", "setwisetrainer",
+                "setwisetestdataawaretrainer", "preprocessor", "pointwiseselector", "postprocessor",
+                "trainer", "testawaretrainer", "eval"));
+
     /**
      * handle of the file that contains the configuration
      */
@@ -73,7 +89,7 @@ public class ExperimentConfiguration extends DefaultHandler {
     /**
      * loads instances
      */
-    private List<IVersionLoader> loaders;
+    private final List<IVersionLoader> loaders = new LinkedList<>();
 
     /**
      * path were the results of the experiments are stored
@@ -83,79 +99,80 @@ public class ExperimentConfiguration extends DefaultHandler {
     /**
      * data set filters applied to all data
      */
-    private List<IVersionFilter> versionFilters;
+    private final List<IVersionFilter> versionFilters = new LinkedList<>();
 
     /**
      * data set filters that decide if a data set is used as test data
      */
-    private List<IVersionFilter> testVersionFilters;
+    private final List<IVersionFilter> testVersionFilters = new LinkedList<>();
 
     /**
      * data set filters that decide if a data is used as candidate training data
      */
-    private List<IVersionFilter> trainingVersionFilters;
+    private final List<IVersionFilter> trainingVersionFilters = new LinkedList<>();
 
     /**
      * setwise data processors that are applied before the setwise data selection
      */
-    private List<ISetWiseProcessingStrategy> setwisepreprocessors;
+    private final List<ISetWiseProcessingStrategy> setwisepreprocessors = new LinkedList<>();
 
     /**
      * setwise data selection strategies
      */
-    private List<ISetWiseDataselectionStrategy> setwiseselectors;
+    private final List<ISetWiseDataselectionStrategy> setwiseselectors = new LinkedList<>();
 
     /**
      * setwise data processors that are applied after the setwise data selection
      */
-    private List<ISetWiseProcessingStrategy> setwisepostprocessors;
+    private final List<ISetWiseProcessingStrategy> setwisepostprocessors = new LinkedList<>();
 
     /**
      * setwise trainers, i.e., trainers that require the selected training data to be separate from
      * each other
      */
-    private List<ISetWiseTrainingStrategy> setwiseTrainers;
+    private final List<ISetWiseTrainingStrategy> setwiseTrainers = new LinkedList<>();
 
     /**
      * setwise testdata aware trainers, i.e., trainers that require the selected training data to be
      * separate from each other and the current testdata
      */
-    private List<ISetWiseTestdataAwareTrainingStrategy> setwiseTestdataAwareTrainers;
+    private final List<ISetWiseTestdataAwareTrainingStrategy> setwiseTestdataAwareTrainers =
+        new LinkedList<>();
 
     /**
      * data processors that are applied before the pointwise data selection
      */
-    private List<IProcessesingStrategy> preprocessors;
+    private final List<IProcessesingStrategy> preprocessors = new LinkedList<>();
 
     /**
      * pointwise data selection strategies
      */
-    private List<IPointWiseDataselectionStrategy> pointwiseselectors;
+    private final List<IPointWiseDataselectionStrategy> pointwiseselectors = new LinkedList<>();
 
     /**
      * data processors that are applied before the pointwise data selection
      */
-    private List<IProcessesingStrategy> postprocessors;
+    private final List<IProcessesingStrategy> postprocessors = new LinkedList<>();
 
     /**
      * normal trainers, i.e., trainers that require the selected training data in a single data set
      */
-    private List<ITrainingStrategy> trainers;
+    private final List<ITrainingStrategy> trainers = new LinkedList<>();
 
     /**
      * normal trainers, i.e., trainers that require the selected training data in a single data set
      */
-    private List<ITestAwareTrainingStrategy> testAwareTrainers;
+    private final List<ITestAwareTrainingStrategy> testAwareTrainers = new LinkedList<>();
 
     /**
      * evaluators used for the the experiment results
      */
-    private List<IEvaluationStrategy> evaluators;
+    private final List<IEvaluationStrategy> evaluators = new LinkedList<>();
 
     /**
      * result storages used for experiments
      */
-    private List<IResultStorage> resultStorages;
+    private final List<IResultStorage> resultStorages = new LinkedList<>();
 
     /**
      * indicates, if the classifier should be saved
@@ -167,6 +184,31 @@ public class ExperimentConfiguration extends DefaultHandler {
      */
     private int repetitions = 1;
 
+    /**
+     * seed of the first repetition; repetition i uses the seed repetitionSeed+i
+     */
+    private int repetitionSeed = 0;
+
+    /**
+     * number of test versions of an experiment that are executed concurrently
+     */
+    private int versionParallelism = 1;
+
+    /**
+     * number of trainers of a test version that are trained concurrently
+     */
+    private int trainerParallelism = 1;
+
+    /**
+     * number of repetitions of a test version that are executed concurrently
+     */
+    private int repetitionParallelism = 1;
+
+    /**
+     * number of versions of a loader that are loaded concurrently
+     */
+    private int loadingParallelism = 1;
+
     /**
      * indicates, which execution strategy to choose (e.g. CrossProjectExperiment,
      * ClassifierCreationExecution). Default is CrossProjectExperiment.
@@ -178,6 +220,13 @@ public class ExperimentConfiguration extends DefaultHandler {
      */
     private String executionStrategyParameters = null;
 
+    /**
+     * declarations of the strategies in the configuration file, i.e., the names and attributes of
+     * their elements in the order in which they were parsed; used to create fresh instances of the
+     * strategies for copies of the configuration
+     */
+    private final List<Entry<String, Attributes>> strategyDeclarations = new LinkedList<>();
+
     /**
      * Constructor. Creates a new configuration from a given file.
      * 
@@ -199,22 +248,6 @@ public class ExperimentConfiguration extends DefaultHandler {
      *             thrown if there is an error creating the configuration
      */
     public ExperimentConfiguration(File file) throws ExperimentConfigurationException {
-        this.loaders = new LinkedList<>();
-        this.versionFilters = new LinkedList<>();
-        this.testVersionFilters = new LinkedList<>();
-        this.trainingVersionFilters = new LinkedList<>();
-        this.setwisepreprocessors = new LinkedList<>();
-        this.setwiseselectors = new LinkedList<>();
-        this.setwisepostprocessors = new LinkedList<>();
-        this.setwiseTrainers = new LinkedList<>();
-        this.setwiseTestdataAwareTrainers = new LinkedList<>();
-        this.preprocessors = new LinkedList<>();
-        this.pointwiseselectors = new LinkedList<>();
-        this.postprocessors = new LinkedList<>();
-        this.trainers = new LinkedList<>();
-        this.testAwareTrainers = new LinkedList<>();
-        this.evaluators = new LinkedList<>();
-        this.resultStorages = new LinkedList<>();
 
         if (file == null) {
             throw new IllegalArgumentException("file must not be null");
@@ -249,6 +282,63 @@ public class ExperimentConfiguration extends DefaultHandler {
         catch (SAXException | IOException e) {
             throw new ExperimentConfigurationException("Error parsing configuration.", e);
         }
+
+        // applied after parsing, because the loaders may be defined after the parallelism, e.g.,
+        // in partial configurations
+        for (IVersionLoader loader : this.loaders) {
+            loader.setParallelism(this.loadingParallelism);
+        }
+    }
+
+    /**
+     * <p>
+     * Copy constructor. Creates a copy of a configuration without parsing the configuration file
+     * again. The copy has new instances of all data processing, data selection, training, and
+     * evaluation strategies. The loaders and the result storages are shared with the other
+     * configuration, such that the data and the results are accessed through the same instances.
+     * </p>
+     * 
+     * @param other
+     *            configuration that is copied
+     * @throws ExperimentConfigurationException
+     *             thrown if there is an error creating the strategies
+     */
+    public ExperimentConfiguration(ExperimentConfiguration other)
+        throws ExperimentConfigurationException
+    {
+        this.configFile = other.configFile;
+        this.experimentName = other.experimentName;
+        this.resultsPath = other.resultsPath;
+        this.loaders.addAll(other.loaders);
+        this.resultStorages.addAll(other.resultStorages);
+        this.saveClassifier = other.saveClassifier;
+        this.repetitions = other.repetitions;
+        this.repetitionSeed = other.repetitionSeed;
+        this.versionParallelism = other.versionParallelism;
+        this.trainerParallelism = other.trainerParallelism;
+        this.repetitionParallelism = other.repetitionParallelism;
+        this.loadingParallelism = other.loadingParallelism;
+        this.executionStrategy = other.executionStrategy;
+        this.executionStrategyParameters = other.executionStrategyParameters;
+        this.strategyDeclarations.addAll(other.strategyDeclarations);
+        try {
+            for (Entry<String, Attributes> declaration : this.strategyDeclarations) {
+                addStrategy(declaration.getKey(), declaration.getValue());
+            }
+        }
+        catch (NoClassDefFoundError | ReflectiveOperationException | ClassCastException e) {
+            throw new ExperimentConfigurationException("Could not initialize class correctly",
+                                                       e);
+        }
+    }
+
+    /**
+     * returns the file from which the configuration was loaded
+     * 
+     * @return handle of the configuration file
+     */
+    public File getConfigFile() {
+        return this.configFile;
     }
 
     /**
@@ -433,6 +523,52 @@ public class ExperimentConfiguration extends DefaultHandler {
         return this.repetitions;
     }
 
+    /**
+     * seed of the first repetition of an experiment; the seed of repetition i is the seed of the
+     * first repetition plus i
+     *
+     * @return seed of the first repetition
+     */
+    public int getRepetitionSeed() {
+        return this.repetitionSeed;
+    }
+
+    /**
+     * number of test versions of an experiment that are executed concurrently
+     *
+     * @return number of concurrently executed test versions
+     */
+    public int getVersionParallelism() {
+        return this.versionParallelism;
+    }
+
+    /**
+     * number of trainers of a test version that are trained concurrently
+     *
+     * @return number of concurrently trained trainers
+     */
+    public int getTrainerParallelism() {
+        return this.trainerParallelism;
+    }
+
+    /**
+     * number of repetitions of a test version that are executed concurrently
+     *
+     * @return number of concurrently executed repetitions
+     */
+    public int getRepetitionParallelism() {
+        return this.repetitionParallelism;
+    }
+
+    /**
+     * number of versions of a loader that are loaded concurrently
+     *
+     * @return number of concurrently loaded versions
+     */
+    public int getLoadingParallelism() {
+        return this.loadingParallelism;
+    }
+
     /**
      * returns the execution strategy
      * 
@@ -473,6 +609,29 @@ public class ExperimentConfiguration extends DefaultHandler {
                 if( classType!=null ) {
                     loader.setClassType(classType);
                 }
+                if (attributes.getValue("cache") != null) {
+                    loader.setCaching(Boolean.parseBoolean(attributes.getValue("cache")));
+                }
+                if (attributes.getValue("lazy") != null) {
+                    loader.setLazy(Boolean.parseBoolean(attributes.getValue("lazy")));
+                }
+                if (attributes.getValue("compact") != null) {
+                    loader.setCompact(Boolean.parseBoolean(attributes.getValue("compact")));
+                }
+                if (attributes.getValue("offheap") != null) {
+                    loader.setOffHeap(Boolean.parseBoolean(attributes.getValue("offheap")));
+                }
+                if (attributes.getValue("concurrenttransformation") != null) {
+                    if (loader instanceof DecentFolderLoader) {
+                        ((DecentFolderLoader) loader).setConcurrentTransformation(Boolean
+                            .parseBoolean(attributes.getValue("concurrenttransformation")));
+                    }
+                    else {
+                        Console.traceln(Level.WARNING, "concurrenttransformation is only " +
+                            "supported by the DecentFolderLoader, ignored for loader " +
+                            attributes.getValue("name"));
+                    }
+                }
                 this.loaders.add(loader);
 
                 // TODO location as relative
@@ -480,106 +639,10 @@ public class ExperimentConfiguration extends DefaultHandler {
             else if (qName.equals("resultspath")) {
                 this.resultsPath = attributes.getValue("path");
             }
-            else if (qName.equals("versionfilter")) {
-                final IVersionFilter filter = (IVersionFilter) Class
-                    .forName("de.ugoe.cs.cpdp.versions." + attributes.getValue("name"))
-                    .newInstance();
-                filter.setParameter(attributes.getValue("param"));
-                this.versionFilters.add(filter);
-            }
-            else if (qName.equals("testVersionfilter")) {
-                final IVersionFilter filter = (IVersionFilter) Class
-                    .forName("de.ugoe.cs.cpdp.versions." + attributes.getValue("name"))
-                    .newInstance();
-                filter.setParameter(attributes.getValue("param"));
-                this.testVersionFilters.add(filter);
-            }
-            else if (qName.equals("trainVersionfilter")) {
-                final IVersionFilter filter = (IVersionFilter) Class
-                    .forName("de.ugoe.cs.cpdp.versions." + attributes.getValue("name"))
-                    .newInstance();
-                filter.setParameter(attributes.getValue("param"));
-                this.trainingVersionFilters.add(filter);
-            }
-            else if (qName.equals("setwisepreprocessor")) {
-                final ISetWiseProcessingStrategy processor = (ISetWiseProcessingStrategy) Class
-                    .forName("de.ugoe.cs.cpdp.dataprocessing." + attributes.getValue("name"))
-                    .newInstance();
-                processor.setParameter(attributes.getValue("param"));
-                this.setwisepreprocessors.add(processor);
-            }
-            else if (qName.equals("setwiseselector")) {
-                final ISetWiseDataselectionStrategy selection =
-                    (ISetWiseDataselectionStrategy) Class
-                        .forName("de.ugoe.cs.cpdp.dataselection." + attributes.getValue("name"))
-                        .newInstance();
-                selection.setParameter(attributes.getValue("param"));
-                this.setwiseselectors.add(selection);
-            }
-            else if (qName.equals("setwisepostprocessor")) {
-                final ISetWiseProcessingStrategy processor = (ISetWiseProcessingStrategy) Class
-                    .forName("de.ugoe.cs.cpdp.dataprocessing." + attributes.getValue("name"))
-                    .newInstance();
-                processor.setParameter(attributes.getValue("param"));
-                this.setwisepostprocessors.add(processor);
-            }
-            else if (qName.equals("setwisetrainer")) {
-                final ISetWiseTrainingStrategy trainer = (ISetWiseTrainingStrategy) Class
-                    .forName("de.ugoe.cs.cpdp.training." + attributes.getValue("name"))
-                    .newInstance();
-                trainer.setParameter(attributes.getValue("param"));
-                this.setwiseTrainers.add(trainer);
-            }
-            else if (qName.equals("setwisetestdataawaretrainer")) {
-                final ISetWiseTestdataAwareTrainingStrategy trainer =
-                    (ISetWiseTestdataAwareTrainingStrategy) Class
-                        .forName("de.ugoe.cs.cpdp.training." + attributes.getValue("name"))
-                        .newInstance();
-                trainer.setParameter(attributes.getValue("param"));
-                trainer.setMethod(attributes.getValue("method"));
-                trainer.setThreshold(attributes.getValue("threshold"));
-                this.setwiseTestdataAwareTrainers.add(trainer);
-            }
-            else if (qName.equals("preprocessor")) {
-                final IProcessesingStrategy processor = (IProcessesingStrategy) Class
-                    .forName("de.ugoe.cs.cpdp.dataprocessing." + attributes.getValue("name"))
-                    .newInstance();
-                processor.setParameter(attributes.getValue("param"));
-                this.preprocessors.add(processor);
-            }
-            else if (qName.equals("pointwiseselector")) {
-                final IPointWiseDataselectionStrategy selection =
-                    (IPointWiseDataselectionStrategy) Class
-                        .forName("de.ugoe.cs.cpdp.dataselection." + attributes.getValue("name"))
-                        .newInstance();
-                selection.setParameter(attributes.getValue("param"));
-                this.pointwiseselectors.add(selection);
-            }
-            else if (qName.equals("postprocessor")) {
-                final IProcessesingStrategy processor = (IProcessesingStrategy) Class
-                    .forName("de.ugoe.cs.cpdp.dataprocessing." + attributes.getValue("name"))
-                    .newInstance();
-                processor.setParameter(attributes.getValue("param"));
-                this.postprocessors.add(processor);
-            }
-            else if (qName.equals("trainer")) {
-                final ITrainingStrategy trainer = (ITrainingStrategy) Class
-                    .forName("de.ugoe.cs.cpdp.training." + attributes.getValue("name"))
-                    .newInstance();
-                trainer.setParameter(attributes.getValue("param"));
-                this.trainers.add(trainer);
-            }
-            else if (qName.equals("testawaretrainer")) {
-                final ITestAwareTrainingStrategy trainer = (ITestAwareTrainingStrategy) Class
-                    .forName("de.ugoe.cs.cpdp.training." + attributes.getValue("name"))
-                    .newInstance();
-                trainer.setParameter(attributes.getValue("param"));
-                this.testAwareTrainers.add(trainer);
-            }
-            else if (qName.equals("eval")) {
-                final IEvaluationStrategy evaluator = (IEvaluationStrategy) Class
-                    .forName("de.ugoe.cs.cpdp.eval." + attributes.getValue("name")).newInstance();
-                this.evaluators.add(evaluator);
+            else if (STRATEGY_ELEMENTS.contains(qName)) {
+                addStrategy(qName, attributes);
+                this.strategyDeclarations
+                    .add(new SimpleImmutableEntry<>(qName, new AttributesImpl(attributes)));
             }
             else if (qName.equals("storage")) {
                 IResultStorage resultStorage;
@@ -605,6 +668,24 @@ public class ExperimentConfiguration extends DefaultHandler {
             }
             else if (qName.equals("repetitions")) {
                 this.repetitions = Integer.parseInt(attributes.getValue("number"));
+                if (attributes.getValue("seed") != null) {
+                    this.repetitionSeed = Integer.parseInt(attributes.getValue("seed"));
+                }
+            }
+            else if (qName.equals("parallelism")) {
+                if (attributes.getValue("versions") != null) {
+                    this.versionParallelism = Integer.parseInt(attributes.getValue("versions"));
+                }
+                if (attributes.getValue("trainers") != null) {
+                    this.trainerParallelism = Integer.parseInt(attributes.getValue("trainers"));
+                }
+                if (attributes.getValue("repetitions") != null) {
+                    this.repetitionParallelism =
+                        Integer.parseInt(attributes.getValue("repetitions"));
+                }
+                if (attributes.getValue("loading") != null) {
+                    this.loadingParallelism = Integer.parseInt(attributes.getValue("loading"));
+                }
             }
             else if (qName.equals("executionStrategy")) {
                 this.executionStrategy = attributes.getValue("name");
@@ -632,14 +713,132 @@ public class ExperimentConfiguration extends DefaultHandler {
                     " ignored: " + qName);
             }
         }
-        catch (NoClassDefFoundError | ClassNotFoundException | IllegalAccessException
-                | InstantiationException | ClassCastException | IllegalArgumentException
-                | InvocationTargetException | NoSuchMethodException | SecurityException e)
+        catch (NoClassDefFoundError | ReflectiveOperationException | ClassCastException
+                | IllegalArgumentException | SecurityException e)
         {
             throw new SAXException("Could not initialize class correctly", (Exception) e);
         }
     }
 
+    /**
+     * <p>
+     * Creates a strategy defined by an element of the configuration and adds it to this
+     * configuration.
+     * </p>
+     *
+     * @param qName
+     *            name of the element, must be one of {@link #STRATEGY_ELEMENTS}
+     * @param attributes
+     *            attributes of the element
+     * @throws ReflectiveOperationException
+     *             thrown if the strategy cannot be instantiated
+     */
+    private void addStrategy(String qName, Attributes attributes)
+        throws ReflectiveOperationException
+    {
+        if (qName.equals("versionfilter")) {
+            final IVersionFilter filter = (IVersionFilter) Class
+                .forName("de.ugoe.cs.cpdp.versions." + attributes.getValue("name"))
+                .newInstance();
+            filter.setParameter(attributes.getValue("param"));
+            this.versionFilters.add(filter);
+        }
+        else if (qName.equals("testVersionfilter")) {
+            final IVersionFilter filter = (IVersionFilter) Class
+                .forName("de.ugoe.cs.cpdp.versions." + attributes.getValue("name"))
+                .newInstance();
+            filter.setParameter(attributes.getValue("param"));
+            this.testVersionFilters.add(filter);
+        }
+        else if (qName.equals("trainVersionfilter")) {
+            final IVersionFilter filter = (IVersionFilter) Class
+                .forName("de.ugoe.cs.cpdp.versions." + attributes.getValue("name"))
+                .newInstance();
+            filter.setParameter(attributes.getValue("param"));
+            this.trainingVersionFilters.add(filter);
+        }
+        else if (qName.equals("setwisepreprocessor")) {
+            final ISetWiseProcessingStrategy processor = (ISetWiseProcessingStrategy) Class
+                .forName("de.ugoe.cs.cpdp.dataprocessing." + attributes.getValue("name"))
+                .newInstance();
+            processor.setParameter(attributes.getValue("param"));
+            this.setwisepreprocessors.add(processor);
+        }
+        else if (qName.equals("setwiseselector")) {
+            final ISetWiseDataselectionStrategy selection =
+                (ISetWiseDataselectionStrategy) Class
+                    .forName("de.ugoe.cs.cpdp.dataselection." + attributes.getValue("name"))
+                    .newInstance();
+            selection.setParameter(attributes.getValue("param"));
+            this.setwiseselectors.add(selection);
+        }
+        else if (qName.equals("setwisepostprocessor")) {
+            final ISetWiseProcessingStrategy processor = (ISetWiseProcessingStrategy) Class
+                .forName("de.ugoe.cs.cpdp.dataprocessing." + attributes.getValue("name"))
+                .newInstance();
+            processor.setParameter(attributes.getValue("param"));
+            this.setwisepostprocessors.add(processor);
+        }
+        else if (qName.equals("setwisetrainer")) {
+            final ISetWiseTrainingStrategy trainer = (ISetWiseTrainingStrategy) Class
+                .forName("de.ugoe.cs.cpdp.training." + attributes.getValue("name"))
+                .newInstance();
+            trainer.setParameter(attributes.getValue("param"));
+            this.setwiseTrainers.add(trainer);
+        }
+        else if (qName.equals("setwisetestdataawaretrainer")) {
+            final ISetWiseTestdataAwareTrainingStrategy trainer =
+                (ISetWiseTestdataAwareTrainingStrategy) Class
+                    .forName("de.ugoe.cs.cpdp.training." + attributes.getValue("name"))
+                    .newInstance();
+            trainer.setParameter(attributes.getValue("param"));
+            trainer.setMethod(attributes.getValue("method"));
+            trainer.setThreshold(attributes.getValue("threshold"));
+            this.setwiseTestdataAwareTrainers.add(trainer);
+        }
+        else if (qName.equals("preprocessor")) {
+            final IProcessesingStrategy processor = (IProcessesingStrategy) Class
+                .forName("de.ugoe.cs.cpdp.dataprocessing." + attributes.getValue("name"))
+                .newInstance();
+            processor.setParameter(attributes.getValue("param"));
+            this.preprocessors.add(processor);
+        }
+        else if (qName.equals("pointwiseselector")) {
+            final IPointWiseDataselectionStrategy selection =
+                (IPointWiseDataselectionStrategy) Class
+                    .forName("de.ugoe.cs.cpdp.dataselection." + attributes.getValue("name"))
+                    .newInstance();
+            selection.setParameter(attributes.getValue("param"));
+            this.pointwiseselectors.add(selection);
+        }
+        else if (qName.equals("postprocessor")) {
+            final IProcessesingStrategy processor = (IProcessesingStrategy) Class
+                .forName("de.ugoe.cs.cpdp.dataprocessing." + attributes.getValue("name"))
+                .newInstance();
+            processor.setParameter(attributes.getValue("param"));
+            this.postprocessors.add(processor);
+        }
+        else if (qName.equals("trainer")) {
+            final ITrainingStrategy trainer = (ITrainingStrategy) Class
+                .forName("de.ugoe.cs.cpdp.training." + attributes.getValue("name"))
+                .newInstance();
+            trainer.setParameter(attributes.getValue("param"));
+            this.trainers.add(trainer);
+        }
+        else if (qName.equals("testawaretrainer")) {
+            final ITestAwareTrainingStrategy trainer = (ITestAwareTrainingStrategy) Class
+                .forName("de.ugoe.cs.cpdp.training." + attributes.getValue("name"))
+                .newInstance();
+            trainer.setParameter(attributes.getValue("param"));
+            this.testAwareTrainers.add(trainer);
+        }
+        else if (qName.equals("eval")) {
+            final IEvaluationStrategy evaluator = (IEvaluationStrategy) Class
+                .forName("de.ugoe.cs.cpdp.eval." + attributes.getValue("name")).newInstance();
+            this.evaluators.add(evaluator);
+        }
+    }
+
     /**
      * Adds the information of another experiment configuration to this configuration. This
      * mechanism allows the usage of partial configuration files. The name of the other
@@ -672,6 +871,12 @@ public class ExperimentConfiguration extends DefaultHandler {
         this.postprocessors.addAll(other.postprocessors);
         this.trainers.addAll(other.trainers);
         this.evaluators.addAll(other.evaluators);
+        for (Entry<String, Attributes> declaration : other.strategyDeclarations) {
+            // test aware trainers of partial configurations are not added
+            if (!"testawaretrainer".equals(declaration.getKey())) {
+                this.strategyDeclarations.add(declaration);
+            }
+        }
 
         if (!this.executionStrategy.equals(other.executionStrategy)) {
             throw new ExperimentConfigurationException("Executionstrategies must be the same, if config files should be added.");
@@ -721,6 +926,10 @@ public class ExperimentConfiguration extends DefaultHandler {
         builder.append("Evaluators: " + this.evaluators.toString() + StringTools.ENDLINE);
         builder.append("Save Classifier?: " + this.saveClassifier + StringTools.ENDLINE);
         builder.append("Execution Strategy: " + this.executionStrategy + StringTools.ENDLINE);
+        builder.append("Parallel test versions: " + this.versionParallelism + StringTools.ENDLINE);
+        builder.append("Parallel trainers: " + this.trainerParallelism + StringTools.ENDLINE);
+        builder.append("Parallel repetitions: " + this.repetitionParallelism + StringTools.ENDLINE);
+        builder.append("Parallel loading: " + this.loadingParallelism + StringTools.ENDLINE);
 
         return builder.toString();
     }
@@ -17,12 +17,22 @@ package de.ugoe.cs.cpdp;
 import java.io.File;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Timer;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
+import de.ugoe.cs.cpdp.execution.ExperimentWatcher;
 import de.ugoe.cs.cpdp.execution.IExecutionStrategy;
+import de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy;
+import de.ugoe.cs.cpdp.execution.PipelineProfiler;
+import de.ugoe.cs.cpdp.execution.RuntimeHistory;
+import de.ugoe.cs.cpdp.execution.VersionTaskScheduler;
+import de.ugoe.cs.cpdp.loader.IVersionLoader;
+import de.ugoe.cs.cpdp.loader.VersionCache;
 import de.ugoe.cs.util.console.Console;
 import de.ugoe.cs.util.console.TextConsole;
 
@@ -34,40 +44,153 @@ import de.ugoe.cs.util.console.TextConsole;
  */
 public class Runner {
 
+    /**
+     * command line option that activates the fine-grained scheduling of experiments
+     */
+    private static final String FINE_GRAINED_OPTION = "-finegrained";
+
+    /**
+     * file in which the runtimes for the fine-grained scheduling are stored
+     */
+    private static final String RUNTIME_HISTORY_FILE = "runtimes.properties";
+
+    /**
+     * command line option that activates the profiling of the strategies
+     */
+    private static final String PROFILE_OPTION = "-profile";
+
+    /**
+     * base name of the files to which the profile is written
+     */
+    private static final String PROFILE_FILE = "profile";
+
+    /**
+     * command line option that activates the watch mode
+     */
+    private static final String WATCH_OPTION = "-watch";
+
+    /**
+     * time in milliseconds between two checks of the data folders in the watch mode
+     */
+    private static final long WATCH_PERIOD = 10000;
+
     /**
      * Main class. The arguments are {@link ExperimentConfiguration} files. Each experiment is
      * started in a separate thread. The number of concurrently running threads is the number of
-     * logical processors of the host system.
+     * logical processors of the host system. The data is loaded through the {@link VersionCache},
+     * i.e., experiments that use the same data share the loaded versions.<br>
+     * <br>
+     * If the option -finegrained is passed, the experiments are split into one task per test
+     * version, if supported by the execution strategy. The tasks of all experiments are executed
+     * on a work-stealing thread pool, ordered by the runtimes recorded in earlier executions
+     * (longest first). The runtimes are stored in the file runtimes.properties in the working
+     * directory.<br>
+     * <br>
+     * If the option -profile is passed, the wall time, CPU time, and allocated bytes of all
+     * strategy invocations are measured through the {@link PipelineProfiler}. The profile is
+     * written to the files profile.csv and profile.json in the working directory.<br>
+     * <br>
+     * If the option -watch is passed, the experiments are executed once and then updated through
+     * {@link ExperimentWatcher}s whenever the data changes, until the process is terminated. The
+     * updates only execute the test versions that depend on added, changed, or removed versions
+     * and append their results. Experiments that are not version-wise are only executed once.
      * 
      * @param args
-     *            experiment configuration files
+     *            experiment configuration files; optionally preceded by -finegrained, -profile,
+     *            and -watch
      */
     @SuppressWarnings("unused")
     public static void main(String[] args) {
         new TextConsole(Level.FINE);
         final int concurrentThreads = Runtime.getRuntime().availableProcessors();
         Console.traceln(Level.FINE, "exuection max " + concurrentThreads + " at the same time");
-        final ExecutorService threadPool = Executors.newFixedThreadPool(concurrentThreads);
+        boolean fineGrained = false;
+        boolean watch = false;
+        // all experiments are created before the first one is started such that all loaders are
+        // registered with the version cache before any data is loaded
+        final List<IExecutionStrategy> experiments = new LinkedList<>();
         for (String arg : args) {
+            if (FINE_GRAINED_OPTION.equals(arg)) {
+                fineGrained = true;
+                continue;
+            }
+            if (PROFILE_OPTION.equals(arg)) {
+                PipelineProfiler.getInstance().setEnabled(true);
+                continue;
+            }
+            if (WATCH_OPTION.equals(arg)) {
+                watch = true;
+                continue;
+            }
             File file = new File(arg);
             if (file.isFile()) {
-                createConfig(threadPool, file.getAbsolutePath());
+                addExperiment(experiments, file.getAbsolutePath());
             }
             else if (file.isDirectory() && file.listFiles() != null) {
                 for (File subfile : file.listFiles()) {
                     if (subfile.isFile()) {
-                        createConfig(threadPool, subfile.getAbsolutePath());
+                        addExperiment(experiments, subfile.getAbsolutePath());
                     }
                 }
             }
         }
-        threadPool.shutdown();
-        try {
-            threadPool.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+        if (watch) {
+            watch(experiments, concurrentThreads);
+            return;
         }
-        catch (InterruptedException e) {
-            e.printStackTrace();
+        if (fineGrained) {
+            RuntimeHistory history = new RuntimeHistory(RUNTIME_HISTORY_FILE);
+            VersionTaskScheduler scheduler = new VersionTaskScheduler(concurrentThreads, history);
+            for (IExecutionStrategy experiment : experiments) {
+                scheduler.addExperiment(experiment);
+            }
+            scheduler.run();
+        }
+        else {
+            final ExecutorService threadPool = Executors.newFixedThreadPool(concurrentThreads);
+            for (IExecutionStrategy experiment : experiments) {
+                threadPool.execute(experiment);
+            }
+            threadPool.shutdown();
+            try {
+                threadPool.awaitTermination(Long.MAX_VALUE, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        }
+        if (PipelineProfiler.getInstance().isEnabled()) {
+            PipelineProfiler.getInstance().writeCSV(PROFILE_FILE + ".csv");
+            PipelineProfiler.getInstance().writeJSON(PROFILE_FILE + ".json");
+        }
+    }
+
+    /**
+     * Executes the experiments in the watch mode. The first updates of the experiments are
+     * executed concurrently by a thread pool. Afterwards, the data folders are watched by a timer
+     * thread, which keeps the process alive after this method returns.
+     * 
+     * @param experiments
+     *            the experiments
+     * @param concurrentThreads
+     *            number of experiments whose first update is executed concurrently
+     */
+    private static void watch(List<IExecutionStrategy> experiments, int concurrentThreads) {
+        final Timer timer = new Timer("experiment watcher");
+        final ExecutorService threadPool = Executors.newFixedThreadPool(concurrentThreads);
+        for (IExecutionStrategy experiment : experiments) {
+            if (experiment instanceof IVersionWiseExecutionStrategy) {
+                final ExperimentWatcher watcher =
+                    new ExperimentWatcher((IVersionWiseExecutionStrategy) experiment);
+                threadPool.execute(() -> watcher.start(timer, WATCH_PERIOD));
+            }
+            else {
+                Console.traceln(Level.WARNING, experiment.getClass().getSimpleName() +
+                    " does not support the watch mode; the experiment is only executed once");
+                threadPool.execute(experiment);
+            }
         }
+        threadPool.shutdown();
     }
 
     /**
@@ -79,6 +202,36 @@ public class Runner {
      *            location of the config file
      */
     public static void createConfig(ExecutorService threadPool, String configFile) {
+        IExecutionStrategy experiment = createExperiment(configFile);
+        if (experiment != null) {
+            threadPool.execute(experiment);
+        }
+    }
+
+    /**
+     * Creates the experiment for a config and adds it to a list of experiments
+     * 
+     * @param experiments
+     *            list to which the experiment is added
+     * @param configFile
+     *            location of the config file
+     */
+    private static void addExperiment(List<IExecutionStrategy> experiments, String configFile) {
+        IExecutionStrategy experiment = createExperiment(configFile);
+        if (experiment != null) {
+            experiments.add(experiment);
+        }
+    }
+
+    /**
+     * Creates the config and the corresponding experiment. The loaders of the experiment are
+     * registered with the {@link VersionCache}.
+     * 
+     * @param configFile
+     *            location of the config file
+     * @return the experiment; null if the experiment could not be created
+     */
+    public static IExecutionStrategy createExperiment(String configFile) {
         ExperimentConfiguration config = null;
         try {
             config = new ExperimentConfiguration(configFile);
@@ -108,7 +261,10 @@ public class Runner {
                     ((IParameterizable) experiment).setParameter(config.getExecutionStrategyParameters());
                 }
                 
-                threadPool.execute(experiment);
+                for (IVersionLoader loader : config.getLoaders()) {
+                    VersionCache.getInstance().register(loader);
+                }
+                return experiment;
             }
             catch (NoSuchMethodException e) {
                 Console.printerrln("Class \"" + config.getExecutionStrategy() +
@@ -144,6 +300,6 @@ public class Runner {
             }
 
         }
-
+        return null;
     }
 }
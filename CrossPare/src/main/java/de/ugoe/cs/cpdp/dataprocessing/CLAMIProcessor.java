@@ -21,8 +21,8 @@ import java.util.logging.Level;
 
 import org.apache.commons.math3.stat.descriptive.rank.Median;
 
+import de.ugoe.cs.cpdp.util.DataMatrix;
 import de.ugoe.cs.util.console.Console;
-import weka.core.Instance;
 import weka.core.Instances;
 
 /**
@@ -78,24 +78,24 @@ public class CLAMIProcessor implements IProcessesingStrategy {
     @SuppressWarnings("boxing")
     private static void applyCLAMI(Instances testdata, Instances data) {
 
+        DataMatrix matrix = DataMatrix.get(data);
         // first determine medians
         double[] medians = new double[data.numAttributes()];
         // get medians
         for (int j = 0; j < data.numAttributes(); j++) {
             if (j != data.classIndex()) {
-                medians[j] = data.kthSmallestValue(j, (data.numInstances() + 1) >> 1);
+                medians[j] = matrix.getStatistics().getMedian(j);
             }
         }
+        double[] values = matrix.getRowMajor();
+        int numColumns = matrix.numColumns();
         // now determine cluster number for each instance
         double[] clusterNumber = new double[data.numInstances()];
         for (int i = 0; i < data.numInstances(); i++) {
             int countHighValues = 0;
-            Instance currentInstance = data.get(i);
-            for (int j = 0; j < data.numAttributes(); j++) {
-                if (j != data.classIndex()) {
-                    if (currentInstance.value(j) > medians[j]) {
-                        countHighValues++;
-                    }
+            for (int column = 0; column < numColumns; column++) {
+                if (values[i * numColumns + column] > medians[matrix.getAttributeIndex(column)]) {
+                    countHighValues++;
                 }
             }
             clusterNumber[i] = countHighValues;
@@ -107,22 +107,21 @@ public class CLAMIProcessor implements IProcessesingStrategy {
 
         // now we filter the metrics
         int[] numMetricViolations = new int[data.numAttributes()];
-        for (int j = 0; j < data.numAttributes(); j++) {
+        for (int column = 0; column < numColumns; column++) {
+            int j = matrix.getAttributeIndex(column);
             int currentViolations = 0;
             for (int i = 0; i < data.numInstances(); i++) {
-                Instance currentInstance = data.get(i);
-                if (j != data.classIndex()) {
-                    if (clusterNumber[i] > medianClusterNumber) {
-                        // "buggy"
-                        if (currentInstance.value(j) <= medians[j]) {
-                            currentViolations++;
-                        }
+                double value = values[i * numColumns + column];
+                if (clusterNumber[i] > medianClusterNumber) {
+                    // "buggy"
+                    if (value <= medians[j]) {
+                        currentViolations++;
                     }
-                    else {
-                        // "not buggy"
-                        if (currentInstance.value(j) > medians[j]) {
-                            currentViolations++;
-                        }
+                }
+                else {
+                    // "not buggy"
+                    if (value > medians[j]) {
+                        currentViolations++;
                     }
                 }
             }
@@ -152,18 +151,19 @@ public class CLAMIProcessor implements IProcessesingStrategy {
             numCleanBugfreeInstances = 0;
             for (int i = 0; i < data.numInstances(); i++) {
                 int currentViolations = 0;
-                Instance currentInstance = data.get(i);
-                for (int j = 0; j < data.numAttributes(); j++) {
-                    if (j != data.classIndex() && numMetricViolations[j] == violationCutoff) {
+                for (int column = 0; column < numColumns; column++) {
+                    int j = matrix.getAttributeIndex(column);
+                    if (numMetricViolations[j] == violationCutoff) {
+                        double value = values[i * numColumns + column];
                         if (clusterNumber[i] > medianClusterNumber) {
                             // "buggy"
-                            if (currentInstance.value(j) <= medians[j]) {
+                            if (value <= medians[j]) {
                                 currentViolations++;
                             }
                         }
                         else {
                             // "not buggy"
-                            if (currentInstance.value(j) > medians[j]) {
+                            if (value > medians[j]) {
                                 currentViolations++;
                             }
                         }
@@ -18,6 +18,7 @@ import java.util.Arrays;
 
 import org.apache.commons.math3.stat.descriptive.rank.Median;
 
+import de.ugoe.cs.cpdp.util.DataStatistics;
 import weka.core.Instance;
 import weka.core.Instances;
 
@@ -67,9 +68,10 @@ public class CLAProcessor implements IProcessesingStrategy {
         // first determine medians
         double[] medians = new double[data.numAttributes()];
         // get medians
+        DataStatistics statistics = DataStatistics.get(data);
         for (int j = 0; j < data.numAttributes(); j++) {
             if (j != data.classIndex()) {
-                medians[j] = data.kthSmallestValue(j, (data.numInstances() + 1) >> 1);
+                medians[j] = statistics.getMedian(j);
             }
         }
         // now determine cluster number for each instance
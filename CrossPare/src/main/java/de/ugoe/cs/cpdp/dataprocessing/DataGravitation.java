@@ -16,8 +16,9 @@ package de.ugoe.cs.cpdp.dataprocessing;
 
 import org.apache.commons.collections4.list.SetUniqueList;
 
+import de.ugoe.cs.cpdp.util.DataMatrix;
+import de.ugoe.cs.cpdp.util.DataStatistics;
 import weka.core.Attribute;
-import weka.core.Instance;
 import weka.core.Instances;
 
 /**
@@ -68,21 +69,23 @@ public class DataGravitation implements IProcessesingStrategy, ISetWiseProcessin
         double[] weights = new double[traindata.numInstances()];
         double weightsum = 0.0;
 
+        DataStatistics statistics = DataStatistics.get(testdata);
         for (int j = 0; j < testdata.numAttributes(); j++) {
             if (testdata.attribute(j) != classAtt) {
-                minAttValues[j] = testdata.attributeStats(j).numericStats.min;
-                maxAttValues[j] = testdata.attributeStats(j).numericStats.max;
+                minAttValues[j] = statistics.getMin(j);
+                maxAttValues[j] = statistics.getMax(j);
             }
         }
 
+        DataMatrix matrix = DataMatrix.get(traindata);
+        double[] values = matrix.getRowMajor();
         for (int i = 0; i < traindata.numInstances(); i++) {
-            Instance inst = traindata.instance(i);
             int similar = 0;
-            for (int j = 0; j < testdata.numAttributes(); j++) {
-                if (testdata.attribute(j) != classAtt) {
-                    if (inst.value(j) >= minAttValues[j] && inst.value(j) <= maxAttValues[j]) {
-                        similar++;
-                    }
+            for (int column = 0; column < matrix.numColumns(); column++) {
+                int j = matrix.getAttributeIndex(column);
+                double value = values[i * matrix.numColumns() + column];
+                if (value >= minAttValues[j] && value <= maxAttValues[j]) {
+                    similar++;
                 }
             }
             weights[i] = similar / Math.sqrt(testdata.numAttributes() - similar);
@@ -18,10 +18,12 @@ import java.security.InvalidParameterException;
 import java.util.Random;
 
 import org.apache.commons.collections4.list.SetUniqueList;
-import org.apache.commons.math3.util.MathArrays;
 
+import de.ugoe.cs.cpdp.util.DataMatrix;
+import de.ugoe.cs.cpdp.util.DistanceKernels;
 import weka.core.Instance;
 import weka.core.Instances;
+import weka.core.Randomizable;
 
 /**
  * Implements the MORPH data privatization.
@@ -29,13 +31,18 @@ import weka.core.Instances;
  * 
  * @author Steffen Herbold
  */
-public class MORPH implements ISetWiseProcessingStrategy, IProcessesingStrategy {
+public class MORPH implements ISetWiseProcessingStrategy, IProcessesingStrategy, Randomizable {
 
     /**
      * random number generator for MORPH
      */
     Random rand = new Random();
 
+    /**
+     * seed of the random number generator; only used if it is set through {@link #setSeed(int)}
+     */
+    int seed = 0;
+
     /**
      * parameter alpha for MORPH, default is 0.15
      */
@@ -69,6 +76,28 @@ public class MORPH implements ISetWiseProcessingStrategy, IProcessesingStrategy
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see weka.core.Randomizable#setSeed(int)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setSeed(int seed) {
+        this.seed = seed;
+        this.rand = new Random(seed);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see weka.core.Randomizable#getSeed()
+     */
+    @Override
+    public int getSeed() {
+        return this.seed;
+    }
+
     /**
      * @see ISetWiseProcessingStrategy#apply(weka.core.Instances,
      *      org.apache.commons.collections4.list.SetUniqueList)
@@ -98,9 +127,38 @@ public class MORPH implements ISetWiseProcessingStrategy, IProcessesingStrategy
      *            data to which the processor is applied
      */
     public void applyMORPH(Instances data) {
-        for (int i = 0; i < data.numInstances(); i++) {
-            morphInstance(data.get(i), data);
+        DataMatrix matrix = DataMatrix.get(data);
+        double[] values = matrix.getRowMajor().clone();
+        double[][] numericVectors = getNumericVectors(matrix);
+        boolean[] numeric = getNumericColumns(matrix);
+        int numNumeric = 0;
+        for (boolean isNumeric : numeric) {
+            numNumeric += isNumeric ? 1 : 0;
         }
+        int numColumns = matrix.numColumns();
+        double[] classValues = matrix.getClassValues();
+        // the instances are morphed one after another, i.e., the search for the nearest unlike
+        // neighbor uses the already morphed values of the previous instances
+        for (int i = 0; i < matrix.numRows(); i++) {
+            double[] instanceVector = getInstanceVector(numericVectors[i], numNumeric);
+            int neighbor = getNearestUnlikeNeighbor(instanceVector, classValues[i], numericVectors,
+                                                    classValues);
+            if (neighbor == -1) {
+                throw new RuntimeException("could not find nearest unlike neighbor within the " +
+                    "data: " + data.relationName());
+            }
+            int tmp = 0;
+            for (int column = 0; column < numColumns; column++) {
+                if (numeric[column]) {
+                    double randVal = this.rand.nextDouble() * (this.beta - this.alpha) + this.alpha;
+                    double value = values[i * numColumns + column];
+                    values[i * numColumns + column] = value +
+                        randVal * (value - values[neighbor * numColumns + column]);
+                    numericVectors[i][tmp++] = values[i * numColumns + column];
+                }
+            }
+        }
+        DataMatrix.setValues(data, values);
     }
 
     /**
@@ -119,13 +177,14 @@ public class MORPH implements ISetWiseProcessingStrategy, IProcessesingStrategy
             throw new RuntimeException("could not find nearest unlike neighbor within the data: " +
                 data.relationName());
         }
+        double[] values = instance.toDoubleArray();
         for (int j = 0; j < data.numAttributes(); j++) {
             if (data.attribute(j) != data.classAttribute() && data.attribute(j).isNumeric()) {
                 double randVal = this.rand.nextDouble() * (this.beta - this.alpha) + this.alpha;
-                instance.setValue(j, instance.value(j) +
-                    randVal * (instance.value(j) - nearestUnlikeNeighbor.value(j)));
+                values[j] = values[j] + randVal * (values[j] - nearestUnlikeNeighbor.value(j));
             }
         }
+        DataMatrix.setValues(instance, values);
     }
 
     /**
@@ -140,34 +199,122 @@ public class MORPH implements ISetWiseProcessingStrategy, IProcessesingStrategy
      * @return nearest unlike instance
      */
     public static Instance getNearestUnlikeNeighbor(Instance instance, Instances data) {
-        Instance nearestUnlikeNeighbor = null;
-
+        DataMatrix matrix = DataMatrix.get(data);
         double[] instanceVector = new double[data.numAttributes() - 1];
-        int tmp = 0;
         for (int j = 0; j < data.numAttributes(); j++) {
             if (data.attribute(j) != data.classAttribute() && data.attribute(j).isNumeric()) {
-                instanceVector[tmp] = instance.value(j);
+                // known quirk of the original implementation: the index of the vector is never
+                // increased, i.e., only the first value is set; kept to reproduce earlier results
+                instanceVector[0] = instance.value(j);
             }
         }
+        int neighbor = getNearestUnlikeNeighbor(instanceVector, instance.classValue(),
+                                                getNumericVectors(matrix),
+                                                matrix.getClassValues());
+        return neighbor == -1 ? null : data.instance(neighbor);
+    }
 
+    /**
+     * <p>
+     * Determines the nearest unlike neighbor of an instance.
+     * </p>
+     *
+     * @param instanceVector
+     *            vector of the instance to which the nearest unlike neighbor is determined
+     * @param classValue
+     *            class value of the instance
+     * @param numericVectors
+     *            vectors of the numeric attributes of the data where the nearest unlike neighbor is
+     *            determined from
+     * @param classValues
+     *            class values of the data
+     * @return index of the nearest unlike instance; -1 if there is none
+     */
+    private static int getNearestUnlikeNeighbor(double[] instanceVector,
+                                                double classValue,
+                                                double[][] numericVectors,
+                                                double[] classValues)
+    {
+        int nearestUnlikeNeighbor = -1;
         double minDistance = Double.MAX_VALUE;
-        for (int i = 0; i < data.numInstances(); i++) {
-            if (instance.classValue() != data.instance(i).classValue()) {
-                double[] otherVector = new double[data.numAttributes() - 1];
-                tmp = 0;
-                for (int j = 0; j < data.numAttributes(); j++) {
-                    if (data.attribute(j) != data.classAttribute() &&
-                        data.attribute(j).isNumeric())
-                    {
-                        otherVector[tmp++] = data.instance(i).value(j);
-                    }
-                }
-                if (MathArrays.distance(instanceVector, otherVector) < minDistance) {
-                    minDistance = MathArrays.distance(instanceVector, otherVector);
-                    nearestUnlikeNeighbor = data.instance(i);
+        for (int i = 0; i < numericVectors.length; i++) {
+            if (classValue != classValues[i]) {
+                double distance = DistanceKernels.distance(instanceVector, numericVectors[i]);
+                if (distance < minDistance) {
+                    minDistance = distance;
+                    nearestUnlikeNeighbor = i;
                 }
             }
         }
         return nearestUnlikeNeighbor;
     }
+
+    /**
+     * <p>
+     * Creates the vector of an instance that is used for the search of the nearest unlike
+     * neighbor. The first value of the vector is the value of the last numeric attribute, all other
+     * values are zero.
+     * </p>
+     * <p>
+     * This is a known quirk of the original implementation, which never increased the index of
+     * the vector while copying the numeric values. The intended vector would contain all numeric
+     * values. The quirk is kept so that the results of earlier experiments are reproduced.
+     * </p>
+     *
+     * @param numericVector
+     *            values of the numeric attributes of the instance
+     * @param numNumeric
+     *            number of numeric attributes
+     * @return vector of the instance
+     */
+    private static double[] getInstanceVector(double[] numericVector, int numNumeric) {
+        double[] instanceVector = new double[numericVector.length];
+        if (numNumeric > 0) {
+            instanceVector[0] = numericVector[numNumeric - 1];
+        }
+        return instanceVector;
+    }
+
+    /**
+     * <p>
+     * Determines which columns of a matrix belong to numeric attributes.
+     * </p>
+     *
+     * @param matrix
+     *            the matrix
+     * @return true for the numeric columns
+     */
+    private static boolean[] getNumericColumns(DataMatrix matrix) {
+        boolean[] numeric = new boolean[matrix.numColumns()];
+        for (int column = 0; column < matrix.numColumns(); column++) {
+            numeric[column] = matrix.getAttribute(column).isNumeric();
+        }
+        return numeric;
+    }
+
+    /**
+     * <p>
+     * Creates the vectors of the instances that are used for the search of the nearest unlike
+     * neighbor. The vectors contain the values of the numeric attributes, followed by zeros for
+     * all other attributes except the class attribute.
+     * </p>
+     *
+     * @param matrix
+     *            matrix of the data
+     * @return vector of each instance
+     */
+    private static double[][] getNumericVectors(DataMatrix matrix) {
+        boolean[] numeric = getNumericColumns(matrix);
+        double[] values = matrix.getRowMajor();
+        double[][] numericVectors = new double[matrix.numRows()][matrix.numColumns()];
+        for (int i = 0; i < matrix.numRows(); i++) {
+            int tmp = 0;
+            for (int column = 0; column < matrix.numColumns(); column++) {
+                if (numeric[column]) {
+                    numericVectors[i][tmp++] = values[i * matrix.numColumns() + column];
+                }
+            }
+        }
+        return numericVectors;
+    }
 }
@@ -16,6 +16,7 @@ package de.ugoe.cs.cpdp.dataprocessing;
 
 import org.apache.commons.collections4.list.SetUniqueList;
 
+import de.ugoe.cs.cpdp.util.DataStatistics;
 import weka.core.Attribute;
 import weka.core.Instance;
 import weka.core.Instances;
@@ -56,11 +57,10 @@ public class MedianAsReference implements ISetWiseProcessingStrategy, IProcesses
         double[] currentmedian = new double[testdata.numAttributes()];
 
         // get medians
+        final DataStatistics testStatistics = DataStatistics.get(testdata);
         for (int j = 0; j < testdata.numAttributes(); j++) {
             if (testdata.attribute(j) != classAttribute) {
-                median[j] = testdata.kthSmallestValue(j, (testdata.numInstances() + 1) >> 1); // (>>2
-                                                                                              // ->
-                                                                                              // /2)
+                median[j] = testStatistics.getMedian(j);
             }
         }
 
@@ -68,14 +68,12 @@ public class MedianAsReference implements ISetWiseProcessingStrategy, IProcesses
         for (Instances traindata : traindataSet) {
             // get median of current training set
             traindataClassAttribute = traindata.classAttribute();
+            DataStatistics trainStatistics = DataStatistics.get(traindata);
             for (int j = 0; j < traindata.numAttributes(); j++) {
                 if (traindata.attribute(j) != traindataClassAttribute &&
                     traindata.attribute(j).isNumeric())
                 {
-                    currentmedian[j] =
-                        traindata.kthSmallestValue(j, (traindata.numInstances() + 1) >> 1); // (>>2
-                                                                                            // ->
-                                                                                            // /2)
+                    currentmedian[j] = trainStatistics.getMedian(j);
                 }
             }
             for (int i = 0; i < traindata.numInstances(); i++) {
@@ -104,22 +102,20 @@ public class MedianAsReference implements ISetWiseProcessingStrategy, IProcesses
         double[] currentmedian = new double[testdata.numAttributes()];
 
         // get medians
+        final DataStatistics testStatistics = DataStatistics.get(testdata);
         for (int j = 0; j < testdata.numAttributes(); j++) {
             if (testdata.attribute(j) != classAttribute) {
-                median[j] = testdata.kthSmallestValue(j, (testdata.numInstances() + 1) >> 1); // (>>2
-                                                                                              // ->
-                                                                                              // /2)
+                median[j] = testStatistics.getMedian(j);
             }
         }
 
         // get median of current training set
+        final DataStatistics trainStatistics = DataStatistics.get(traindata);
         for (int j = 0; j < traindata.numAttributes(); j++) {
             if (traindata.attribute(j) != traindataClassAttribute &&
                 traindata.attribute(j).isNumeric())
             {
-                currentmedian[j] =
-                    traindata.kthSmallestValue(j, (traindata.numInstances() + 1) >> 1); // (>>2 ->
-                                                                                        // /2)
+                currentmedian[j] = trainStatistics.getMedian(j);
             }
         }
 
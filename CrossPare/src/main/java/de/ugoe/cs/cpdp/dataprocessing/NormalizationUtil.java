@@ -16,7 +16,8 @@ package de.ugoe.cs.cpdp.dataprocessing;
 
 import org.apache.commons.collections4.list.SetUniqueList;
 
-import weka.core.Instance;
+import de.ugoe.cs.cpdp.util.DataMatrix;
+import de.ugoe.cs.cpdp.util.DataStatistics;
 import weka.core.Instances;
 
 /**
@@ -38,24 +39,24 @@ public class NormalizationUtil {
      *            data that is normalized
      */
     public static void minMax(Instances data) {
-        for (int j = 0; j < data.numAttributes(); j++) {
-            if (data.classIndex() != j) {
-                double min = data.attributeStats(j).numericStats.min;
-                double max = data.attributeStats(j).numericStats.max;
-
-                for (int i = 0; i < data.numInstances(); i++) {
-                    Instance inst = data.instance(i);
-                    if (max - min == 0.0) {
-                        inst.setValue(j, 0.0);
-                    }
-                    else {
-                        double newValue = (inst.value(j) - min) / (max - min);
-                        inst.setValue(j, newValue);
-                    }
-
+        DataMatrix matrix = DataMatrix.get(data);
+        DataStatistics statistics = matrix.getStatistics();
+        double[] values = matrix.getRowMajor().clone();
+        for (int column = 0; column < matrix.numColumns(); column++) {
+            int j = matrix.getAttributeIndex(column);
+            double min = statistics.getMin(j);
+            double max = statistics.getMax(j);
+
+            for (int i = column; i < values.length; i += matrix.numColumns()) {
+                if (max - min == 0.0) {
+                    values[i] = 0.0;
+                }
+                else {
+                    values[i] = (values[i] - min) / (max - min);
                 }
             }
         }
+        DataMatrix.setValues(data, values);
     }
 
     /**
@@ -71,10 +72,11 @@ public class NormalizationUtil {
         final double[] std = new double[data.numAttributes()];
 
         // get means and stddevs of data
+        final DataStatistics statistics = DataStatistics.get(data);
         for (int j = 0; j < data.numAttributes(); j++) {
             if (data.classIndex() != j) {
-                mean[j] = data.meanOrMode(j);
-                std[j] = Math.sqrt(data.variance(j));
+                mean[j] = statistics.meanOrMode(j);
+                std[j] = Math.sqrt(statistics.variance(j));
             }
         }
         applyZScore(data, mean, std);
@@ -96,10 +98,11 @@ public class NormalizationUtil {
         final double[] std = new double[testdata.numAttributes()];
 
         // get means of training
+        final DataStatistics statistics = DataStatistics.get(traindata);
         for (int j = 0; j < traindata.numAttributes(); j++) {
             if (traindata.classIndex() != j) {
-                mean[j] = traindata.meanOrMode(j);
-                std[j] = Math.sqrt(traindata.variance(j));
+                mean[j] = statistics.meanOrMode(j);
+                std[j] = Math.sqrt(statistics.variance(j));
             }
         }
 
@@ -123,10 +126,11 @@ public class NormalizationUtil {
         final double[] std = new double[testdata.numAttributes()];
 
         // get means of testdata
+        final DataStatistics statistics = DataStatistics.get(testdata);
         for (int j = 0; j < testdata.numAttributes(); j++) {
             if (testdata.classIndex() != j) {
-                mean[j] = testdata.meanOrMode(j);
-                std[j] = Math.sqrt(testdata.variance(j));
+                mean[j] = statistics.meanOrMode(j);
+                std[j] = Math.sqrt(statistics.variance(j));
             }
         }
 
@@ -150,10 +154,11 @@ public class NormalizationUtil {
         final double[] std = new double[testdata.numAttributes()];
 
         // get means of testdata
+        final DataStatistics statistics = DataStatistics.get(testdata);
         for (int j = 0; j < testdata.numAttributes(); j++) {
             if (testdata.classIndex() != j) {
-                mean[j] = testdata.meanOrMode(j);
-                std[j] = Math.sqrt(testdata.variance(j));
+                mean[j] = statistics.meanOrMode(j);
+                std[j] = Math.sqrt(statistics.variance(j));
             }
         }
 
@@ -169,19 +174,20 @@ public class NormalizationUtil {
      * </p>
      */
     private static void applyZScore(Instances data, double[] mean, double[] std) {
-        for (int i = 0; i < data.numInstances(); i++) {
-            Instance instance = data.instance(i);
-            for (int j = 0; j < data.numAttributes(); j++) {
-                if (data.classIndex() != j) {
-                    if (std[j] == 0.0) {
-                        // in case of zero standard deviation just use mean centering
-                        instance.setValue(j, instance.value(j) - mean[j]);
-                    }
-                    else {
-                        instance.setValue(j, instance.value(j) - mean[j] / std[j]);
-                    }
+        DataMatrix matrix = DataMatrix.get(data);
+        double[] values = matrix.getRowMajor().clone();
+        for (int column = 0; column < matrix.numColumns(); column++) {
+            int j = matrix.getAttributeIndex(column);
+            for (int i = column; i < values.length; i += matrix.numColumns()) {
+                if (std[j] == 0.0) {
+                    // in case of zero standard deviation just use mean centering
+                    values[i] = values[i] - mean[j];
+                }
+                else {
+                    values[i] = values[i] - mean[j] / std[j];
                 }
             }
         }
+        DataMatrix.setValues(data, values);
     }
 }
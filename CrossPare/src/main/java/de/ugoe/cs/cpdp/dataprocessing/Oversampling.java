@@ -17,6 +17,7 @@ package de.ugoe.cs.cpdp.dataprocessing;
 import org.apache.commons.collections4.list.SetUniqueList;
 
 import weka.core.Instances;
+import weka.core.Randomizable;
 import weka.filters.Filter;
 import weka.filters.supervised.instance.Resample;
 
@@ -29,7 +30,14 @@ import weka.filters.supervised.instance.Resample;
  * 
  * @author Steffen Herbold
  */
-public class Oversampling implements IProcessesingStrategy, ISetWiseProcessingStrategy {
+public class Oversampling
+    implements IProcessesingStrategy, ISetWiseProcessingStrategy, Randomizable
+{
+
+    /**
+     * seed of the resampling; 1 is the default of the Weka {@link Resample} filter
+     */
+    private int seed = 1;
 
     /**
      * Does not have parameters. String is ignored.
@@ -42,6 +50,27 @@ public class Oversampling implements IProcessesingStrategy, ISetWiseProcessingSt
         // dummy
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see weka.core.Randomizable#setSeed(int)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setSeed(int seed) {
+        this.seed = seed;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see weka.core.Randomizable#getSeed()
+     */
+    @Override
+    public int getSeed() {
+        return this.seed;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -79,6 +108,7 @@ public class Oversampling implements IProcessesingStrategy, ISetWiseProcessingSt
             }
 
             Resample resample = new Resample();
+            resample.setRandomSeed(this.seed);
             resample.setSampleSizePercent((100.0 * counts[0]) / counts[1]);
             try {
                 resample.setInputFormat(traindata);
@@ -17,6 +17,7 @@ package de.ugoe.cs.cpdp.dataprocessing;
 import org.apache.commons.collections4.list.SetUniqueList;
 
 import weka.core.Instances;
+import weka.core.Randomizable;
 import weka.filters.Filter;
 import weka.filters.supervised.instance.Resample;
 
@@ -25,7 +26,14 @@ import weka.filters.supervised.instance.Resample;
  * 
  * @author Steffen Herbold
  */
-public class Resampling implements IProcessesingStrategy, ISetWiseProcessingStrategy {
+public class Resampling
+    implements IProcessesingStrategy, ISetWiseProcessingStrategy, Randomizable
+{
+
+    /**
+     * seed of the resampling; 1 is the default of the Weka {@link Resample} filter
+     */
+    private int seed = 1;
 
     /**
      * Does not have parameters. String is ignored.
@@ -38,6 +46,27 @@ public class Resampling implements IProcessesingStrategy, ISetWiseProcessingStra
         // dummy
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see weka.core.Randomizable#setSeed(int)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setSeed(int seed) {
+        this.seed = seed;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see weka.core.Randomizable#getSeed()
+     */
+    @Override
+    public int getSeed() {
+        return this.seed;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -60,6 +89,7 @@ public class Resampling implements IProcessesingStrategy, ISetWiseProcessingStra
     @Override
     public void apply(Instances testdata, Instances traindata) {
         Resample resample = new Resample();
+        resample.setRandomSeed(this.seed);
         resample.setSampleSizePercent(100);
         resample.setBiasToUniformClass(1.0);
 
@@ -24,10 +24,11 @@ import org.ojalgo.scalar.ComplexNumber;
 import org.ojalgo.access.Access2D.Builder;
 import org.ojalgo.array.Array1D;
 
+import de.ugoe.cs.cpdp.util.DataMatrix;
+import de.ugoe.cs.cpdp.util.DistanceKernels;
 import de.ugoe.cs.cpdp.util.SortUtils;
 import de.ugoe.cs.util.console.Console;
 import weka.core.Attribute;
-import weka.core.Instance;
 import weka.core.Instances;
 
 /**
@@ -66,27 +67,6 @@ public class TransferComponentAnalysis implements IProcessesingStrategy {
         applyTCA(testdata, traindata);
     }
 
-    /**
-     * <p>
-     * calculates the linear kernel function between two instances
-     * </p>
-     *
-     * @param x1
-     *            first instance
-     * @param x2
-     *            second instance
-     * @return kernel value
-     */
-    private static double linearKernel(Instance x1, Instance x2) {
-        double value = 0.0d;
-        for (int j = 0; j < x1.numAttributes(); j++) {
-            if (j != x1.classIndex()) {
-                value += x1.value(j) * x2.value(j);
-            }
-        }
-        return value;
-    }
-
     /**
      * <p>
      * Applies TCA to the test and training data.
@@ -173,37 +153,15 @@ public class TransferComponentAnalysis implements IProcessesingStrategy {
     private static PrimitiveMatrix buildKernel(Instances testdata, Instances traindata) {
         final int kernelDim = traindata.numInstances() + testdata.numInstances();
 
-        Builder<PrimitiveMatrix> kernelBuilder = PrimitiveMatrix.getBuilder(kernelDim, kernelDim);
-        // built upper left quadrant (source, source)
-        for (int i = 0; i < traindata.numInstances(); i++) {
-            for (int j = 0; j < traindata.numInstances(); j++) {
-                kernelBuilder.set(i, j, linearKernel(traindata.get(i), traindata.get(j)));
-            }
-        }
+        // the source data comes first, followed by the target data
+        double[][] rows = new double[kernelDim][];
+        System.arraycopy(DataMatrix.get(traindata).getRows(), 0, rows, 0,
+                         traindata.numInstances());
+        System.arraycopy(DataMatrix.get(testdata).getRows(), 0, rows, traindata.numInstances(),
+                         testdata.numInstances());
 
-        // built upper right quadrant (source, target)
-        for (int i = 0; i < traindata.numInstances(); i++) {
-            for (int j = 0; j < testdata.numInstances(); j++) {
-                kernelBuilder.set(i, j + traindata.numInstances(),
-                                  linearKernel(traindata.get(i), testdata.get(j)));
-            }
-        }
-
-        // built lower left quadrant (target, source)
-        for (int i = 0; i < testdata.numInstances(); i++) {
-            for (int j = 0; j < traindata.numInstances(); j++) {
-                kernelBuilder.set(i + traindata.numInstances(), j,
-                                  linearKernel(testdata.get(i), traindata.get(j)));
-            }
-        }
-
-        // built lower right quadrant (target, target)
-        for (int i = 0; i < testdata.numInstances(); i++) {
-            for (int j = 0; j < testdata.numInstances(); j++) {
-                kernelBuilder.set(i + traindata.numInstances(), j + traindata.numInstances(),
-                                  linearKernel(testdata.get(i), testdata.get(j)));
-            }
-        }
+        Builder<PrimitiveMatrix> kernelBuilder = PrimitiveMatrix.getBuilder(kernelDim, kernelDim);
+        DistanceKernels.linearKernel(rows, kernelBuilder::set);
         return kernelBuilder.build();
     }
 
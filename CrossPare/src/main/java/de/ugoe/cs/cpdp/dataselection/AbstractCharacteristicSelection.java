@@ -18,6 +18,7 @@ import java.util.ArrayList;
 
 import org.apache.commons.collections4.list.SetUniqueList;
 
+import de.ugoe.cs.cpdp.util.DataStatistics;
 import weka.core.Attribute;
 import weka.core.DenseInstance;
 import weka.core.Instance;
@@ -82,10 +83,11 @@ public abstract class AbstractCharacteristicSelection implements ISetWiseDatasel
 
         // setup data for clustering
         double[] instanceValues = new double[atts.size()];
+        DataStatistics testStatistics = DataStatistics.get(testdata);
         for (int i = 0; i < testdata.numAttributes(); i++) {
             Attribute dataAtt = testdata.attribute(i);
             if (!dataAtt.equals(classAtt)) {
-                Stats stats = testdata.attributeStats(i).numericStats;
+                Stats stats = testStatistics.getAttributeStats(i).numericStats;
                 for (int j = 0; j < this.characteristics.length; j++) {
                     if ("mean".equals(this.characteristics[j])) {
                         instanceValues[i * this.characteristics.length + j] = stats.mean;
@@ -94,7 +96,8 @@ public abstract class AbstractCharacteristicSelection implements ISetWiseDatasel
                         instanceValues[i * this.characteristics.length + j] = stats.stdDev;
                     }
                     else if ("var".equals(this.characteristics[j])) {
-                        instanceValues[i * this.characteristics.length + j] = testdata.variance(j);
+                        instanceValues[i * this.characteristics.length + j] =
+                            testStatistics.variance(j);
                     }
                     else if ("max".equals(this.characteristics[j])) {
                         instanceValues[i * this.characteristics.length + j] = stats.max;
@@ -118,10 +121,11 @@ public abstract class AbstractCharacteristicSelection implements ISetWiseDatasel
 
         for (Instances traindata : traindataSet) {
             instanceValues = new double[atts.size()];
+            DataStatistics trainStatistics = DataStatistics.get(traindata);
             for (int i = 0; i < traindata.numAttributes(); i++) {
                 Attribute dataAtt = traindata.attribute(i);
                 if (!dataAtt.equals(classAtt)) {
-                    Stats stats = traindata.attributeStats(i).numericStats;
+                    Stats stats = trainStatistics.getAttributeStats(i).numericStats;
                     for (int j = 0; j < this.characteristics.length; j++) {
                         if ("mean".equals(this.characteristics[j])) {
                             instanceValues[i * this.characteristics.length + j] = stats.mean;
@@ -130,7 +134,8 @@ public abstract class AbstractCharacteristicSelection implements ISetWiseDatasel
                             instanceValues[i * this.characteristics.length + j] = stats.stdDev;
                         }
                         else if ("var".equals(this.characteristics[j])) {
-                            instanceValues[i * this.characteristics.length + j] = traindata.variance(j);
+                            instanceValues[i * this.characteristics.length + j] =
+                                trainStatistics.variance(j);
                         }
                         else if ("max".equals(this.characteristics[j])) {
                             instanceValues[i * this.characteristics.length + j] = stats.max;
@@ -18,6 +18,8 @@ import java.util.Arrays;
 
 import org.apache.commons.collections4.list.SetUniqueList;
 
+import de.ugoe.cs.cpdp.util.DataMatrix;
+import de.ugoe.cs.cpdp.util.DataStatistics;
 import weka.core.Instances;
 
 /**
@@ -83,33 +85,39 @@ public class CLIFF implements IPointWiseDataselectionStrategy, ISetWiseDataselec
         final double[][] powerAttributes = new double[data.size()][data.numAttributes()];
         final double[] powerEntity = new double[data.size()];
 
-        final int[] counts = data.attributeStats(data.classIndex()).nominalCounts;
+        final DataMatrix matrix = DataMatrix.get(data);
+        final DataStatistics statistics = matrix.getStatistics();
+        final double[] columns = matrix.getColumnMajor();
+        final double[] classValues = matrix.getClassValues();
+
+        final int[] counts = statistics.getNominalCounts(data.classIndex());
         final double probDefect = data.numInstances() / (double) counts[1];
 
-        for (int j = 0; j < data.numAttributes(); j++) {
-            if (data.attribute(j) != data.classAttribute()) {
-                final double[] ranges = getRanges(data, j);
-                final double[] probDefectRange = getRangeProbabilities(data, j, ranges);
-
-                for (int i = 0; i < data.numInstances(); i++) {
-                    final double value = data.instance(i).value(j);
-                    final int range = determineRange(ranges, value);
-                    double probClass, probNotClass, probRangeClass, probRangeNotClass;
-                    if (data.instance(i).classValue() == 1) {
-                        probClass = probDefect;
-                        probNotClass = 1.0 - probDefect;
-                        probRangeClass = probDefectRange[range];
-                        probRangeNotClass = 1.0 - probDefectRange[range];
-                    }
-                    else {
-                        probClass = 1.0 - probDefect;
-                        probNotClass = probDefect;
-                        probRangeClass = 1.0 - probDefectRange[range];
-                        probRangeNotClass = probDefectRange[range];
-                    }
-                    powerAttributes[i][j] = Math.pow(probRangeClass, 2.0) /
-                        (probRangeClass * probClass + probRangeNotClass * probNotClass);
+        for (int column = 0; column < matrix.numColumns(); column++) {
+            final int j = matrix.getAttributeIndex(column);
+            final double[] ranges = getRanges(statistics, data.numInstances(), j);
+            final int offset = column * matrix.numRows();
+            final double[] probDefectRange =
+                getRangeProbabilities(columns, offset, classValues, ranges);
+
+            for (int i = 0; i < data.numInstances(); i++) {
+                final double value = columns[offset + i];
+                final int range = determineRange(ranges, value);
+                double probClass, probNotClass, probRangeClass, probRangeNotClass;
+                if (classValues[i] == 1) {
+                    probClass = probDefect;
+                    probNotClass = 1.0 - probDefect;
+                    probRangeClass = probDefectRange[range];
+                    probRangeNotClass = 1.0 - probDefectRange[range];
+                }
+                else {
+                    probClass = 1.0 - probDefect;
+                    probNotClass = probDefect;
+                    probRangeClass = 1.0 - probDefectRange[range];
+                    probRangeNotClass = probDefectRange[range];
                 }
+                powerAttributes[i][j] = Math.pow(probRangeClass, 2.0) /
+                    (probRangeClass * probClass + probRangeNotClass * probNotClass);
             }
         }
 
@@ -138,18 +146,20 @@ public class CLIFF implements IPointWiseDataselectionStrategy, ISetWiseDataselec
      * Gets an array with the ranges from the data for a given attribute
      * </p>
      *
-     * @param data
-     *            the data
+     * @param statistics
+     *            statistics of the data
+     * @param size
+     *            number of instances of the data
      * @param j
      *            index of the attribute
      * @return the ranges for the attribute
      */
-    private double[] getRanges(Instances data, int j) {
+    private double[] getRanges(DataStatistics statistics, int size, int j) {
         double[] values = new double[this.numRanges + 1];
         for (int k = 0; k < this.numRanges; k++) {
-            values[k] = data.kthSmallestValue(j, (int) (data.size() * (k + 1.0) / this.numRanges));
+            values[k] = statistics.kthSmallestValue(j, (int) (size * (k + 1.0) / this.numRanges));
         }
-        values[this.numRanges] = data.attributeStats(j).numericStats.max;
+        values[this.numRanges] = statistics.getMax(j);
         return values;
     }
 
@@ -158,22 +168,28 @@ public class CLIFF implements IPointWiseDataselectionStrategy, ISetWiseDataselec
      * Gets the probabilities of a positive prediction for each range for a given attribute
      * </p>
      *
-     * @param data
-     *            the data
-     * @param j
-     *            index of the attribute
+     * @param columns
+     *            values of the data in column-major order
+     * @param offset
+     *            offset of the values of the attribute
+     * @param classValues
+     *            class values of the data
      * @param ranges
      *            the ranges
      * @return probabilities for each range
      */
-    private double[] getRangeProbabilities(Instances data, int j, double[] ranges) {
+    private double[] getRangeProbabilities(double[] columns,
+                                           int offset,
+                                           double[] classValues,
+                                           double[] ranges)
+    {
         double[] probDefectRange = new double[this.numRanges];
         int[] countRange = new int[this.numRanges];
         int[] countDefect = new int[this.numRanges];
-        for (int i = 0; i < data.numInstances(); i++) {
-            int range = determineRange(ranges, data.instance(i).value(j));
+        for (int i = 0; i < classValues.length; i++) {
+            int range = determineRange(ranges, columns[offset + i]);
             countRange[range]++;
-            if (data.instance(i).classValue() == 1) {
+            if (classValues[i] == 1) {
                 countDefect[range]++;
             }
 
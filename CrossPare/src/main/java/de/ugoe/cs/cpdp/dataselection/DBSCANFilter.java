@@ -27,6 +27,7 @@ import de.lmu.ifi.dbs.elki.database.relation.Relation;
 import de.lmu.ifi.dbs.elki.datasource.ArrayAdapterDatabaseConnection;
 import de.lmu.ifi.dbs.elki.datasource.DatabaseConnection;
 import de.lmu.ifi.dbs.elki.distance.distancefunction.minkowski.EuclideanDistanceFunction;
+import de.ugoe.cs.cpdp.util.DataMatrix;
 import weka.core.Instances;
 
 /**
@@ -54,26 +55,14 @@ public class DBSCANFilter implements IPointWiseDataselectionStrategy {
         Instances filteredTraindata = new Instances(traindata);
         filteredTraindata.clear();
 
-        double[][] data =
-            new double[testdata.size() + traindata.size()][testdata.numAttributes() - 1];
-        int classIndex = testdata.classIndex();
+        double[][] data = new double[testdata.size() + traindata.size()][];
+        DataMatrix testMatrix = DataMatrix.get(testdata);
         for (int i = 0; i < testdata.size(); i++) {
-            int k = 0;
-            for (int j = 0; j < testdata.numAttributes(); j++) {
-                if (j != classIndex) {
-                    data[i][k] = testdata.get(i).value(j);
-                    k++;
-                }
-            }
+            data[i] = testMatrix.getRow(i);
         }
+        DataMatrix trainMatrix = DataMatrix.get(traindata);
         for (int i = 0; i < traindata.size(); i++) {
-            int k = 0;
-            for (int j = 0; j < traindata.numAttributes(); j++) {
-                if (j != classIndex) {
-                    data[i + testdata.size()][k] = traindata.get(i).value(j);
-                    k++;
-                }
-            }
+            data[i + testdata.size()] = trainMatrix.getRow(i);
         }
         DatabaseConnection dbc = new ArrayAdapterDatabaseConnection(data);
         Database db = new StaticArrayDatabase(dbc, null);
@@ -20,12 +20,13 @@ import java.util.Random;
 
 import org.apache.commons.collections4.list.SetUniqueList;
 import org.apache.commons.math3.stat.descriptive.rank.Median;
-import org.apache.commons.math3.util.MathArrays;
 
 import de.ugoe.cs.cpdp.dataprocessing.MORPH;
+import de.ugoe.cs.cpdp.util.DistanceKernels;
 import de.ugoe.cs.cpdp.util.WekaUtils;
 import weka.core.Instance;
 import weka.core.Instances;
+import weka.core.Randomizable;
 import weka.filters.Filter;
 import weka.filters.unsupervised.instance.Resample;
 
@@ -36,13 +37,23 @@ import weka.filters.unsupervised.instance.Resample;
  * 
  * @author Steffen Herbold
  */
-public class LACE2 implements ISetWiseDataselectionStrategy {
+public class LACE2 implements ISetWiseDataselectionStrategy, Randomizable {
 
     /**
      * percentage of data selected by the internal CLIFF.
      */
     private double percentage = 0.10;
 
+    /**
+     * random number generator for the shuffling, sampling, and the internal MORPH
+     */
+    private Random rand = new Random();
+
+    /**
+     * seed of the random number generator; only used if it is set through {@link #setSeed(int)}
+     */
+    private int seed = 0;
+
     /*
      * (non-Javadoc)
      * 
@@ -55,6 +66,28 @@ public class LACE2 implements ISetWiseDataselectionStrategy {
         }
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see weka.core.Randomizable#setSeed(int)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setSeed(int seed) {
+        this.seed = seed;
+        this.rand = new Random(seed);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see weka.core.Randomizable#getSeed()
+     */
+    @Override
+    public int getSeed() {
+        return this.seed;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -67,11 +100,12 @@ public class LACE2 implements ISetWiseDataselectionStrategy {
         selectedData.clear();
 
         LinkedList<Instances> traindataCopy = new LinkedList<>(traindataSet);
-        Collections.shuffle(traindataCopy);
+        Collections.shuffle(traindataCopy, this.rand);
 
         CLIFF cliff = new CLIFF();
         cliff.setParameter(Double.toString(this.percentage));
         MORPH morph = new MORPH();
+        morph.setSeed(this.rand.nextInt());
         Median median = new Median();
         double minDist = Double.MIN_VALUE;
 
@@ -83,12 +117,11 @@ public class LACE2 implements ISetWiseDataselectionStrategy {
                 if (traindata.size() > 100) {
                     int countNoBug;
                     int countBug;
-                    Random rand = new Random();
                     do {
                         Resample resample = new Resample();
                         resample.setSampleSizePercent(100.0 / traindata.size() * 100.0);
                         resample.setNoReplacement(true);
-                        resample.setRandomSeed(rand.nextInt()); // otherwise seed not random
+                        resample.setRandomSeed(this.rand.nextInt()); // otherwise seed not random
                         try {
                             resample.setInputFormat(traindata);
                             sample = Filter.useFilter(traindata, resample);
@@ -107,8 +140,9 @@ public class LACE2 implements ISetWiseDataselectionStrategy {
                 double[] distances = new double[sample.size()];
                 for (int i = 0; i < sample.size(); i++) {
                     Instance unlikeNeighbor = MORPH.getNearestUnlikeNeighbor(sample.get(i), sample);
-                    distances[i] = MathArrays.distance(WekaUtils.instanceValues(sample.get(i)),
-                                                       WekaUtils.instanceValues(unlikeNeighbor));
+                    distances[i] =
+                        DistanceKernels.distance(WekaUtils.instanceValues(sample.get(i)),
+                                                 WekaUtils.instanceValues(unlikeNeighbor));
                 }
                 minDist = median.evaluate(distances);
             }
@@ -120,8 +154,8 @@ public class LACE2 implements ISetWiseDataselectionStrategy {
                 }
                 else {
                     double distance =
-                        MathArrays.distance(WekaUtils.instanceValues(cliffedData.get(i)),
-                                            WekaUtils.instanceValues(unlikeNeighbor));
+                        DistanceKernels.distance(WekaUtils.instanceValues(cliffedData.get(i)),
+                                                 WekaUtils.instanceValues(unlikeNeighbor));
                     if (distance > minDist) {
                         morph.morphInstance(cliffedData.get(i), cliffedData);
                         selectedData.add(cliffedData.get(i));
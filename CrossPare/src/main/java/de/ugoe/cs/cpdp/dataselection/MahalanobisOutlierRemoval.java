@@ -23,6 +23,7 @@ import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.SingularMatrixException;
 import org.apache.commons.math3.stat.correlation.Covariance;
 
+import de.ugoe.cs.cpdp.util.DataStatistics;
 import de.ugoe.cs.cpdp.util.WekaUtils;
 import de.ugoe.cs.util.console.Console;
 import weka.core.Instances;
@@ -108,10 +109,11 @@ public class MahalanobisOutlierRemoval
         }
         // create mean vector
         double[] meanValues = new double[data.numAttributes() - 1];
+        DataStatistics statistics = DataStatistics.get(data);
         int k = 0;
         for (int j = 0; j < data.numAttributes(); j++) {
             if (j != data.classIndex()) {
-                meanValues[k] = data.attributeStats(j).numericStats.mean;
+                meanValues[k] = statistics.getMean(j);
                 k++;
             }
         }
@@ -19,10 +19,9 @@ import java.util.LinkedList;
 import java.util.List;
 
 import org.apache.commons.collections4.list.SetUniqueList;
-import org.apache.commons.math3.util.MathArrays;
 
-import weka.core.Attribute;
-import weka.core.Instance;
+import de.ugoe.cs.cpdp.util.DataMatrix;
+import de.ugoe.cs.cpdp.util.DistanceKernels;
 import weka.core.Instances;
 
 /**
@@ -51,42 +50,22 @@ public class PetersFilter implements IPointWiseDataselectionStrategy {
     @SuppressWarnings("boxing")
     @Override
     public Instances apply(Instances testdata, Instances traindata) {
-        final Attribute classAttribute = testdata.classAttribute();
-
-        final double[][] testDoubles =
-            new double[testdata.numInstances()][testdata.numAttributes()];
-        for (int i = 0; i < testdata.numInstances(); i++) {
-            Instance instance = testdata.instance(i);
-            int tmp = 0;
-            for (int j = 0; j < testdata.numAttributes(); j++) {
-                if (testdata.attribute(j) != classAttribute) {
-                    testDoubles[i][tmp++] = instance.value(j);
-                }
-            }
-        }
-
-        final double[][] trainDoubles =
-            new double[traindata.numInstances()][testdata.numAttributes()];
-        for (int i = 0; i < traindata.numInstances(); i++) {
-            Instance instance = traindata.instance(i);
-            int tmp = 0;
-            for (int j = 0; j < testdata.numAttributes(); j++) {
-                if (testdata.attribute(j) != classAttribute) {
-                    trainDoubles[i][tmp++] = instance.value(j);
-                }
-            }
-        }
+        final double[][] testDoubles = DataMatrix.get(testdata).getRows();
+        final double[][] trainDoubles = DataMatrix.get(traindata).getRows();
 
         final List<List<Integer>> fanList = new ArrayList<>(testdata.numInstances());
         for (int i = 0; i < testdata.numInstances(); i++) {
             fanList.add(new LinkedList<Integer>());
         }
 
+        // the array of the distances is reused for all instances
+        double[] distances = null;
         for (int i = 0; i < traindata.numInstances(); i++) {
+            distances = DistanceKernels.distances(trainDoubles[i], testDoubles, distances);
             double minDistance = Double.MAX_VALUE;
             int minIndex = 0;
             for (int j = 0; j < testdata.numInstances(); j++) {
-                double distance = MathArrays.distance(trainDoubles[i], testDoubles[j]);
+                double distance = distances[j];
                 if (distance < minDistance) {
                     minDistance = distance;
                     minIndex = j;
@@ -101,7 +80,7 @@ public class PetersFilter implements IPointWiseDataselectionStrategy {
             double minDistance = Double.MAX_VALUE;
             int minIndex = -1;
             for (Integer j : fanList.get(i)) {
-                double distance = MathArrays.distance(testDoubles[i], trainDoubles[j]);
+                double distance = DistanceKernels.distance(testDoubles[i], trainDoubles[j]);
                 if (distance < minDistance && distance > 0.0d) {
                     minDistance = distance;
                     minIndex = j;
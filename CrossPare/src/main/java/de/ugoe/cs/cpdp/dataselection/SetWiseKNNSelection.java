@@ -18,8 +18,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.apache.commons.collections4.list.SetUniqueList;
-import org.apache.commons.math3.util.MathArrays;
 
+import de.ugoe.cs.cpdp.util.DistanceKernels;
 import weka.core.Instances;
 
 /**
@@ -68,11 +68,11 @@ public class SetWiseKNNSelection extends AbstractCharacteristicSelection {
      * @return index of the closest instance
      */
     private static int getClosest(Instances data) {
+        double[] first = data.instance(0).toDoubleArray();
         double closestDistance = Double.MAX_VALUE;
         int closestIndex = 1;
         for (int i = 1; i < data.numInstances(); i++) {
-            double distance = MathArrays.distance(data.instance(0).toDoubleArray(),
-                                                  data.instance(i).toDoubleArray());
+            double distance = DistanceKernels.distance(first, data.instance(i).toDoubleArray());
             if (distance < closestDistance) {
                 closestDistance = distance;
                 closestIndex = i;
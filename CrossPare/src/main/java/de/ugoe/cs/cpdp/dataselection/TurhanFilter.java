@@ -18,11 +18,10 @@ import java.util.LinkedList;
 import java.util.List;
 
 import org.apache.commons.collections4.list.SetUniqueList;
-import org.apache.commons.math3.util.MathArrays;
 
-import weka.core.Attribute;
-import weka.core.Instance;
 import weka.core.Instances;
+import de.ugoe.cs.cpdp.util.DataMatrix;
+import de.ugoe.cs.cpdp.util.DistanceKernels;
 import de.ugoe.cs.util.ArrayTools;
 
 /**
@@ -55,32 +54,16 @@ public class TurhanFilter implements IPointWiseDataselectionStrategy {
     @SuppressWarnings("boxing")
     @Override
     public Instances apply(Instances testdata, Instances traindata) {
-        final Attribute classAttribute = testdata.classAttribute();
-
         final List<Integer> selectedIndex = SetUniqueList.setUniqueList(new LinkedList<Integer>());
 
-        final double[][] trainDoubles =
-            new double[traindata.numInstances()][testdata.numAttributes()];
-
-        for (int i = 0; i < traindata.numInstances(); i++) {
-            Instance instance = traindata.instance(i);
-            int tmp = 0;
-            for (int j = 0; j < testdata.numAttributes(); j++) {
-                if (testdata.attribute(j) != classAttribute) {
-                    trainDoubles[i][tmp++] = instance.value(j);
-                }
-            }
-        }
+        final double[][] trainDoubles = DataMatrix.get(traindata).getRows();
+        final double[][] testDoubles = DataMatrix.get(testdata).getRows();
 
+        // the array of the distances is reused for all instances
+        double[] targetDistances = null;
         for (int i = 0; i < testdata.numInstances(); i++) {
-            Instance testIntance = testdata.instance(i);
-            double[] targetVector = new double[testdata.numAttributes() - 1];
-            int tmp = 0;
-            for (int j = 0; j < testdata.numAttributes(); j++) {
-                if (testdata.attribute(j) != classAttribute) {
-                    targetVector[tmp++] = testIntance.value(j);
-                }
-            }
+            targetDistances =
+                DistanceKernels.distances(testDoubles[i], trainDoubles, targetDistances);
 
             double farthestClosestDistance = Double.MAX_VALUE;
             int farthestClosestIndex = 0;
@@ -91,7 +74,7 @@ public class TurhanFilter implements IPointWiseDataselectionStrategy {
             int[] closestIndex = new int[this.k];
 
             for (int n = 0; n < traindata.numInstances(); n++) {
-                double distance = MathArrays.distance(targetVector, trainDoubles[n]);
+                double distance = targetDistances[n];
 
                 if (distance < farthestClosestDistance) {
                     closestIndex[farthestClosestIndex] = n;
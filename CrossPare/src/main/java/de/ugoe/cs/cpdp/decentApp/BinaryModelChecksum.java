@@ -0,0 +1,143 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.decentApp;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * <p>
+ * Checksums that tie a binary model to the XMI model from which it was converted. The checksum
+ * file next to the binary model contains the SHA-256 checksum of the XMI model and the checksum of
+ * the binary model as it was written by the conversion. The binary model is only up to date if
+ * both still match. Hence, the binary model is converted again if the XMI model changed or if the
+ * binary model was modified afterwards, e.g., because a model was stored on disposal.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class BinaryModelChecksum {
+
+    /**
+     * extension of the files that store the checksums of a binary model and the XMI model from
+     * which it was converted
+     */
+    public static final String CHECKSUM_EXTENSION = "bin.sha256";
+
+    /**
+     * private constructor to prevent instantiation
+     */
+    private BinaryModelChecksum() {
+        // private constructor to prevent instantiation
+    }
+
+    /**
+     * <p>
+     * Checks if the binary model is up to date with the XMI model, i.e., if the checksums stored
+     * during the conversion still match both models.
+     * </p>
+     *
+     * @param modelLocation
+     *            location of the XMI model; the binary model is expected at the same location with
+     *            the suffix "bin"
+     * @return true if the binary model was converted from the current XMI model and not modified
+     *         since
+     */
+    public static boolean isUpToDate(String modelLocation) {
+        File checksumFile = new File(modelLocation + CHECKSUM_EXTENSION);
+        if (!checksumFile.exists() || !new File(modelLocation + "bin").exists()) {
+            return false;
+        }
+        try {
+            return computeChecksums(modelLocation)
+                .equals(new String(Files.readAllBytes(checksumFile.toPath()),
+                                   StandardCharsets.UTF_8));
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Cannot read the checksum of the model: " + modelLocation,
+                                       e);
+        }
+    }
+
+    /**
+     * <p>
+     * Stores the checksums of the XMI model and the binary model next to the binary model. Must be
+     * called after the binary model was written.
+     * </p>
+     *
+     * @param modelLocation
+     *            location of the XMI model
+     */
+    public static void store(String modelLocation) {
+        try {
+            Files.write(new File(modelLocation + CHECKSUM_EXTENSION).toPath(),
+                        computeChecksums(modelLocation).getBytes(StandardCharsets.UTF_8));
+        }
+        catch (IOException e) {
+            throw new RuntimeException("Cannot write the checksum of the model: " + modelLocation,
+                                       e);
+        }
+    }
+
+    /**
+     * Computes the checksums of the XMI model and the binary model, one per line
+     *
+     * @param modelLocation
+     *            location of the XMI model
+     * @return the checksums
+     * @throws IOException
+     *             thrown if one of the models cannot be read
+     */
+    private static String computeChecksums(String modelLocation) throws IOException {
+        return computeChecksum(modelLocation) + "\n" + computeChecksum(modelLocation + "bin");
+    }
+
+    /**
+     * Computes the SHA-256 checksum of a file
+     *
+     * @param location
+     *            location of the file
+     * @return the checksum as hex string
+     * @throws IOException
+     *             thrown if the file cannot be read
+     */
+    private static String computeChecksum(String location) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = new FileInputStream(location)) {
+            int length;
+            while ((length = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, length);
+            }
+        }
+        StringBuilder checksum = new StringBuilder();
+        for (byte b : digest.digest()) {
+            checksum.append(String.format("%02x", b));
+        }
+        return checksum.toString();
+    }
+}
@@ -33,6 +33,13 @@ import de.ugoe.cs.cpdp.decentApp.models.decent.DECENTPackage;
 /**
  * Class for handling decent and arffx model files.
  * 
+ * The models can be loaded from XMI or from the binary EMF resource format. In the automatic binary
+ * mode, XMI models are converted to the binary format once and afterwards always loaded from the
+ * binary form. The checksums of the XMI model and the converted binary model are stored next to
+ * the binary model (see {@link BinaryModelChecksum}). The binary model is converted again if the
+ * XMI model changes or if the binary model was modified, e.g., because a model that was loaded
+ * with write access was stored on disposal.
+ * 
  * @author Philip Makedonski, Fabian Trautsch
  * 
  */
@@ -41,6 +48,7 @@ public class DECENTEpsilonModelHandler {
     private HashMap<String, Object> metaModelCache = new HashMap<>();
     private boolean useDECENTBinary = false;
     private boolean useARFFxBinary = false;
+    private boolean autoBinary = false;
 
     /**
      * path for DECENT model meta data
@@ -65,20 +73,20 @@ public class DECENTEpsilonModelHandler {
 
         EmfModel model;
 
-        if (isUseDECENTBinary()) {
+        if (isUseDECENTBinary() || isAutoBinary()) {
             unregisterMetaModels("");
             if (!read) {
                 new File(decentModelLocation).delete();
                 new File(decentModelLocation + "bin").delete();
+                new File(decentModelLocation + BinaryModelChecksum.CHECKSUM_EXTENSION).delete();
             }
             DECENTResourceTool tool = new DECENTResourceTool();
-            if (new File(decentModelLocation).exists() &&
-                !new File(decentModelLocation + "bin").exists())
-            {
+            if (isConversionRequired(decentModelLocation)) {
                 Resource resource =
                     tool.loadResourceFromXMI(decentModelLocation, "decent", DECENTPackage.eINSTANCE);
                 ResourceTool.storeBinaryResourceContents(resource.getContents(), decentModelLocation +
                     "bin", "decentbin");
+                BinaryModelChecksum.store(decentModelLocation);
             }
 
             Resource resourceBin =
@@ -119,6 +127,7 @@ public class DECENTEpsilonModelHandler {
             tool.loadResourceFromXMI(location + "/model.decent", "decent", DECENTPackage.eINSTANCE);
         ResourceTool.storeBinaryResourceContents(resource.getContents(),
                                          location + "/model.decent" + "bin", "decentbin");
+        BinaryModelChecksum.store(location + "/model.decent");
         restoreMetaModels();
     }
 
@@ -137,6 +146,7 @@ public class DECENTEpsilonModelHandler {
                                         DECENTPackage.eINSTANCE);
         restoreMetaModels();
         tool.storeResourceContents(resource.getContents(), location + "/model.decent", "decent");
+        BinaryModelChecksum.store(location + "/model.decent");
     }
 
     /**
@@ -158,20 +168,20 @@ public class DECENTEpsilonModelHandler {
 
         EmfModel model;
 
-        if (isUseARFFxBinary()) {
+        if (isUseARFFxBinary() || isAutoBinary()) {
             unregisterMetaModels("");
             if (!read) {
                 new File(arffxModelLocation).delete();
                 new File(arffxModelLocation + "bin").delete();
+                new File(arffxModelLocation + BinaryModelChecksum.CHECKSUM_EXTENSION).delete();
             }
             ARFFxResourceTool tool = new ARFFxResourceTool();
-            if (new File(arffxModelLocation).exists() &&
-                !new File(arffxModelLocation + "bin").exists())
-            {
+            if (isConversionRequired(arffxModelLocation)) {
                 Resource resource =
                     tool.loadResourceFromXMI(arffxModelLocation, "arffx", ARFFxPackage.eINSTANCE);
                 ResourceTool.storeBinaryResourceContents(resource.getContents(),
                                                  arffxModelLocation + "bin", "arffxbin");
+                BinaryModelChecksum.store(arffxModelLocation);
             }
 
             Resource resourceBin =
@@ -212,6 +222,7 @@ public class DECENTEpsilonModelHandler {
             tool.loadResourceFromXMI(location + "/model.arffx", "arffx", ARFFxPackage.eINSTANCE);
         ResourceTool.storeBinaryResourceContents(resource.getContents(), location + "/model.arffx" + "bin",
                                          "arffxbin");
+        BinaryModelChecksum.store(location + "/model.arffx");
         restoreMetaModels();
     }
 
@@ -230,6 +241,7 @@ public class DECENTEpsilonModelHandler {
                                         DECENTPackage.eINSTANCE);
         restoreMetaModels();
         tool.storeResourceContents(resource.getContents(), location + "/model.arffx", "arffx");
+        BinaryModelChecksum.store(location + "/model.arffx");
     }
 
     /**
@@ -298,6 +310,26 @@ public class DECENTEpsilonModelHandler {
         return emfModel;
     }
 
+    /**
+     * Checks if the binary form of a model must be converted from the XMI form. This is the case
+     * if the XMI model exists and the binary model does not exist. In the automatic binary mode,
+     * this is also the case if the binary model is not up to date with the XMI model anymore, i.e.,
+     * if the XMI model changed since the conversion or the binary model was stored on disposal.
+     * 
+     * @param modelLocation
+     *            location of the XMI model
+     * @return true if the model must be converted
+     */
+    private boolean isConversionRequired(String modelLocation) {
+        if (!new File(modelLocation).exists()) {
+            return false;
+        }
+        if (!new File(modelLocation + "bin").exists()) {
+            return true;
+        }
+        return isAutoBinary() && !BinaryModelChecksum.isUpToDate(modelLocation);
+    }
+
     /**
      * Restores the metamodels, so that they are registered in the EPackage registry
      */
@@ -362,4 +394,25 @@ public class DECENTEpsilonModelHandler {
         this.useARFFxBinary = useARFFxBinary;
     }
 
+    /**
+     * Returns true if the automatic binary mode is used
+     * 
+     * @return true if automatic binary mode
+     */
+    public boolean isAutoBinary() {
+        return this.autoBinary;
+    }
+
+    /**
+     * Sets the boolean which indicates, if the automatic binary mode is used. In this mode, decent
+     * and arffx models are always loaded from the binary format. XMI models are converted if the
+     * binary model does not exist or the XMI model changed since the last conversion.
+     * 
+     * @param autoBinary
+     *            if true, the automatic binary mode is used
+     */
+    public void setAutoBinary(@SuppressWarnings("hiding") boolean autoBinary) {
+        this.autoBinary = autoBinary;
+    }
+
 }
@@ -18,7 +18,9 @@ import java.util.*;
 import java.io.*;
 
 /**
- * Helper class for watching if a file was changed
+ * Helper class for watching if a file was changed. By default, the modification time of the file
+ * is watched. Subclasses may define a different time stamp, e.g., to watch the contents of a
+ * folder.
  * 
  * @author Philip Makedonski
  * 
@@ -37,7 +39,18 @@ public abstract class FileWatcher extends TimerTask {
      */
     public FileWatcher(@SuppressWarnings("hiding") File file) {
         this.file = file;
-        this.timeStamp = file.lastModified();
+        this.timeStamp = getTimeStamp(file);
+    }
+
+    /**
+     * Determines the time stamp of the watched file. A change of the time stamp is a change of the
+     * file.
+     * 
+     * @param watchedFile file that is watched
+     * @return the time stamp; the modification time of the file by default
+     */
+    protected long getTimeStamp(File watchedFile) {
+        return watchedFile.lastModified();
     }
 
     /**
@@ -45,7 +58,7 @@ public abstract class FileWatcher extends TimerTask {
      */
     @Override
     public final void run() {
-        long lastModified = this.file.lastModified();
+        long lastModified = getTimeStamp(this.file);
 
         if (this.timeStamp != lastModified) {
             this.timeStamp = lastModified;
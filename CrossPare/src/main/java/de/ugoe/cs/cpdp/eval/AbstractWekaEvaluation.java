@@ -17,6 +17,7 @@ package de.ugoe.cs.cpdp.eval;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -78,6 +79,16 @@ public abstract class AbstractWekaEvaluation implements IEvaluationStrategy {
      */
     private String configurationName = "default";
 
+    /**
+     * repetition of the experiment; -1 if the experiment is not repeated
+     */
+    private int repetition = -1;
+
+    /**
+     * update of a watched experiment; -1 if the experiment is not watched
+     */
+    private int update = -1;
+
     /**
      * Creates the Weka evaluator. Allows the creation of the evaluator in different ways, e.g., for
      * cross-validation or evaluation on the test data.
@@ -122,7 +133,14 @@ public abstract class AbstractWekaEvaluation implements IEvaluationStrategy {
         }
 
         if (writeHeader) {
-            this.output.append("version,size_test,size_training");
+            this.output.append("version");
+            if (this.repetition >= 0) {
+                this.output.append(",repetition");
+            }
+            if (this.update >= 0) {
+                this.output.append(",update");
+            }
+            this.output.append(",size_test,size_training");
             for (ITrainer trainer : trainers) {
                 this.output.append(",error_" + ((IWekaCompatibleTrainer) trainer).getName());
                 this.output.append(",recall_" + ((IWekaCompatibleTrainer) trainer).getName());
@@ -145,6 +163,12 @@ public abstract class AbstractWekaEvaluation implements IEvaluationStrategy {
         }
 
         this.output.append(productName);
+        if (this.repetition >= 0) {
+            this.output.append("," + this.repetition);
+        }
+        if (this.update >= 0) {
+            this.output.append("," + this.update);
+        }
         this.output.append("," + testdata.numInstances());
         this.output.append("," + traindata.numInstances());
 
@@ -198,6 +222,7 @@ public abstract class AbstractWekaEvaluation implements IEvaluationStrategy {
             this.output.append("," + eval.numFalsePositives(1));
 
             ExperimentResult result = resultIter.next();
+            result.setRepetition(this.repetition);
             result.setSizeTestData(testdata.numInstances());
             result.setSizeTrainingData(traindata.numInstances());
             result.setError(eval.errorRate());
@@ -264,6 +289,44 @@ public abstract class AbstractWekaEvaluation implements IEvaluationStrategy {
         }
     }
     
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IEvaluationStrategy#setOutput(java.io.Writer, java.lang.String)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setOutput(Writer writer, String configurationName) {
+        if (this.output != null && !this.outputIsSystemOut) {
+            this.output.close();
+        }
+        this.output = new PrintWriter(writer);
+        this.outputIsSystemOut = false;
+        this.configurationName = configurationName;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IEvaluationStrategy#setRepetition(int)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setRepetition(int repetition) {
+        this.repetition = repetition;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.eval.IEvaluationStrategy#setUpdate(int)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setUpdate(int update) {
+        this.update = update;
+    }
+
     /**
      * <p>
      * Calculates the normalized expected cost of misclassification through a ratio
@@ -14,11 +14,11 @@
 
 package de.ugoe.cs.cpdp.eval;
 
-import java.io.PrintStream;
 import java.util.Random;
 
 import org.apache.commons.io.output.NullOutputStream;
 
+import de.ugoe.cs.cpdp.util.ErrorStreamCapture;
 import weka.classifiers.Classifier;
 import weka.classifiers.Evaluation;
 import weka.core.Instances;
@@ -36,20 +36,15 @@ public class CVWekaEvaluation extends AbstractWekaEvaluation {
      */
     @Override
     protected Evaluation createEvaluator(Instances testdata, Classifier classifier) {
-        PrintStream errStr = System.err;
-        try(PrintStream nullStream = new PrintStream(new NullOutputStream());) {
-            System.setErr(nullStream);
-            try {
+        try {
+            return ErrorStreamCapture.capture(() -> {
                 final Evaluation eval = new Evaluation(testdata);
                 eval.crossValidateModel(classifier, testdata, 10, new Random());
                 return eval;
-            }
-            catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-            finally {
-                System.setErr(errStr);
-            }
+            }, new NullOutputStream());
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
         }
     }
 
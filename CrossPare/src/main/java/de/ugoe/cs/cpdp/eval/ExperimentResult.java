@@ -30,6 +30,11 @@ public class ExperimentResult {
      */
     private final String classifier;
 
+    /**
+     * repetition of the experiment that produced the result; -1 if the experiment is not repeated
+     */
+    private int repetition = -1;
+
     /**
      * number of instances of the target product
      */
@@ -265,6 +270,30 @@ public class ExperimentResult {
         return this.classifier;
     }
 
+    /**
+     * <p>
+     * returns the repetition of the experiment that produced the result
+     * </p>
+     *
+     * @return the repetition, starting with 0; -1 if the experiment is not repeated
+     */
+    public int getRepetition() {
+        return this.repetition;
+    }
+
+    /**
+     * <p>
+     * sets the repetition of the experiment that produced the result
+     * </p>
+     *
+     * @param repetition
+     *            the repetition, starting with 0; -1 if the experiment is not repeated
+     */
+    @SuppressWarnings("hiding")
+    public void setRepetition(int repetition) {
+        this.repetition = repetition;
+    }
+
     /**
      * <p>
      * returns the number of instances of the target product
@@ -14,6 +14,7 @@
 
 package de.ugoe.cs.cpdp.eval;
 
+import java.io.Writer;
 import java.util.List;
 
 import de.ugoe.cs.cpdp.IParameterizable;
@@ -53,4 +54,35 @@ public interface IEvaluationStrategy extends IParameterizable {
                List<Double> numBugs,
                boolean writeHeader,
                List<IResultStorage> storages);
+
+    /**
+     * Redirects the results of the evaluation strategy to a writer instead of a file defined
+     * through {@link #setParameter(String)}.
+     * 
+     * @param writer
+     *            writer for the results
+     * @param configurationName
+     *            name of the configuration used for the results
+     */
+    void setOutput(Writer writer, String configurationName);
+
+    /**
+     * Defines the repetition of the experiment to which the following results belong. If the
+     * repetition is not negative, the results are tagged with the repetition.
+     * 
+     * @param repetition
+     *            the repetition, starting with 0; -1 if the experiment is not repeated
+     */
+    void setRepetition(int repetition);
+
+    /**
+     * Defines the update of a watched experiment to which the following results belong (see
+     * {@link de.ugoe.cs.cpdp.execution.ExperimentWatcher}). If the update is not negative, the
+     * results are tagged with the update. Results of a later update supersede the results of the
+     * same test version from earlier updates.
+     * 
+     * @param update
+     *            the update, starting with 0; -1 if the experiment is not watched
+     */
+    void setUpdate(int update);
 }
@@ -0,0 +1,141 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.eval;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import de.ugoe.cs.util.StringTools;
+
+/**
+ * <p>
+ * Thread-safe writer for results files that are created by concurrently executed parts of an
+ * experiment, e.g., different test versions. Each part provides its results as a block of lines
+ * with a consecutive index. The blocks are written in the order of their index, independent of the
+ * order in which they are finished. Hence, the results file is the same as for a sequential
+ * execution.
+ * </p>
+ * <p>
+ * Each non-empty block must start with the header line. Only the header of the first non-empty
+ * block is written. The file is only created once the first non-empty block is written and closed
+ * once all blocks are written.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class OrderedResultsWriter {
+
+    /**
+     * name of the results file
+     */
+    private final String filename;
+
+    /**
+     * number of blocks that are written
+     */
+    private final int numBlocks;
+
+    /**
+     * blocks that are finished, but cannot yet be written because a predecessor is missing
+     */
+    private final Map<Integer, String> pendingBlocks = new HashMap<>();
+
+    /**
+     * index of the next block that is written
+     */
+    private int nextBlock = 0;
+
+    /**
+     * writer for the results file; null until the first block is written
+     */
+    private PrintWriter output = null;
+
+    /**
+     * <p>
+     * Creates a new OrderedResultsWriter.
+     * </p>
+     *
+     * @param filename
+     *            name of the results file
+     * @param numBlocks
+     *            number of blocks that are written
+     */
+    @SuppressWarnings("hiding")
+    public OrderedResultsWriter(String filename, int numBlocks) {
+        this.filename = filename;
+        this.numBlocks = numBlocks;
+    }
+
+    /**
+     * <p>
+     * Adds a block to the results. The block is written as soon as all blocks with a lower index
+     * are written.
+     * </p>
+     *
+     * @param index
+     *            index of the block
+     * @param block
+     *            lines of the block, starting with the header line; empty if there are no results
+     */
+    @SuppressWarnings("boxing")
+    public synchronized void write(int index, String block) {
+        if (index < this.nextBlock || this.pendingBlocks.containsKey(index)) {
+            throw new IllegalArgumentException("block " + index + " was already written");
+        }
+        this.pendingBlocks.put(index, block == null ? "" : block);
+        while (this.pendingBlocks.containsKey(this.nextBlock)) {
+            String curBlock = this.pendingBlocks.remove(this.nextBlock);
+            this.nextBlock++;
+            if (curBlock.isEmpty()) {
+                continue;
+            }
+            int headerEnd = curBlock.indexOf(StringTools.ENDLINE);
+            headerEnd = headerEnd < 0 ? curBlock.length() : headerEnd + StringTools.ENDLINE.length();
+            if (this.output == null) {
+                openOutput();
+                this.output.append(curBlock.substring(0, headerEnd));
+            }
+            this.output.append(curBlock.substring(headerEnd));
+        }
+        if (this.output != null) {
+            this.output.flush();
+            if (this.nextBlock >= this.numBlocks) {
+                this.output.close();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Opens the results file.
+     * </p>
+     */
+    private void openOutput() {
+        File resultsFile = new File(this.filename);
+        if (resultsFile.getParentFile() != null && !resultsFile.getParentFile().exists()) {
+            resultsFile.getParentFile().mkdirs();
+        }
+        try {
+            this.output = new PrintWriter(new FileOutputStream(resultsFile));
+        }
+        catch (FileNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package de.ugoe.cs.cpdp.eval;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+import de.ugoe.cs.cpdp.util.ErrorStreamCapture;
+import de.ugoe.cs.util.console.Console;
+import weka.classifiers.AbstractClassifier;
+import weka.classifiers.AggregateableEvaluation;
+import weka.classifiers.Classifier;
+import weka.classifiers.Evaluation;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Implements the {@link AbstractWekaEvaluation} for 10-fold cross validation, where the folds are
+ * trained and evaluated concurrently. The folds are created in the same way as by
+ * {@link Evaluation#crossValidateModel(Classifier, Instances, int, Random, Object...)} with a fixed
+ * seed, i.e., the results are reproducible and the same as for the sequential cross validation with
+ * the same seed. Each fold is evaluated separately and the confusion statistics of the folds are
+ * merged with an {@link AggregateableEvaluation}.
+ * </p>
+ * <p>
+ * The output of the classifiers to {@link System#err} is captured per fold and logged with the
+ * level {@link Level#FINE}.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class ParallelCVWekaEvaluation extends AbstractWekaEvaluation {
+
+    /**
+     * number of folds
+     */
+    private static final int NUM_FOLDS = 10;
+
+    /**
+     * seed used for the creation of the folds
+     */
+    private static final long SEED = 1;
+
+    /*
+     * @see de.ugoe.cs.cpdp.eval.AbstractWekaEvaluation#createEvaluator(weka.core.Instances,
+     * weka.classifiers.Classifier)
+     */
+    @Override
+    protected Evaluation createEvaluator(Instances testdata, Classifier classifier) {
+        final Instances data = new Instances(testdata);
+        final Random random = new Random(SEED);
+        data.randomize(random);
+        if (data.classAttribute().isNominal()) {
+            data.stratify(NUM_FOLDS);
+        }
+
+        final ExecutorService threadPool = Executors
+            .newFixedThreadPool(Math.min(NUM_FOLDS, Runtime.getRuntime().availableProcessors()));
+        try {
+            final List<Future<Evaluation>> results = new ArrayList<>(NUM_FOLDS);
+            for (int i = 0; i < NUM_FOLDS; i++) {
+                // the folds are created sequentially, because the training data depends on the
+                // state of the random number generator
+                final Instances train = data.trainCV(NUM_FOLDS, i, random);
+                final Instances test = data.testCV(NUM_FOLDS, i);
+                final int fold = i;
+                results.add(threadPool
+                    .submit(() -> evaluateFold(classifier, data, train, test, fold)));
+            }
+            final AggregateableEvaluation eval = new AggregateableEvaluation(data);
+            for (Future<Evaluation> result : results) {
+                eval.aggregate(result.get());
+            }
+            return eval;
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        finally {
+            threadPool.shutdownNow();
+        }
+    }
+
+    /**
+     * <p>
+     * Trains a copy of the classifier on the training data of a fold and evaluates it on the test
+     * data of the fold.
+     * </p>
+     *
+     * @param classifier
+     *            the classifier
+     * @param data
+     *            data of the cross validation
+     * @param train
+     *            training data of the fold
+     * @param test
+     *            test data of the fold
+     * @param fold
+     *            number of the fold
+     * @return evaluation of the fold
+     * @throws Exception
+     *             thrown if the training or the evaluation fails
+     */
+    private static Evaluation evaluateFold(Classifier classifier,
+                                           Instances data,
+                                           Instances train,
+                                           Instances test,
+                                           int fold)
+        throws Exception
+    {
+        final ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        try {
+            return ErrorStreamCapture.capture(() -> {
+                final Classifier foldClassifier = AbstractClassifier.makeCopy(classifier);
+                foldClassifier.buildClassifier(train);
+                final Evaluation eval = new Evaluation(data);
+                eval.setPriors(train);
+                eval.evaluateModel(foldClassifier, test);
+                return eval;
+            }, errors);
+        }
+        finally {
+            if (errors.size() > 0) {
+                Console.traceln(Level.FINE, "output of fold " + fold + ": " + errors.toString());
+            }
+        }
+    }
+}
@@ -18,6 +18,7 @@ import java.io.File;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 
 import org.apache.commons.collections4.list.SetUniqueList;
@@ -30,12 +31,14 @@ import de.ugoe.cs.cpdp.dataselection.ISetWiseDataselectionStrategy;
 import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
 import de.ugoe.cs.cpdp.eval.IResultStorage;
 import de.ugoe.cs.cpdp.loader.IVersionLoader;
+import de.ugoe.cs.cpdp.loader.VersionCache;
 import de.ugoe.cs.cpdp.training.ISetWiseTestdataAwareTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ISetWiseTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ITestAwareTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ITrainer;
 import de.ugoe.cs.cpdp.training.ITrainingStrategy;
 import de.ugoe.cs.cpdp.training.IWekaCompatibleTrainer;
+import de.ugoe.cs.cpdp.util.WekaUtils;
 import de.ugoe.cs.cpdp.versions.IVersionFilter;
 import de.ugoe.cs.cpdp.versions.SoftwareVersion;
 import de.ugoe.cs.util.console.Console;
@@ -71,11 +74,13 @@ import weka.core.Instances;
  * </ul>
  * 
  * Note that this class implements {@link Runnable}, i.e., each experiment can be started in its own
- * thread.
+ * thread. Moreover, the class implements {@link IVersionWiseExecutionStrategy}, i.e., the test
+ * versions can also be executed as separate tasks. If the configuration defines a parallelism
+ * for the test versions, the experiment executes its test versions concurrently.
  * 
  * @author Steffen Herbold
  */
-public abstract class AbstractCrossProjectExperiment implements IExecutionStrategy {
+public abstract class AbstractCrossProjectExperiment implements IVersionWiseExecutionStrategy {
 
     /**
      * configuration of the experiment
@@ -119,18 +124,25 @@ public abstract class AbstractCrossProjectExperiment implements IExecutionStrate
      * @return single {@link Instances} set
      */
     public static Instances makeSingleTrainingSet(SetUniqueList<Instances> traindataSet) {
-        Instances traindataFull = null;
-        for (Instances traindata : traindataSet) {
-            if (traindataFull == null) {
-                traindataFull = new Instances(traindata);
-            }
-            else {
-                for (int i = 0; i < traindata.numInstances(); i++) {
-                    traindataFull.add(traindata.instance(i));
-                }
-            }
-        }
-        return traindataFull;
+        return makeSingleTrainingSet(traindataSet, true);
+    }
+
+    /**
+     * Helper method that combines a set of Weka {@link Instances} sets into a single
+     * {@link Instances} set. If the instances are not copied, they are moved to the single set,
+     * i.e., the sets must not be used anymore afterwards.
+     * 
+     * @param traindataSet
+     *            set of {@link Instances} to be combines
+     * @param copyInstances
+     *            if true, the instances are copied
+     * @return single {@link Instances} set
+     * @see WekaUtils#concatenate(java.util.Collection, boolean)
+     */
+    public static Instances makeSingleTrainingSet(SetUniqueList<Instances> traindataSet,
+                                                 boolean copyInstances)
+    {
+        return WekaUtils.concatenate(traindataSet, copyInstances);
     }
 
     /**
@@ -138,199 +150,521 @@ public abstract class AbstractCrossProjectExperiment implements IExecutionStrate
      * 
      * @see Runnable#run()
      */
-    @SuppressWarnings("boxing")
     @Override
     public void run() {
-        final List<SoftwareVersion> versions = new LinkedList<>();
-
-        for (IVersionLoader loader : this.config.getLoaders()) {
-            versions.addAll(loader.load());
+        final List<SoftwareVersion> versions = loadVersions(this.config);
+        final List<SoftwareVersion> testVersions = getTestVersions(versions);
+        if (this.config.getVersionParallelism() > 1) {
+            TestVersionTask.runTasks(TestVersionTask.createTasks(this, this.config, versions,
+                                                                 testVersions),
+                                     this.config.getVersionParallelism());
+            return;
         }
+        final String resultsFile =
+            this.config.getResultsPath() + "/" + this.config.getExperimentName() + ".csv";
 
-        for (IVersionFilter filter : this.config.getVersionFilters()) {
-            filter.apply(versions);
-        }
         boolean writeHeader = true;
         int versionCount = 1;
-        int testVersionCount = 0;
-
-        for (SoftwareVersion testVersion : versions) {
-            if (isVersion(testVersion, this.config.getTestVersionFilters())) {
-                testVersionCount++;
+        for (SoftwareVersion testVersion : testVersions) {
+            if (runTestVersion(this.config, testVersion, versions, versionCount,
+                               testVersions.size(), writeHeader, resultsFile, false))
+            {
+                writeHeader = false;
             }
+            versionCount++;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#getConfiguration()
+     */
+    @Override
+    public ExperimentConfiguration getConfiguration() {
+        return this.config;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#createTasks()
+     */
+    @Override
+    public List<TestVersionTask> createTasks() {
+        final List<SoftwareVersion> versions = loadVersions(this.config);
+        return TestVersionTask.createTasks(this, this.config, versions, getTestVersions(versions));
+    }
+
+    /**
+     * Loads the data of an experiment through the {@link VersionCache} and sorts the versions.
+     * The cache applies the version filters to the metadata of the versions, i.e., versions that
+     * do not pass the filters are not loaded and need not be filtered again.
+     * 
+     * @param config
+     *            configuration of the experiment
+     * @return the versions of the experiment
+     */
+    public static List<SoftwareVersion> loadVersions(ExperimentConfiguration config) {
+        final List<SoftwareVersion> versions = new LinkedList<>();
+        final PipelineProfiler.Scope profiling =
+            PipelineProfiler.getInstance().scope(config.getExperimentName(), null);
+
+        for (IVersionLoader loader : config.getLoaders()) {
+            PipelineProfiler.Measurement measurement = profiling.start("loader", loader);
+            versions.addAll(VersionCache.getInstance().load(loader, config.getVersionFilters()));
+            measurement.stop();
         }
 
         // sort versions
         Collections.sort(versions);
+        return versions;
+    }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#getTestVersions(java.util.List)
+     */
+    @Override
+    public List<SoftwareVersion> getTestVersions(List<SoftwareVersion> versions) {
+        final List<SoftwareVersion> testVersions = new LinkedList<>();
         for (SoftwareVersion testVersion : versions) {
             if (isVersion(testVersion, this.config.getTestVersionFilters())) {
-                Console.traceln(Level.INFO,
-                                String.format("[%s] [%02d/%02d] %s: starting",
-                                              this.config.getExperimentName(), versionCount,
-                                              testVersionCount, testVersion.getVersion()));
-                int numResultsAvailable = resultsAvailable(testVersion);
-                if (numResultsAvailable >= this.config.getRepetitions()) {
-                    Console.traceln(Level.INFO, String
-                        .format("[%s] [%02d/%02d] %s: results already available; skipped",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion()));
-                    versionCount++;
-                    continue;
+                testVersions.add(testVersion);
+            }
+        }
+        return testVersions;
+    }
+
+    /**
+     * The results of a test version depend on the test version itself and on all versions that
+     * are allowed for training.
+     * 
+     * @see de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#dependsOn(de.ugoe.cs.cpdp.
+     *      versions.SoftwareVersion, de.ugoe.cs.cpdp.versions.SoftwareVersion, java.util.List)
+     */
+    @Override
+    public boolean dependsOn(SoftwareVersion testVersion,
+                             SoftwareVersion version,
+                             List<SoftwareVersion> versions)
+    {
+        return version == testVersion || isTrainingVersion(version, testVersion, versions);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#runTestVersion(de.ugoe.cs.cpdp.
+     * ExperimentConfiguration, de.ugoe.cs.cpdp.versions.SoftwareVersion, java.util.List, int, int,
+     * boolean, java.lang.String, boolean)
+     */
+    @SuppressWarnings("boxing")
+    @Override
+    public boolean runTestVersion(ExperimentConfiguration experimentConfig,
+                                  SoftwareVersion testVersion,
+                                  List<SoftwareVersion> versions,
+                                  int versionCount,
+                                  int testVersionCount,
+                                  boolean writeHeader,
+                                  String resultsFile,
+                                  boolean rerun)
+    {
+        Console.traceln(Level.INFO,
+                        String.format("[%s] [%02d/%02d] %s: starting",
+                                      experimentConfig.getExperimentName(), versionCount,
+                                      testVersionCount, testVersion.getVersion()));
+        final PipelineProfiler.Scope profiling = PipelineProfiler.getInstance()
+            .scope(experimentConfig.getExperimentName(), testVersion.getVersion());
+        int numResultsAvailable = rerun ? 0 : resultsAvailable(testVersion);
+        if (numResultsAvailable >= experimentConfig.getRepetitions()) {
+            Console.traceln(Level.INFO, String
+                .format("[%s] [%02d/%02d] %s: results already available; skipped",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion()));
+            return false;
+        }
+
+        final List<PipelineData> results;
+        if (experimentConfig.getRepetitions() > 1) {
+            results = runRepetitions(experimentConfig, testVersion, versions, numResultsAvailable,
+                                     versionCount, testVersionCount, profiling);
+        }
+        else {
+            PipelineData data = prepareData(experimentConfig, testVersion, versions, versionCount,
+                                            testVersionCount, profiling);
+            if (data != null) {
+                train(experimentConfig, data, testVersion, versionCount, testVersionCount,
+                      profiling);
+            }
+            results = Collections.singletonList(data);
+        }
+        if (results.get(0) == null) {
+            Console.traceln(Level.WARNING, String
+                            .format("[%s] [%02d/%02d] %s: no training data this product; skipped",
+                                    experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                                    testVersion.getVersion()));
+            return false;
+        }
+
+        File resultsDir = new File(experimentConfig.getResultsPath());
+        if (!resultsDir.exists()) {
+            resultsDir.mkdir();
+        }
+        boolean writeEvaluatorHeader = writeHeader;
+        for (IEvaluationStrategy evaluator : experimentConfig.getEvaluators()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying evaluator %s",
+                                          experimentConfig.getExperimentName(), versionCount,
+                                          testVersionCount, testVersion.getVersion(),
+                                          evaluator.getClass().getName()));
+            if (writeEvaluatorHeader && resultsFile != null) {
+                evaluator.setParameter(resultsFile);
+            }
+            for (PipelineData data : results) {
+                if (experimentConfig.getRepetitions() > 1) {
+                    evaluator.setRepetition(data.repetition);
                 }
+                PipelineProfiler.Measurement measurement = profiling.start("eval", evaluator);
+                evaluator.apply(data.testdata, data.traindata, getAllTrainers(data.config),
+                                testVersion.getEfforts(), testVersion.getNumBugs(),
+                                writeEvaluatorHeader, experimentConfig.getResultStorages());
+                measurement.stop();
+                writeEvaluatorHeader = false;
+            }
+        }
+        Console.traceln(Level.INFO,
+                        String.format("[%s] [%02d/%02d] %s: finished",
+                                      experimentConfig.getExperimentName(), versionCount,
+                                      testVersionCount, testVersion.getVersion()));
+        return true;
+    }
+
+    /**
+     * <p>
+     * Executes the repetitions of a test version that are not yet available. Each repetition uses
+     * its own configuration with seeded strategies, created by
+     * {@link ConcurrentRepetitions#createConfiguration(ExperimentConfiguration, int)}. If the data
+     * processing is not randomized and there are no setwise trainers, the data is only processed
+     * once and each repetition trains its classifiers on a copy of the processed data. Otherwise,
+     * each repetition executes the complete data processing.
+     * </p>
+     *
+     * @param experimentConfig
+     *            configuration of the experiment
+     * @param testVersion
+     *            the test version
+     * @param versions
+     *            all versions of the experiment
+     * @param firstRepetition
+     *            index of the first repetition that is executed
+     * @param versionCount
+     *            number of the test version; only used for logging
+     * @param testVersionCount
+     *            number of test versions; only used for logging
+     * @param profiling
+     *            scope in which the repetitions are profiled
+     * @return trained repetitions, ordered by their index; the first element is null if there is
+     *         no training data
+     */
+    @SuppressWarnings("boxing")
+    private List<PipelineData> runRepetitions(final ExperimentConfiguration experimentConfig,
+                                              final SoftwareVersion testVersion,
+                                              final List<SoftwareVersion> versions,
+                                              int firstRepetition,
+                                              final int versionCount,
+                                              final int testVersionCount,
+                                              final PipelineProfiler.Scope profiling)
+    {
+        final PipelineData sharedData;
+        if (!ConcurrentRepetitions.isDataProcessingRandomized(experimentConfig) &&
+            experimentConfig.getSetWiseTrainers().isEmpty() &&
+            experimentConfig.getSetWiseTestdataAwareTrainers().isEmpty())
+        {
+            sharedData = prepareData(experimentConfig, testVersion, versions, versionCount,
+                                     testVersionCount, profiling);
+            if (sharedData == null) {
+                return Collections.singletonList(null);
+            }
+        }
+        else {
+            sharedData = null;
+        }
 
-                // Setup testdata and training data
-                Instances testdata = testVersion.getInstances();
-                List<Double> efforts = testVersion.getEfforts();
-                List<Double> numBugs = testVersion.getNumBugs();
-                SetUniqueList<Instances> traindataSet =
-                    SetUniqueList.setUniqueList(new LinkedList<Instances>());
-                for (SoftwareVersion trainingVersion : versions) {
-                    if (isVersion(trainingVersion, this.config.getTrainingVersionFilters())) {
-                        if (trainingVersion != testVersion) {
-                            if (isTrainingVersion(trainingVersion, testVersion, versions)) {
-                                traindataSet.add(trainingVersion.getInstances());
-                            }
-                        }
+        List<Callable<PipelineData>> repetitions = new LinkedList<>();
+        for (int i = firstRepetition; i < experimentConfig.getRepetitions(); i++) {
+            final int repetition = i;
+            repetitions.add(() -> {
+                Console.traceln(Level.FINE, String
+                    .format("[%s] [%02d/%02d] %s: starting repetition %d",
+                            experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                            testVersion.getVersion(), repetition));
+                ExperimentConfiguration repetitionConfig =
+                    ConcurrentRepetitions.createConfiguration(experimentConfig, repetition);
+                PipelineData data;
+                if (sharedData == null) {
+                    data = prepareData(repetitionConfig, testVersion, versions, versionCount,
+                                       testVersionCount, profiling);
+                    if (data == null) {
+                        return null;
                     }
                 }
-                if( traindataSet.isEmpty() ) {
-                    Console.traceln(Level.WARNING, String
-                                    .format("[%s] [%02d/%02d] %s: no training data this product; skipped",
-                                            this.config.getExperimentName(), versionCount, testVersionCount,
-                                            testVersion.getVersion()));
-                    versionCount++;
-                    continue;
+                else {
+                    data = new PipelineData(repetitionConfig, new Instances(sharedData.testdata),
+                                            new Instances(sharedData.traindata));
                 }
+                data.repetition = repetition;
+                train(repetitionConfig, data, testVersion, versionCount, testVersionCount,
+                      profiling);
+                return data;
+            });
+        }
+        return ConcurrentRepetitions.run(repetitions,
+                                         experimentConfig.getRepetitionParallelism());
+    }
 
-                for (ISetWiseProcessingStrategy processor : this.config.getSetWisePreprocessors()) {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying setwise preprocessor %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), processor.getClass().getName()));
-                    processor.apply(testdata, traindataSet);
-                }
-                for (ISetWiseDataselectionStrategy dataselector : this.config
-                    .getSetWiseSelectors())
-                {
-                    Console
-                        .traceln(Level.FINE,
-                                 String.format("[%s] [%02d/%02d] %s: applying setwise selection %s",
-                                               this.config.getExperimentName(), versionCount,
-                                               testVersionCount, testVersion.getVersion(),
-                                               dataselector.getClass().getName()));
-                    dataselector.apply(testdata, traindataSet);
-                }
-                for (ISetWiseProcessingStrategy processor : this.config
-                    .getSetWisePostprocessors())
-                {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), processor.getClass().getName()));
-                    processor.apply(testdata, traindataSet);
-                }
-                for (ISetWiseTrainingStrategy setwiseTrainer : this.config.getSetWiseTrainers()) {
-                    Console
-                        .traceln(Level.FINE,
-                                 String.format("[%s] [%02d/%02d] %s: applying setwise trainer %s",
-                                               this.config.getExperimentName(), versionCount,
-                                               testVersionCount, testVersion.getVersion(),
-                                               setwiseTrainer.getName()));
-                    setwiseTrainer.apply(traindataSet);
-                }
-                for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-                    .getSetWiseTestdataAwareTrainers())
-                {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying testdata aware setwise trainer %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), setwiseTestdataAwareTrainer.getName()));
-                    setwiseTestdataAwareTrainer.apply(traindataSet, testdata);
-                }
-                Instances traindata = makeSingleTrainingSet(traindataSet);
-                for (IProcessesingStrategy processor : this.config.getPreProcessors()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying preprocessor %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  processor.getClass().getName()));
-                    processor.apply(testdata, traindata);
-                }
-                for (IPointWiseDataselectionStrategy dataselector : this.config
-                    .getPointWiseSelectors())
-                {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying pointwise selection %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), dataselector.getClass().getName()));
-                    traindata = dataselector.apply(testdata, traindata);
-                }
-                for (IProcessesingStrategy processor : this.config.getPostProcessors()) {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), processor.getClass().getName()));
-                    processor.apply(testdata, traindata);
-                }
-                for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  trainer.getName()));
-                    trainer.apply(traindata);
-                }
-                for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  trainer.getName()));
-                    trainer.apply(testdata, traindata);
-                }
-                File resultsDir = new File(this.config.getResultsPath());
-                if (!resultsDir.exists()) {
-                    resultsDir.mkdir();
-                }
-                for (IEvaluationStrategy evaluator : this.config.getEvaluators()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying evaluator %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  evaluator.getClass().getName()));
-                    List<ITrainer> allTrainers = new LinkedList<>();
-                    for (ISetWiseTrainingStrategy setwiseTrainer : this.config
-                        .getSetWiseTrainers())
-                    {
-                        allTrainers.add(setwiseTrainer);
-                    }
-                    for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-                        .getSetWiseTestdataAwareTrainers())
-                    {
-                        allTrainers.add(setwiseTestdataAwareTrainer);
-                    }
-                    for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                        allTrainers.add(trainer);
-                    }
-                    for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-                        allTrainers.add(trainer);
-                    }
-                    if (writeHeader) {
-                        evaluator.setParameter(this.config.getResultsPath() + "/" +
-                            this.config.getExperimentName() + ".csv");
+    /**
+     * <p>
+     * Prepares the test and training data, i.e., selects the training versions and applies all
+     * data processing and selection strategies as well as the setwise trainers.
+     * </p>
+     *
+     * @param experimentConfig
+     *            configuration whose strategies are used
+     * @param testVersion
+     *            the test version
+     * @param versions
+     *            all versions of the experiment
+     * @param versionCount
+     *            number of the test version; only used for logging
+     * @param testVersionCount
+     *            number of test versions; only used for logging
+     * @param profiling
+     *            scope in which the data processing is profiled
+     * @return prepared data; null if there is no training data
+     */
+    @SuppressWarnings("boxing")
+    private PipelineData prepareData(ExperimentConfiguration experimentConfig,
+                                     SoftwareVersion testVersion,
+                                     List<SoftwareVersion> versions,
+                                     int versionCount,
+                                     int testVersionCount,
+                                     PipelineProfiler.Scope profiling)
+    {
+        // Setup testdata and training data
+        Instances testdata = testVersion.getInstances();
+        // without setwise strategies, the training data is only read until it is copied by
+        // makeSingleTrainingSet
+        boolean copyTraindata = !experimentConfig.getSetWisePreprocessors().isEmpty() ||
+            !experimentConfig.getSetWiseSelectors().isEmpty() ||
+            !experimentConfig.getSetWisePostprocessors().isEmpty() ||
+            !experimentConfig.getSetWiseTrainers().isEmpty() ||
+            !experimentConfig.getSetWiseTestdataAwareTrainers().isEmpty();
+        SetUniqueList<Instances> traindataSet =
+            SetUniqueList.setUniqueList(new LinkedList<Instances>());
+        for (SoftwareVersion trainingVersion : versions) {
+            if (isVersion(trainingVersion, experimentConfig.getTrainingVersionFilters())) {
+                if (trainingVersion != testVersion) {
+                    if (isTrainingVersion(trainingVersion, testVersion, versions)) {
+                        traindataSet.add(copyTraindata ? trainingVersion.getInstances()
+                            : trainingVersion.getReadOnlyInstances());
                     }
-                    evaluator.apply(testdata, traindata, allTrainers, efforts, numBugs, writeHeader,
-                                    this.config.getResultStorages());
-                    writeHeader = false;
                 }
-                Console.traceln(Level.INFO,
-                                String.format("[%s] [%02d/%02d] %s: finished",
-                                              this.config.getExperimentName(), versionCount,
-                                              testVersionCount, testVersion.getVersion()));
-                versionCount++;
             }
         }
+        if (traindataSet.isEmpty()) {
+            return null;
+        }
+
+        for (ISetWiseProcessingStrategy processor : experimentConfig.getSetWisePreprocessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise preprocessor %s",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            PipelineProfiler.Measurement measurement =
+                profiling.start("setwisepreprocessor", processor);
+            processor.apply(testdata, traindataSet);
+            measurement.stop();
+        }
+        for (ISetWiseDataselectionStrategy dataselector : experimentConfig
+            .getSetWiseSelectors())
+        {
+            Console
+                .traceln(Level.FINE,
+                         String.format("[%s] [%02d/%02d] %s: applying setwise selection %s",
+                                       experimentConfig.getExperimentName(), versionCount,
+                                       testVersionCount, testVersion.getVersion(),
+                                       dataselector.getClass().getName()));
+            PipelineProfiler.Measurement measurement =
+                profiling.start("setwiseselector", dataselector);
+            dataselector.apply(testdata, traindataSet);
+            measurement.stop();
+        }
+        for (ISetWiseProcessingStrategy processor : experimentConfig
+            .getSetWisePostprocessors())
+        {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            PipelineProfiler.Measurement measurement =
+                profiling.start("setwisepostprocessor", processor);
+            processor.apply(testdata, traindataSet);
+            measurement.stop();
+        }
+        for (ISetWiseTrainingStrategy setwiseTrainer : experimentConfig.getSetWiseTrainers()) {
+            Console
+                .traceln(Level.FINE,
+                         String.format("[%s] [%02d/%02d] %s: applying setwise trainer %s",
+                                       experimentConfig.getExperimentName(), versionCount,
+                                       testVersionCount, testVersion.getVersion(),
+                                       setwiseTrainer.getName()));
+            PipelineProfiler.Measurement measurement =
+                profiling.start("setwisetrainer", setwiseTrainer);
+            setwiseTrainer.apply(traindataSet);
+            measurement.stop();
+        }
+        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : experimentConfig
+            .getSetWiseTestdataAwareTrainers())
+        {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying testdata aware setwise trainer %s",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), setwiseTestdataAwareTrainer.getName()));
+            PipelineProfiler.Measurement measurement =
+                profiling.start("setwisetestdataawaretrainer", setwiseTestdataAwareTrainer);
+            setwiseTestdataAwareTrainer.apply(traindataSet, testdata);
+            measurement.stop();
+        }
+        // copied training data can be moved into the single training set, unless setwise trainers
+        // may still reference it
+        Instances traindata = makeSingleTrainingSet(traindataSet, !copyTraindata ||
+            !experimentConfig.getSetWiseTrainers().isEmpty() ||
+            !experimentConfig.getSetWiseTestdataAwareTrainers().isEmpty());
+        for (IProcessesingStrategy processor : experimentConfig.getPreProcessors()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying preprocessor %s",
+                                          experimentConfig.getExperimentName(), versionCount,
+                                          testVersionCount, testVersion.getVersion(),
+                                          processor.getClass().getName()));
+            PipelineProfiler.Measurement measurement = profiling.start("preprocessor", processor);
+            processor.apply(testdata, traindata);
+            measurement.stop();
+        }
+        for (IPointWiseDataselectionStrategy dataselector : experimentConfig
+            .getPointWiseSelectors())
+        {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying pointwise selection %s",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), dataselector.getClass().getName()));
+            PipelineProfiler.Measurement measurement =
+                profiling.start("pointwiseselector", dataselector);
+            traindata = dataselector.apply(testdata, traindata);
+            measurement.stop();
+        }
+        for (IProcessesingStrategy processor : experimentConfig.getPostProcessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            PipelineProfiler.Measurement measurement = profiling.start("postprocessor", processor);
+            processor.apply(testdata, traindata);
+            measurement.stop();
+        }
+        return new PipelineData(experimentConfig, testdata, traindata);
+    }
+
+    /**
+     * <p>
+     * Trains the classifiers on the prepared data.
+     * </p>
+     *
+     * @param experimentConfig
+     *            configuration whose trainers are used
+     * @param data
+     *            the prepared data
+     * @param testVersion
+     *            the test version
+     * @param versionCount
+     *            number of the test version; only used for logging
+     * @param testVersionCount
+     *            number of test versions; only used for logging
+     * @param profiling
+     *            scope in which the training is profiled
+     */
+    @SuppressWarnings("boxing")
+    private static void train(ExperimentConfiguration experimentConfig,
+                              PipelineData data,
+                              SoftwareVersion testVersion,
+                              int versionCount,
+                              int testVersionCount,
+                              PipelineProfiler.Scope profiling)
+    {
+        Instances testdata = data.testdata;
+        Instances traindata = data.traindata;
+        if (experimentConfig.getTrainerParallelism() > 1) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying trainers concurrently",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion()));
+            ConcurrentTraining.apply(experimentConfig.getTrainers(),
+                                     experimentConfig.getTestAwareTrainers(), testdata, traindata,
+                                     experimentConfig.getTrainerParallelism(), profiling);
+        }
+        else {
+            for (ITrainingStrategy trainer : experimentConfig.getTrainers()) {
+                Console.traceln(Level.FINE,
+                                String.format("[%s] [%02d/%02d] %s: applying trainer %s",
+                                              experimentConfig.getExperimentName(), versionCount,
+                                              testVersionCount, testVersion.getVersion(),
+                                              trainer.getName()));
+                PipelineProfiler.Measurement measurement = profiling.start("trainer", trainer);
+                trainer.apply(traindata);
+                measurement.stop();
+            }
+            for (ITestAwareTrainingStrategy trainer : experimentConfig.getTestAwareTrainers()) {
+                Console.traceln(Level.FINE,
+                                String.format("[%s] [%02d/%02d] %s: applying trainer %s",
+                                              experimentConfig.getExperimentName(), versionCount,
+                                              testVersionCount, testVersion.getVersion(),
+                                              trainer.getName()));
+                PipelineProfiler.Measurement measurement =
+                    profiling.start("testawaretrainer", trainer);
+                trainer.apply(testdata, traindata);
+                measurement.stop();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * returns all trainers of a configuration in the order in which they are evaluated
+     * </p>
+     *
+     * @param experimentConfig
+     *            the configuration
+     * @return the trainers
+     */
+    private static List<ITrainer> getAllTrainers(ExperimentConfiguration experimentConfig) {
+        List<ITrainer> allTrainers = new LinkedList<>();
+        for (ISetWiseTrainingStrategy setwiseTrainer : experimentConfig.getSetWiseTrainers()) {
+            allTrainers.add(setwiseTrainer);
+        }
+        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : experimentConfig
+            .getSetWiseTestdataAwareTrainers())
+        {
+            allTrainers.add(setwiseTestdataAwareTrainer);
+        }
+        for (ITrainingStrategy trainer : experimentConfig.getTrainers()) {
+            allTrainers.add(trainer);
+        }
+        for (ITestAwareTrainingStrategy trainer : experimentConfig.getTestAwareTrainers()) {
+            allTrainers.add(trainer);
+        }
+        return allTrainers;
     }
 
     /**
@@ -364,31 +698,71 @@ public abstract class AbstractCrossProjectExperiment implements IExecutionStrate
             return 0;
         }
 
-        List<ITrainer> allTrainers = new LinkedList<>();
-        for (ISetWiseTrainingStrategy setwiseTrainer : this.config.getSetWiseTrainers()) {
-            allTrainers.add(setwiseTrainer);
-        }
-        for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-            .getSetWiseTestdataAwareTrainers())
-        {
-            allTrainers.add(setwiseTestdataAwareTrainer);
-        }
-        for (ITrainingStrategy trainer : this.config.getTrainers()) {
-            allTrainers.add(trainer);
-        }
-        for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-            allTrainers.add(trainer);
-        }
+        List<ITrainer> allTrainers = getAllTrainers(this.config);
 
+        final PipelineProfiler.Scope profiling = PipelineProfiler.getInstance()
+            .scope(this.config.getExperimentName(), version.getVersion());
         int available = Integer.MAX_VALUE;
         for (IResultStorage storage : this.config.getResultStorages()) {
             String classifierName = ((IWekaCompatibleTrainer) allTrainers.get(0)).getName();
+            PipelineProfiler.Measurement measurement = profiling.start("storage", storage);
             int curAvailable = storage.containsResult(this.config.getExperimentName(),
                                                       version.getVersion(), classifierName);
+            measurement.stop();
             if (curAvailable < available) {
                 available = curAvailable;
             }
         }
         return available;
     }
+
+    /**
+     * <p>
+     * Test and training data of a test version together with the configuration whose trainers are
+     * trained on the data.
+     * </p>
+     *
+     * @author Steffen Herbold
+     */
+    private static class PipelineData {
+
+        /**
+         * configuration whose trainers are trained on the data
+         */
+        final ExperimentConfiguration config;
+
+        /**
+         * the test data
+         */
+        final Instances testdata;
+
+        /**
+         * the training data
+         */
+        Instances traindata;
+
+        /**
+         * repetition to which the data belongs
+         */
+        int repetition = 0;
+
+        /**
+         * <p>
+         * Creates a new PipelineData.
+         * </p>
+         *
+         * @param config
+         *            configuration whose trainers are trained on the data
+         * @param testdata
+         *            the test data
+         * @param traindata
+         *            the training data
+         */
+        @SuppressWarnings("hiding")
+        PipelineData(ExperimentConfiguration config, Instances testdata, Instances traindata) {
+            this.config = config;
+            this.testdata = testdata;
+            this.traindata = traindata;
+        }
+    }
 }
@@ -25,6 +25,7 @@ import de.ugoe.cs.cpdp.dataprocessing.IProcessesingStrategy;
 import de.ugoe.cs.cpdp.dataselection.IPointWiseDataselectionStrategy;
 import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
 import de.ugoe.cs.cpdp.loader.IVersionLoader;
+import de.ugoe.cs.cpdp.loader.VersionCache;
 import de.ugoe.cs.cpdp.training.ITrainer;
 import de.ugoe.cs.cpdp.training.ITrainingStrategy;
 import de.ugoe.cs.cpdp.training.IWekaCompatibleTrainer;
@@ -87,8 +88,12 @@ public class ClassifierCreationExperiment implements IExecutionStrategy {
 
         boolean writeHeader = true;
 
+        final PipelineProfiler.Scope loaderProfiling =
+            PipelineProfiler.getInstance().scope(this.config.getExperimentName(), null);
         for (IVersionLoader loader : this.config.getLoaders()) {
-            versions.addAll(loader.load());
+            PipelineProfiler.Measurement measurement = loaderProfiling.start("loader", loader);
+            versions.addAll(VersionCache.getInstance().load(loader));
+            measurement.stop();
         }
 
         File resultsDir = new File(this.config.getResultsPath());
@@ -99,6 +104,9 @@ public class ClassifierCreationExperiment implements IExecutionStrategy {
         int versionCount = 1;
         for (SoftwareVersion testVersion : versions) {
 
+            final PipelineProfiler.Scope profiling = PipelineProfiler.getInstance()
+                .scope(this.config.getExperimentName(), testVersion.getVersion());
+
             // At first: traindata == testdata
             Instances testdata = testVersion.getInstances();
             Instances traindata = new Instances(testdata);
@@ -114,7 +122,10 @@ public class ClassifierCreationExperiment implements IExecutionStrategy {
                                               this.config.getExperimentName(), versionCount,
                                               versions.size(), testVersion.getProject(),
                                               processor.getClass().getName()));
+                PipelineProfiler.Measurement measurement =
+                    profiling.start("preprocessor", processor);
                 processor.apply(testdata, traindata);
+                measurement.stop();
             }
 
             for (IPointWiseDataselectionStrategy dataselector : this.config
@@ -126,7 +137,10 @@ public class ClassifierCreationExperiment implements IExecutionStrategy {
                                            this.config.getExperimentName(), versionCount,
                                            versions.size(), testVersion.getProject(),
                                            dataselector.getClass().getName()));
+                PipelineProfiler.Measurement measurement =
+                    profiling.start("pointwiseselector", dataselector);
                 traindata = dataselector.apply(testdata, traindata);
+                measurement.stop();
             }
 
             for (IProcessesingStrategy processor : this.config.getPostProcessors()) {
@@ -136,7 +150,10 @@ public class ClassifierCreationExperiment implements IExecutionStrategy {
                                            this.config.getExperimentName(), versionCount,
                                            versions.size(), testVersion.getProject(),
                                            processor.getClass().getName()));
+                PipelineProfiler.Measurement measurement =
+                    profiling.start("postprocessor", processor);
                 processor.apply(testdata, traindata);
+                measurement.stop();
             }
 
             // Trainerlist for evaluation later on
@@ -148,7 +165,9 @@ public class ClassifierCreationExperiment implements IExecutionStrategy {
                 allTrainers.add(trainer);
 
                 // Train classifier
+                PipelineProfiler.Measurement measurement = profiling.start("trainer", trainer);
                 trainer.apply(traindata);
+                measurement.stop();
 
                 if (this.config.getSaveClassifier()) {
                     // If classifier should be saved, train him and save him
@@ -178,8 +197,10 @@ public class ClassifierCreationExperiment implements IExecutionStrategy {
                     evaluator.setParameter(this.config.getResultsPath() + "/" +
                         this.config.getExperimentName() + ".csv");
                 }
+                PipelineProfiler.Measurement measurement = profiling.start("eval", evaluator);
                 evaluator.apply(testdata, traindata, allTrainers, efforts, numBugs, writeHeader,
                                 this.config.getResultStorages());
+                measurement.stop();
                 writeHeader = false;
             }
 
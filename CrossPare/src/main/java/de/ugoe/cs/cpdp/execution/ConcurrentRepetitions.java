@@ -0,0 +1,194 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.ExperimentConfigurationException;
+import weka.core.Randomizable;
+
+/**
+ * <p>
+ * Helper for the repeated execution of the test versions of an experiment. Each repetition uses
+ * its own copy of the {@link ExperimentConfiguration} with new instances of the strategies, because
+ * the strategies are stateful. The copy is created without parsing the configuration file again.
+ * All strategies of the copy that implement {@link Randomizable} are seeded with the seed of the
+ * repetition, i.e., the seed of the first repetition defined by the configuration plus the index of
+ * the repetition. Thus, the results of a repetition are reproducible and independent of the other
+ * repetitions.
+ * </p>
+ * <p>
+ * Strategies that use global state must serialize the access to it themselves, e.g.,
+ * {@link de.ugoe.cs.cpdp.training.WekaLocalFQTraining} only builds one QuadTree at a time.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class ConcurrentRepetitions {
+
+    /**
+     * <p>
+     * Creates the configuration for a repetition of an experiment.
+     * </p>
+     *
+     * @param config
+     *            configuration of the experiment
+     * @param repetition
+     *            index of the repetition, starting with 0
+     * @return copy of the configuration whose randomized strategies are seeded for the repetition
+     */
+    public static ExperimentConfiguration createConfiguration(ExperimentConfiguration config,
+                                                              int repetition)
+    {
+        final ExperimentConfiguration repetitionConfig;
+        try {
+            repetitionConfig = new ExperimentConfiguration(config);
+        }
+        catch (ExperimentConfigurationException e) {
+            throw new RuntimeException("could not create the configuration of repetition " +
+                repetition + " of " + config.getExperimentName(), e);
+        }
+        final int seed = config.getRepetitionSeed() + repetition;
+        setSeed(repetitionConfig.getSetWisePreprocessors(), seed);
+        setSeed(repetitionConfig.getSetWiseSelectors(), seed);
+        setSeed(repetitionConfig.getSetWisePostprocessors(), seed);
+        setSeed(repetitionConfig.getSetWiseTrainers(), seed);
+        setSeed(repetitionConfig.getSetWiseTestdataAwareTrainers(), seed);
+        setSeed(repetitionConfig.getPreProcessors(), seed);
+        setSeed(repetitionConfig.getPointWiseSelectors(), seed);
+        setSeed(repetitionConfig.getPostProcessors(), seed);
+        setSeed(repetitionConfig.getTrainers(), seed);
+        setSeed(repetitionConfig.getTestAwareTrainers(), seed);
+        return repetitionConfig;
+    }
+
+    /**
+     * <p>
+     * Checks if the data processing of an experiment is randomized, i.e., if any of the setwise or
+     * pointwise processors or selectors implements {@link Randomizable}. Only data processing that
+     * is not randomized can be shared by the repetitions.
+     * </p>
+     *
+     * @param config
+     *            configuration of the experiment
+     * @return true if the data processing is randomized
+     */
+    public static boolean isDataProcessingRandomized(ExperimentConfiguration config) {
+        return isRandomized(config.getSetWisePreprocessors()) ||
+            isRandomized(config.getSetWiseSelectors()) ||
+            isRandomized(config.getSetWisePostprocessors()) ||
+            isRandomized(config.getPreProcessors()) ||
+            isRandomized(config.getPointWiseSelectors()) ||
+            isRandomized(config.getPostProcessors());
+    }
+
+    /**
+     * <p>
+     * Executes the repetitions concurrently and waits until all repetitions are finished.
+     * </p>
+     *
+     * @param <T>
+     *            type of the results of the repetitions
+     * @param repetitions
+     *            the repetitions
+     * @param numThreads
+     *            maximal number of concurrently executed repetitions
+     * @return results of the repetitions, in the same order as the repetitions
+     */
+    public static <T> List<T> run(List<Callable<T>> repetitions, int numThreads) {
+        final List<T> results = new ArrayList<>(repetitions.size());
+        if (numThreads <= 1 || repetitions.size() <= 1) {
+            for (Callable<T> repetition : repetitions) {
+                try {
+                    results.add(repetition.call());
+                }
+                catch (RuntimeException e) {
+                    throw e;
+                }
+                catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return results;
+        }
+        final ExecutorService threadPool =
+            Executors.newFixedThreadPool(Math.min(numThreads, repetitions.size()));
+        try {
+            final List<Future<T>> futures = new ArrayList<>(repetitions.size());
+            for (Callable<T> repetition : repetitions) {
+                futures.add(threadPool.submit(repetition));
+            }
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        }
+        catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        finally {
+            threadPool.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * <p>
+     * Sets the seed of all strategies that implement {@link Randomizable}.
+     * </p>
+     *
+     * @param strategies
+     *            the strategies
+     * @param seed
+     *            the seed
+     */
+    private static void setSeed(List<?> strategies, int seed) {
+        for (Object strategy : strategies) {
+            if (strategy instanceof Randomizable) {
+                ((Randomizable) strategy).setSeed(seed);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Checks if any of the strategies implements {@link Randomizable}.
+     * </p>
+     *
+     * @param strategies
+     *            the strategies
+     * @return true if a strategy is randomized
+     */
+    private static boolean isRandomized(List<?> strategies) {
+        for (Object strategy : strategies) {
+            if (strategy instanceof Randomizable) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
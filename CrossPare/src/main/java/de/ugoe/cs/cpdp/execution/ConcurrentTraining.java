@@ -0,0 +1,118 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.ugoe.cs.cpdp.training.ITestAwareTrainingStrategy;
+import de.ugoe.cs.cpdp.training.ITrainingStrategy;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Helper for the concurrent training of the classifiers of an experiment. Each trainer is applied
+ * in its own task on a thread pool with a bounded number of threads. Each trainer receives its own
+ * copy of the training data (and the test data for test-aware trainers), such that trainers that
+ * modify the data do not interfere with each other. The trainers themselves are not changed, i.e.,
+ * the results are still reported in the order in which the trainers are configured.
+ * </p>
+ * <p>
+ * Trainers that use global state must serialize the access to it themselves, e.g.,
+ * {@link de.ugoe.cs.cpdp.training.WekaLocalFQTraining} only builds one QuadTree at a time.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class ConcurrentTraining {
+
+    /**
+     * <p>
+     * Applies the trainers concurrently and waits until all trainers are finished.
+     * </p>
+     *
+     * @param trainers
+     *            trainers that are applied to the training data
+     * @param testAwareTrainers
+     *            trainers that are applied to the test and training data
+     * @param testdata
+     *            the test data
+     * @param traindata
+     *            the training data
+     * @param numThreads
+     *            maximal number of concurrently applied trainers
+     * @param profiling
+     *            scope in which the training is profiled
+     */
+    public static void apply(List<ITrainingStrategy> trainers,
+                             List<ITestAwareTrainingStrategy> testAwareTrainers,
+                             Instances testdata,
+                             Instances traindata,
+                             int numThreads,
+                             PipelineProfiler.Scope profiling)
+    {
+        int numTrainers = trainers.size() + testAwareTrainers.size();
+        if (numTrainers == 0) {
+            return;
+        }
+        final ExecutorService threadPool =
+            Executors.newFixedThreadPool(Math.min(numThreads, numTrainers));
+        try {
+            final List<Future<?>> results = new ArrayList<>(numTrainers);
+            for (final ITrainingStrategy trainer : trainers) {
+                results.add(threadPool.submit(() -> {
+                    PipelineProfiler.Measurement measurement = profiling.start("trainer", trainer);
+                    try {
+                        trainer.apply(new Instances(traindata));
+                    }
+                    finally {
+                        measurement.stop();
+                    }
+                }));
+            }
+            for (final ITestAwareTrainingStrategy trainer : testAwareTrainers) {
+                results.add(threadPool.submit(() -> {
+                    PipelineProfiler.Measurement measurement =
+                        profiling.start("testawaretrainer", trainer);
+                    try {
+                        trainer.apply(new Instances(testdata), new Instances(traindata));
+                    }
+                    finally {
+                        measurement.stop();
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+        catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        finally {
+            threadPool.shutdownNow();
+        }
+    }
+}
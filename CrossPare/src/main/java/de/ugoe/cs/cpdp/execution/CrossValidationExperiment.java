@@ -27,13 +27,13 @@ import de.ugoe.cs.cpdp.dataprocessing.IProcessesingStrategy;
 import de.ugoe.cs.cpdp.dataprocessing.ISetWiseProcessingStrategy;
 import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
 import de.ugoe.cs.cpdp.eval.IResultStorage;
-import de.ugoe.cs.cpdp.loader.IVersionLoader;
 import de.ugoe.cs.cpdp.training.ISetWiseTestdataAwareTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ISetWiseTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ITestAwareTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ITrainer;
 import de.ugoe.cs.cpdp.training.ITrainingStrategy;
 import de.ugoe.cs.cpdp.training.IWekaCompatibleTrainer;
+import de.ugoe.cs.cpdp.util.WekaUtils;
 import de.ugoe.cs.cpdp.versions.IVersionFilter;
 import de.ugoe.cs.cpdp.versions.SoftwareVersion;
 import de.ugoe.cs.util.console.Console;
@@ -69,11 +69,13 @@ import weka.core.Instances;
  * </ul>
  * 
  * Note that this class implements {@link Runnable}, i.e., each experiment can be started in its own
- * thread.
+ * thread. Moreover, the class implements {@link IVersionWiseExecutionStrategy}, i.e., the test
+ * versions can also be executed as separate tasks. If the configuration defines a parallelism
+ * for the test versions, the experiment executes its test versions concurrently.
  * 
  * @author Steffen Herbold
  */
-public class CrossValidationExperiment implements IExecutionStrategy {
+public class CrossValidationExperiment implements IVersionWiseExecutionStrategy {
 
     /**
      * configuration of the experiment
@@ -100,18 +102,25 @@ public class CrossValidationExperiment implements IExecutionStrategy {
      * @return single {@link Instances} set
      */
     public static Instances makeSingleTrainingSet(SetUniqueList<Instances> traindataSet) {
-        Instances traindataFull = null;
-        for (Instances traindata : traindataSet) {
-            if (traindataFull == null) {
-                traindataFull = new Instances(traindata);
-            }
-            else {
-                for (int i = 0; i < traindata.numInstances(); i++) {
-                    traindataFull.add(traindata.instance(i));
-                }
-            }
-        }
-        return traindataFull;
+        return makeSingleTrainingSet(traindataSet, true);
+    }
+
+    /**
+     * Helper method that combines a set of Weka {@link Instances} sets into a single
+     * {@link Instances} set. If the instances are not copied, they are moved to the single set,
+     * i.e., the sets must not be used anymore afterwards.
+     * 
+     * @param traindataSet
+     *            set of {@link Instances} to be combines
+     * @param copyInstances
+     *            if true, the instances are copied
+     * @return single {@link Instances} set
+     * @see WekaUtils#concatenate(java.util.Collection, boolean)
+     */
+    public static Instances makeSingleTrainingSet(SetUniqueList<Instances> traindataSet,
+                                                 boolean copyInstances)
+    {
+        return WekaUtils.concatenate(traindataSet, copyInstances);
     }
 
     /**
@@ -119,153 +128,256 @@ public class CrossValidationExperiment implements IExecutionStrategy {
      * 
      * @see Runnable#run()
      */
-    @SuppressWarnings("boxing")
     @Override
     public void run() {
-        final List<SoftwareVersion> versions = new LinkedList<>();
-
-        for (IVersionLoader loader : this.config.getLoaders()) {
-            versions.addAll(loader.load());
+        final List<SoftwareVersion> versions =
+            AbstractCrossProjectExperiment.loadVersions(this.config);
+        final List<SoftwareVersion> testVersions = getTestVersions(versions);
+        if (this.config.getVersionParallelism() > 1) {
+            TestVersionTask.runTasks(TestVersionTask.createTasks(this, this.config, versions,
+                                                                 testVersions),
+                                     this.config.getVersionParallelism());
+            return;
         }
+        final String resultsFile =
+            this.config.getResultsPath() + "/" + this.config.getExperimentName() + ".csv";
 
-        for (IVersionFilter filter : this.config.getVersionFilters()) {
-            filter.apply(versions);
-        }
         boolean writeHeader = true;
         int versionCount = 1;
-        int testVersionCount = 0;
-        int numTrainers = 0;
+        for (SoftwareVersion testVersion : testVersions) {
+            if (runTestVersion(this.config, testVersion, versions, versionCount,
+                               testVersions.size(), writeHeader, resultsFile, false))
+            {
+                writeHeader = false;
+            }
+            versionCount++;
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#getConfiguration()
+     */
+    @Override
+    public ExperimentConfiguration getConfiguration() {
+        return this.config;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#createTasks()
+     */
+    @Override
+    public List<TestVersionTask> createTasks() {
+        final List<SoftwareVersion> versions =
+            AbstractCrossProjectExperiment.loadVersions(this.config);
+        return TestVersionTask.createTasks(this, this.config, versions, getTestVersions(versions));
+    }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#getTestVersions(java.util.List)
+     */
+    @Override
+    public List<SoftwareVersion> getTestVersions(List<SoftwareVersion> versions) {
+        final List<SoftwareVersion> testVersions = new LinkedList<>();
         for (SoftwareVersion testVersion : versions) {
             if (isVersion(testVersion, this.config.getTestVersionFilters())) {
-                testVersionCount++;
+                testVersions.add(testVersion);
             }
         }
+        return testVersions;
+    }
+
+    /**
+     * All versions may be used as training data. Hence, the results of each test version depend
+     * on all versions.
+     * 
+     * @see de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#dependsOn(de.ugoe.cs.cpdp.
+     *      versions.SoftwareVersion, de.ugoe.cs.cpdp.versions.SoftwareVersion, java.util.List)
+     */
+    @Override
+    public boolean dependsOn(SoftwareVersion testVersion,
+                             SoftwareVersion version,
+                             List<SoftwareVersion> versions)
+    {
+        return true;
+    }
 
-        numTrainers += this.config.getSetWiseTrainers().size();
-        numTrainers += this.config.getSetWiseTestdataAwareTrainers().size();
-        numTrainers += this.config.getTrainers().size();
-        numTrainers += this.config.getTestAwareTrainers().size();
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#runTestVersion(de.ugoe.cs.cpdp.
+     * ExperimentConfiguration, de.ugoe.cs.cpdp.versions.SoftwareVersion, java.util.List, int, int,
+     * boolean, java.lang.String, boolean)
+     */
+    @SuppressWarnings("boxing")
+    @Override
+    public boolean runTestVersion(ExperimentConfiguration experimentConfig,
+                                  SoftwareVersion testVersion,
+                                  List<SoftwareVersion> versions,
+                                  int versionCount,
+                                  int testVersionCount,
+                                  boolean writeHeader,
+                                  String resultsFile,
+                                  boolean rerun)
+    {
+        int numTrainers = 0;
+        numTrainers += experimentConfig.getSetWiseTrainers().size();
+        numTrainers += experimentConfig.getSetWiseTestdataAwareTrainers().size();
+        numTrainers += experimentConfig.getTrainers().size();
+        numTrainers += experimentConfig.getTestAwareTrainers().size();
 
-        // sort versions
-        Collections.sort(versions);
+        Console.traceln(Level.INFO,
+                        String.format("[%s] [%02d/%02d] %s: starting",
+                                      experimentConfig.getExperimentName(), versionCount,
+                                      testVersionCount, testVersion.getVersion()));
+        final PipelineProfiler.Scope profiling = PipelineProfiler.getInstance()
+            .scope(experimentConfig.getExperimentName(), testVersion.getVersion());
+        int numResultsAvailable = rerun ? 0 : resultsAvailable(testVersion);
+        if (numResultsAvailable >= numTrainers * experimentConfig.getRepetitions()) {
+            Console.traceln(Level.INFO, String
+                .format("[%s] [%02d/%02d] %s: results already available; skipped",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion()));
+            return false;
+        }
 
-        for (SoftwareVersion testVersion : versions) {
-            if (isVersion(testVersion, this.config.getTestVersionFilters())) {
-                Console.traceln(Level.INFO,
-                                String.format("[%s] [%02d/%02d] %s: starting",
-                                              this.config.getExperimentName(), versionCount,
-                                              testVersionCount, testVersion.getVersion()));
-                int numResultsAvailable = resultsAvailable(testVersion);
-                if (numResultsAvailable >= numTrainers * this.config.getRepetitions()) {
-                    Console.traceln(Level.INFO, String
-                        .format("[%s] [%02d/%02d] %s: results already available; skipped",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion()));
-                    versionCount++;
-                    continue;
+        // Setup testdata and training data
+        Instances testdata = testVersion.getInstances();
+        List<Double> efforts = testVersion.getEfforts();
+        List<Double> numBugs = testVersion.getNumBugs();
+        // without setwise processors, the training data is only read until it is copied by
+        // makeSingleTrainingSet
+        boolean copyTraindata = !experimentConfig.getSetWisePreprocessors().isEmpty() ||
+            !experimentConfig.getSetWisePostprocessors().isEmpty();
+        SetUniqueList<Instances> traindataSet =
+            SetUniqueList.setUniqueList(new LinkedList<Instances>());
+        for (SoftwareVersion trainingVersion : versions) {
+            if (isVersion(trainingVersion, experimentConfig.getTrainingVersionFilters())) {
+                if (trainingVersion != testVersion) {
+                    traindataSet.add(copyTraindata ? trainingVersion.getInstances()
+                        : trainingVersion.getReadOnlyInstances());
                 }
+            }
+        }
 
-                // Setup testdata and training data
-                Instances testdata = testVersion.getInstances();
-                List<Double> efforts = testVersion.getEfforts();
-                List<Double> numBugs = testVersion.getNumBugs();
-                SetUniqueList<Instances> traindataSet =
-                    SetUniqueList.setUniqueList(new LinkedList<Instances>());
-                for (SoftwareVersion trainingVersion : versions) {
-                    if (isVersion(trainingVersion, this.config.getTrainingVersionFilters())) {
-                        if (trainingVersion != testVersion) {
-                            traindataSet.add(trainingVersion.getInstances());
-                        }
-                    }
-                }
-                
-                // allowing processors
-                for (ISetWiseProcessingStrategy processor : this.config.getSetWisePreprocessors()) {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying setwise preprocessor %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), processor.getClass().getName()));
-                    processor.apply(testdata, traindataSet);
-                }
-                for (ISetWiseProcessingStrategy processor : this.config
-                    .getSetWisePostprocessors())
-                {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), processor.getClass().getName()));
-                    processor.apply(testdata, traindataSet);
-                }
-                Instances traindata = makeSingleTrainingSet(traindataSet);
-                for (IProcessesingStrategy processor : this.config.getPreProcessors()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying preprocessor %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  processor.getClass().getName()));
-                    processor.apply(testdata, traindata);
-                }
-                for (IProcessesingStrategy processor : this.config.getPostProcessors()) {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), processor.getClass().getName()));
-                    processor.apply(testdata, traindata);
-                }
-                
-                // training with test data
-                for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  trainer.getName()));
-                    trainer.apply(testdata);
-                }
+        // allowing processors
+        for (ISetWiseProcessingStrategy processor : experimentConfig.getSetWisePreprocessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise preprocessor %s",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            PipelineProfiler.Measurement measurement =
+                profiling.start("setwisepreprocessor", processor);
+            processor.apply(testdata, traindataSet);
+            measurement.stop();
+        }
+        for (ISetWiseProcessingStrategy processor : experimentConfig
+            .getSetWisePostprocessors())
+        {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            PipelineProfiler.Measurement measurement =
+                profiling.start("setwisepostprocessor", processor);
+            processor.apply(testdata, traindataSet);
+            measurement.stop();
+        }
+        // copied training data can be moved into the single training set
+        Instances traindata = makeSingleTrainingSet(traindataSet, !copyTraindata);
+        for (IProcessesingStrategy processor : experimentConfig.getPreProcessors()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying preprocessor %s",
+                                          experimentConfig.getExperimentName(), versionCount,
+                                          testVersionCount, testVersion.getVersion(),
+                                          processor.getClass().getName()));
+            PipelineProfiler.Measurement measurement = profiling.start("preprocessor", processor);
+            processor.apply(testdata, traindata);
+            measurement.stop();
+        }
+        for (IProcessesingStrategy processor : experimentConfig.getPostProcessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            PipelineProfiler.Measurement measurement = profiling.start("postprocessor", processor);
+            processor.apply(testdata, traindata);
+            measurement.stop();
+        }
 
-                File resultsDir = new File(this.config.getResultsPath());
-                if (!resultsDir.exists()) {
-                    resultsDir.mkdir();
-                }
-                for (IEvaluationStrategy evaluator : this.config.getEvaluators()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying evaluator %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  evaluator.getClass().getName()));
-                    List<ITrainer> allTrainers = new LinkedList<>();
-                    for (ISetWiseTrainingStrategy setwiseTrainer : this.config
-                        .getSetWiseTrainers())
-                    {
-                        allTrainers.add(setwiseTrainer);
-                    }
-                    for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
-                        .getSetWiseTestdataAwareTrainers())
-                    {
-                        allTrainers.add(setwiseTestdataAwareTrainer);
-                    }
-                    for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                        allTrainers.add(trainer);
-                    }
-                    for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-                        allTrainers.add(trainer);
-                    }
-                    if (writeHeader) {
-                        evaluator.setParameter(this.config.getResultsPath() + "/" +
-                            this.config.getExperimentName() + ".csv");
-                    }
-                    evaluator.apply(testdata, testdata, allTrainers, efforts, numBugs, writeHeader,
-                                    this.config.getResultStorages());
-                    writeHeader = false;
-                }
-                Console.traceln(Level.INFO,
-                                String.format("[%s] [%02d/%02d] %s: finished",
-                                              this.config.getExperimentName(), versionCount,
-                                              testVersionCount, testVersion.getVersion()));
-                versionCount++;
+        // training with test data
+        if (experimentConfig.getTrainerParallelism() > 1) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying trainers concurrently",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion()));
+            ConcurrentTraining.apply(experimentConfig.getTrainers(),
+                                     Collections.<ITestAwareTrainingStrategy> emptyList(),
+                                     testdata, testdata, experimentConfig.getTrainerParallelism(),
+                                     profiling);
+        }
+        else {
+            for (ITrainingStrategy trainer : experimentConfig.getTrainers()) {
+                Console.traceln(Level.FINE,
+                                String.format("[%s] [%02d/%02d] %s: applying trainer %s",
+                                              experimentConfig.getExperimentName(), versionCount,
+                                              testVersionCount, testVersion.getVersion(),
+                                              trainer.getName()));
+                PipelineProfiler.Measurement measurement = profiling.start("trainer", trainer);
+                trainer.apply(testdata);
+                measurement.stop();
+            }
+        }
+
+        File resultsDir = new File(experimentConfig.getResultsPath());
+        if (!resultsDir.exists()) {
+            resultsDir.mkdir();
+        }
+        boolean writeEvaluatorHeader = writeHeader;
+        for (IEvaluationStrategy evaluator : experimentConfig.getEvaluators()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying evaluator %s",
+                                          experimentConfig.getExperimentName(), versionCount,
+                                          testVersionCount, testVersion.getVersion(),
+                                          evaluator.getClass().getName()));
+            List<ITrainer> allTrainers = new LinkedList<>();
+            for (ISetWiseTrainingStrategy setwiseTrainer : experimentConfig
+                .getSetWiseTrainers())
+            {
+                allTrainers.add(setwiseTrainer);
+            }
+            for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : experimentConfig
+                .getSetWiseTestdataAwareTrainers())
+            {
+                allTrainers.add(setwiseTestdataAwareTrainer);
+            }
+            for (ITrainingStrategy trainer : experimentConfig.getTrainers()) {
+                allTrainers.add(trainer);
+            }
+            for (ITestAwareTrainingStrategy trainer : experimentConfig.getTestAwareTrainers()) {
+                allTrainers.add(trainer);
+            }
+            if (writeEvaluatorHeader && resultsFile != null) {
+                evaluator.setParameter(resultsFile);
             }
+            PipelineProfiler.Measurement measurement = profiling.start("eval", evaluator);
+            evaluator.apply(testdata, testdata, allTrainers, efforts, numBugs,
+                            writeEvaluatorHeader, experimentConfig.getResultStorages());
+            measurement.stop();
+            writeEvaluatorHeader = false;
         }
+        Console.traceln(Level.INFO,
+                        String.format("[%s] [%02d/%02d] %s: finished",
+                                      experimentConfig.getExperimentName(), versionCount,
+                                      testVersionCount, testVersion.getVersion()));
+        return true;
     }
 
     /**
@@ -315,11 +427,15 @@ public class CrossValidationExperiment implements IExecutionStrategy {
             allTrainers.add(trainer);
         }
 
+        final PipelineProfiler.Scope profiling = PipelineProfiler.getInstance()
+            .scope(this.config.getExperimentName(), version.getVersion());
         int available = Integer.MAX_VALUE;
         for (IResultStorage storage : this.config.getResultStorages()) {
             String classifierName = ((IWekaCompatibleTrainer) allTrainers.get(0)).getName();
+            PipelineProfiler.Measurement measurement = profiling.start("storage", storage);
             int curAvailable = storage.containsResult(this.config.getExperimentName(),
                                                       version.getVersion(), classifierName);
+            measurement.stop();
             if (curAvailable < available) {
                 available = curAvailable;
             }
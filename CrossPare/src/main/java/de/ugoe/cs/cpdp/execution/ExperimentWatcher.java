@@ -0,0 +1,543 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Timer;
+import java.util.logging.Level;
+
+import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.ExperimentConfigurationException;
+import de.ugoe.cs.cpdp.decentApp.FileWatcher;
+import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
+import de.ugoe.cs.cpdp.loader.IVersionLoader;
+import de.ugoe.cs.cpdp.loader.VersionCache;
+import de.ugoe.cs.cpdp.versions.IVersionFilter;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import de.ugoe.cs.cpdp.versions.VersionMetadata;
+import de.ugoe.cs.util.console.Console;
+
+/**
+ * <p>
+ * Executes an {@link IVersionWiseExecutionStrategy} incrementally. The data folders of the loaders
+ * are watched with {@link FileWatcher}s. Whenever version files are added, changed, or removed,
+ * only the new and changed versions are loaded and only the test versions whose results depend on
+ * the changed versions are executed (see
+ * {@link IVersionWiseExecutionStrategy#dependsOn(SoftwareVersion, SoftwareVersion, List)}). The
+ * results are appended to the results file of the experiment and tagged with the number of the
+ * update (see {@link IEvaluationStrategy#setUpdate(int)}), i.e., the results of a test version
+ * from the latest update supersede its earlier results. The test versions of later updates are
+ * executed even if their results are already available in the result storages.
+ * </p>
+ * <p>
+ * The first update executes all test versions and writes a new results file. The data of the first
+ * update is loaded through the {@link VersionCache}, i.e., experiments that use the same data share
+ * the initially loaded versions. Later updates use the loaders directly. A version is changed if
+ * the size or the modification time of its version file changed. For versions whose source is not
+ * a file in the data folder, the {@link VersionMetadata} is compared instead.
+ * </p>
+ * <p>
+ * The test versions are executed sequentially with a copy of the configuration for each update,
+ * because the strategies of a configuration are stateful.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class ExperimentWatcher {
+
+    /**
+     * the watched experiment
+     */
+    private final IVersionWiseExecutionStrategy experiment;
+
+    /**
+     * configuration of the experiment
+     */
+    private final ExperimentConfiguration config;
+
+    /**
+     * versions of the last update, identified by their loader and source
+     */
+    private Map<String, WatchedVersion> watchedVersions = new HashMap<>();
+
+    /**
+     * all versions of the experiment in the last update
+     */
+    private List<SoftwareVersion> versions = Collections.emptyList();
+
+    /**
+     * true once the first update was executed
+     */
+    private boolean initialized = false;
+
+    /**
+     * number of updates that executed test versions
+     */
+    private int numUpdates = 0;
+
+    /**
+     * <p>
+     * Creates a new watcher for an experiment.
+     * </p>
+     *
+     * @param experiment
+     *            the watched experiment
+     */
+    @SuppressWarnings("hiding")
+    public ExperimentWatcher(IVersionWiseExecutionStrategy experiment) {
+        this.experiment = experiment;
+        this.config = experiment.getConfiguration();
+    }
+
+    /**
+     * <p>
+     * Executes the first update and starts watching the data folders of the loaders. The folders
+     * are watched by tasks of the timer, i.e., the updates are executed by the thread of the
+     * timer.
+     * </p>
+     *
+     * @param timer
+     *            timer that executes the watching
+     * @param period
+     *            time in milliseconds between two checks of the data folders
+     */
+    public void start(Timer timer, long period) {
+        // the watchers are created first, such that changes during the first update are detected
+        List<DataFolderWatcher> folderWatchers = new LinkedList<>();
+        for (IVersionLoader loader : this.config.getLoaders()) {
+            folderWatchers.add(new DataFolderWatcher(new File(loader.getLocation())));
+        }
+        update();
+        for (DataFolderWatcher folderWatcher : folderWatchers) {
+            timer.schedule(folderWatcher, period, period);
+        }
+    }
+
+    /**
+     * <p>
+     * Loads the new and changed versions and executes the test versions whose results depend on
+     * the added, changed, or removed versions.
+     * </p>
+     *
+     * @return number of executed test versions
+     */
+    public synchronized int update() {
+        final List<SoftwareVersion> oldVersions = this.versions;
+        final Map<String, WatchedVersion> newWatchedVersions = new HashMap<>();
+        final List<SoftwareVersion> newVersions = new LinkedList<>();
+        int loaderIndex = 0;
+        for (IVersionLoader loader : this.config.getLoaders()) {
+            if (this.initialized) {
+                newVersions.addAll(loadChanged(loaderIndex, loader, newWatchedVersions));
+            }
+            else {
+                for (SoftwareVersion version : VersionCache.getInstance()
+                    .load(loader, this.config.getVersionFilters()))
+                {
+                    newWatchedVersions.put(getKey(loaderIndex, version.getMetadata()),
+                                           new WatchedVersion(loader, version));
+                    newVersions.add(version);
+                }
+            }
+            loaderIndex++;
+        }
+        // the versions were already selected based on their metadata
+        Collections.sort(newVersions);
+
+        final Set<SoftwareVersion> added = difference(newVersions, oldVersions);
+        final Set<SoftwareVersion> removed = difference(oldVersions, newVersions);
+        final List<SoftwareVersion> affectedVersions = new LinkedList<>();
+        for (SoftwareVersion testVersion : this.experiment.getTestVersions(newVersions)) {
+            if (dependsOnAny(testVersion, added, newVersions) ||
+                dependsOnAny(testVersion, removed, oldVersions))
+            {
+                affectedVersions.add(testVersion);
+            }
+        }
+        this.watchedVersions = newWatchedVersions;
+        this.versions = newVersions;
+        Console.traceln(Level.INFO, String
+            .format("[%s] %d versions loaded, %d versions replaced or removed; " +
+                "%d test versions affected", this.config.getExperimentName(), added.size(),
+                    removed.size(), affectedVersions.size()));
+        int executed = execute(affectedVersions, newVersions);
+        this.initialized = true;
+        return executed;
+    }
+
+    /**
+     * <p>
+     * Loads the metadata of a loader and the data of the new and changed versions. The data of
+     * unchanged versions is reused from the last update.
+     * </p>
+     *
+     * @param loaderIndex
+     *            index of the loader in the configuration
+     * @param loader
+     *            the loader
+     * @param newWatchedVersions
+     *            map to which the watched versions of the loader are added
+     * @return the versions of the loader that pass the version filters
+     */
+    private List<SoftwareVersion> loadChanged(int loaderIndex,
+                                              IVersionLoader loader,
+                                              Map<String, WatchedVersion> newWatchedVersions)
+    {
+        final List<VersionMetadata> selected = new LinkedList<>();
+        for (VersionMetadata metadata : loader.loadMetadata()) {
+            if (isVersion(metadata, this.config.getVersionFilters())) {
+                selected.add(metadata);
+            }
+        }
+        final List<VersionMetadata> missing = new LinkedList<>();
+        for (VersionMetadata metadata : selected) {
+            String key = getKey(loaderIndex, metadata);
+            WatchedVersion watchedVersion = this.watchedVersions.get(key);
+            if (watchedVersion != null && !watchedVersion.isChanged(loader, metadata)) {
+                newWatchedVersions.put(key, watchedVersion);
+            }
+            else {
+                missing.add(metadata);
+            }
+        }
+        // also called without missing versions, such that the loader can release the versions it
+        // loaded for the metadata
+        Iterator<SoftwareVersion> loaded = loader.loadVersions(missing).iterator();
+        for (VersionMetadata metadata : missing) {
+            newWatchedVersions.put(getKey(loaderIndex, metadata),
+                                   new WatchedVersion(loader, loaded.next()));
+        }
+        final List<SoftwareVersion> loaderVersions = new LinkedList<>();
+        for (VersionMetadata metadata : selected) {
+            loaderVersions.add(newWatchedVersions.get(getKey(loaderIndex, metadata)).version);
+        }
+        return loaderVersions;
+    }
+
+    /**
+     * <p>
+     * Executes test versions with a copy of the configuration and appends the results to the
+     * results file. The results file is replaced by the first update. Later updates execute the
+     * test versions even if their results are already available in the result storages.
+     * </p>
+     *
+     * @param testVersions
+     *            the executed test versions
+     * @param allVersions
+     *            all versions of the experiment
+     * @return number of test versions for which results were written
+     */
+    private int execute(List<SoftwareVersion> testVersions, List<SoftwareVersion> allVersions) {
+        if (testVersions.isEmpty()) {
+            return 0;
+        }
+        final ExperimentConfiguration updateConfig;
+        try {
+            updateConfig = new ExperimentConfiguration(this.config);
+        }
+        catch (ExperimentConfigurationException e) {
+            Console.printerrln("Failure initializing the experiment configuration for " +
+                this.config.getExperimentName());
+            e.printStackTrace();
+            return 0;
+        }
+        final File resultsDir = new File(this.config.getResultsPath());
+        if (!resultsDir.exists()) {
+            resultsDir.mkdirs();
+        }
+        final File resultsFile = new File(resultsDir, this.config.getExperimentName() + ".csv");
+        int executed = 0;
+        try (Writer writer = new BufferedWriter(new FileWriter(resultsFile, this.initialized))) {
+            for (IEvaluationStrategy evaluator : updateConfig.getEvaluators()) {
+                evaluator.setOutput(writer, this.config.getExperimentName());
+                evaluator.setUpdate(this.numUpdates);
+            }
+            boolean writeHeader = !this.initialized;
+            int versionCount = 1;
+            for (SoftwareVersion testVersion : testVersions) {
+                if (this.experiment.runTestVersion(updateConfig, testVersion, allVersions,
+                                                   versionCount, testVersions.size(),
+                                                   writeHeader, null, this.initialized))
+                {
+                    writeHeader = false;
+                    executed++;
+                }
+                versionCount++;
+            }
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        this.numUpdates++;
+        return executed;
+    }
+
+    /**
+     * <p>
+     * Checks if the results of a test version depend on any of a set of versions.
+     * </p>
+     *
+     * @param testVersion
+     *            the test version
+     * @param candidates
+     *            the versions
+     * @param allVersions
+     *            all versions of the experiment that contain the candidates
+     * @return true if the results depend on at least one candidate
+     */
+    private boolean dependsOnAny(SoftwareVersion testVersion,
+                                 Set<SoftwareVersion> candidates,
+                                 List<SoftwareVersion> allVersions)
+    {
+        for (SoftwareVersion candidate : candidates) {
+            if (this.experiment.dependsOn(testVersion, candidate, allVersions)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * <p>
+     * Determines the versions of a list that are not contained in another list. The versions are
+     * compared by their identity, i.e., changed versions are contained in both differences.
+     * </p>
+     *
+     * @param versions1
+     *            first list
+     * @param versions2
+     *            second list
+     * @return versions of the first list that are not contained in the second list
+     */
+    private static Set<SoftwareVersion> difference(List<SoftwareVersion> versions1,
+                                                   List<SoftwareVersion> versions2)
+    {
+        Set<SoftwareVersion> difference = Collections.newSetFromMap(new IdentityHashMap<>());
+        difference.addAll(versions1);
+        for (SoftwareVersion version : versions2) {
+            difference.remove(version);
+        }
+        return difference;
+    }
+
+    /**
+     * <p>
+     * Checks if the metadata of a version passes all filters.
+     * </p>
+     *
+     * @param metadata
+     *            metadata of the version
+     * @param filters
+     *            the filters
+     * @return true if the version passes all filters
+     */
+    private static boolean isVersion(VersionMetadata metadata, List<IVersionFilter> filters) {
+        for (IVersionFilter filter : filters) {
+            if (filter.apply(metadata)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * <p>
+     * returns the key that identifies a version across updates
+     * </p>
+     *
+     * @param loaderIndex
+     *            index of the loader of the version
+     * @param metadata
+     *            metadata of the version
+     * @return the key
+     */
+    private static String getKey(int loaderIndex, VersionMetadata metadata) {
+        String source = metadata.getSource();
+        if (source == null) {
+            source = metadata.getProject() + "/" + metadata.getVersion();
+        }
+        return loaderIndex + ":" + source;
+    }
+
+    /**
+     * <p>
+     * Determines a time stamp of a folder that changes if files are added to or removed from the
+     * folder or its subfolders or if the size or modification time of any of the files changes.
+     * </p>
+     *
+     * @param folder
+     *            the folder
+     * @return the time stamp
+     */
+    private static long getFolderTimeStamp(File folder) {
+        long timeStamp = folder.getName().hashCode();
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return 31 * timeStamp + folder.lastModified();
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            timeStamp = 31 * timeStamp + (file.isDirectory() ? getFolderTimeStamp(file)
+                : 31 * (31 * file.getName().hashCode() + file.length()) + file.lastModified());
+        }
+        return timeStamp;
+    }
+
+    /**
+     * <p>
+     * Watches a data folder and updates the experiment if the folder changes.
+     * </p>
+     *
+     * @author Steffen Herbold
+     */
+    private class DataFolderWatcher extends FileWatcher {
+
+        /**
+         * <p>
+         * Creates a new watcher for a data folder.
+         * </p>
+         *
+         * @param dataDir
+         *            the data folder
+         */
+        private DataFolderWatcher(File dataDir) {
+            super(dataDir);
+        }
+
+        /*
+         * @see de.ugoe.cs.cpdp.decentApp.FileWatcher#getTimeStamp(java.io.File)
+         */
+        @Override
+        protected long getTimeStamp(File watchedFile) {
+            return getFolderTimeStamp(watchedFile);
+        }
+
+        /*
+         * @see de.ugoe.cs.cpdp.decentApp.FileWatcher#onChange(java.io.File)
+         */
+        @Override
+        protected void onChange(File changedFile) {
+            Console.traceln(Level.INFO, String.format("[%s] data folder %s changed",
+                                                      config.getExperimentName(), changedFile));
+            try {
+                update();
+            }
+            catch (RuntimeException e) {
+                // the timer must not be stopped by failing updates
+                Console.printerrln("Failure updating experiment " + config.getExperimentName());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Version of an update together with the state of its version file.
+     * </p>
+     *
+     * @author Steffen Herbold
+     */
+    private static class WatchedVersion {
+
+        /**
+         * the version
+         */
+        private final SoftwareVersion version;
+
+        /**
+         * size of the version file; -1 if the source of the version is not a file
+         */
+        private final long length;
+
+        /**
+         * modification time of the version file; -1 if the source of the version is not a file
+         */
+        private final long lastModified;
+
+        /**
+         * <p>
+         * Creates a new watched version.
+         * </p>
+         *
+         * @param loader
+         *            loader of the version
+         * @param version
+         *            the version
+         */
+        @SuppressWarnings("hiding")
+        private WatchedVersion(IVersionLoader loader, SoftwareVersion version) {
+            this.version = version;
+            File versionFile = getVersionFile(loader, version.getMetadata());
+            this.length = versionFile == null ? -1 : versionFile.length();
+            this.lastModified = versionFile == null ? -1 : versionFile.lastModified();
+        }
+
+        /**
+         * <p>
+         * Checks if the version changed since the last update.
+         * </p>
+         *
+         * @param loader
+         *            loader of the version
+         * @param metadata
+         *            current metadata of the version
+         * @return true if the version changed
+         */
+        private boolean isChanged(IVersionLoader loader, VersionMetadata metadata) {
+            File versionFile = getVersionFile(loader, metadata);
+            if (versionFile != null || this.length >= 0) {
+                return versionFile == null || this.length != versionFile.length() ||
+                    this.lastModified != versionFile.lastModified();
+            }
+            VersionMetadata oldMetadata = this.version.getMetadata();
+            return oldMetadata.getNumInstances() != metadata.getNumInstances() ||
+                !Arrays.equals(oldMetadata.getClassCounts(), metadata.getClassCounts()) ||
+                !oldMetadata.getAttributeNames().equals(metadata.getAttributeNames());
+        }
+
+        /**
+         * <p>
+         * returns the version file of a version
+         * </p>
+         *
+         * @param loader
+         *            loader of the version
+         * @param metadata
+         *            metadata of the version
+         * @return the version file; null if the source of the version is not a file in the data
+         *         folder
+         */
+        private static File getVersionFile(IVersionLoader loader, VersionMetadata metadata) {
+            if (metadata.getSource() == null) {
+                return null;
+            }
+            File versionFile = new File(loader.getLocation(), metadata.getSource());
+            return versionFile.isFile() ? versionFile : null;
+        }
+    }
+}
@@ -17,6 +17,7 @@ import de.ugoe.cs.cpdp.dataselection.ISetWiseDataselectionStrategy;
 import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
 import de.ugoe.cs.cpdp.eval.IResultStorage;
 import de.ugoe.cs.cpdp.loader.IVersionLoader;
+import de.ugoe.cs.cpdp.loader.VersionCache;
 import de.ugoe.cs.cpdp.training.ISetWiseTestdataAwareTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ISetWiseTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ITestAwareTrainingStrategy;
@@ -73,18 +74,7 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
      * @see AbstractCrossProjectExperiment#makeSingleTrainingSet(SetUniqueList)
      */
     public static Instances makeSingleTrainingSet(SetUniqueList<Instances> traindataSet) {
-        Instances traindataFull = null;
-        for (Instances traindata : traindataSet) {
-            if (traindataFull == null) {
-                traindataFull = new Instances(traindata);
-            }
-            else {
-                for (int i = 0; i < traindata.numInstances(); i++) {
-                    traindataFull.add(traindata.instance(i));
-                }
-            }
-        }
-        return traindataFull;
+        return AbstractCrossProjectExperiment.makeSingleTrainingSet(traindataSet);
     }
 
     /**
@@ -112,13 +102,14 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
     @Override
     public void run() {
         final List<SoftwareVersion> versions = new LinkedList<>();
+        final PipelineProfiler.Scope loaderProfiling =
+            PipelineProfiler.getInstance().scope(this.config.getExperimentName(), null);
 
         for (IVersionLoader loader : this.config.getLoaders()) {
-            versions.addAll(loader.load());
-        }
-
-        for (IVersionFilter filter : this.config.getVersionFilters()) {
-            filter.apply(versions);
+            PipelineProfiler.Measurement measurement = loaderProfiling.start("loader", loader);
+            versions.addAll(VersionCache.getInstance()
+                .load(loader, this.config.getVersionFilters()));
+            measurement.stop();
         }
         boolean writeHeader = true;
         int versionCount = 1;
@@ -157,6 +148,11 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
                                                               versionCount, testVersionCount,
                                                               testVersion.getVersion(),
                                                               trainingVersion.getVersion()));
+                                final PipelineProfiler.Scope profiling =
+                                    PipelineProfiler.getInstance()
+                                        .scope(this.config.getExperimentName(),
+                                               testVersion.getVersion() + ":" +
+                                                   trainingVersion.getVersion());
                                 int numResultsAvailable =
                                     resultsAvailable(testVersion, trainingVersion);
                                 if (numResultsAvailable >= this.config.getRepetitions()) {
@@ -189,7 +185,10 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
                                                 testVersionCount, testVersion.getVersion(),
                                                 trainingVersion.getVersion(),
                                                 processor.getClass().getName()));
+                                    PipelineProfiler.Measurement measurement =
+                                        profiling.start("setwisepreprocessor", processor);
                                     processor.apply(testdata, traindataSet);
+                                    measurement.stop();
                                 }
                                 for (ISetWiseDataselectionStrategy dataselector : this.config
                                     .getSetWiseSelectors())
@@ -199,7 +198,10 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
                                                 this.config.getExperimentName(), versionCount,
                                                 testVersionCount, testVersion.getVersion(),
                                                 dataselector.getClass().getName()));
+                                    PipelineProfiler.Measurement measurement =
+                                        profiling.start("setwiseselector", dataselector);
                                     dataselector.apply(testdata, traindataSet);
+                                    measurement.stop();
                                 }
                                 for (ISetWiseProcessingStrategy processor : this.config
                                     .getSetWisePostprocessors())
@@ -209,7 +211,10 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
                                                 this.config.getExperimentName(), versionCount,
                                                 testVersionCount, testVersion.getVersion(),
                                                 processor.getClass().getName()));
+                                    PipelineProfiler.Measurement measurement =
+                                        profiling.start("setwisepostprocessor", processor);
                                     processor.apply(testdata, traindataSet);
+                                    measurement.stop();
                                 }
                                 for (ISetWiseTrainingStrategy setwiseTrainer : this.config
                                     .getSetWiseTrainers())
@@ -219,7 +224,10 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
                                                 this.config.getExperimentName(), versionCount,
                                                 testVersionCount, testVersion.getVersion(),
                                                 setwiseTrainer.getName()));
+                                    PipelineProfiler.Measurement measurement =
+                                        profiling.start("setwisetrainer", setwiseTrainer);
                                     setwiseTrainer.apply(traindataSet);
+                                    measurement.stop();
                                 }
                                 for (ISetWiseTestdataAwareTrainingStrategy setwiseTestdataAwareTrainer : this.config
                                     .getSetWiseTestdataAwareTrainers())
@@ -230,7 +238,11 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
                                                 testVersionCount, testVersion.getVersion(),
                                                 trainingVersion.getVersion(),
                                                 setwiseTestdataAwareTrainer.getName()));
+                                    PipelineProfiler.Measurement measurement =
+                                        profiling.start("setwisetestdataawaretrainer",
+                                                        setwiseTestdataAwareTrainer);
                                     setwiseTestdataAwareTrainer.apply(traindataSet, testdata);
+                                    measurement.stop();
                                 }
 
                                 // this part will not work in heterogeneous
@@ -243,7 +255,10 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
                                                 this.config.getExperimentName(), versionCount,
                                                 testVersionCount, testVersion.getVersion(),
                                                 processor.getClass().getName()));
+                                    PipelineProfiler.Measurement measurement =
+                                        profiling.start("preprocessor", processor);
                                     processor.apply(testdata, traindata);
+                                    measurement.stop();
                                 }
                                 for (IPointWiseDataselectionStrategy dataselector : this.config
                                     .getPointWiseSelectors())
@@ -253,7 +268,10 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
                                                 this.config.getExperimentName(), versionCount,
                                                 testVersionCount, testVersion.getVersion(),
                                                 dataselector.getClass().getName()));
+                                    PipelineProfiler.Measurement measurement =
+                                        profiling.start("pointwiseselector", dataselector);
                                     traindata = dataselector.apply(testdata, traindata);
+                                    measurement.stop();
                                 }
                                 for (IProcessesingStrategy processor : this.config
                                     .getPostProcessors())
@@ -263,7 +281,10 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
                                                 this.config.getExperimentName(), versionCount,
                                                 testVersionCount, testVersion.getVersion(),
                                                 processor.getClass().getName()));
+                                    PipelineProfiler.Measurement measurement =
+                                        profiling.start("postprocessor", processor);
                                     processor.apply(testdata, traindata);
+                                    measurement.stop();
                                 }
                                 for (ITrainingStrategy trainer : this.config.getTrainers()) {
                                     Console.traceln(Level.FINE, String
@@ -271,7 +292,10 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
                                                 this.config.getExperimentName(), versionCount,
                                                 testVersionCount, testVersion.getVersion(),
                                                 trainer.getName()));
+                                    PipelineProfiler.Measurement measurement =
+                                        profiling.start("trainer", trainer);
                                     trainer.apply(traindata);
+                                    measurement.stop();
                                 }
                                 for (ITestAwareTrainingStrategy trainer : this.config
                                     .getTestAwareTrainers())
@@ -281,7 +305,10 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
                                                 this.config.getExperimentName(), versionCount,
                                                 testVersionCount, testVersion.getVersion(),
                                                 trainer.getName()));
+                                    PipelineProfiler.Measurement measurement =
+                                        profiling.start("testawaretrainer", trainer);
                                     trainer.apply(testdata, traindata);
+                                    measurement.stop();
                                 }
                                 File resultsDir = new File(this.config.getResultsPath());
                                 if (!resultsDir.exists()) {
@@ -317,9 +344,12 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
                                         evaluator.setParameter(this.config.getResultsPath() + "/" +
                                             this.config.getExperimentName() + ".csv");
                                     }
+                                    PipelineProfiler.Measurement measurement =
+                                        profiling.start("eval", evaluator);
                                     evaluator.apply(testdata, traindata, allTrainers, efforts,
                                                     numBugs, writeHeader,
                                                     this.config.getResultStorages());
+                                    measurement.stop();
                                     writeHeader = false;
                                 }
                                 Console.traceln(Level.INFO,
@@ -362,12 +392,17 @@ public class HeterogeneousExperiment implements IExecutionStrategy {
             allTrainers.add(trainer);
         }
 
+        final PipelineProfiler.Scope profiling = PipelineProfiler.getInstance()
+            .scope(this.config.getExperimentName(),
+                   version.getVersion() + ":" + trainVersion.getVersion());
         int available = Integer.MAX_VALUE;
         for (IResultStorage storage : this.config.getResultStorages()) {
             String classifierName = ((IWekaCompatibleTrainer) allTrainers.get(0)).getName();
+            PipelineProfiler.Measurement measurement = profiling.start("storage", storage);
             int curAvailable = storage
                 .containsHeterogeneousResult(this.config.getExperimentName(), version.getVersion(),
                                              classifierName, trainVersion.getVersion());
+            measurement.stop();
             if (curAvailable < available) {
                 available = curAvailable;
             }
@@ -0,0 +1,114 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.util.List;
+
+import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+
+/**
+ * <p>
+ * Interface for execution strategies whose test versions are independent of each other. The
+ * experiment can then be split into one {@link TestVersionTask} per test version.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public interface IVersionWiseExecutionStrategy extends IExecutionStrategy {
+
+    /**
+     * <p>
+     * Loads the data of the experiment and creates one task for each test version.
+     * </p>
+     *
+     * @return tasks of the experiment, ordered by the test versions
+     */
+    List<TestVersionTask> createTasks();
+
+    /**
+     * <p>
+     * returns the configuration of the experiment
+     * </p>
+     *
+     * @return the configuration
+     */
+    ExperimentConfiguration getConfiguration();
+
+    /**
+     * <p>
+     * Determines the test versions of the experiment.
+     * </p>
+     *
+     * @param versions
+     *            all versions of the experiment
+     * @return versions that pass the test version filters
+     */
+    List<SoftwareVersion> getTestVersions(List<SoftwareVersion> versions);
+
+    /**
+     * <p>
+     * Determines if the results of a test version depend on a version, i.e., if the test version
+     * must be executed again if the version is added, changed, or removed. The decision may be
+     * conservative, i.e., the results may depend on fewer versions.
+     * </p>
+     *
+     * @param testVersion
+     *            the test version
+     * @param version
+     *            the version
+     * @param versions
+     *            all versions of the experiment, including the version
+     * @return true if the results of the test version depend on the version
+     */
+    boolean dependsOn(SoftwareVersion testVersion,
+                      SoftwareVersion version,
+                      List<SoftwareVersion> versions);
+
+    /**
+     * <p>
+     * Executes the experiment for a single test version.
+     * </p>
+     *
+     * @param experimentConfig
+     *            configuration whose strategies are used; strategies are stateful, i.e.,
+     *            concurrently executed test versions must use different configuration instances
+     * @param testVersion
+     *            the test version
+     * @param versions
+     *            all versions of the experiment
+     * @param versionCount
+     *            number of the test version; only used for logging
+     * @param testVersionCount
+     *            number of test versions; only used for logging
+     * @param writeHeader
+     *            if true, the evaluators write the header of the results
+     * @param resultsFile
+     *            file to which the evaluators write the results if the header is written; null
+     *            if the output of the evaluators is already defined
+     * @param rerun
+     *            if true, the test version is executed even if its results are already available
+     *            in the result storages, e.g., because the data of the experiment changed
+     * @return true if results were written, false if the test version was skipped
+     */
+    boolean runTestVersion(ExperimentConfiguration experimentConfig,
+                           SoftwareVersion testVersion,
+                           List<SoftwareVersion> versions,
+                           int versionCount,
+                           int testVersionCount,
+                           boolean writeHeader,
+                           String resultsFile,
+                           boolean rerun);
+}
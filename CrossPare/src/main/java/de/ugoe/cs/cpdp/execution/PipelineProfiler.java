@@ -0,0 +1,502 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import de.ugoe.cs.util.StringTools;
+import de.ugoe.cs.util.console.Console;
+
+/**
+ * <p>
+ * Profiler for the strategies that are executed as part of the experiments. For each invocation
+ * of a strategy, the wall time, the CPU time, and the bytes allocated by the executing thread are
+ * recorded. The measurements are tagged with the experiment, the test version, the stage of the
+ * pipeline, and the class of the strategy. The stages are named like the elements of the
+ * experiment configuration, e.g., setwisepreprocessor or trainer.
+ * </p>
+ * <p>
+ * The profiler is disabled by default. If it is disabled, measurements are not recorded and cause
+ * almost no overhead. The CPU time and the allocated bytes are -1, if the JVM does not support
+ * their measurement.
+ * </p>
+ * 
+ * @author Steffen Herbold
+ */
+public class PipelineProfiler {
+
+    /**
+     * singleton instance
+     */
+    private static final PipelineProfiler INSTANCE = new PipelineProfiler();
+
+    /**
+     * measurement that is returned if the profiler is disabled
+     */
+    private static final Measurement DISABLED_MEASUREMENT = new Measurement(null, null, null, null);
+
+    /**
+     * bean for the measurement of the CPU time and allocated bytes
+     */
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    /**
+     * indicates if the profiler is enabled
+     */
+    private volatile boolean enabled = false;
+
+    /**
+     * recorded measurements
+     */
+    private final Queue<Record> records = new ConcurrentLinkedQueue<>();
+
+    /**
+     * <p>
+     * Private constructor. Use {@link #getInstance()}.
+     * </p>
+     */
+    private PipelineProfiler() {
+        // singleton
+    }
+
+    /**
+     * <p>
+     * returns the profiler
+     * </p>
+     *
+     * @return the profiler
+     */
+    public static PipelineProfiler getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>
+     * Enables or disables the profiler.
+     * </p>
+     *
+     * @param enabled
+     *            true if the profiler records measurements
+     */
+    @SuppressWarnings("hiding")
+    public void setEnabled(boolean enabled) {
+        if (enabled && this.threadBean.isThreadCpuTimeSupported()) {
+            this.threadBean.setThreadCpuTimeEnabled(true);
+        }
+        if (enabled && this.threadBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationBean =
+                (com.sun.management.ThreadMXBean) this.threadBean;
+            if (allocationBean.isThreadAllocatedMemorySupported()) {
+                allocationBean.setThreadAllocatedMemoryEnabled(true);
+            }
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * <p>
+     * returns if the profiler is enabled
+     * </p>
+     *
+     * @return true if the profiler records measurements
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * <p>
+     * Creates the scope for the measurements of an experiment and a test version.
+     * </p>
+     *
+     * @param experimentName
+     *            name of the experiment
+     * @param testVersion
+     *            name of the test version; null if the measurements do not belong to a test
+     *            version, e.g., for loaders
+     * @return the scope
+     */
+    public Scope scope(String experimentName, String testVersion) {
+        return new Scope(experimentName, testVersion);
+    }
+
+    /**
+     * <p>
+     * returns the recorded measurements
+     * </p>
+     *
+     * @return the measurements
+     */
+    public List<Record> getRecords() {
+        return new ArrayList<>(this.records);
+    }
+
+    /**
+     * <p>
+     * Removes all recorded measurements.
+     * </p>
+     */
+    public void clear() {
+        this.records.clear();
+    }
+
+    /**
+     * <p>
+     * Writes the recorded measurements as CSV file.
+     * </p>
+     *
+     * @param filename
+     *            name of the file
+     */
+    public void writeCSV(String filename) {
+        try (PrintWriter output = new PrintWriter(new FileOutputStream(new File(filename)))) {
+            output.append("experiment,testversion,stage,strategy,thread,walltime_ns,cputime_ns," +
+                "allocated_bytes");
+            output.append(StringTools.ENDLINE);
+            for (Record record : this.records) {
+                output.append(record.experimentName + "," +
+                    (record.testVersion == null ? "" : record.testVersion) + "," + record.stage +
+                    "," + record.strategy + "," + record.thread + "," + record.wallTime + "," +
+                    record.cpuTime + "," + record.allocatedBytes);
+                output.append(StringTools.ENDLINE);
+            }
+        }
+        catch (FileNotFoundException e) {
+            Console.traceln(Level.WARNING,
+                            "Could not write profile " + filename + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * <p>
+     * Writes the recorded measurements as JSON file. The file contains an array with one object
+     * per measurement.
+     * </p>
+     *
+     * @param filename
+     *            name of the file
+     */
+    public void writeJSON(String filename) {
+        JSONArray profile = new JSONArray();
+        for (Record record : this.records) {
+            JSONObject measurement = new JSONObject();
+            measurement.put("experiment", record.experimentName);
+            measurement.put("testversion",
+                            record.testVersion == null ? JSONObject.NULL : record.testVersion);
+            measurement.put("stage", record.stage);
+            measurement.put("strategy", record.strategy);
+            measurement.put("thread", record.thread);
+            measurement.put("walltime_ns", record.wallTime);
+            measurement.put("cputime_ns", record.cpuTime);
+            measurement.put("allocated_bytes", record.allocatedBytes);
+            profile.put(measurement);
+        }
+        try (PrintWriter output = new PrintWriter(new FileOutputStream(new File(filename)))) {
+            output.append(profile.toString(2));
+            output.append(StringTools.ENDLINE);
+        }
+        catch (FileNotFoundException e) {
+            Console.traceln(Level.WARNING,
+                            "Could not write profile " + filename + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * <p>
+     * returns the CPU time of the current thread
+     * </p>
+     *
+     * @return CPU time in nanoseconds; -1 if not supported
+     */
+    private long currentCpuTime() {
+        if (!this.threadBean.isCurrentThreadCpuTimeSupported()) {
+            return -1;
+        }
+        return this.threadBean.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * <p>
+     * returns the bytes allocated by the current thread
+     * </p>
+     *
+     * @return allocated bytes; -1 if not supported
+     */
+    private long currentAllocatedBytes() {
+        if (!(this.threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+        return ((com.sun.management.ThreadMXBean) this.threadBean)
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * <p>
+     * Scope of measurements, i.e., an experiment and a test version.
+     * </p>
+     * 
+     * @author Steffen Herbold
+     */
+    public class Scope {
+
+        /**
+         * name of the experiment
+         */
+        private final String experimentName;
+
+        /**
+         * name of the test version; may be null
+         */
+        private final String testVersion;
+
+        /**
+         * <p>
+         * Constructor. Creates a new scope.
+         * </p>
+         *
+         * @param experimentName
+         *            name of the experiment
+         * @param testVersion
+         *            name of the test version; may be null
+         */
+        @SuppressWarnings("hiding")
+        Scope(String experimentName, String testVersion) {
+            this.experimentName = experimentName;
+            this.testVersion = testVersion;
+        }
+
+        /**
+         * <p>
+         * Starts the measurement of a strategy invocation in the current thread. The measurement
+         * must be stopped by the same thread.
+         * </p>
+         *
+         * @param stage
+         *            stage of the pipeline
+         * @param strategy
+         *            strategy that is invoked
+         * @return the measurement
+         */
+        public Measurement start(String stage, Object strategy) {
+            if (!PipelineProfiler.this.enabled) {
+                return DISABLED_MEASUREMENT;
+            }
+            return new Measurement(PipelineProfiler.this, this, stage,
+                                   strategy.getClass().getName());
+        }
+    }
+
+    /**
+     * <p>
+     * Measurement of a single strategy invocation.
+     * </p>
+     * 
+     * @author Steffen Herbold
+     */
+    public static class Measurement {
+
+        /**
+         * profiler to which the measurement belongs; null if the profiler is disabled
+         */
+        private final PipelineProfiler profiler;
+
+        /**
+         * scope of the measurement
+         */
+        private final Scope scope;
+
+        /**
+         * stage of the pipeline
+         */
+        private final String stage;
+
+        /**
+         * class name of the strategy
+         */
+        private final String strategy;
+
+        /**
+         * wall time at the start
+         */
+        private final long startWallTime;
+
+        /**
+         * CPU time at the start
+         */
+        private final long startCpuTime;
+
+        /**
+         * allocated bytes at the start
+         */
+        private final long startAllocatedBytes;
+
+        /**
+         * <p>
+         * Constructor. Starts a new measurement.
+         * </p>
+         *
+         * @param profiler
+         *            profiler to which the measurement belongs; null if the profiler is disabled
+         * @param scope
+         *            scope of the measurement
+         * @param stage
+         *            stage of the pipeline
+         * @param strategy
+         *            class name of the strategy
+         */
+        @SuppressWarnings("hiding")
+        Measurement(PipelineProfiler profiler, Scope scope, String stage, String strategy) {
+            this.profiler = profiler;
+            this.scope = scope;
+            this.stage = stage;
+            this.strategy = strategy;
+            if (profiler == null) {
+                this.startWallTime = 0;
+                this.startCpuTime = 0;
+                this.startAllocatedBytes = 0;
+            }
+            else {
+                this.startAllocatedBytes = profiler.currentAllocatedBytes();
+                this.startCpuTime = profiler.currentCpuTime();
+                this.startWallTime = System.nanoTime();
+            }
+        }
+
+        /**
+         * <p>
+         * Stops the measurement and records it.
+         * </p>
+         */
+        public void stop() {
+            if (this.profiler == null) {
+                return;
+            }
+            long wallTime = System.nanoTime() - this.startWallTime;
+            long cpuTime = this.startCpuTime < 0 ? -1
+                : this.profiler.currentCpuTime() - this.startCpuTime;
+            long allocatedBytes = this.startAllocatedBytes < 0 ? -1
+                : this.profiler.currentAllocatedBytes() - this.startAllocatedBytes;
+            this.profiler.records.add(new Record(this.scope.experimentName,
+                                                 this.scope.testVersion, this.stage,
+                                                 this.strategy, Thread.currentThread().getName(),
+                                                 wallTime, cpuTime, allocatedBytes));
+        }
+    }
+
+    /**
+     * <p>
+     * Data class for a recorded measurement.
+     * </p>
+     * 
+     * @author Steffen Herbold
+     */
+    public static class Record {
+
+        /**
+         * name of the experiment
+         */
+        public final String experimentName;
+
+        /**
+         * name of the test version; null if the measurement does not belong to a test version
+         */
+        public final String testVersion;
+
+        /**
+         * stage of the pipeline
+         */
+        public final String stage;
+
+        /**
+         * class name of the strategy
+         */
+        public final String strategy;
+
+        /**
+         * name of the thread that executed the strategy
+         */
+        public final String thread;
+
+        /**
+         * wall time in nanoseconds
+         */
+        public final long wallTime;
+
+        /**
+         * CPU time in nanoseconds; -1 if not supported
+         */
+        public final long cpuTime;
+
+        /**
+         * allocated bytes; -1 if not supported
+         */
+        public final long allocatedBytes;
+
+        /**
+         * <p>
+         * Constructor. Creates a new Record.
+         * </p>
+         *
+         * @param experimentName
+         *            name of the experiment
+         * @param testVersion
+         *            name of the test version
+         * @param stage
+         *            stage of the pipeline
+         * @param strategy
+         *            class name of the strategy
+         * @param thread
+         *            name of the thread that executed the strategy
+         * @param wallTime
+         *            wall time in nanoseconds
+         * @param cpuTime
+         *            CPU time in nanoseconds
+         * @param allocatedBytes
+         *            allocated bytes
+         */
+        @SuppressWarnings("hiding")
+        Record(String experimentName,
+               String testVersion,
+               String stage,
+               String strategy,
+               String thread,
+               long wallTime,
+               long cpuTime,
+               long allocatedBytes)
+        {
+            this.experimentName = experimentName;
+            this.testVersion = testVersion;
+            this.stage = stage;
+            this.strategy = strategy;
+            this.thread = thread;
+            this.wallTime = wallTime;
+            this.cpuTime = cpuTime;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.logging.Level;
+
+import de.ugoe.cs.util.console.Console;
+
+/**
+ * <p>
+ * Runtimes of tasks recorded in earlier executions. The runtimes are stored in a properties file,
+ * where the key identifies the task and the value is the runtime in milliseconds.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class RuntimeHistory {
+
+    /**
+     * file in which the runtimes are stored
+     */
+    private final File historyFile;
+
+    /**
+     * recorded runtimes
+     */
+    private final Properties runtimes = new Properties();
+
+    /**
+     * <p>
+     * Creates a new RuntimeHistory. The runtimes are loaded from the file, if it exists.
+     * </p>
+     *
+     * @param filename
+     *            name of the file in which the runtimes are stored
+     */
+    public RuntimeHistory(String filename) {
+        this.historyFile = new File(filename);
+        if (this.historyFile.isFile()) {
+            try (FileInputStream is = new FileInputStream(this.historyFile);) {
+                this.runtimes.load(is);
+            }
+            catch (IOException e) {
+                Console.traceln(Level.WARNING,
+                                "Could not load runtime history " + filename + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * returns the runtime of a task recorded in an earlier execution
+     * </p>
+     *
+     * @param key
+     *            key of the task
+     * @return runtime in milliseconds; -1 if no runtime was recorded
+     */
+    public long getRuntime(String key) {
+        String runtime = this.runtimes.getProperty(key);
+        if (runtime == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(runtime);
+        }
+        catch (@SuppressWarnings("unused") NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * <p>
+     * Records the runtime of a task.
+     * </p>
+     *
+     * @param key
+     *            key of the task
+     * @param runtime
+     *            runtime in milliseconds
+     */
+    public void setRuntime(String key, long runtime) {
+        this.runtimes.setProperty(key, Long.toString(runtime));
+    }
+
+    /**
+     * <p>
+     * Stores the runtimes in the history file.
+     * </p>
+     */
+    public void store() {
+        try (FileOutputStream os = new FileOutputStream(this.historyFile);) {
+            this.runtimes.store(os, "CrossPare runtimes in milliseconds");
+        }
+        catch (IOException e) {
+            Console.traceln(Level.WARNING, "Could not store runtime history " +
+                this.historyFile.getPath() + ": " + e.getMessage());
+        }
+    }
+}
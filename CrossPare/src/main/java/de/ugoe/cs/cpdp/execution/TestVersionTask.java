@@ -0,0 +1,248 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.ExperimentConfigurationException;
+import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
+import de.ugoe.cs.cpdp.eval.OrderedResultsWriter;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import de.ugoe.cs.util.console.Console;
+
+/**
+ * <p>
+ * Executes the experiment of an {@link IVersionWiseExecutionStrategy} for a single test version.
+ * Each task uses its own copy of the {@link ExperimentConfiguration} with new instances of the
+ * strategies, such that tasks of the same experiment can be executed concurrently. The copy is
+ * created without parsing the configuration file again and shares the loaders and result storages
+ * of the experiment. If a task fails, the failure is reported and the results of the task are
+ * empty. The results are buffered and written through an {@link OrderedResultsWriter} that is
+ * shared by all tasks of an experiment. Thus, the results file is the same as for the sequential
+ * execution.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class TestVersionTask implements Runnable {
+
+    /**
+     * experiment to which the task belongs
+     */
+    private final IVersionWiseExecutionStrategy experiment;
+
+    /**
+     * configuration of the experiment
+     */
+    private final ExperimentConfiguration config;
+
+    /**
+     * test version of the task
+     */
+    private final SoftwareVersion testVersion;
+
+    /**
+     * all versions of the experiment
+     */
+    private final List<SoftwareVersion> versions;
+
+    /**
+     * number of the test version, starting with 1
+     */
+    private final int versionCount;
+
+    /**
+     * number of test versions of the experiment
+     */
+    private final int testVersionCount;
+
+    /**
+     * writer for the results, shared by all tasks of the experiment
+     */
+    private final OrderedResultsWriter resultsWriter;
+
+    /**
+     * <p>
+     * Creates a new task.
+     * </p>
+     *
+     * @param experiment
+     *            experiment to which the task belongs
+     * @param config
+     *            configuration of the experiment
+     * @param testVersion
+     *            test version of the task
+     * @param versions
+     *            all versions of the experiment
+     * @param versionCount
+     *            number of the test version, starting with 1
+     * @param testVersionCount
+     *            number of test versions of the experiment
+     * @param resultsWriter
+     *            writer for the results, shared by all tasks of the experiment
+     */
+    @SuppressWarnings("hiding")
+    public TestVersionTask(IVersionWiseExecutionStrategy experiment,
+                           ExperimentConfiguration config,
+                           SoftwareVersion testVersion,
+                           List<SoftwareVersion> versions,
+                           int versionCount,
+                           int testVersionCount,
+                           OrderedResultsWriter resultsWriter)
+    {
+        this.experiment = experiment;
+        this.config = config;
+        this.testVersion = testVersion;
+        this.versions = versions;
+        this.versionCount = versionCount;
+        this.testVersionCount = testVersionCount;
+        this.resultsWriter = resultsWriter;
+    }
+
+    /**
+     * <p>
+     * Creates the tasks for all test versions of an experiment. All tasks share the same
+     * {@link OrderedResultsWriter}.
+     * </p>
+     *
+     * @param experiment
+     *            the experiment
+     * @param config
+     *            configuration of the experiment
+     * @param versions
+     *            all versions of the experiment
+     * @param testVersions
+     *            the test versions, in the order in which the results are written
+     * @return the tasks
+     */
+    public static List<TestVersionTask> createTasks(IVersionWiseExecutionStrategy experiment,
+                                                    ExperimentConfiguration config,
+                                                    List<SoftwareVersion> versions,
+                                                    List<SoftwareVersion> testVersions)
+    {
+        OrderedResultsWriter resultsWriter =
+            new OrderedResultsWriter(config.getResultsPath() + "/" + config.getExperimentName() +
+                ".csv", testVersions.size());
+        List<TestVersionTask> tasks = new ArrayList<>(testVersions.size());
+        int versionCount = 1;
+        for (SoftwareVersion testVersion : testVersions) {
+            tasks.add(new TestVersionTask(experiment, config, testVersion, versions, versionCount,
+                                          testVersions.size(), resultsWriter));
+            versionCount++;
+        }
+        return tasks;
+    }
+
+    /**
+     * <p>
+     * Executes tasks concurrently and waits until all tasks are finished.
+     * </p>
+     *
+     * @param tasks
+     *            the tasks
+     * @param numThreads
+     *            number of concurrently executed tasks
+     * @throws RuntimeException
+     *             thrown if at least one task failed, i.e., if the results are incomplete
+     */
+    public static void runTasks(List<TestVersionTask> tasks, int numThreads) {
+        final ExecutorService threadPool = Executors.newFixedThreadPool(numThreads);
+        final List<Future<?>> results = new ArrayList<>(tasks.size());
+        for (TestVersionTask task : tasks) {
+            results.add(threadPool.submit(task));
+        }
+        int numFailed = 0;
+        for (Future<?> result : results) {
+            try {
+                result.get();
+            }
+            catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+                numFailed++;
+            }
+        }
+        threadPool.shutdown();
+        if (numFailed > 0) {
+            throw new RuntimeException(numFailed + " of " + tasks.size() +
+                " test versions failed; the results are incomplete");
+        }
+    }
+
+    /**
+     * <p>
+     * returns a key that identifies the task across executions, i.e., the experiment name and the
+     * test version
+     * </p>
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return this.config.getExperimentName() + ":" + this.testVersion.getProject() + ":" +
+            this.testVersion.getVersion();
+    }
+
+    /**
+     * <p>
+     * returns the test version of the task
+     * </p>
+     *
+     * @return the test version
+     */
+    public SoftwareVersion getTestVersion() {
+        return this.testVersion;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Runnable#run()
+     */
+    @Override
+    public void run() {
+        StringWriter buffer = new StringWriter();
+        // partial results of failed tasks are discarded
+        String results = "";
+        try {
+            ExperimentConfiguration taskConfig = new ExperimentConfiguration(this.config);
+            for (IEvaluationStrategy evaluator : taskConfig.getEvaluators()) {
+                evaluator.setOutput(buffer, this.config.getExperimentName());
+            }
+            this.experiment.runTestVersion(taskConfig, this.testVersion, this.versions,
+                                           this.versionCount, this.testVersionCount, true, null,
+                                           false);
+            results = buffer.toString();
+        }
+        catch (ExperimentConfigurationException e) {
+            Console.printerrln("Failure initializing the experiment configuration for task " +
+                getKey());
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        catch (RuntimeException e) {
+            Console.printerrln("Failure executing task " + getKey() + ": " + e.getMessage());
+            throw e;
+        }
+        finally {
+            this.resultsWriter.write(this.versionCount - 1, results);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.execution;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+import de.ugoe.cs.util.console.Console;
+
+/**
+ * <p>
+ * Fine-grained scheduler for the execution of multiple experiments. Experiments that implement
+ * {@link IVersionWiseExecutionStrategy} are split into one {@link TestVersionTask} per test
+ * version, all other experiments are executed as a single task. All tasks of all experiments are
+ * executed on a work-stealing thread pool.
+ * </p>
+ * <p>
+ * The tasks are started in the order of their expected runtime, longest first. The expected
+ * runtime is the runtime recorded in earlier executions through the {@link RuntimeHistory}. Tasks
+ * without a recorded runtime are started first.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class VersionTaskScheduler {
+
+    /**
+     * number of concurrently executed tasks
+     */
+    private final int numThreads;
+
+    /**
+     * runtimes of earlier executions
+     */
+    private final RuntimeHistory history;
+
+    /**
+     * experiments that are executed
+     */
+    private final List<IExecutionStrategy> experiments = new LinkedList<>();
+
+    /**
+     * <p>
+     * Creates a new scheduler.
+     * </p>
+     *
+     * @param numThreads
+     *            number of concurrently executed tasks
+     * @param history
+     *            runtimes of earlier executions; updated with the runtimes of this execution
+     */
+    @SuppressWarnings("hiding")
+    public VersionTaskScheduler(int numThreads, RuntimeHistory history) {
+        this.numThreads = numThreads;
+        this.history = history;
+    }
+
+    /**
+     * <p>
+     * Adds an experiment to the scheduler.
+     * </p>
+     *
+     * @param experiment
+     *            the experiment
+     */
+    public void addExperiment(IExecutionStrategy experiment) {
+        this.experiments.add(experiment);
+    }
+
+    /**
+     * <p>
+     * Executes all experiments and waits until they are finished. Afterwards, the runtimes are
+     * stored in the {@link RuntimeHistory}. The runtimes of failed tasks are not stored.
+     * </p>
+     * 
+     * @throws RuntimeException
+     *             thrown if at least one task failed, i.e., if the results are incomplete
+     */
+    public void run() {
+        final ExecutorService threadPool = Executors.newWorkStealingPool(this.numThreads);
+
+        // create the tasks concurrently, because this loads the data of the experiments
+        final List<ScheduledTask> tasks = new ArrayList<>();
+        final List<Future<List<TestVersionTask>>> versionTasks = new LinkedList<>();
+        int numFailed = 0;
+        for (IExecutionStrategy experiment : this.experiments) {
+            if (experiment instanceof IVersionWiseExecutionStrategy) {
+                versionTasks
+                    .add(threadPool.submit(((IVersionWiseExecutionStrategy) experiment)::createTasks));
+            }
+            else {
+                tasks.add(new ScheduledTask(null, experiment));
+            }
+        }
+        for (Future<List<TestVersionTask>> future : versionTasks) {
+            try {
+                for (TestVersionTask task : future.get()) {
+                    tasks.add(new ScheduledTask(task.getKey(), task));
+                }
+            }
+            catch (InterruptedException | ExecutionException e) {
+                Console.printerrln("Failure creating the tasks of an experiment");
+                e.printStackTrace();
+                numFailed++;
+            }
+        }
+
+        // longest expected runtime first; the sort is stable, i.e., the order of the experiments
+        // is kept for tasks with the same expected runtime
+        Collections.sort(tasks);
+        Console.traceln(Level.FINE, "scheduling " + tasks.size() + " tasks");
+
+        final List<Future<?>> results = new ArrayList<>(tasks.size());
+        for (ScheduledTask task : tasks) {
+            results.add(threadPool.submit(task));
+        }
+        for (Future<?> result : results) {
+            try {
+                result.get();
+            }
+            catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+                numFailed++;
+            }
+        }
+        threadPool.shutdown();
+        this.history.store();
+        if (numFailed > 0) {
+            throw new RuntimeException(numFailed +
+                " tasks failed; the results are incomplete");
+        }
+    }
+
+    /**
+     * <p>
+     * Wrapper around the tasks that measures their runtime.
+     * </p>
+     *
+     * @author Steffen Herbold
+     */
+    private class ScheduledTask implements Runnable, Comparable<ScheduledTask> {
+
+        /**
+         * key of the task in the runtime history; null if the runtime is not recorded
+         */
+        private final String key;
+
+        /**
+         * the task
+         */
+        private final Runnable task;
+
+        /**
+         * expected runtime of the task; Long.MAX_VALUE if unknown
+         */
+        private final long expectedRuntime;
+
+        /**
+         * <p>
+         * Creates a new ScheduledTask.
+         * </p>
+         *
+         * @param key
+         *            key of the task in the runtime history; null if the runtime is not recorded
+         * @param task
+         *            the task
+         */
+        @SuppressWarnings("hiding")
+        public ScheduledTask(String key, Runnable task) {
+            this.key = key;
+            this.task = task;
+            long runtime = key == null ? -1 : VersionTaskScheduler.this.history.getRuntime(key);
+            this.expectedRuntime = runtime < 0 ? Long.MAX_VALUE : runtime;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Runnable#run()
+         */
+        @Override
+        public void run() {
+            long start = System.currentTimeMillis();
+            this.task.run();
+            if (this.key != null) {
+                VersionTaskScheduler.this.history.setRuntime(this.key,
+                                                             System.currentTimeMillis() - start);
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Comparable#compareTo(java.lang.Object)
+         */
+        @Override
+        public int compareTo(ScheduledTask other) {
+            return Long.compare(other.expectedRuntime, this.expectedRuntime);
+        }
+    }
+}
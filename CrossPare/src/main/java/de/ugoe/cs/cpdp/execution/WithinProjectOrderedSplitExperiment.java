@@ -15,7 +15,7 @@
 package de.ugoe.cs.cpdp.execution;
 
 import java.io.File;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.logging.Level;
@@ -25,7 +25,6 @@ import de.ugoe.cs.cpdp.dataprocessing.IProcessesingStrategy;
 import de.ugoe.cs.cpdp.dataselection.IPointWiseDataselectionStrategy;
 import de.ugoe.cs.cpdp.eval.IEvaluationStrategy;
 import de.ugoe.cs.cpdp.eval.IResultStorage;
-import de.ugoe.cs.cpdp.loader.IVersionLoader;
 import de.ugoe.cs.cpdp.training.ISetWiseTestdataAwareTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ISetWiseTrainingStrategy;
 import de.ugoe.cs.cpdp.training.ITestAwareTrainingStrategy;
@@ -45,9 +44,13 @@ import weka.core.Instances;
  * This experiment should only be used with time-ordered data in order to guarantee that only the
  * past is used to predict the future.
  * 
+ * The test versions are independent of each other, i.e., they can be executed as separate tasks
+ * (see {@link IVersionWiseExecutionStrategy}) or concurrently, if the configuration defines a
+ * parallelism for the test versions.
+ * 
  * @author Steffen Herbold
  */
-public class WithinProjectOrderedSplitExperiment implements IExecutionStrategy {
+public class WithinProjectOrderedSplitExperiment implements IVersionWiseExecutionStrategy {
 
     /**
      * configuration of the experiment
@@ -70,159 +73,250 @@ public class WithinProjectOrderedSplitExperiment implements IExecutionStrategy {
      * 
      * @see Runnable#run()
      */
-    @SuppressWarnings("boxing")
     @Override
     public void run() {
-        final List<SoftwareVersion> versions = new LinkedList<>();
-
-        for (IVersionLoader loader : this.config.getLoaders()) {
-            versions.addAll(loader.load());
+        final List<SoftwareVersion> versions =
+            AbstractCrossProjectExperiment.loadVersions(this.config);
+        final List<SoftwareVersion> testVersions = getTestVersions(versions);
+        if (this.config.getVersionParallelism() > 1) {
+            TestVersionTask.runTasks(TestVersionTask.createTasks(this, this.config, versions,
+                                                                 testVersions),
+                                     this.config.getVersionParallelism());
+            return;
         }
+        final String resultsFile =
+            this.config.getResultsPath() + "/" + this.config.getExperimentName() + ".csv";
 
-        for (IVersionFilter filter : this.config.getVersionFilters()) {
-            filter.apply(versions);
-        }
         boolean writeHeader = true;
         int versionCount = 1;
-        int testVersionCount = 0;
-        int numTrainers = 0;
-
-        for (SoftwareVersion testVersion : versions) {
-            if (isVersion(testVersion, this.config.getTestVersionFilters())) {
-                testVersionCount++;
+        for (SoftwareVersion testVersion : testVersions) {
+            if (runTestVersion(this.config, testVersion, versions, versionCount,
+                               testVersions.size(), writeHeader, resultsFile, false))
+            {
+                writeHeader = false;
             }
+            versionCount++;
         }
+    }
 
-        numTrainers += this.config.getSetWiseTrainers().size();
-        numTrainers += this.config.getSetWiseTestdataAwareTrainers().size();
-        numTrainers += this.config.getTrainers().size();
-        numTrainers += this.config.getTestAwareTrainers().size();
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#getConfiguration()
+     */
+    @Override
+    public ExperimentConfiguration getConfiguration() {
+        return this.config;
+    }
 
-        // sort versions
-        Collections.sort(versions);
+    /*
+     * (non-Javadoc)
+     * 
+     * @see de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#createTasks()
+     */
+    @Override
+    public List<TestVersionTask> createTasks() {
+        final List<SoftwareVersion> versions =
+            AbstractCrossProjectExperiment.loadVersions(this.config);
+        return TestVersionTask.createTasks(this, this.config, versions, getTestVersions(versions));
+    }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#getTestVersions(java.util.List)
+     */
+    @Override
+    public List<SoftwareVersion> getTestVersions(List<SoftwareVersion> versions) {
+        final List<SoftwareVersion> testVersions = new LinkedList<>();
         for (SoftwareVersion testVersion : versions) {
             if (isVersion(testVersion, this.config.getTestVersionFilters())) {
-                Console.traceln(Level.INFO,
-                                String.format("[%s] [%02d/%02d] %s: starting",
-                                              this.config.getExperimentName(), versionCount,
-                                              testVersionCount, testVersion.getVersion()));
-                int numResultsAvailable = resultsAvailable(testVersion);
-                if (numResultsAvailable >= numTrainers * this.config.getRepetitions()) {
-                    Console.traceln(Level.INFO, String
-                        .format("[%s] [%02d/%02d] %s: results already available; skipped",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion()));
-                    versionCount++;
-                    continue;
-                }
+                testVersions.add(testVersion);
+            }
+        }
+        return testVersions;
+    }
+
+    /**
+     * The test version is split into training and test data. Hence, the results of a test
+     * version only depend on the test version itself.
+     * 
+     * @see de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#dependsOn(de.ugoe.cs.cpdp.
+     *      versions.SoftwareVersion, de.ugoe.cs.cpdp.versions.SoftwareVersion, java.util.List)
+     */
+    @Override
+    public boolean dependsOn(SoftwareVersion testVersion,
+                             SoftwareVersion version,
+                             List<SoftwareVersion> versions)
+    {
+        return version == testVersion;
+    }
 
-                // Setup testdata and training data
-                Instances testdata = testVersion.getInstances();
-                List<Double> efforts = testVersion.getEfforts();
-                List<Double> numBugs = testVersion.getNumBugs();
+    /*
+     * (non-Javadoc)
+     * 
+     * @see
+     * de.ugoe.cs.cpdp.execution.IVersionWiseExecutionStrategy#runTestVersion(de.ugoe.cs.cpdp.
+     * ExperimentConfiguration, de.ugoe.cs.cpdp.versions.SoftwareVersion, java.util.List, int, int,
+     * boolean, java.lang.String, boolean)
+     */
+    @SuppressWarnings("boxing")
+    @Override
+    public boolean runTestVersion(ExperimentConfiguration experimentConfig,
+                                  SoftwareVersion testVersion,
+                                  List<SoftwareVersion> versions,
+                                  int versionCount,
+                                  int testVersionCount,
+                                  boolean writeHeader,
+                                  String resultsFile,
+                                  boolean rerun)
+    {
+        int numTrainers = 0;
+        numTrainers += experimentConfig.getSetWiseTrainers().size();
+        numTrainers += experimentConfig.getSetWiseTestdataAwareTrainers().size();
+        numTrainers += experimentConfig.getTrainers().size();
+        numTrainers += experimentConfig.getTestAwareTrainers().size();
+
+        Console.traceln(Level.INFO,
+                        String.format("[%s] [%02d/%02d] %s: starting",
+                                      experimentConfig.getExperimentName(), versionCount,
+                                      testVersionCount, testVersion.getVersion()));
+        final PipelineProfiler.Scope profiling = PipelineProfiler.getInstance()
+            .scope(experimentConfig.getExperimentName(), testVersion.getVersion());
+        int numResultsAvailable = rerun ? 0 : resultsAvailable(testVersion);
+        if (numResultsAvailable >= numTrainers * experimentConfig.getRepetitions()) {
+            Console.traceln(Level.INFO, String
+                .format("[%s] [%02d/%02d] %s: results already available; skipped",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion()));
+            return false;
+        }
 
-                // now split data into parts
-                double percentage = 0.5; // 0.5 as default value
-                String param = this.config.getExecutionStrategyParameters();
-                if (this.config.getExecutionStrategyParameters() != null) {
-                    try {
-                        percentage = Double.parseDouble(param);
-                    }
-                    catch (@SuppressWarnings("unused") NumberFormatException e) {
-                        throw new RuntimeException("invalid execution strategy parameter, must be numeric: " +
-                            param);
-                    }
-                }
-                int initialTestSize = testdata.size();
-                Instances traindata = new Instances(testdata);
-                for (int i = initialTestSize - 1; i >= 0; i--) {
-                    if ((((double) i) / initialTestSize) < percentage) {
-                        testdata.delete(i);
-                        if (efforts != null) {
-                            efforts.remove(i);
-                        }
-                        if (numBugs != null) {
-                            numBugs.remove(i);
-                        }
-                    }
-                    else {
-                        traindata.delete(i);
-                    }
-                }
+        // now split data into parts
+        double percentage = 0.5; // 0.5 as default value
+        String param = experimentConfig.getExecutionStrategyParameters();
+        if (experimentConfig.getExecutionStrategyParameters() != null) {
+            try {
+                percentage = Double.parseDouble(param);
+            }
+            catch (@SuppressWarnings("unused") NumberFormatException e) {
+                throw new RuntimeException("invalid execution strategy parameter, must be numeric: " +
+                    param);
+            }
+        }
+        // the first part of the data is used for training, the rest for testing; only the
+        // instances of each part are copied
+        Instances data = testVersion.getReadOnlyInstances();
+        int initialTestSize = data.size();
+        int trainSize = 0;
+        while (trainSize < initialTestSize &&
+            (((double) trainSize) / initialTestSize) < percentage)
+        {
+            trainSize++;
+        }
+        Instances traindata = new Instances(data, 0, trainSize);
+        Instances testdata = new Instances(data, trainSize, initialTestSize - trainSize);
+        List<Double> efforts = testVersion.getEfforts() == null ? null
+            : new ArrayList<>(testVersion.getEfforts().subList(trainSize, initialTestSize));
+        List<Double> numBugs = testVersion.getNumBugs() == null ? null
+            : new ArrayList<>(testVersion.getNumBugs().subList(trainSize, initialTestSize));
 
-                for (IProcessesingStrategy processor : this.config.getPreProcessors()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying preprocessor %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  processor.getClass().getName()));
-                    processor.apply(testdata, traindata);
-                }
-                for (IPointWiseDataselectionStrategy dataselector : this.config
-                    .getPointWiseSelectors())
-                {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying pointwise selection %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), dataselector.getClass().getName()));
-                    traindata = dataselector.apply(testdata, traindata);
-                }
-                for (IProcessesingStrategy processor : this.config.getPostProcessors()) {
-                    Console.traceln(Level.FINE, String
-                        .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
-                                this.config.getExperimentName(), versionCount, testVersionCount,
-                                testVersion.getVersion(), processor.getClass().getName()));
-                    processor.apply(testdata, traindata);
-                }
-                for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  trainer.getName()));
-                    trainer.apply(traindata);
-                }
-                for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying trainer %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  trainer.getName()));
-                    trainer.apply(testdata, traindata);
-                }
-                File resultsDir = new File(this.config.getResultsPath());
-                if (!resultsDir.exists()) {
-                    resultsDir.mkdir();
-                }
-                for (IEvaluationStrategy evaluator : this.config.getEvaluators()) {
-                    Console.traceln(Level.FINE,
-                                    String.format("[%s] [%02d/%02d] %s: applying evaluator %s",
-                                                  this.config.getExperimentName(), versionCount,
-                                                  testVersionCount, testVersion.getVersion(),
-                                                  evaluator.getClass().getName()));
-                    List<ITrainer> allTrainers = new LinkedList<>();
-                    for (ITrainingStrategy trainer : this.config.getTrainers()) {
-                        allTrainers.add(trainer);
-                    }
-                    for (ITestAwareTrainingStrategy trainer : this.config.getTestAwareTrainers()) {
-                        allTrainers.add(trainer);
-                    }
-                    if (writeHeader) {
-                        evaluator.setParameter(this.config.getResultsPath() + "/" +
-                            this.config.getExperimentName() + ".csv");
-                    }
-                    evaluator.apply(testdata, traindata, allTrainers, efforts, numBugs, writeHeader,
-                                    this.config.getResultStorages());
-                    writeHeader = false;
-                }
-                Console.traceln(Level.INFO,
-                                String.format("[%s] [%02d/%02d] %s: finished",
-                                              this.config.getExperimentName(), versionCount,
-                                              testVersionCount, testVersion.getVersion()));
-                versionCount++;
+        for (IProcessesingStrategy processor : experimentConfig.getPreProcessors()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying preprocessor %s",
+                                          experimentConfig.getExperimentName(), versionCount,
+                                          testVersionCount, testVersion.getVersion(),
+                                          processor.getClass().getName()));
+            PipelineProfiler.Measurement measurement = profiling.start("preprocessor", processor);
+            processor.apply(testdata, traindata);
+            measurement.stop();
+        }
+        for (IPointWiseDataselectionStrategy dataselector : experimentConfig
+            .getPointWiseSelectors())
+        {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying pointwise selection %s",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), dataselector.getClass().getName()));
+            PipelineProfiler.Measurement measurement =
+                profiling.start("pointwiseselector", dataselector);
+            traindata = dataselector.apply(testdata, traindata);
+            measurement.stop();
+        }
+        for (IProcessesingStrategy processor : experimentConfig.getPostProcessors()) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying setwise postprocessor %s",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion(), processor.getClass().getName()));
+            PipelineProfiler.Measurement measurement = profiling.start("postprocessor", processor);
+            processor.apply(testdata, traindata);
+            measurement.stop();
+        }
+        if (experimentConfig.getTrainerParallelism() > 1) {
+            Console.traceln(Level.FINE, String
+                .format("[%s] [%02d/%02d] %s: applying trainers concurrently",
+                        experimentConfig.getExperimentName(), versionCount, testVersionCount,
+                        testVersion.getVersion()));
+            ConcurrentTraining.apply(experimentConfig.getTrainers(),
+                                     experimentConfig.getTestAwareTrainers(), testdata, traindata,
+                                     experimentConfig.getTrainerParallelism(), profiling);
+        }
+        else {
+            for (ITrainingStrategy trainer : experimentConfig.getTrainers()) {
+                Console.traceln(Level.FINE,
+                                String.format("[%s] [%02d/%02d] %s: applying trainer %s",
+                                              experimentConfig.getExperimentName(), versionCount,
+                                              testVersionCount, testVersion.getVersion(),
+                                              trainer.getName()));
+                PipelineProfiler.Measurement measurement = profiling.start("trainer", trainer);
+                trainer.apply(traindata);
+                measurement.stop();
+            }
+            for (ITestAwareTrainingStrategy trainer : experimentConfig.getTestAwareTrainers()) {
+                Console.traceln(Level.FINE,
+                                String.format("[%s] [%02d/%02d] %s: applying trainer %s",
+                                              experimentConfig.getExperimentName(), versionCount,
+                                              testVersionCount, testVersion.getVersion(),
+                                              trainer.getName()));
+                PipelineProfiler.Measurement measurement =
+                    profiling.start("testawaretrainer", trainer);
+                trainer.apply(testdata, traindata);
+                measurement.stop();
+            }
+        }
+        File resultsDir = new File(experimentConfig.getResultsPath());
+        if (!resultsDir.exists()) {
+            resultsDir.mkdir();
+        }
+        boolean writeEvaluatorHeader = writeHeader;
+        for (IEvaluationStrategy evaluator : experimentConfig.getEvaluators()) {
+            Console.traceln(Level.FINE,
+                            String.format("[%s] [%02d/%02d] %s: applying evaluator %s",
+                                          experimentConfig.getExperimentName(), versionCount,
+                                          testVersionCount, testVersion.getVersion(),
+                                          evaluator.getClass().getName()));
+            List<ITrainer> allTrainers = new LinkedList<>();
+            for (ITrainingStrategy trainer : experimentConfig.getTrainers()) {
+                allTrainers.add(trainer);
+            }
+            for (ITestAwareTrainingStrategy trainer : experimentConfig.getTestAwareTrainers()) {
+                allTrainers.add(trainer);
+            }
+            if (writeEvaluatorHeader && resultsFile != null) {
+                evaluator.setParameter(resultsFile);
             }
+            PipelineProfiler.Measurement measurement = profiling.start("eval", evaluator);
+            evaluator.apply(testdata, traindata, allTrainers, efforts, numBugs,
+                            writeEvaluatorHeader, experimentConfig.getResultStorages());
+            measurement.stop();
+            writeEvaluatorHeader = false;
         }
+        Console.traceln(Level.INFO,
+                        String.format("[%s] [%02d/%02d] %s: finished",
+                                      experimentConfig.getExperimentName(), versionCount,
+                                      testVersionCount, testVersion.getVersion()));
+        return true;
     }
 
     /**
@@ -272,11 +366,15 @@ public class WithinProjectOrderedSplitExperiment implements IExecutionStrategy {
             allTrainers.add(trainer);
         }
 
+        final PipelineProfiler.Scope profiling = PipelineProfiler.getInstance()
+            .scope(this.config.getExperimentName(), version.getVersion());
         int available = Integer.MAX_VALUE;
         for (IResultStorage storage : this.config.getResultStorages()) {
             String classifierName = ((IWekaCompatibleTrainer) allTrainers.get(0)).getName();
+            PipelineProfiler.Measurement measurement = profiling.start("storage", storage);
             int curAvailable = storage.containsResult(this.config.getExperimentName(),
                                                       version.getVersion(), classifierName);
+            measurement.stop();
             if (curAvailable < available) {
                 available = curAvailable;
             }
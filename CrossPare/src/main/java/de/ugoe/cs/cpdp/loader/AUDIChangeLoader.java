@@ -17,14 +17,12 @@ package de.ugoe.cs.cpdp.loader;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Map.Entry;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.Arrays;
+import java.util.List;
 
 import weka.core.Attribute;
 import weka.core.DenseInstance;
 import weka.core.Instances;
-import de.ugoe.cs.util.FileTools;
 
 /**
  * <p>
@@ -37,89 +35,6 @@ import de.ugoe.cs.util.FileTools;
  */
 class AUDIChangeLoader implements SingleVersionLoader {
 
-    /**
-     * <p>
-     * Internal helper class.
-     * </p>
-     * 
-     * @author Steffen Herbold
-     */
-    private class EntityRevisionPair implements Comparable<EntityRevisionPair> {
-
-        /**
-         * string that defines an entity
-         */
-        final String entity;
-
-        /**
-         * revision number of the entity
-         */
-        private final int revision;
-
-        /**
-         * <p>
-         * Constructor. Creates a new EntityRevisionPair.
-         * </p>
-         *
-         * @param entity
-         *            the entity
-         * @param revision
-         *            the revision
-         */
-        @SuppressWarnings("hiding")
-        public EntityRevisionPair(String entity, int revision) {
-            this.entity = entity;
-            this.revision = revision;
-        }
-
-        /*
-         * (non-Javadoc)
-         * 
-         * @see java.lang.Object#equals(java.lang.Object)
-         */
-        @Override
-        public boolean equals(Object other) {
-            if (!(other instanceof EntityRevisionPair)) {
-                return false;
-            }
-            return compareTo((EntityRevisionPair) other) == 0;
-        }
-
-        /*
-         * (non-Javadoc)
-         * 
-         * @see java.lang.Object#hashCode()
-         */
-        @Override
-        public int hashCode() {
-            return this.entity.hashCode() + this.revision;
-        }
-
-        /*
-         * (non-Javadoc)
-         * 
-         * @see java.lang.Comparable#compareTo(java.lang.Object)
-         */
-        @Override
-        public int compareTo(EntityRevisionPair other) {
-            int strCmp = this.entity.compareTo(other.entity);
-            if (strCmp != 0) {
-                return strCmp;
-            }
-            return Integer.compare(this.revision, other.revision);
-        }
-
-        /*
-         * (non-Javadoc)
-         * 
-         * @see java.lang.Object#toString()
-         */
-        @Override
-        public String toString() {
-            return this.entity + "@" + this.revision;
-        }
-    }
-
     /*
      * (non-Javadoc)
      * 
@@ -132,85 +47,108 @@ class AUDIChangeLoader implements SingleVersionLoader {
             // TODO implement regression loading
             throw new RuntimeException("regrssion loading not yet supported for AUDIChangeLoader");
         }
-        final String[] lines;
-        String[] lineSplit;
-        String[] lineSplitBug;
-
-        try {
-            lines = FileTools.getLinesFromFile(file.getAbsolutePath());
-        }
-        catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-
         // information about bugs are in another file
         String path = file.getAbsolutePath();
         path = path.substring(0, path.length() - 14) + "repro.csv";
-        final String[] linesBug;
-        try {
-            linesBug = FileTools.getLinesFromFile(path);
+
+        // index the lines by entity and get the revisions and bug counts
+        HashJoinIndex<String> entities = new HashJoinIndex<>();
+        List<Integer> revisions = new ArrayList<>();
+        List<Integer> bugCounts = new ArrayList<>();
+        try (CSVReader bugReader = new CSVReader(new File(path), ';')) {
+            int revisionIndex = -1;
+            int bugIndex = -1;
+            bugReader.next();
+            for (int j = 0; j < bugReader.getNumFields(); j++) {
+                if (bugReader.fieldEquals(j, "svnrev")) {
+                    revisionIndex = j;
+                }
+                if (bugReader.fieldEquals(j, "num_bugs_trace")) {
+                    bugIndex = j;
+                }
+            }
+            if (revisionIndex < 0) {
+                throw new RuntimeException("could not find SVN revisions");
+            }
+            if (bugIndex < 0) {
+                throw new RuntimeException("could not find bug information");
+            }
+
+            // index 0 is the header
+            revisions.add(null);
+            bugCounts.add(null);
+            for (int i = 1; bugReader.next(); i++) {
+                revisions.add(bugReader.getInt(revisionIndex));
+                entities.add(bugReader.getString(0), i);
+                try {
+                    bugCounts.add(bugReader.getInt(bugIndex));
+                }
+                catch (IllegalArgumentException e) {
+                    System.err.println("error in line " + i + ": " + e.getMessage());
+                    System.err.println("bugs line: " + bugReader.getLine());
+                    System.err.println("line is ignored");
+                    bugCounts.add(null);
+                }
+            }
         }
         catch (IOException e) {
             throw new RuntimeException(e);
         }
 
-        int revisionIndex = -1;
-        int bugIndex = -1;
-        lineSplitBug = linesBug[0].split(";");
-        for (int j = 0; j < lineSplitBug.length; j++) {
-            if (lineSplitBug[j].equals("svnrev")) {
-                revisionIndex = j;
+        // get the metrics; only the values of the metrics are kept in memory
+        final ArrayList<Attribute> atts = new ArrayList<>();
+        List<double[]> metricValues = new ArrayList<>();
+        int numMetrics;
+        try (CSVReader reader = new CSVReader(file, ';')) {
+            int metricsStartIndex = -1;
+            int metricsEndIndex = -1;
+            reader.next();
+            for (int j = 0; j < reader.getNumFields(); j++) {
+                if (reader.fieldEquals(j, "lm_LOC")) {
+                    metricsStartIndex = j;
+                }
+                if (reader.fieldEquals(j, "h_E")) {
+                    metricsEndIndex = j;
+                }
             }
-            if (lineSplitBug[j].equals("num_bugs_trace")) {
-                bugIndex = j;
+            if (metricsStartIndex < 0) {
+                throw new RuntimeException("could not find first metric, i.e., lm_LOC");
             }
-        }
-        if (revisionIndex < 0) {
-            throw new RuntimeException("could not find SVN revisions");
-        }
-        if (bugIndex < 0) {
-            throw new RuntimeException("could not find bug information");
-        }
+            if (metricsEndIndex < 0) {
+                throw new RuntimeException("could not find last metric, i.e., h_E");
+            }
+            numMetrics = metricsEndIndex - metricsStartIndex + 1;
 
-        int metricsStartIndex = -1;
-        int metricsEndIndex = -1;
-        lineSplit = lines[0].split(";");
-        for (int j = 0; j < lineSplit.length; j++) {
-            if (lineSplit[j].equals("lm_LOC")) {
-                metricsStartIndex = j;
+            // prepare weka instances
+            for (int j = metricsStartIndex; j <= metricsEndIndex; j++) {
+                atts.add(new Attribute(reader.getString(j) + "_delta"));
             }
-            if (lineSplit[j].equals("h_E")) {
-                metricsEndIndex = j;
+            for (int j = metricsStartIndex; j <= metricsEndIndex; j++) {
+                atts.add(new Attribute(reader.getString(j) + "_abs"));
             }
-        }
-        if (metricsStartIndex < 0) {
-            throw new RuntimeException("could not find first metric, i.e., lm_LOC");
-        }
-        if (metricsEndIndex < 0) {
-            throw new RuntimeException("could not find last metric, i.e., h_E");
-        }
-        int numMetrics = metricsEndIndex - metricsStartIndex + 1;
 
-        // create sets of all filenames and revisions
-        SortedMap<EntityRevisionPair, Integer> entityRevisionPairs = new TreeMap<>();
-        for (int i = 1; i < linesBug.length; i++) {
-            lineSplitBug = linesBug[i].split(";");
-            entityRevisionPairs.put(
-                                    new EntityRevisionPair(lineSplitBug[0],
-                                                           Integer
-                                                               .parseInt(lineSplitBug[revisionIndex])),
-                                    i);
-        }
-
-        // prepare weka instances
-        final ArrayList<Attribute> atts = new ArrayList<>();
-        lineSplit = lines[0].split(";");
-        for (int j = metricsStartIndex; j <= metricsEndIndex; j++) {
-            atts.add(new Attribute(lineSplit[j] + "_delta"));
+            // index 0 is the header
+            metricValues.add(null);
+            for (int i = 1; reader.next(); i++) {
+                try {
+                    double[] values = new double[numMetrics];
+                    for (int j = metricsStartIndex; j <= metricsEndIndex; j++) {
+                        values[j - metricsStartIndex] = reader.getDouble(j);
+                    }
+                    metricValues.add(values);
+                }
+                catch (IllegalArgumentException e) {
+                    System.err.println("error in line " + i + ": " + e.getMessage());
+                    System.err.println("metrics line: " + reader.getLine());
+                    System.err.println("line is ignored");
+                    metricValues.add(null);
+                }
+            }
         }
-        for (int j = metricsStartIndex; j <= metricsEndIndex; j++) {
-            atts.add(new Attribute(lineSplit[j] + "_abs"));
+        catch (IOException e) {
+            throw new RuntimeException(e);
         }
+
         final ArrayList<String> classAttVals = new ArrayList<>();
         classAttVals.add("0");
         classAttVals.add("1");
@@ -220,25 +158,27 @@ class AUDIChangeLoader implements SingleVersionLoader {
         final Instances data = new Instances(file.getName(), atts, 0);
         data.setClass(classAtt);
 
-        // create data
+        // create data; the entities are sorted by name and their lines by revision
+        List<String> entityNames = new ArrayList<>(entities.getKeys());
+        entityNames.sort(null);
         String lastFile = null;
         double[] lastValues = new double[numMetrics];
         int lastNumBugs = 0;
-        for (Entry<EntityRevisionPair, Integer> entry : entityRevisionPairs.entrySet()) {
-            try {
+        for (String entity : entityNames) {
+            for (int line : getLinesByRevision(entities.getRows(entity), revisions)) {
                 // first get values
-                lineSplit = lines[entry.getValue()].split(";");
-                lineSplitBug = linesBug[entry.getValue()].split(";");
-                int i = 0;
-                double[] values = new double[numMetrics];
-                for (int j = metricsStartIndex; j <= metricsEndIndex; j++) {
-                    values[i] = Double.parseDouble(lineSplit[j]);
-                    i++;
+                if (line >= metricValues.size()) {
+                    throw new RuntimeException("missing metrics for line " + line + " of " + path);
+                }
+                double[] values = metricValues.get(line);
+                Integer numBugs = bugCounts.get(line);
+                if (values == null || numBugs == null) {
+                    // invalid lines are ignored
+                    continue;
                 }
-                int numBugs = Integer.parseInt(lineSplitBug[bugIndex]);
 
                 // then check if an entity must be created
-                if (entry.getKey().entity.equals(lastFile)) {
+                if (entity.equals(lastFile)) {
                     // create new instance
                     double[] instanceValues = new double[2 * numMetrics + 1];
                     for (int j = 0; j < numMetrics; j++) {
@@ -257,21 +197,49 @@ class AUDIChangeLoader implements SingleVersionLoader {
                         data.add(new DenseInstance(1.0, instanceValues));
                     }
                 }
-                lastFile = entry.getKey().entity;
+                lastFile = entity;
                 lastValues = values;
                 lastNumBugs = numBugs;
             }
-            catch (IllegalArgumentException e) {
-                System.err.println("error in line " + entry.getValue() + ": " + e.getMessage());
-                System.err.println("metrics line: " + lines[entry.getValue()]);
-                System.err.println("bugs line: " + linesBug[entry.getValue()]);
-                System.err.println("line is ignored");
-            }
         }
 
         return data;
     }
 
+    /**
+     * <p>
+     * Sorts the lines of an entity by their revision. If multiple lines have the same revision,
+     * only the last line is used.
+     * </p>
+     *
+     * @param lines
+     *            the lines of the entity in the order of the file
+     * @param revisions
+     *            revisions of all lines
+     * @return the sorted lines
+     */
+    @SuppressWarnings("boxing")
+    private static int[] getLinesByRevision(int[] lines, List<Integer> revisions) {
+        // revision and line are encoded in one value, such that the sort is done on primitives
+        long[] revisionLines = new long[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            revisionLines[i] = ((long) revisions.get(lines[i]) << 32) | lines[i];
+        }
+        Arrays.sort(revisionLines);
+        int[] sortedLines = new int[lines.length];
+        int numLines = 0;
+        for (int i = 0; i < revisionLines.length; i++) {
+            if (i + 1 < revisionLines.length &&
+                (revisionLines[i] >> 32) == (revisionLines[i + 1] >> 32))
+            {
+                // a later line with the same revision replaces this line
+                continue;
+            }
+            sortedLines[numLines++] = (int) revisionLines[i];
+        }
+        return Arrays.copyOf(sortedLines, numLines);
+    }
+
     /*
      * This is a dummy method for testing purposes
      * (non-Javadoc)
@@ -280,78 +248,8 @@ class AUDIChangeLoader implements SingleVersionLoader {
      */
     @SuppressWarnings("static-method")
     public Instances load(File file, @SuppressWarnings("unused") String dummy) {
-        final String[] lines;
-        try {
-            lines = FileTools.getLinesFromFile(file.getAbsolutePath());
-        }
-        catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-
-        // information about bugs are in another file
-        String path = file.getAbsolutePath();
-        path = path.substring(0, path.length() - 14) + "repro.csv";
-        final String[] linesBug;
-        try {
-            linesBug = FileTools.getLinesFromFile(path);
-        }
-        catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-
-        // configure Instances
-        final ArrayList<Attribute> atts = new ArrayList<>();
-
-        String[] lineSplit = lines[0].split(";");
-        // ignore first three/four and last two columns
-        int offset;
-        if (lineSplit[3].equals("project_rev")) {
-            offset = 4;
-        }
-        else {
-            offset = 3;
-        }
-        for (int j = 0; j < lineSplit.length - (offset + 2); j++) {
-            atts.add(new Attribute(lineSplit[j + offset]));
-        }
-        final ArrayList<String> classAttVals = new ArrayList<>();
-        classAttVals.add("0");
-        classAttVals.add("1");
-        final Attribute classAtt = new Attribute("bug", classAttVals);
-        atts.add(classAtt);
-
-        final Instances data = new Instances(file.getName(), atts, 0);
-        data.setClass(classAtt);
-
-        // fetch data
-        for (int i = 1; i < lines.length; i++) {
-            boolean validInstance = true;
-            lineSplit = lines[i].split(";");
-            String[] lineSplitBug = linesBug[i].split(";");
-            double[] values = new double[data.numAttributes()];
-            for (int j = 0; validInstance && j < values.length - 1; j++) {
-                if (lineSplit[j + offset].trim().isEmpty()) {
-                    validInstance = false;
-                }
-                else {
-                    values[j] = Double.parseDouble(lineSplit[j + offset].trim());
-                }
-            }
-            if (offset == 3) {
-                values[values.length - 1] = lineSplitBug[7].equals("0") ? 0 : 1;
-            }
-            else {
-                values[values.length - 1] = lineSplitBug[8].equals("0") ? 0 : 1;
-            }
-
-            if (validInstance) {
-                data.add(new DenseInstance(1.0, values));
-            }
-            else {
-                System.out.println("instance " + i + " is invalid");
-            }
-        }
-        return data;
+        // the overall defect labels are the same as for the AUDIDataLoader
+        return new AUDIDataLoader().load(file, true);
     }
 
     /*
@@ -21,7 +21,6 @@ import java.util.ArrayList;
 import weka.core.Attribute;
 import weka.core.DenseInstance;
 import weka.core.Instances;
-import de.ugoe.cs.util.FileTools;
 
 /**
  * Loads data from the automative defect data set from Audi Electronic Ventures donated by Altinger
@@ -43,78 +42,73 @@ class AUDIDataLoader implements SingleVersionLoader {
             // TODO implement regression loading
             throw new RuntimeException("regrssion loading not yet supported for AUDIDataLoader");
         }
-        final String[] lines;
-        try {
-            lines = FileTools.getLinesFromFile(file.getAbsolutePath());
-        }
-        catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-
         // information about bugs are in another file
         String path = file.getAbsolutePath();
         path = path.substring(0, path.length() - 14) + "repro.csv";
-        final String[] linesBug;
-        try {
-            linesBug = FileTools.getLinesFromFile(path);
-        }
-        catch (IOException e) {
-            throw new RuntimeException(e);
-        }
 
-        // configure Instances
-        final ArrayList<Attribute> atts = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(file, ';');
+                CSVReader bugReader = new CSVReader(new File(path), ';'))
+        {
+            // configure Instances
+            final ArrayList<Attribute> atts = new ArrayList<>();
 
-        String[] lineSplit = lines[0].split(";");
-        // ignore first three/four and last two columns
-        int offset;
-        if (lineSplit[3].equals("project_rev")) {
-            offset = 4;
-        }
-        else {
-            offset = 3;
-        }
-        for (int j = 0; j < lineSplit.length - (offset + 2); j++) {
-            atts.add(new Attribute(lineSplit[j + offset]));
-        }
-        final ArrayList<String> classAttVals = new ArrayList<>();
-        classAttVals.add("0");
-        classAttVals.add("1");
-        final Attribute classAtt = new Attribute("bug", classAttVals);
-        atts.add(classAtt);
+            reader.next();
+            // ignore first three/four and last two columns
+            int offset;
+            if (reader.fieldEquals(3, "project_rev")) {
+                offset = 4;
+            }
+            else {
+                offset = 3;
+            }
+            for (int j = 0; j < reader.getNumFields() - (offset + 2); j++) {
+                atts.add(new Attribute(reader.getString(j + offset)));
+            }
+            final ArrayList<String> classAttVals = new ArrayList<>();
+            classAttVals.add("0");
+            classAttVals.add("1");
+            final Attribute classAtt = new Attribute("bug", classAttVals);
+            atts.add(classAtt);
 
-        final Instances data = new Instances(file.getName(), atts, 0);
-        data.setClass(classAtt);
+            final Instances data = new Instances(file.getName(), atts, 0);
+            data.setClass(classAtt);
 
-        // fetch data
-        for (int i = 1; i < lines.length; i++) {
-            boolean validInstance = true;
-            lineSplit = lines[i].split(";");
-            String[] lineSplitBug = linesBug[i].split(";");
-            double[] values = new double[data.numAttributes()];
-            for (int j = 0; validInstance && j < values.length - 1; j++) {
-                if (lineSplit[j + offset].trim().isEmpty()) {
-                    validInstance = false;
+            // fetch data; the lines of both files belong together
+            bugReader.next();
+            for (int i = 1; reader.next(); i++) {
+                if (!bugReader.next()) {
+                    throw new RuntimeException("missing bug information for instance " + i +
+                        " in " + path);
+                }
+                boolean validInstance = true;
+                double[] values = new double[data.numAttributes()];
+                for (int j = 0; validInstance && j < values.length - 1; j++) {
+                    if (reader.isBlank(j + offset)) {
+                        validInstance = false;
+                    }
+                    else {
+                        values[j] = reader.getDouble(j + offset);
+                    }
+                }
+                if (offset == 3) {
+                    values[values.length - 1] = bugReader.fieldEquals(7, "0") ? 0 : 1;
                 }
                 else {
-                    values[j] = Double.parseDouble(lineSplit[j + offset].trim());
+                    values[values.length - 1] = bugReader.fieldEquals(8, "0") ? 0 : 1;
                 }
-            }
-            if (offset == 3) {
-                values[values.length - 1] = lineSplitBug[7].equals("0") ? 0 : 1;
-            }
-            else {
-                values[values.length - 1] = lineSplitBug[8].equals("0") ? 0 : 1;
-            }
 
-            if (validInstance) {
-                data.add(new DenseInstance(1.0, values));
-            }
-            else {
-                System.out.println("instance " + i + " is invalid");
+                if (validInstance) {
+                    data.add(new DenseInstance(1.0, values));
+                }
+                else {
+                    System.out.println("instance " + i + " is invalid");
+                }
             }
+            return data;
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
         }
-        return data;
     }
 
     /*
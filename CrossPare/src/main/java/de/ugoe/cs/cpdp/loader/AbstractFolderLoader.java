@@ -16,19 +16,49 @@ package de.ugoe.cs.cpdp.loader;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import weka.core.Attribute;
 import weka.core.Instance;
 import weka.core.Instances;
 
+import de.ugoe.cs.cpdp.util.FloatInstance;
+import de.ugoe.cs.cpdp.util.OffHeapStore;
 import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import de.ugoe.cs.cpdp.versions.VersionData;
+import de.ugoe.cs.cpdp.versions.VersionMetadata;
 
 /**
  * Abstract class for loading data from a folder. The subfolders of a defined folder define the
  * projects, the file contained in the subfolder are the versions of a project.
  * 
+ * With caching, the metadata of the versions is stored in a {@link VersionIndex} next to the
+ * folder. Hence, only new and changed versions must be loaded to determine the metadata, and
+ * {@link #loadVersions(List)} only reads the requested versions from the cache file. Without
+ * caching, no files are written next to the folder and all versions are loaded to determine the
+ * metadata. Versions that are loaded while the metadata is determined are kept until they are
+ * requested by {@link #loadVersions(List)}.
+ * 
+ * If the loader is lazy, {@link #loadVersions(List)} returns lazy {@link SoftwareVersion}s that
+ * load their version file again whenever their data was garbage collected. Lazy loading does not
+ * apply to {@link #loadMetadata()}: without caching or with a cold index, all versions whose
+ * metadata is not indexed are fully loaded to determine their metadata. The data of these
+ * versions is handed to the lazy versions, such that it is not loaded a second time.
+ * 
+ * If the loader is compact, the instances of the loaded versions are {@link FloatInstance}s. If
+ * the loader is off-heap, the values of the loaded versions are stored in {@link OffHeapStore}s;
+ * with caching, the stores are views of the memory mapped cache file. Off-heap storage takes
+ * precedence over the compact storage.
+ * 
  * @author Steffen Herbold
  */
 public abstract class AbstractFolderLoader implements IVersionLoader {
@@ -43,6 +73,36 @@ public abstract class AbstractFolderLoader implements IVersionLoader {
      */
     private boolean isBinaryClass = true;
 
+    /**
+     * number of version files that are loaded concurrently
+     */
+    private int parallelism = 1;
+
+    /**
+     * defines if the loaded versions are cached in a {@link BinaryVersionCache}
+     */
+    private boolean caching = false;
+
+    /**
+     * defines if {@link #loadVersions(List)} returns lazy versions
+     */
+    private boolean lazy = false;
+
+    /**
+     * defines if the loaded instances are stored as {@link FloatInstance}s
+     */
+    private boolean compact = false;
+
+    /**
+     * defines if the values of the loaded instances are stored in {@link OffHeapStore}s
+     */
+    private boolean offHeap = false;
+
+    /**
+     * versions that were loaded by {@link #loadMetadata()}, identified by their source
+     */
+    private final Map<String, SoftwareVersion> preloaded = new HashMap<>();
+
     /**
      * @see de.ugoe.cs.cpdp.loader.IVersionLoader#setLocation(java.lang.String)
      */
@@ -51,6 +111,14 @@ public abstract class AbstractFolderLoader implements IVersionLoader {
         this.path = location;
     }
 
+    /*
+     * @see de.ugoe.cs.cpdp.loader.IVersionLoader#getLocation()
+     */
+    @Override
+    public String getLocation() {
+        return this.path;
+    }
+
     @Override
     public void setClassType(String classType) {
         if ("binary".equals(classType)) {
@@ -65,44 +133,465 @@ public abstract class AbstractFolderLoader implements IVersionLoader {
         }
     }
 
+    /*
+     * @see de.ugoe.cs.cpdp.loader.IVersionLoader#getClassType()
+     */
+    @Override
+    public String getClassType() {
+        return isBinaryClass ? "binary" : "numeric";
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.loader.IVersionLoader#setParallelism(int)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * <p>
+     * returns the number of version files that are loaded concurrently
+     * </p>
+     *
+     * @return the parallelism
+     */
+    protected int getParallelism() {
+        return this.parallelism;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.loader.IVersionLoader#setCaching(boolean)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setCaching(boolean caching) {
+        this.caching = caching;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.loader.IVersionLoader#setLazy(boolean)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.loader.IVersionLoader#isLazy()
+     */
+    @Override
+    public boolean isLazy() {
+        return this.lazy;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.loader.IVersionLoader#setCompact(boolean)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setCompact(boolean compact) {
+        this.compact = compact;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.loader.IVersionLoader#isCompact()
+     */
+    @Override
+    public boolean isCompact() {
+        return this.compact;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.loader.IVersionLoader#setOffHeap(boolean)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setOffHeap(boolean offHeap) {
+        this.offHeap = offHeap;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.loader.IVersionLoader#isOffHeap()
+     */
+    @Override
+    public boolean isOffHeap() {
+        return this.offHeap;
+    }
+
     /*
      * @see de.ugoe.cs.cpdp.loader.IVersionLoader#load()
      */
     @Override
     public List<SoftwareVersion> load() {
-        final List<SoftwareVersion> versions = new LinkedList<>();
+        final File dataDir = new File(this.path);
+        if (!this.caching || dataDir.listFiles() == null) {
+            return loadFolder(dataDir, true);
+        }
+        final BinaryVersionCache cache =
+            new BinaryVersionCache(dataDir, getClass().getSimpleName(), getClassType());
+        List<SoftwareVersion> versions = cache.read(this.offHeap);
+        if (versions == null) {
+            // the cache is written with full precision, regardless of the storage of this loader
+            versions = loadFolder(dataDir, false);
+            cache.write(versions);
+            for (SoftwareVersion version : versions) {
+                convertStorage(version.getReadOnlyInstances());
+            }
+        }
+        else if (this.compact && !this.offHeap) {
+            for (SoftwareVersion version : versions) {
+                FloatInstance.compact(version.getReadOnlyInstances());
+            }
+        }
+        return versions;
+    }
 
+    /*
+     * @see de.ugoe.cs.cpdp.loader.IVersionLoader#loadMetadata()
+     */
+    @Override
+    public List<VersionMetadata> loadMetadata() {
         final File dataDir = new File(this.path);
-        final SingleVersionLoader instancesLoader = getSingleLoader();
+        final List<VersionMetadata> metadata = new ArrayList<>();
         if (dataDir.listFiles() == null) {
-            return versions;
+            return metadata;
+        }
+        final List<File> versionFiles = getVersionFiles(dataDir, getSingleLoader());
+        if (!this.caching) {
+            for (SoftwareVersion version : loadFiles(dataDir.getName(), versionFiles, true)) {
+                this.preloaded.put(version.getMetadata().getSource(), version);
+                metadata.add(version.getMetadata());
+            }
+            return metadata;
+        }
+        final VersionIndex index =
+            new VersionIndex(dataDir, getClass().getSimpleName(), getClassType());
+        final List<File> unindexedFiles = new ArrayList<>();
+        for (File versionFile : versionFiles) {
+            if (index.get(getSource(versionFile)) == null) {
+                unindexedFiles.add(versionFile);
+            }
+        }
+        if (!unindexedFiles.isEmpty()) {
+            // all versions are loaded from the cache at once
+            for (SoftwareVersion version : load()) {
+                this.preloaded.put(version.getMetadata().getSource(), version);
+                index.put(version.getMetadata());
+            }
+            index.write();
+        }
+        for (File versionFile : versionFiles) {
+            metadata.add(index.get(getSource(versionFile)));
         }
-        String datasetName = dataDir.getName();
+        return metadata;
+    }
 
+    /*
+     * @see de.ugoe.cs.cpdp.loader.IVersionLoader#loadVersions(java.util.List)
+     */
+    @Override
+    public List<SoftwareVersion> loadVersions(List<VersionMetadata> metadata) {
+        final File dataDir = new File(this.path);
+        if (this.lazy) {
+            return createLazyVersions(dataDir, metadata);
+        }
+        final List<File> missingFiles = new ArrayList<>();
+        for (VersionMetadata versionMetadata : metadata) {
+            if (!this.preloaded.containsKey(versionMetadata.getSource())) {
+                missingFiles.add(new File(dataDir, versionMetadata.getSource()));
+            }
+        }
+        if (!missingFiles.isEmpty()) {
+            final List<SoftwareVersion> versions;
+            if (this.caching) {
+                versions = loadCachedFiles(dataDir, missingFiles);
+            }
+            else {
+                versions = loadFiles(dataDir.getName(), missingFiles, true);
+            }
+            for (SoftwareVersion version : versions) {
+                this.preloaded.put(version.getMetadata().getSource(), version);
+            }
+        }
+        final List<SoftwareVersion> versions = new LinkedList<>();
+        for (VersionMetadata versionMetadata : metadata) {
+            SoftwareVersion version = this.preloaded.get(versionMetadata.getSource());
+            if (version == null) {
+                throw new RuntimeException("version not found: " + versionMetadata.getSource());
+            }
+            versions.add(version);
+        }
+        this.preloaded.clear();
+        return versions;
+    }
+
+    /**
+     * <p>
+     * Loads selected versions with caching. Only the selected versions are read from the cache
+     * file. If the cache file is outdated, only the selected version files are loaded; the cache
+     * file is not written, because it must contain all versions of the folder.
+     * </p>
+     *
+     * @param dataDir
+     *            the data folder
+     * @param versionFiles
+     *            files of the selected versions
+     * @return the versions
+     */
+    private List<SoftwareVersion> loadCachedFiles(File dataDir, List<File> versionFiles) {
+        final Set<String> sources = new HashSet<>();
+        for (File versionFile : versionFiles) {
+            sources.add(getSource(versionFile));
+        }
+        final BinaryVersionCache cache =
+            new BinaryVersionCache(dataDir, getClass().getSimpleName(), getClassType());
+        List<SoftwareVersion> versions = cache.read(this.offHeap, sources);
+        if (versions == null || versions.size() != sources.size()) {
+            return loadFiles(dataDir.getName(), versionFiles, true);
+        }
+        if (this.compact && !this.offHeap) {
+            for (SoftwareVersion version : versions) {
+                FloatInstance.compact(version.getReadOnlyInstances());
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * <p>
+     * Creates lazy versions. The data of versions that were already loaded by
+     * {@link #loadMetadata()} is passed to the lazy versions; all other version files are only
+     * loaded when their data is used.
+     * </p>
+     *
+     * @param dataDir
+     *            the data folder
+     * @param metadata
+     *            metadata of the versions
+     * @return the lazy versions, in the order of the metadata
+     */
+    private List<SoftwareVersion> createLazyVersions(File dataDir, List<VersionMetadata> metadata) {
+        final List<SoftwareVersion> versions = new LinkedList<>();
+        for (VersionMetadata versionMetadata : metadata) {
+            final File versionFile = new File(dataDir, versionMetadata.getSource());
+            SoftwareVersion preloadedVersion = this.preloaded.get(versionMetadata.getSource());
+            VersionData data = null;
+            if (preloadedVersion != null) {
+                data = new VersionData(preloadedVersion.getReadOnlyInstances(),
+                                       preloadedVersion.getEfforts(),
+                                       preloadedVersion.getNumBugs());
+            }
+            // each load uses its own loader, because the loaders are not thread-safe
+            versions.add(new SoftwareVersion(versionMetadata,
+                                             () -> loadVersionData(versionFile, getSingleLoader(),
+                                                                   true),
+                                             data));
+        }
+        this.preloaded.clear();
+        return versions;
+    }
+
+    /**
+     * <p>
+     * Loads all versions of the data folder.
+     * </p>
+     *
+     * @param dataDir
+     *            the data folder
+     * @param convert
+     *            if true, the data is converted to the storage of the loader; otherwise, the data
+     *            is kept with full precision
+     * @return the versions
+     */
+    private List<SoftwareVersion> loadFolder(File dataDir, boolean convert) {
+        if (dataDir.listFiles() == null) {
+            return new LinkedList<>();
+        }
+        return loadFiles(dataDir.getName(), getVersionFiles(dataDir, getSingleLoader()), convert);
+    }
+
+    /**
+     * <p>
+     * Determines the version files of the data folder.
+     * </p>
+     *
+     * @param dataDir
+     *            the data folder
+     * @param instancesLoader
+     *            loader for the version files
+     * @return the version files; the order of the files defines the order of the versions
+     */
+    private static List<File> getVersionFiles(File dataDir, SingleVersionLoader instancesLoader) {
+        final List<File> versionFiles = new ArrayList<>();
         for (File projectDir : dataDir.listFiles()) {
             if (projectDir.isDirectory()) {
-                String projectName = projectDir.getName();
                 if (projectDir.listFiles() != null) {
                     for (File versionFile : projectDir.listFiles()) {
                         if (versionFile.isFile() &&
                             instancesLoader.filenameFilter(versionFile.getName()))
                         {
-                            // currently only supports binary classification
-                            // TODO allow regression loading
-                            Instances data = instancesLoader.load(versionFile, isBinaryClass);
-                            String versionName = data.relationName();
-                            List<Double> efforts = getEfforts(data);
-                            List<Double> numBugs = getNumBugs(data);
-                            versions.add(new SoftwareVersion(datasetName, projectName, versionName,
-                                                             data, efforts, numBugs));
+                            versionFiles.add(versionFile);
                         }
                     }
                 }
             }
         }
+        return versionFiles;
+    }
+
+    /**
+     * <p>
+     * Loads version files, either sequentially or concurrently, depending on the parallelism.
+     * </p>
+     *
+     * @param datasetName
+     *            name of the data set
+     * @param versionFiles
+     *            the version files
+     * @param convert
+     *            if true, the data is converted to the storage of the loader; otherwise, the data
+     *            is kept with full precision
+     * @return the versions, in the order of the files
+     */
+    private List<SoftwareVersion> loadFiles(final String datasetName,
+                                            List<File> versionFiles,
+                                            final boolean convert)
+    {
+        final List<SoftwareVersion> versions = new LinkedList<>();
+        if (this.parallelism <= 1 || versionFiles.size() <= 1) {
+            final SingleVersionLoader instancesLoader = getSingleLoader();
+            for (File versionFile : versionFiles) {
+                versions.add(loadVersion(datasetName, versionFile, instancesLoader, convert));
+            }
+            return versions;
+        }
+
+        final ExecutorService threadPool =
+            Executors.newFixedThreadPool(Math.min(this.parallelism, versionFiles.size()));
+        try {
+            final List<Future<SoftwareVersion>> results = new ArrayList<>(versionFiles.size());
+            for (final File versionFile : versionFiles) {
+                // each task uses its own loader, because the loaders are not thread-safe
+                results.add(threadPool.submit(() -> loadVersion(datasetName, versionFile,
+                                                                getSingleLoader(), convert)));
+            }
+            for (Future<SoftwareVersion> result : results) {
+                versions.add(result.get());
+            }
+        }
+        catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        finally {
+            threadPool.shutdownNow();
+        }
         return versions;
     }
 
+    /**
+     * <p>
+     * returns the source of a version file, i.e., its path relative to the data folder
+     * </p>
+     *
+     * @param versionFile
+     *            the version file
+     * @return the source
+     */
+    private static String getSource(File versionFile) {
+        return versionFile.getParentFile().getName() + "/" + versionFile.getName();
+    }
+
+    /**
+     * <p>
+     * Loads a single version.
+     * </p>
+     *
+     * @param datasetName
+     *            name of the data set
+     * @param versionFile
+     *            file of the version; the parent folder of the file defines the project
+     * @param instancesLoader
+     *            loader for the file
+     * @param convert
+     *            if true, the data is converted to the storage of the loader
+     * @return the version
+     */
+    private SoftwareVersion loadVersion(String datasetName,
+                                        File versionFile,
+                                        SingleVersionLoader instancesLoader,
+                                        boolean convert)
+    {
+        VersionData data = loadVersionData(versionFile, instancesLoader, convert);
+        VersionMetadata metadata =
+            VersionMetadata.create(datasetName, versionFile.getParentFile().getName(),
+                                   data.getInstances().relationName(), getSource(versionFile),
+                                   data.getInstances());
+        return new SoftwareVersion(metadata, data.getInstances(), data.getEfforts(),
+                                   data.getNumBugs());
+    }
+
+    /**
+     * <p>
+     * Loads the data of a single version. The efforts and the number of bugs are retrieved in a
+     * single pass over the instances.
+     * </p>
+     *
+     * @param versionFile
+     *            file of the version
+     * @param instancesLoader
+     *            loader for the file
+     * @param convert
+     *            if true, the data is converted to the storage of the loader
+     * @return the data of the version
+     */
+    @SuppressWarnings("boxing")
+    private VersionData loadVersionData(File versionFile,
+                                        SingleVersionLoader instancesLoader,
+                                        boolean convert)
+    {
+        // currently only supports binary classification
+        // TODO allow regression loading
+        Instances data = instancesLoader.load(versionFile, isBinaryClass);
+        if (convert) {
+            convertStorage(data);
+        }
+        Attribute effortAtt = getEffortAttribute(data);
+        List<Double> efforts = new ArrayList<>(data.size());
+        List<Double> numBugs = new ArrayList<>(data.size());
+        for (Instance instance : data) {
+            // constant effort per instance is the default
+            efforts.add(effortAtt == null ? 1.0 : instance.value(effortAtt));
+            numBugs.add(instance.classValue());
+        }
+        return new VersionData(data, efforts, numBugs);
+    }
+
+    /**
+     * <p>
+     * Converts the data to the storage of the loader, i.e., moves the data off-heap or compacts it.
+     * </p>
+     *
+     * @param data
+     *            the data
+     */
+    private void convertStorage(Instances data) {
+        if (this.offHeap) {
+            OffHeapStore.moveOffHeap(data);
+        }
+        else if (this.compact) {
+            FloatInstance.compact(data);
+        }
+    }
+
     /**
      * <p>
      * Sets the efforts for the instances
@@ -114,24 +603,7 @@ public abstract class AbstractFolderLoader implements IVersionLoader {
      */
     @SuppressWarnings("boxing")
     public static List<Double> getEfforts(Instances data) {
-        // attribute in the JURECZKO data and default
-        Attribute effortAtt = data.attribute("loc");
-        if (effortAtt == null) {
-            // attribute in the NASA/SOFTMINE/MDP data
-            effortAtt = data.attribute("LOC_EXECUTABLE");
-        }
-        if (effortAtt == null) {
-            // attribute in the AEEEM data
-            effortAtt = data.attribute("numberOfLinesOfCode");
-        }
-        if (effortAtt == null) {
-            // attribute in the RELINK data
-            effortAtt = data.attribute("CountLineCodeExe");
-        }
-        if (effortAtt == null) {
-            // attribute in the SMARTSHARK data
-            effortAtt = data.attribute("LOC");
-        }
+        Attribute effortAtt = getEffortAttribute(data);
         List<Double> efforts = new ArrayList<>(data.size());
         for (int i = 0; i < data.size(); i++) {
             if(effortAtt!=null) {
@@ -146,20 +618,33 @@ public abstract class AbstractFolderLoader implements IVersionLoader {
 
     /**
      * <p>
-     * Retrieves the number of bugs from the class attribute of the data and stores it separately in
-     * a list.
+     * Determines the attribute that contains the effort of the instances.
      * </p>
      *
      * @param data
      *            the data
-     * @return list with bug counts
+     * @return the effort attribute; null if the data does not contain an effort attribute
      */
-    private static List<Double> getNumBugs(Instances data) {
-        List<Double> numBugs = new ArrayList<>(data.size());
-        for (Instance instance : data) {
-            numBugs.add(instance.classValue());
+    private static Attribute getEffortAttribute(Instances data) {
+        // attribute in the JURECZKO data and default
+        Attribute effortAtt = data.attribute("loc");
+        if (effortAtt == null) {
+            // attribute in the NASA/SOFTMINE/MDP data
+            effortAtt = data.attribute("LOC_EXECUTABLE");
+        }
+        if (effortAtt == null) {
+            // attribute in the AEEEM data
+            effortAtt = data.attribute("numberOfLinesOfCode");
+        }
+        if (effortAtt == null) {
+            // attribute in the RELINK data
+            effortAtt = data.attribute("CountLineCodeExe");
+        }
+        if (effortAtt == null) {
+            // attribute in the SMARTSHARK data
+            effortAtt = data.attribute("LOC");
         }
-        return numBugs;
+        return effortAtt;
     }
 
     /**
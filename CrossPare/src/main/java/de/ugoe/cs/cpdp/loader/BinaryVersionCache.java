@@ -0,0 +1,600 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package de.ugoe.cs.cpdp.loader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+
+import de.ugoe.cs.cpdp.util.OffHeapStore;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import de.ugoe.cs.cpdp.versions.VersionMetadata;
+import de.ugoe.cs.util.console.Console;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Binary cache file for the versions loaded by an {@link AbstractFolderLoader}. The cache file is
+ * stored next to the folder of the data and contains all versions of the folder in a columnar
+ * format, i.e., the header of the data followed by one column of doubles per attribute, the
+ * weights, the efforts, and the bug counts. Reading the cache file does not require any parsing
+ * of the values: the file is memory mapped and the columns are bulk copied. Alternatively, the
+ * instances of the versions read their values directly from the mapped file through an
+ * {@link OffHeapStore}. The values are always written with full precision, i.e., the cache file
+ * does not depend on the storage of the loader.
+ * </p>
+ * <p>
+ * The cache file is invalidated by a fingerprint of the data folder, which is based on the paths,
+ * sizes, and modification times of all files in the project folders. Only numeric and nominal
+ * attributes are supported; data with other attributes is not cached. Because the cache file is
+ * mapped as a whole, data that requires a cache file larger than 2 GB is not cached either.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class BinaryVersionCache {
+
+    /**
+     * file extension of the cache files
+     */
+    public static final String FILE_EXTENSION = ".cpdpcache";
+
+    /**
+     * magic number at the beginning of cache files
+     */
+    private static final int MAGIC = 0x43504450;
+
+    /**
+     * version of the file format; must be changed whenever the format changes
+     */
+    private static final int FORMAT_VERSION = 3;
+
+    /**
+     * type marker for numeric attributes
+     */
+    private static final byte NUMERIC = 0;
+
+    /**
+     * type marker for nominal attributes
+     */
+    private static final byte NOMINAL = 1;
+
+    /**
+     * default maximal size of cache files in bytes, i.e., the maximal size of a memory mapped file
+     */
+    static final long DEFAULT_MAX_SIZE = Integer.MAX_VALUE;
+
+    /**
+     * folder of the data
+     */
+    private final File dataDir;
+
+    /**
+     * the cache file
+     */
+    private final File cacheFile;
+
+    /**
+     * maximal size of the cache file in bytes
+     */
+    private final long maxSize;
+
+    /**
+     * fingerprint of the data folder; computed when the cache is read
+     */
+    private byte[] fingerprint = null;
+
+    /**
+     * <p>
+     * Creates a new cache for a data folder. The name of the cache file is derived from the name
+     * of the data folder, the loader, and the class type, such that different loaders for the same
+     * folder do not share a cache file.
+     * </p>
+     *
+     * @param dataDir
+     *            folder of the data
+     * @param loaderName
+     *            name of the loader
+     * @param classType
+     *            type of the class attribute
+     */
+    public BinaryVersionCache(File dataDir, String loaderName, String classType) {
+        this(dataDir, loaderName, classType, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * <p>
+     * Creates a new cache for a data folder with a custom maximal size of the cache file.
+     * </p>
+     *
+     * @param dataDir
+     *            folder of the data
+     * @param loaderName
+     *            name of the loader
+     * @param classType
+     *            type of the class attribute
+     * @param maxSize
+     *            maximal size of the cache file in bytes
+     */
+    @SuppressWarnings("hiding")
+    BinaryVersionCache(File dataDir, String loaderName, String classType, long maxSize) {
+        this.dataDir = dataDir;
+        this.cacheFile = new File(dataDir.getAbsoluteFile().getParentFile(), dataDir.getName() +
+            "." + loaderName + "." + classType + FILE_EXTENSION);
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * <p>
+     * returns the cache file
+     * </p>
+     *
+     * @return the cache file
+     */
+    public File getCacheFile() {
+        return this.cacheFile;
+    }
+
+    /**
+     * <p>
+     * Reads the versions from the cache file.
+     * </p>
+     *
+     * @return the versions; null if the cache file does not exist, is outdated, or cannot be read
+     */
+    public List<SoftwareVersion> read() {
+        return read(false);
+    }
+
+    /**
+     * <p>
+     * Reads the versions from the cache file. If the versions are off-heap, their values are not
+     * copied to the heap, but remain in the memory mapped cache file. The mapping stays valid,
+     * even if the cache file is replaced later.
+     * </p>
+     *
+     * @param offHeap
+     *            true if the values of the versions remain in the memory mapped file
+     * @return the versions; null if the cache file does not exist, is outdated, or cannot be read
+     */
+    public List<SoftwareVersion> read(boolean offHeap) {
+        return read(offHeap, null);
+    }
+
+    /**
+     * <p>
+     * Reads selected versions from the cache file. The values of all other versions are skipped
+     * without reading them.
+     * </p>
+     *
+     * @param offHeap
+     *            true if the values of the versions remain in the memory mapped file
+     * @param sources
+     *            sources of the versions that are read; null to read all versions
+     * @return the selected versions in the order of the cache file; null if the cache file does not
+     *         exist, is outdated, or cannot be read
+     */
+    public List<SoftwareVersion> read(boolean offHeap, Set<String> sources) {
+        this.fingerprint = computeFingerprint();
+        if (!this.cacheFile.isFile()) {
+            return null;
+        }
+        try (FileChannel channel =
+            FileChannel.open(this.cacheFile.toPath(), StandardOpenOption.READ))
+        {
+            if (channel.size() > this.maxSize) {
+                Console.traceln(Level.WARNING, "ignoring cache file that is too large: " +
+                    this.cacheFile);
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                Console.traceln(Level.FINE, "ignoring cache file with unknown format: " +
+                    this.cacheFile);
+                return null;
+            }
+            byte[] cachedFingerprint = new byte[buffer.getInt()];
+            buffer.get(cachedFingerprint);
+            if (!Arrays.equals(this.fingerprint, cachedFingerprint)) {
+                Console.traceln(Level.FINE, "ignoring outdated cache file: " + this.cacheFile);
+                return null;
+            }
+            int numVersions = buffer.getInt();
+            List<SoftwareVersion> versions = new LinkedList<>();
+            for (int i = 0; i < numVersions; i++) {
+                SoftwareVersion version = readVersion(buffer, offHeap, sources);
+                if (version != null) {
+                    versions.add(version);
+                }
+            }
+            Console.traceln(Level.FINE, "read " + versions.size() + " versions from cache file " +
+                this.cacheFile);
+            return versions;
+        }
+        catch (IOException | RuntimeException e) {
+            Console.traceln(Level.WARNING, "could not read cache file " + this.cacheFile + ": " +
+                e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * <p>
+     * Writes versions to the cache file. The file is first written to a uniquely named temporary
+     * file in the same folder and then moved, such that concurrent readers never see a partially
+     * written file and concurrent writers do not overwrite each other's temporary files. Versions
+     * whose cache file would exceed the maximal size are not written. Failures are only logged,
+     * because the cache is optional.
+     * </p>
+     *
+     * @param versions
+     *            the versions
+     */
+    public void write(List<SoftwareVersion> versions) {
+        // lower bound of the size, i.e., only the values, weights, efforts, and bug counts
+        long size = 0;
+        for (SoftwareVersion version : versions) {
+            Instances data = version.getReadOnlyInstances();
+            for (int j = 0; j < data.numAttributes(); j++) {
+                if (!data.attribute(j).isNumeric() && !data.attribute(j).isNominal()) {
+                    Console.traceln(Level.FINE, "data with attribute " + data.attribute(j).name() +
+                        " of unsupported type not cached");
+                    return;
+                }
+            }
+            size += (data.numAttributes() + 3L) * data.numInstances() * Double.BYTES;
+        }
+        if (size > this.maxSize) {
+            Console.traceln(Level.WARNING, "data is too large for cache file " + this.cacheFile +
+                " and not cached");
+            return;
+        }
+        if (this.fingerprint == null) {
+            this.fingerprint = computeFingerprint();
+        }
+        File tmpFile = null;
+        try {
+            tmpFile = Files.createTempFile(this.cacheFile.getParentFile().toPath(),
+                                           this.cacheFile.getName(), ".tmp")
+                .toFile();
+            try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmpFile), 1 << 16)))
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(this.fingerprint.length);
+                out.write(this.fingerprint);
+                out.writeInt(versions.size());
+                for (SoftwareVersion version : versions) {
+                    writeVersion(out, version);
+                }
+            }
+            if (tmpFile.length() > this.maxSize) {
+                Console.traceln(Level.WARNING, "data is too large for cache file " +
+                    this.cacheFile + " and not cached");
+                tmpFile.delete();
+                return;
+            }
+            Files.move(tmpFile.toPath(), this.cacheFile.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING);
+            Console.traceln(Level.FINE, "wrote " + versions.size() + " versions to cache file " +
+                this.cacheFile);
+        }
+        catch (IOException e) {
+            Console.traceln(Level.WARNING, "could not write cache file " + this.cacheFile + ": " +
+                e.getMessage());
+            if (tmpFile != null) {
+                tmpFile.delete();
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Computes the fingerprint of the data folder from the paths, sizes, and modification times of
+     * all files in the project folders.
+     * </p>
+     *
+     * @return the fingerprint
+     */
+    private byte[] computeFingerprint() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        File[] projectDirs = this.dataDir.listFiles();
+        if (projectDirs != null) {
+            // sorted, such that the fingerprint does not depend on the order of the file system
+            Arrays.sort(projectDirs);
+            for (File projectDir : projectDirs) {
+                File[] files = projectDir.listFiles();
+                if (files != null) {
+                    Arrays.sort(files);
+                    for (File file : files) {
+                        digest.update((projectDir.getName() + "/" + file.getName() + ":" +
+                            file.length() + ":" + file.lastModified() + "\n")
+                                .getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * <p>
+     * Writes a version.
+     * </p>
+     *
+     * @param out
+     *            stream to which the version is written
+     * @param version
+     *            the version
+     * @throws IOException
+     *             thrown if the version cannot be written
+     */
+    private static void writeVersion(DataOutputStream out, SoftwareVersion version)
+        throws IOException
+    {
+        Instances data = version.getReadOnlyInstances();
+        writeString(out, version.getDataset());
+        writeString(out, version.getProject());
+        writeString(out, version.getVersion());
+        String source = version.getMetadata().getSource();
+        writeString(out, source == null ? "" : source);
+        writeString(out, data.relationName());
+        out.writeInt(data.numAttributes());
+        out.writeInt(data.classIndex());
+        for (int j = 0; j < data.numAttributes(); j++) {
+            Attribute attribute = data.attribute(j);
+            writeString(out, attribute.name());
+            if (attribute.isNominal()) {
+                out.writeByte(NOMINAL);
+                out.writeInt(attribute.numValues());
+                for (int k = 0; k < attribute.numValues(); k++) {
+                    writeString(out, attribute.value(k));
+                }
+            }
+            else {
+                out.writeByte(NUMERIC);
+            }
+        }
+        int numInstances = data.numInstances();
+        out.writeInt(numInstances);
+        for (int j = 0; j < data.numAttributes(); j++) {
+            for (int i = 0; i < numInstances; i++) {
+                out.writeDouble(data.instance(i).value(j));
+            }
+        }
+        for (int i = 0; i < numInstances; i++) {
+            out.writeDouble(data.instance(i).weight());
+        }
+        writeColumn(out, version.getEfforts());
+        writeColumn(out, version.getNumBugs());
+    }
+
+    /**
+     * <p>
+     * Reads a version. If the version is not selected, the buffer is only moved behind the
+     * version.
+     * </p>
+     *
+     * @param buffer
+     *            buffer from which the version is read
+     * @param offHeap
+     *            true if the instances read their values from the buffer
+     * @param sources
+     *            sources of the selected versions; null if all versions are selected
+     * @return the version; null if the version is not selected
+     */
+    private static SoftwareVersion readVersion(ByteBuffer buffer,
+                                               boolean offHeap,
+                                               Set<String> sources)
+    {
+        String dataset = readString(buffer);
+        String project = readString(buffer);
+        String versionName = readString(buffer);
+        String source = readString(buffer);
+        String relationName = readString(buffer);
+        int numAttributes = buffer.getInt();
+        int classIndex = buffer.getInt();
+        ArrayList<Attribute> attributes = new ArrayList<>(numAttributes);
+        for (int j = 0; j < numAttributes; j++) {
+            String name = readString(buffer);
+            if (buffer.get() == NOMINAL) {
+                int numValues = buffer.getInt();
+                List<String> values = new ArrayList<>(numValues);
+                for (int k = 0; k < numValues; k++) {
+                    values.add(readString(buffer));
+                }
+                attributes.add(new Attribute(name, values));
+            }
+            else {
+                attributes.add(new Attribute(name));
+            }
+        }
+        int numInstances = buffer.getInt();
+        if (sources != null && !sources.contains(source)) {
+            buffer.position(buffer.position() + (numAttributes + 1) * numInstances * Double.BYTES);
+            skipListColumn(buffer);
+            skipListColumn(buffer);
+            return null;
+        }
+        Instances data;
+        if (offHeap) {
+            OffHeapStore store = OffHeapStore.wrap(buffer, numInstances, numAttributes);
+            Instances header = new Instances(relationName, attributes, 0);
+            header.setClassIndex(classIndex);
+            data = store.toInstances(header, readColumn(buffer, numInstances));
+        }
+        else {
+            double[][] columns = new double[numAttributes][];
+            for (int j = 0; j < numAttributes; j++) {
+                columns[j] = readColumn(buffer, numInstances);
+            }
+            double[] weights = readColumn(buffer, numInstances);
+
+            data = new Instances(relationName, attributes, numInstances);
+            data.setClassIndex(classIndex);
+            for (int i = 0; i < numInstances; i++) {
+                double[] values = new double[numAttributes];
+                for (int j = 0; j < numAttributes; j++) {
+                    values[j] = columns[j][i];
+                }
+                data.add(new DenseInstance(weights[i], values));
+            }
+        }
+        List<Double> efforts = readListColumn(buffer);
+        List<Double> numBugs = readListColumn(buffer);
+        VersionMetadata metadata = VersionMetadata
+            .create(dataset, project, versionName, source.isEmpty() ? null : source, data);
+        return new SoftwareVersion(metadata, data, efforts, numBugs);
+    }
+
+    /**
+     * <p>
+     * Writes a string as its length followed by its UTF-8 encoding.
+     * </p>
+     *
+     * @param out
+     *            stream to which the string is written
+     * @param str
+     *            the string
+     * @throws IOException
+     *             thrown if the string cannot be written
+     */
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * <p>
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     * </p>
+     *
+     * @param buffer
+     *            buffer from which the string is read
+     * @return the string
+     */
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * <p>
+     * Writes an optional column as a flag whether the column exists followed by its values.
+     * </p>
+     *
+     * @param out
+     *            stream to which the column is written
+     * @param values
+     *            the column; may be null
+     * @throws IOException
+     *             thrown if the column cannot be written
+     */
+    private static void writeColumn(DataOutputStream out, List<Double> values) throws IOException {
+        out.writeBoolean(values != null);
+        if (values != null) {
+            out.writeInt(values.size());
+            for (Double value : values) {
+                out.writeDouble(value.doubleValue());
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Reads a column written by {@link #writeColumn(DataOutputStream, List)}.
+     * </p>
+     *
+     * @param buffer
+     *            buffer from which the column is read
+     * @return the column; null if the column was not written
+     */
+    @SuppressWarnings("boxing")
+    private static List<Double> readListColumn(ByteBuffer buffer) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        double[] column = readColumn(buffer, buffer.getInt());
+        List<Double> values = new ArrayList<>(column.length);
+        for (double value : column) {
+            values.add(value);
+        }
+        return values;
+    }
+
+    /**
+     * <p>
+     * Skips a column written by {@link #writeColumn(DataOutputStream, List)}.
+     * </p>
+     *
+     * @param buffer
+     *            buffer in which the column is skipped
+     */
+    private static void skipListColumn(ByteBuffer buffer) {
+        if (buffer.get() != 0) {
+            int length = buffer.getInt();
+            buffer.position(buffer.position() + length * Double.BYTES);
+        }
+    }
+
+    /**
+     * <p>
+     * Bulk reads a column of doubles.
+     * </p>
+     *
+     * @param buffer
+     *            buffer from which the column is read
+     * @param length
+     *            number of values of the column
+     * @return the column
+     */
+    private static double[] readColumn(ByteBuffer buffer, int length) {
+        double[] column = new double[length];
+        DoubleBuffer doubles = buffer.asDoubleBuffer();
+        doubles.get(column);
+        buffer.position(buffer.position() + length * Double.BYTES);
+        return column;
+    }
+}
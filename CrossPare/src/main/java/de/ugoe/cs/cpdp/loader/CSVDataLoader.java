@@ -21,7 +21,6 @@ import java.util.ArrayList;
 import weka.core.Attribute;
 import weka.core.DenseInstance;
 import weka.core.Instances;
-import de.ugoe.cs.util.FileTools;
 
 /**
  * Loads the instances for a software version from a CSV file of the PROMISE data set mined by
@@ -38,55 +37,53 @@ class CSVDataLoader implements SingleVersionLoader {
      */
     @Override
     public Instances load(File file, boolean binaryClass) {
-        final String[] lines;
-        try {
-            lines = FileTools.getLinesFromFile(file.getAbsolutePath());
-        }
-        catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-
-        // configure Instances
-        final ArrayList<Attribute> atts = new ArrayList<>();
-
-        String[] lineSplit = lines[0].split(",");
-        for (int j = 0; j < lineSplit.length - 4; j++) {
-            atts.add(new Attribute(lineSplit[j + 3]));
-        }
-        Attribute classAtt;
-        if(binaryClass) {
-            // add nominal class attribute
-            final ArrayList<String> classAttVals = new ArrayList<>();
-            classAttVals.add("0");
-            classAttVals.add("1");
-            classAtt = new Attribute("bug", classAttVals);
-        } else {
-            // add numeric class attribute
-            classAtt = new Attribute("bugs");
-        }
-        atts.add(classAtt);
-        
-        final Instances data = new Instances(file.getName(), atts, 0);
-        data.setClass(classAtt);
+        try (CSVReader reader = new CSVReader(file, ',')) {
+            // configure Instances
+            final ArrayList<Attribute> atts = new ArrayList<>();
 
-        // fetch data
-        for (int i = 1; i < lines.length; i++) {
-            lineSplit = lines[i].split(",");
-            double[] values = new double[lineSplit.length - 3];
-            for (int j = 0; j < values.length - 1; j++) {
-                values[j] = Double.parseDouble(lineSplit[j + 3].trim());
+            if (reader.next()) {
+                for (int j = 0; j < reader.getNumFields() - 4; j++) {
+                    atts.add(new Attribute(reader.getString(j + 3)));
+                }
             }
+            Attribute classAtt;
             if(binaryClass) {
-                // nominal class value
-                values[values.length - 1] = lineSplit[lineSplit.length - 1].trim().equals("0") ? 0 : 1;
+                // add nominal class attribute
+                final ArrayList<String> classAttVals = new ArrayList<>();
+                classAttVals.add("0");
+                classAttVals.add("1");
+                classAtt = new Attribute("bug", classAttVals);
             } else {
-                // numeric class value
-                values[values.length - 1] = Double.parseDouble(lineSplit[lineSplit.length - 1].trim());
+                // add numeric class attribute
+                classAtt = new Attribute("bugs");
+            }
+            atts.add(classAtt);
+
+            final Instances data = new Instances(file.getName(), atts, 0);
+            data.setClass(classAtt);
+
+            // fetch data
+            while (reader.next()) {
+                final int classField = reader.getNumFields() - 1;
+                double[] values = new double[reader.getNumFields() - 3];
+                for (int j = 0; j < values.length - 1; j++) {
+                    values[j] = reader.getDouble(j + 3);
+                }
+                if(binaryClass) {
+                    // nominal class value
+                    values[values.length - 1] = reader.trimmedFieldEquals(classField, "0") ? 0 : 1;
+                } else {
+                    // numeric class value
+                    values[values.length - 1] = reader.getDouble(classField);
+                }
+                data.add(new DenseInstance(1.0, values));
             }
-            data.add(new DenseInstance(1.0, values));
-        }
 
-        return data;
+            return data;
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     /*
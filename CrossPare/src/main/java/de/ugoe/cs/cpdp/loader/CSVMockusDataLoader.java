@@ -21,7 +21,6 @@ import java.util.ArrayList;
 import weka.core.Attribute;
 import weka.core.DenseInstance;
 import weka.core.Instances;
-import de.ugoe.cs.util.FileTools;
 
 /**
  * <p>
@@ -38,44 +37,41 @@ class CSVMockusDataLoader implements SingleVersionLoader {
             // TODO implement regression loading
             throw new RuntimeException("regrssion loading not yet supported for CSVMockusDataLoader");
         }
-        final String[] lines;
-        try {
+        try (CSVReader reader = new CSVReader(file, ',')) {
+            // configure Instances
+            final ArrayList<Attribute> atts = new ArrayList<>();
 
-            lines = FileTools.getLinesFromFile(file.getAbsolutePath());
-        }
-        catch (IOException e) {
-            throw new RuntimeException(e);
-        }
-
-        // configure Instances
-        final ArrayList<Attribute> atts = new ArrayList<>();
-
-        String[] lineSplit = lines[0].split(",");
-        for (int j = 0; j < lineSplit.length - 3; j++) {
-            atts.add(new Attribute(lineSplit[j + 2]));
-        }
+            if (reader.next()) {
+                for (int j = 0; j < reader.getNumFields() - 3; j++) {
+                    atts.add(new Attribute(reader.getString(j + 2)));
+                }
+            }
 
-        final ArrayList<String> classAttVals = new ArrayList<>();
-        classAttVals.add("0");
-        classAttVals.add("1");
-        final Attribute classAtt = new Attribute("bug", classAttVals);
-        atts.add(classAtt);
+            final ArrayList<String> classAttVals = new ArrayList<>();
+            classAttVals.add("0");
+            classAttVals.add("1");
+            final Attribute classAtt = new Attribute("bug", classAttVals);
+            atts.add(classAtt);
 
-        final Instances data = new Instances(file.getName(), atts, 0);
-        data.setClass(classAtt);
+            final Instances data = new Instances(file.getName(), atts, 0);
+            data.setClass(classAtt);
 
-        // fetch data
-        for (int i = 1; i < lines.length; i++) {
-            lineSplit = lines[i].split(",");
-            double[] values = new double[lineSplit.length - 2];
-            for (int j = 0; j < values.length - 1; j++) {
-                values[j] = Double.parseDouble(lineSplit[j + 2].trim());
+            // fetch data
+            while (reader.next()) {
+                double[] values = new double[reader.getNumFields() - 2];
+                for (int j = 0; j < values.length - 1; j++) {
+                    values[j] = reader.getDouble(j + 2);
+                }
+                values[values.length - 1] =
+                    reader.trimmedFieldEquals(reader.getNumFields() - 1, "0") ? 0 : 1;
+                data.add(new DenseInstance(1.0, values));
             }
-            values[values.length - 1] = lineSplit[lineSplit.length - 1].trim().equals("0") ? 0 : 1;
-            data.add(new DenseInstance(1.0, values));
-        }
 
-        return data;
+            return data;
+        }
+        catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     @Override
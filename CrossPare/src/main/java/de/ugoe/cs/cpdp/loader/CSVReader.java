@@ -0,0 +1,543 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package de.ugoe.cs.cpdp.loader;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Streaming reader for CSV files with numeric data. The file is read record by record through a
+ * fixed char buffer, i.e., the memory consumption does not depend on the size of the file. The
+ * fields of the current record are only stored as offsets into the line buffer. Strings are only
+ * created on request and numeric values are parsed directly from the line buffer.
+ * </p>
+ * <p>
+ * Records are separated by line breaks ({@code \n} or {@code \r\n}), empty lines are skipped. The
+ * fields are split at the separator without support for quoting. Like {@link String#split(String)},
+ * trailing empty fields are ignored.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+class CSVReader implements Closeable {
+
+    /**
+     * maximal number of significant digits for which the fast path of {@link #getDouble(int)} is
+     * exact
+     */
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    /**
+     * powers of ten that are exactly representable as double
+     */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+    }
+
+    /**
+     * underlying reader
+     */
+    private final Reader reader;
+
+    /**
+     * separator of the fields
+     */
+    private final char separator;
+
+    /**
+     * buffer for reading from the underlying reader
+     */
+    private final char[] buffer = new char[1 << 16];
+
+    /**
+     * position of the next char in the buffer
+     */
+    private int bufferPos = 0;
+
+    /**
+     * number of chars in the buffer
+     */
+    private int bufferLength = 0;
+
+    /**
+     * the current line, without the line break
+     */
+    private char[] line = new char[256];
+
+    /**
+     * length of the current line
+     */
+    private int lineLength = 0;
+
+    /**
+     * start offsets of the fields of the current line
+     */
+    private int[] fieldStarts = new int[32];
+
+    /**
+     * end offsets (exclusive) of the fields of the current line
+     */
+    private int[] fieldEnds = new int[32];
+
+    /**
+     * number of fields of the current line
+     */
+    private int numFields = 0;
+
+    /**
+     * <p>
+     * Creates a new reader for a file that is read with the default charset.
+     * </p>
+     *
+     * @param file
+     *            the file
+     * @param separator
+     *            separator of the fields
+     * @throws IOException
+     *             thrown if the file cannot be opened
+     */
+    CSVReader(File file, char separator) throws IOException {
+        this(new InputStreamReader(new FileInputStream(file), Charset.defaultCharset()), separator);
+    }
+
+    /**
+     * <p>
+     * Creates a new reader.
+     * </p>
+     *
+     * @param reader
+     *            the underlying reader
+     * @param separator
+     *            separator of the fields
+     */
+    @SuppressWarnings("hiding")
+    CSVReader(Reader reader, char separator) {
+        this.reader = reader;
+        this.separator = separator;
+    }
+
+    /**
+     * <p>
+     * Advances to the next record.
+     * </p>
+     *
+     * @return true if there is a next record; false if the end of the file is reached
+     * @throws IOException
+     *             thrown if the file cannot be read
+     */
+    boolean next() throws IOException {
+        do {
+            if (!readLine()) {
+                this.numFields = 0;
+                return false;
+            }
+        }
+        while (this.lineLength == 0);
+        splitLine();
+        return true;
+    }
+
+    /**
+     * <p>
+     * returns the number of fields of the current record
+     * </p>
+     *
+     * @return number of fields
+     */
+    int getNumFields() {
+        return this.numFields;
+    }
+
+    /**
+     * <p>
+     * returns a field of the current record as string
+     * </p>
+     *
+     * @param field
+     *            index of the field
+     * @return the field
+     */
+    String getString(int field) {
+        checkField(field);
+        return new String(this.line, this.fieldStarts[field],
+                          this.fieldEnds[field] - this.fieldStarts[field]);
+    }
+
+    /**
+     * <p>
+     * returns the current record as string, e.g., for error messages
+     * </p>
+     *
+     * @return the current line
+     */
+    String getLine() {
+        return new String(this.line, 0, this.lineLength);
+    }
+
+    /**
+     * <p>
+     * Checks if a field of the current record is empty or only contains whitespaces.
+     * </p>
+     *
+     * @param field
+     *            index of the field
+     * @return true if the field is blank
+     */
+    boolean isBlank(int field) {
+        checkField(field);
+        for (int i = this.fieldStarts[field]; i < this.fieldEnds[field]; i++) {
+            if (this.line[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * <p>
+     * Compares a field of the current record with a string.
+     * </p>
+     *
+     * @param field
+     *            index of the field
+     * @param value
+     *            the string
+     * @return true if the field equals the string
+     */
+    boolean fieldEquals(int field, String value) {
+        checkField(field);
+        return regionEquals(this.fieldStarts[field], this.fieldEnds[field], value);
+    }
+
+    /**
+     * <p>
+     * Compares a field of the current record without leading and trailing whitespaces with a
+     * string.
+     * </p>
+     *
+     * @param field
+     *            index of the field
+     * @param value
+     *            the string
+     * @return true if the trimmed field equals the string
+     */
+    boolean trimmedFieldEquals(int field, String value) {
+        checkField(field);
+        int start = trimStart(this.fieldStarts[field], this.fieldEnds[field]);
+        int end = trimEnd(start, this.fieldEnds[field]);
+        return regionEquals(start, end, value);
+    }
+
+    /**
+     * <p>
+     * Parses a field of the current record as double. Leading and trailing whitespaces are
+     * ignored. The result is the same as for {@link Double#parseDouble(String)}: plain decimal
+     * numbers with at most {@value #MAX_EXACT_DIGITS} significant digits are computed exactly from
+     * the digits, all other values are parsed by {@link Double#parseDouble(String)}.
+     * </p>
+     *
+     * @param field
+     *            index of the field
+     * @return the value
+     * @throws NumberFormatException
+     *             thrown if the field is not a number
+     */
+    double getDouble(int field) {
+        checkField(field);
+        final int start = trimStart(this.fieldStarts[field], this.fieldEnds[field]);
+        final int end = trimEnd(start, this.fieldEnds[field]);
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (this.line[pos] == '-' || this.line[pos] == '+')) {
+            negative = this.line[pos] == '-';
+            pos++;
+        }
+        long mantissa = 0;
+        int numDigits = 0;
+        int scale = 0;
+        boolean anyDigit = false;
+        boolean decimalPoint = false;
+        for (; pos < end; pos++) {
+            char c = this.line[pos];
+            if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                if (mantissa == 0 && c == '0') {
+                    // leading zeros are not significant
+                    if (decimalPoint) {
+                        scale++;
+                    }
+                    continue;
+                }
+                if (numDigits == MAX_EXACT_DIGITS) {
+                    return parseDouble(start, end);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                numDigits++;
+                if (decimalPoint) {
+                    scale++;
+                }
+            }
+            else if (c == '.' && !decimalPoint) {
+                decimalPoint = true;
+            }
+            else {
+                // exponents, special values, and invalid numbers
+                return parseDouble(start, end);
+            }
+        }
+        if (!anyDigit || scale >= POWERS_OF_TEN.length) {
+            return parseDouble(start, end);
+        }
+        // mantissa and power of ten are exact, i.e., the division is correctly rounded
+        double value = scale == 0 ? mantissa : mantissa / POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    /**
+     * <p>
+     * Parses a field of the current record as integer. The result is the same as for
+     * {@link Integer#parseInt(String)}.
+     * </p>
+     *
+     * @param field
+     *            index of the field
+     * @return the value
+     * @throws NumberFormatException
+     *             thrown if the field is not an integer
+     */
+    int getInt(int field) {
+        checkField(field);
+        final int start = this.fieldStarts[field];
+        final int end = this.fieldEnds[field];
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (this.line[pos] == '-' || this.line[pos] == '+')) {
+            negative = this.line[pos] == '-';
+            pos++;
+        }
+        // at most nine digits cannot overflow
+        if (pos == end || end - pos > 9) {
+            return Integer.parseInt(getString(field));
+        }
+        int value = 0;
+        for (; pos < end; pos++) {
+            char c = this.line[pos];
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("For input string: \"" + getString(field) + "\"");
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        this.reader.close();
+    }
+
+    /**
+     * <p>
+     * Reads the next line into the line buffer.
+     * </p>
+     *
+     * @return true if a line was read; false if the end of the file is reached
+     * @throws IOException
+     *             thrown if the file cannot be read
+     */
+    private boolean readLine() throws IOException {
+        this.lineLength = 0;
+        boolean anyChar = false;
+        while (true) {
+            if (this.bufferPos == this.bufferLength) {
+                this.bufferLength = this.reader.read(this.buffer);
+                this.bufferPos = 0;
+                if (this.bufferLength <= 0) {
+                    this.bufferLength = 0;
+                    return anyChar;
+                }
+            }
+            anyChar = true;
+            int lineEnd = this.bufferPos;
+            while (lineEnd < this.bufferLength && this.buffer[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            appendToLine(this.bufferPos, lineEnd - this.bufferPos);
+            if (lineEnd < this.bufferLength) {
+                this.bufferPos = lineEnd + 1;
+                if (this.lineLength > 0 && this.line[this.lineLength - 1] == '\r') {
+                    this.lineLength--;
+                }
+                return true;
+            }
+            this.bufferPos = this.bufferLength;
+        }
+    }
+
+    /**
+     * <p>
+     * Appends chars from the read buffer to the line buffer.
+     * </p>
+     *
+     * @param offset
+     *            offset in the read buffer
+     * @param length
+     *            number of chars
+     */
+    private void appendToLine(int offset, int length) {
+        if (this.lineLength + length > this.line.length) {
+            this.line = Arrays.copyOf(this.line, Math.max(2 * this.line.length,
+                                                          this.lineLength + length));
+        }
+        System.arraycopy(this.buffer, offset, this.line, this.lineLength, length);
+        this.lineLength += length;
+    }
+
+    /**
+     * <p>
+     * Determines the fields of the current line.
+     * </p>
+     */
+    private void splitLine() {
+        this.numFields = 0;
+        int start = 0;
+        for (int i = 0; i <= this.lineLength; i++) {
+            if (i == this.lineLength || this.line[i] == this.separator) {
+                if (this.numFields == this.fieldStarts.length) {
+                    this.fieldStarts = Arrays.copyOf(this.fieldStarts, 2 * this.numFields);
+                    this.fieldEnds = Arrays.copyOf(this.fieldEnds, 2 * this.numFields);
+                }
+                this.fieldStarts[this.numFields] = start;
+                this.fieldEnds[this.numFields] = i;
+                this.numFields++;
+                start = i + 1;
+            }
+        }
+        while (this.numFields > 0 &&
+            this.fieldStarts[this.numFields - 1] == this.fieldEnds[this.numFields - 1])
+        {
+            this.numFields--;
+        }
+    }
+
+    /**
+     * <p>
+     * Checks that a field exists in the current record.
+     * </p>
+     *
+     * @param field
+     *            index of the field
+     */
+    private void checkField(int field) {
+        if (field < 0 || field >= this.numFields) {
+            throw new ArrayIndexOutOfBoundsException(field);
+        }
+    }
+
+    /**
+     * <p>
+     * returns the first position of a region of the line buffer that is not a whitespace
+     * </p>
+     *
+     * @param start
+     *            start of the region
+     * @param end
+     *            end of the region (exclusive)
+     * @return start of the region without leading whitespaces
+     */
+    private int trimStart(int start, int end) {
+        int pos = start;
+        while (pos < end && this.line[pos] <= ' ') {
+            pos++;
+        }
+        return pos;
+    }
+
+    /**
+     * <p>
+     * returns the end of a region of the line buffer without trailing whitespaces
+     * </p>
+     *
+     * @param start
+     *            start of the region
+     * @param end
+     *            end of the region (exclusive)
+     * @return end of the region without trailing whitespaces
+     */
+    private int trimEnd(int start, int end) {
+        int pos = end;
+        while (pos > start && this.line[pos - 1] <= ' ') {
+            pos--;
+        }
+        return pos;
+    }
+
+    /**
+     * <p>
+     * Compares a region of the line buffer with a string.
+     * </p>
+     *
+     * @param start
+     *            start of the region
+     * @param end
+     *            end of the region (exclusive)
+     * @param value
+     *            the string
+     * @return true if the region equals the string
+     */
+    private boolean regionEquals(int start, int end, String value) {
+        if (end - start != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (this.line[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * <p>
+     * Parses a region of the line buffer with {@link Double#parseDouble(String)}.
+     * </p>
+     *
+     * @param start
+     *            start of the region
+     * @param end
+     *            end of the region (exclusive)
+     * @return the value
+     */
+    private double parseDouble(int start, int end) {
+        return Double.parseDouble(new String(this.line, start, end - start));
+    }
+}
@@ -16,17 +16,26 @@ package de.ugoe.cs.cpdp.loader;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
@@ -37,13 +46,16 @@ import org.eclipse.epsilon.emc.emf.EmfUtil;
 import org.eclipse.epsilon.eol.EolModule;
 import org.eclipse.epsilon.eol.IEolExecutableModule;
 import org.eclipse.epsilon.eol.models.IModel;
+import org.eclipse.epsilon.eol.models.ModelRepository;
 import org.eclipse.epsilon.etl.EtlModule;
 
+import de.ugoe.cs.cpdp.decentApp.models.arffx.ARFFxPackage;
 import de.ugoe.cs.cpdp.decentApp.models.arffx.Instance;
 import de.ugoe.cs.cpdp.decentApp.models.arffx.Model;
 import de.ugoe.cs.cpdp.decentApp.models.arffx.Value;
 import de.ugoe.cs.cpdp.decentApp.ARFFxResourceTool;
 import de.ugoe.cs.cpdp.decentApp.DECENTEpsilonModelHandler;
+import de.ugoe.cs.cpdp.decentApp.ResourceTool;
 import de.ugoe.cs.util.console.Console;
 import weka.core.Attribute;
 import weka.core.DenseInstance;
@@ -54,6 +66,22 @@ import weka.core.converters.ArffSaver;
  * Class for loading a decent model file. Loads a decent model file and (if no arff file is present)
  * and does the following conversions: DECENT -> ARFFX -> ARFF
  * 
+ * The resulting arff files are cached in the folder {@link #cachePath}. The cache is content
+ * addressed, i.e., the name of an arff file is the hash of the decent model and of the EOL scripts
+ * used for the transformation. Hence, a model is only transformed again if it is changed. The
+ * metamodels are registered once per JVM. The EOL modules are parsed once per JVM and kept in a
+ * pool. Epsilon modules are not thread-safe, therefore, each module is only used by one
+ * transformation at a time and concurrent transformations parse additional modules if required.
+ * 
+ * Models can be transformed concurrently, if this is enabled with
+ * {@link DecentFolderLoader#setConcurrentTransformation(boolean)}. The transformations with
+ * Epsilon use the registered metamodels, while the models can only be loaded if the metamodels
+ * are not registered. Therefore, the models are loaded exclusively.
+ * 
+ * The models are loaded in the automatic binary mode of the {@link DECENTEpsilonModelHandler},
+ * i.e., XMI models are converted to binary EMF resources once and afterwards the binary resources
+ * are used. Hence, the XMI decent models are not changed by the transformation.
+ * 
  * @author Fabian Trautsch
  * 
  */
@@ -62,42 +90,53 @@ public class DecentDataLoader implements SingleVersionLoader {
     // Model Handler for Decent Models
     private DECENTEpsilonModelHandler modelHandler = new DECENTEpsilonModelHandler();
 
+    {
+        // XMI models are only converted once, afterwards the binary models are used
+        this.modelHandler.setAutoBinary(true);
+    }
+
     // Set log level
     String logLevel = "1";
     String logToFile = "false";
 
+    /**
+     * path of the folder in which the transformed arff files are cached
+     */
+    public static String cachePath = "./decent/cache/";
+
+    // Location of EOL Scripts
+    private static final String preprocess = "./decent/epsilon/query/preprocess.eol";
+    private static final String arffxToArffSource = "./decent/epsilon/query/addLabels.eol";
+
     // This list contains attributes, that should be removed before building the arff file
-    private static List<String> attributeFilter = new LinkedList<>();
+    private static final List<String> attributeFilter = Arrays.asList("Agent.Name");
 
-    // This list contains all names of the different artifacts
-    private static Set<String> artifactNames = new LinkedHashSet<>();
+    // Indices of the names of the different artifacts, in the order in which they were found
+    private static final Map<String, Integer> artifactIndices = new HashMap<>();
 
     // Name of the class attribute.
     private static final String classAttributeName = "LABEL.Artifact.Target.BugFix.AverageWeight";
 
-    private static int getIndexOfArtifactName(String artifactName) {
-        int index = -1;
-        if (artifactNames.contains(artifactName)) {
-            int i = 0;
-            for (String nameInSet : artifactNames) {
-                if (nameInSet.equals(artifactName)) {
-                    index = i;
-                }
-                else {
-                    i++;
-                }
-            }
-        }
+    // Lock for the EPackage registry: the transformations hold the read lock, reading the arffx
+    // models, which requires that the metamodels are unregistered, holds the write lock
+    private static final ReentrantReadWriteLock registryLock = new ReentrantReadWriteLock();
 
-        return index;
-    }
+    // Contents of the EPackage registry after the metamodels were registered, null if the
+    // metamodels were not yet registered
+    private static Map<String, Object> registeredMetaModels = null;
 
-    /**
-     * Defines attributes, that should be removed before building the ARFF File from.
-     */
-    private static void setAttributeFilter() {
-        attributeFilter.add("Agent.Name");
+    // Parsed EOL modules that are currently not used, by their source; a module is removed from
+    // the pool while it is executed, because the modules are not thread-safe
+    private static final Map<String, Deque<IEolExecutableModule>> modulePool = new HashMap<>();
 
+    @SuppressWarnings("boxing")
+    private static int getIndexOfArtifactName(String artifactName) {
+        Integer index = artifactIndices.get(artifactName);
+        if (index == null) {
+            index = artifactIndices.size();
+            artifactIndices.put(artifactName, index);
+        }
+        return index;
     }
 
     /**
@@ -133,40 +172,36 @@ public class DecentDataLoader implements SingleVersionLoader {
             // TODO implement regression loading
             throw new RuntimeException("regrssion loading not yet supported for DecentDataLoader");
         }
-        
-        // Set attributeFilter
-        setAttributeFilter();
-
-        // Register MetaModels
-        try {
-            registerMetaModels();
-        }
-        catch (Exception e1) {
-            Console.printerrln("Metamodels cannot be registered!");
-            e1.printStackTrace();
-        }
-
-        // Set location of decent and arffx Model
-        String decentModelLocation = file.getAbsolutePath();
-        String pathToDecentModelFolder =
-            decentModelLocation.substring(0, decentModelLocation.lastIndexOf(File.separator));
-        String arffxModelLocation = pathToDecentModelFolder + "/model.arffx";
-        String logModelLocation = pathToDecentModelFolder + "/model.log";
-        String arffLocation = pathToDecentModelFolder + "/model.arff";
+        return load(file, getCacheFile(file), true);
+    }
 
-        // If arff File exists, load from it!
-        if (new File(arffLocation).exists()) {
-            System.out.println("Loading arff File...");
+    /**
+     * Loads the given decent file from the cache. If the file is not cached, it is transformed
+     * from decent->arffx->arff and the result is added to the cache.
+     * 
+     * @param file
+     *            the decent file
+     * @param cacheFile
+     *            cache file of the decent file
+     * @param transform
+     *            if false, the transformation decent->arffx was already done with
+     *            {@link #transform(File)}
+     * @return Instances in WEKA format
+     */
+    Instances load(File file, File cacheFile, boolean transform) {
+        // If the arff File is cached, load from it!
+        if (cacheFile.exists()) {
+            Console.traceln(Level.FINE, "Loading arff File " + cacheFile + " for " + file);
             Instances data = null;
-            try(BufferedReader reader = new BufferedReader(new FileReader(arffLocation));) {
+            try(BufferedReader reader = new BufferedReader(new FileReader(cacheFile));) {
                 data = new Instances(reader);
             }
             catch (FileNotFoundException e) {
-                Console.printerrln("File with path: " + arffLocation + " was not found.");
+                Console.printerrln("File with path: " + cacheFile + " was not found.");
                 throw new RuntimeException(e);
             }
             catch (IOException e) {
-                Console.printerrln("File with path: " + arffLocation + " cannot be read.");
+                Console.printerrln("File with path: " + cacheFile + " cannot be read.");
                 throw new RuntimeException(e);
             }
 
@@ -179,9 +214,51 @@ public class DecentDataLoader implements SingleVersionLoader {
             return data;
         }
 
-        // Location of EOL Scripts
-        String preprocess = "./decent/epsilon/query/preprocess.eol";
-        String arffxToArffSource = "./decent/epsilon/query/addLabels.eol";
+        if (transform) {
+            transform(file);
+        }
+
+        Instances dataSet;
+        registryLock.writeLock().lock();
+        try {
+            dataSet = readARFFxModel(getModelLocation(file, ".arffx"),
+                                     this.modelHandler.isAutoBinary());
+        }
+        finally {
+            registryLock.writeLock().unlock();
+        }
+
+        // Save as ARFF
+        File tmpFile = new File(cacheFile.getPath() + ".tmp");
+        cacheFile.getParentFile().mkdirs();
+        save(dataSet, tmpFile.getPath());
+        try {
+            Files.move(tmpFile.toPath(), cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (IOException e) {
+            Console.printerrln("Cannot save the file to path: " + cacheFile);
+            e.printStackTrace();
+            tmpFile.delete();
+        }
+
+        return dataSet;
+    }
+
+    /**
+     * Transforms the given decent file from decent->arffx. The arffx model is stored next to the
+     * decent file. Transformations of different decent files can be executed concurrently.
+     * 
+     * @param file
+     *            the decent file
+     */
+    void transform(File file) {
+        // Register MetaModels
+        registerMetaModels();
+
+        // Set location of decent and arffx Model
+        String decentModelLocation = file.getAbsolutePath();
+        String arffxModelLocation = getModelLocation(file, ".arffx");
+        String logModelLocation = getModelLocation(file, ".log");
 
         // Set Log Properties
         System.setProperty("epsilon.logLevel", this.logLevel);
@@ -194,17 +271,21 @@ public class DecentDataLoader implements SingleVersionLoader {
 
         // Preprocess Data, transform from decent2arffx
         try {
-            IEolExecutableModule preProcessModule = loadModule(preprocess);
-            IModel preProcessDecentModel =
-                this.modelHandler.getDECENTModel(decentModelLocation, true, true);
-            IModel preProcessArffxarffxModel =
-                this.modelHandler.getARFFxModel(arffxModelLocation, false, true);
-            preProcessModule.getContext().getModelRepository().addModel(preProcessDecentModel);
-            preProcessModule.getContext().getModelRepository().addModel(preProcessArffxarffxModel);
-            execute(preProcessModule, logModelLocation);
-            preProcessDecentModel.dispose();
-            preProcessArffxarffxModel.dispose();
-            preProcessModule.reset();
+            IModel preProcessDecentModel;
+            IModel preProcessArffxarffxModel;
+            // loading binary models changes the registry
+            registryLock.writeLock().lock();
+            try {
+                preProcessDecentModel =
+                    this.modelHandler.getDECENTModel(decentModelLocation, true, true);
+                preProcessArffxarffxModel =
+                    this.modelHandler.getARFFxModel(arffxModelLocation, false, true);
+            }
+            finally {
+                registryLock.writeLock().unlock();
+            }
+            execute(preprocess, logModelLocation, preProcessDecentModel,
+                    preProcessArffxarffxModel);
         }
         catch (URISyntaxException e) {
             Console.printerrln("URI Syntax for decent or arffx model is wrong.");
@@ -216,14 +297,16 @@ public class DecentDataLoader implements SingleVersionLoader {
 
         // Transform to arff, for label and confidence attributes
         try {
-            IEolExecutableModule arffxToArffModule = loadModule(arffxToArffSource);
-            IModel arffxToArffArffxModel =
-                this.modelHandler.getARFFxModel(arffxModelLocation, true, true);
-            arffxToArffModule.getContext().getModelRepository().addModel(arffxToArffArffxModel);
-            execute(arffxToArffModule, logModelLocation);
-            arffxToArffArffxModel.dispose();
-            // can be stored and retained alternatively
-            arffxToArffModule.reset();
+            IModel arffxToArffArffxModel;
+            registryLock.writeLock().lock();
+            try {
+                arffxToArffArffxModel =
+                    this.modelHandler.getARFFxModel(arffxModelLocation, true, true);
+            }
+            finally {
+                registryLock.writeLock().unlock();
+            }
+            execute(arffxToArffSource, logModelLocation, arffxToArffArffxModel);
         }
         catch (URISyntaxException e) {
             Console.printerrln("URI Syntax for arffx model is wrong.");
@@ -232,54 +315,133 @@ public class DecentDataLoader implements SingleVersionLoader {
         catch (Exception e) {
             e.printStackTrace();
         }
+    }
 
+    /**
+     * Reads an arffx model and creates the WEKA Instances. Must only be called while holding the
+     * write lock of the registry.
+     * 
+     * @param arffxModelLocation
+     *            location of the arffx model
+     * @param binary
+     *            if true, the binary form of the arffx model is read
+     * @return Instances in WEKA format
+     */
+    private static Instances readARFFxModel(String arffxModelLocation, boolean binary) {
         // Unregister MetaModels, otherwise cast will fail
-        HashMap<String, Object> metaModelCache = new HashMap<>();
-        for (String key : EPackage.Registry.INSTANCE.keySet()) {
-            metaModelCache.put(key, EPackage.Registry.INSTANCE.get(key));
-        }
-
-        for (String key : metaModelCache.keySet()) {
+        List<String> keys = new ArrayList<>(EPackage.Registry.INSTANCE.keySet());
+        for (String key : keys) {
             EPackage.Registry.INSTANCE.remove(key);
         }
 
-        // Workaround to gernerate a usable URI. Absolute path is not
-        // possible, therefore we need to construct a relative path
+        try {
+            Resource resource;
+            if (binary) {
+                resource = ResourceTool.loadResourceFromBinary(arffxModelLocation + "bin",
+                                                               "arffxbin", ARFFxPackage.eINSTANCE);
+            }
+            else {
+                // Workaround to gernerate a usable URI. Absolute path is not
+                // possible, therefore we need to construct a relative path
+
+                URL location =
+                    DecentDataLoader.class.getProtectionDomain().getCodeSource().getLocation();
+                String basePath = location.getFile();
 
-        URL location = DecentDataLoader.class.getProtectionDomain().getCodeSource().getLocation();
-        String basePath = location.getFile();
+                // Location is the bin folder, so we need to delete the last 4 characters
+                basePath = basePath.substring(0, basePath.length() - 4);
+                String relativePath = new File(basePath).toURI()
+                    .relativize(new File(arffxModelLocation).toURI()).getPath();
 
-        // Location is the bin folder, so we need to delete the last 4 characters
-        basePath = basePath.substring(0, basePath.length() - 4);
-        String relativePath =
-            new File(basePath).toURI().relativize(new File(arffxModelLocation).toURI()).getPath();
+                // Loard arffx file
+                ARFFxResourceTool tool = new ARFFxResourceTool();
+                resource = tool.loadResourceFromXMI(relativePath, "arffx");
+            }
 
-        // Loard arffx file and create WEKA Instances
-        ARFFxResourceTool tool = new ARFFxResourceTool();
-        Resource resource = tool.loadResourceFromXMI(relativePath, "arffx");
+            // Create WEKA Instances
 
-        Instances dataSet = null;
-        for (EObject o : resource.getContents()) {
-            Model m = (Model) o;
-            dataSet = createWekaDataFormat(m);
+            Instances dataSet = null;
+            for (EObject o : resource.getContents()) {
+                Model m = (Model) o;
+                dataSet = createWekaDataFormat(m);
 
-            for (Instance i : m.getData()) {
-                createWekaInstance(dataSet, i);
+                for (Instance i : m.getData()) {
+                    createWekaInstance(dataSet, i);
+                }
             }
+            if( dataSet == null ) {
+                throw new RuntimeException("Could not load EMF model");
+            }
+
+            // Set class attribute
+            Attribute classAttribute = dataSet.attribute(classAttributeName);
+            dataSet.setClass(classAttribute);
+            return dataSet;
         }
-        if( dataSet == null ) {
-            throw new RuntimeException("Could not load EMF model");
+        finally {
+            // Restore MetaModels for the transformations
+            if (registeredMetaModels != null) {
+                EPackage.Registry.INSTANCE.putAll(registeredMetaModels);
+            }
         }
+    }
 
-        // Set class attribute
-        Attribute classAttribute = dataSet.attribute(classAttributeName);
-        dataSet.setClass(classAttribute);
-
-        // Save as ARFF
-        save(dataSet, arffLocation);
-
-        return dataSet;
+    /**
+     * Returns the location of a model that belongs to a decent file, e.g., the arffx model.
+     * 
+     * @param file
+     *            the decent file
+     * @param extension
+     *            extension of the model
+     * @return location of the model
+     */
+    private static String getModelLocation(File file, String extension) {
+        String decentModelLocation = file.getAbsolutePath();
+        String pathToDecentModelFolder =
+            decentModelLocation.substring(0, decentModelLocation.lastIndexOf(File.separator));
+        String name = file.getName();
+        if (name.endsWith(".decent")) {
+            name = name.substring(0, name.length() - ".decent".length());
+        }
+        return pathToDecentModelFolder + "/" + name + extension;
+    }
 
+    /**
+     * Returns the cache file of a decent file. The name of the cache file is the SHA-256 hash of
+     * the contents of the decent file and of the EOL scripts.
+     * 
+     * @param file
+     *            the decent file
+     * @return the cache file
+     */
+    File getCacheFile(File file) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        byte[] buffer = new byte[1 << 16];
+        for (File hashedFile : new File[]
+            { file, new File(preprocess), new File(arffxToArffSource) })
+        {
+            try (InputStream in = new FileInputStream(hashedFile)) {
+                int length;
+                while ((length = in.read(buffer)) > 0) {
+                    digest.update(buffer, 0, length);
+                }
+            }
+            catch (IOException e) {
+                Console.printerrln("File with path: " + hashedFile + " cannot be read.");
+                throw new RuntimeException(e);
+            }
+        }
+        StringBuilder name = new StringBuilder();
+        for (byte b : digest.digest()) {
+            name.append(String.format("%02x", b));
+        }
+        return new File(cachePath, name.append(".arff").toString());
     }
 
     /**
@@ -312,7 +474,6 @@ public class DecentDataLoader implements SingleVersionLoader {
             }
             else if (attributeName.equals("Artifact.Name")) {
                 // Is it the name of the artifact?
-                artifactNames.add(dataValue);
                 values[j] = getIndexOfArtifactName(dataValue);
             }
             else {
@@ -414,19 +575,80 @@ public class DecentDataLoader implements SingleVersionLoader {
     }
 
     /**
-     * Helper method for executing a eol scripts and adding the log model beforehand
+     * Helper method for executing a eol scripts and adding the log model beforehand. The module is
+     * taken from the pool of parsed modules. After the execution, the models are disposed and
+     * removed from the module, such that the module can be returned to the pool. Modules whose
+     * execution failed are not reused. The module is executed while holding the read lock of the
+     * registry.
      * 
-     * @param module
-     *            module to execute
+     * @param source
+     *            source of the module to execute
      * @param logModelLocation
      *            location of the log model
+     * @param models
+     *            models used by the module
      * @throws Exception
      */
-    private static void execute(IEolExecutableModule module, String logModelLocation) throws Exception {
+    private static void execute(String source, String logModelLocation, IModel... models)
+        throws Exception
+    {
+        IEolExecutableModule module = acquireModule(source);
         IModel logModel = DECENTEpsilonModelHandler.getLOGModel(logModelLocation, true, true);
-        module.getContext().getModelRepository().addModel(logModel);
-        module.execute();
-        logModel.dispose();
+        ModelRepository repository = module.getContext().getModelRepository();
+        for (IModel model : models) {
+            repository.addModel(model);
+        }
+        repository.addModel(logModel);
+        registryLock.readLock().lock();
+        try {
+            module.execute();
+            logModel.dispose();
+            for (IModel model : models) {
+                model.dispose();
+            }
+        }
+        finally {
+            registryLock.readLock().unlock();
+        }
+        repository.removeModel(logModel);
+        for (IModel model : models) {
+            repository.removeModel(model);
+        }
+        releaseModule(source, module);
+    }
+
+    /**
+     * Returns a parsed module from the pool. If the pool contains no module for the source, e.g.,
+     * because the module is executed by another thread, the module is parsed.
+     * 
+     * @param source
+     *            where the module is (e.g. eol script)
+     * @return the module; must be returned to the pool with
+     *         {@link #releaseModule(String, IEolExecutableModule)} after its execution
+     * @throws Exception
+     */
+    private static IEolExecutableModule acquireModule(String source) throws Exception {
+        synchronized (modulePool) {
+            Deque<IEolExecutableModule> modules = modulePool.get(source);
+            if (modules != null && !modules.isEmpty()) {
+                return modules.pop();
+            }
+        }
+        return loadModule(source);
+    }
+
+    /**
+     * Returns a module to the pool, such that it can be reused by other transformations.
+     * 
+     * @param source
+     *            where the module is (e.g. eol script)
+     * @param module
+     *            the module
+     */
+    private static void releaseModule(String source, IEolExecutableModule module) {
+        synchronized (modulePool) {
+            modulePool.computeIfAbsent(source, key -> new ArrayDeque<>()).push(module);
+        }
     }
 
     /**
@@ -467,18 +689,35 @@ public class DecentDataLoader implements SingleVersionLoader {
     }
 
     /**
-     * Helper method for registering the metamodels
-     * 
-     * @throws Exception
+     * Helper method for registering the metamodels. The metamodels are only registered once, the
+     * registered contents of the EPackage registry are kept for restoring them after reading arffx
+     * models.
      */
-    private static void registerMetaModels() throws Exception {
-        String metaModelsPath = DECENTEpsilonModelHandler.metaPath;
-        File metaModelsLocation = new File(metaModelsPath);
-        for (File file : metaModelsLocation.listFiles()) {
-            if (file.getName().endsWith(".ecore")) {
-                EmfUtil.register(URI.createFileURI(file.getAbsolutePath()),
-                                 EPackage.Registry.INSTANCE);
+    private static void registerMetaModels() {
+        registryLock.writeLock().lock();
+        try {
+            if (registeredMetaModels != null) {
+                return;
+            }
+            String metaModelsPath = DECENTEpsilonModelHandler.metaPath;
+            File metaModelsLocation = new File(metaModelsPath);
+            for (File file : metaModelsLocation.listFiles()) {
+                if (file.getName().endsWith(".ecore")) {
+                    EmfUtil.register(URI.createFileURI(file.getAbsolutePath()),
+                                     EPackage.Registry.INSTANCE);
+                }
             }
+            registeredMetaModels = new HashMap<>();
+            for (String key : EPackage.Registry.INSTANCE.keySet()) {
+                registeredMetaModels.put(key, EPackage.Registry.INSTANCE.get(key));
+            }
+        }
+        catch (Exception e) {
+            Console.printerrln("Metamodels cannot be registered!");
+            e.printStackTrace();
+        }
+        finally {
+            registryLock.writeLock().unlock();
         }
     }
 
@@ -15,26 +15,79 @@
 package de.ugoe.cs.cpdp.loader;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import weka.core.Instances;
 
 import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import de.ugoe.cs.cpdp.versions.VersionMetadata;
 
 /**
  * Implements the {@link AbstractFolderLoader}
  * 
+ * If the concurrent transformation is enabled with {@link #setConcurrentTransformation(boolean)},
+ * i.e., with the attribute concurrenttransformation of the loader in the experiment
+ * configuration, and the parallelism of the loader is greater than one, the decent models that
+ * are not cached yet are transformed concurrently. The transformed models are then loaded in the
+ * order of the files. By default, the models are transformed sequentially.
+ * 
+ * The decent models are not indexed, i.e., all versions are loaded to determine their metadata.
+ * 
  * @author Fabian Trautsch
  */
 public class DecentFolderLoader extends AbstractFolderLoader {
+
+    /**
+     * if true, the decent models are transformed concurrently if the parallelism of the loader is
+     * greater than one; disabled by default, because the concurrent execution of the Epsilon
+     * transformations is experimental
+     */
+    private boolean concurrentTransformation = false;
+
+    /**
+     * versions that were loaded by {@link #loadMetadata()}, identified by their source
+     */
+    private final Map<String, SoftwareVersion> preloaded = new HashMap<>();
+
+    /**
+     * <p>
+     * Defines if the decent models are transformed concurrently. The number of concurrent
+     * transformations is the parallelism of the loader.
+     * </p>
+     *
+     * @param concurrentTransformation
+     *            if true, the models are transformed concurrently
+     */
+    public void setConcurrentTransformation(boolean concurrentTransformation) {
+        this.concurrentTransformation = concurrentTransformation;
+    }
+
+    /**
+     * <p>
+     * returns if the decent models are transformed concurrently
+     * </p>
+     *
+     * @return true if the models are transformed concurrently
+     */
+    public boolean isConcurrentTransformation() {
+        return this.concurrentTransformation;
+    }
+
     /*
      * (non-Javadoc)
      * 
      * @see de.ugoe.cs.cpdp.loader.AbstractFolderLoader#getSingleLoader()
      */
     @Override
-    protected SingleVersionLoader getSingleLoader() {
+    protected DecentDataLoader getSingleLoader() {
         return new DecentDataLoader();
     }
 
@@ -46,7 +99,7 @@ public class DecentFolderLoader extends AbstractFolderLoader {
         final List<SoftwareVersion> versions = new LinkedList<>();
 
         final File dataDir = new File(this.path);
-        final SingleVersionLoader instancesLoader = getSingleLoader();
+        final DecentDataLoader instancesLoader = getSingleLoader();
 
         String projectName = dataDir.getName();
 
@@ -65,45 +118,140 @@ public class DecentFolderLoader extends AbstractFolderLoader {
         if (dataDir.listFiles() == null) {
             return versions;
         }
+        final List<File> versionFiles = new ArrayList<>();
+        final List<String> projectNames = new ArrayList<>();
         for (File projectDir : dataDir.listFiles()) {
             if (projectDir.isDirectory()) {
                 projectName = projectDir.getName();
                 if (projectDir.listFiles() != null) {
                     for (File versionFile : projectDir.listFiles()) {
-                        loadDataFromFile(versionFile, instancesLoader, projectName, versions);
+                        if (isVersionFile(versionFile, instancesLoader)) {
+                            versionFiles.add(versionFile);
+                            projectNames.add(projectName);
+                        }
                     }
                 }
             }
-            else {
-                loadDataFromFile(projectDir, instancesLoader, projectName, versions);
+            else if (isVersionFile(projectDir, instancesLoader)) {
+                versionFiles.add(projectDir);
+                projectNames.add(projectName);
+            }
+        }
+
+        final List<File> cacheFiles = new ArrayList<>(versionFiles.size());
+        for (File versionFile : versionFiles) {
+            cacheFiles.add(instancesLoader.getCacheFile(versionFile));
+        }
+        final boolean transformConcurrently =
+            this.concurrentTransformation && getParallelism() > 1;
+        if (transformConcurrently) {
+            transform(versionFiles, cacheFiles);
+        }
+
+        for (int i = 0; i < versionFiles.size(); i++) {
+            File versionFile = versionFiles.get(i);
+            // TODO currently only supports binary class
+            Instances data =
+                instancesLoader.load(versionFile, cacheFiles.get(i), !transformConcurrently);
+            VersionMetadata metadata =
+                VersionMetadata.create("decent", projectNames.get(i), versionFile.getName(),
+                                       projectNames.get(i) + "/" + versionFile.getName(), data);
+            versions.add(new SoftwareVersion(metadata, data, null, null));
+        }
+        return versions;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.loader.AbstractFolderLoader#loadMetadata()
+     */
+    @Override
+    public List<VersionMetadata> loadMetadata() {
+        final List<VersionMetadata> metadata = new ArrayList<>();
+        for (SoftwareVersion version : load()) {
+            this.preloaded.put(version.getMetadata().getSource(), version);
+            metadata.add(version.getMetadata());
+        }
+        return metadata;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.loader.AbstractFolderLoader#loadVersions(java.util.List)
+     */
+    @Override
+    public List<SoftwareVersion> loadVersions(List<VersionMetadata> metadata) {
+        if (this.preloaded.isEmpty() && !metadata.isEmpty()) {
+            for (SoftwareVersion version : load()) {
+                this.preloaded.put(version.getMetadata().getSource(), version);
+            }
+        }
+        final List<SoftwareVersion> versions = new LinkedList<>();
+        for (VersionMetadata versionMetadata : metadata) {
+            SoftwareVersion version = this.preloaded.get(versionMetadata.getSource());
+            if (version == null) {
+                throw new RuntimeException("version not found: " + versionMetadata.getSource());
             }
+            versions.add(version);
         }
+        this.preloaded.clear();
         return versions;
     }
 
     /**
-     * Loads data from a file and adds the instances from the load method to the versions List.
+     * Transforms all decent files that are not cached concurrently.
+     * 
+     * @param versionFiles
+     *            the decent files
+     * @param cacheFiles
+     *            the cache files of the decent files
+     */
+    private void transform(List<File> versionFiles, List<File> cacheFiles) {
+        final List<File> transformFiles = new ArrayList<>();
+        for (int i = 0; i < versionFiles.size(); i++) {
+            if (!cacheFiles.get(i).exists()) {
+                transformFiles.add(versionFiles.get(i));
+            }
+        }
+        if (transformFiles.isEmpty()) {
+            return;
+        }
+
+        final ExecutorService threadPool =
+            Executors.newFixedThreadPool(Math.min(getParallelism(), transformFiles.size()));
+        try {
+            final List<Future<?>> results = new ArrayList<>(transformFiles.size());
+            for (final File transformFile : transformFiles) {
+                // each task uses its own loader, because the loaders are not thread-safe
+                results.add(threadPool.submit(() -> getSingleLoader().transform(transformFile)));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+        catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+        finally {
+            threadPool.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks if a file is a version file that can be loaded.
      * 
      * @param versionFile
-     *            file to load from
+     *            file to check
      * @param instancesLoader
      *            loader that should be used
-     * @param projectName
-     *            name of the project which was loaded
-     * @param versions
-     *            list, where the weka instances are added to
+     * @return true if the file is loaded
      */
-    private static void loadDataFromFile(File versionFile,
-                                         SingleVersionLoader instancesLoader,
-                                         String projectName,
-                                         List<SoftwareVersion> versions)
-    {
-        if (versionFile.isFile() && instancesLoader.filenameFilter(versionFile.getName())) {
-            String versionName = versionFile.getName();
-            // TODO currently only supports binary class
-            Instances data = instancesLoader.load(versionFile, true);
-            versions.add(new SoftwareVersion("decent", projectName, versionName, data, null, null));
-        }
+    private static boolean isVersionFile(File versionFile, SingleVersionLoader instancesLoader) {
+        return versionFile.isFile() && instancesLoader.filenameFilter(versionFile.getName());
     }
 
 }
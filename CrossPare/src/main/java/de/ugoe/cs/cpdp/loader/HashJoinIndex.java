@@ -0,0 +1,115 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package de.ugoe.cs.cpdp.loader;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * Hash index over the rows of a data file for joining the rows of data files that describe the
+ * same entities, e.g., metrics and bugs of the files of a project. The rows of the build side are
+ * added with their key while the file is streamed. The rows of the probe side are then matched by
+ * their key in constant time, such that a join of two files is linear in their size.
+ * </p>
+ * <p>
+ * Multiple rows may have the same key. The rows of a key are stored in the order in which they
+ * are added.
+ * </p>
+ *
+ * @param <K>
+ *            type of the keys
+ * @author Steffen Herbold
+ */
+class HashJoinIndex<K> {
+
+    /**
+     * rows of the keys; the first element of each array is the number of rows of the key
+     */
+    private final Map<K, int[]> index = new HashMap<>();
+
+    /**
+     * <p>
+     * Adds a row to the index.
+     * </p>
+     *
+     * @param key
+     *            key of the row
+     * @param row
+     *            index of the row
+     */
+    void add(K key, int row) {
+        int[] rows = this.index.get(key);
+        if (rows == null) {
+            rows = new int[2];
+            this.index.put(key, rows);
+        }
+        else if (rows[0] + 1 == rows.length) {
+            rows = Arrays.copyOf(rows, 2 * rows.length);
+            this.index.put(key, rows);
+        }
+        rows[0]++;
+        rows[rows[0]] = row;
+    }
+
+    /**
+     * <p>
+     * returns the rows of a key in the order in which they were added
+     * </p>
+     *
+     * @param key
+     *            the key
+     * @return the rows; empty if the key is not in the index
+     */
+    int[] getRows(K key) {
+        int[] rows = this.index.get(key);
+        if (rows == null) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(rows, 1, rows[0] + 1);
+    }
+
+    /**
+     * <p>
+     * returns the row of a key that was added last, i.e., later rows replace earlier rows with the
+     * same key
+     * </p>
+     *
+     * @param key
+     *            the key
+     * @return the row; -1 if the key is not in the index
+     */
+    int getLastRow(K key) {
+        int[] rows = this.index.get(key);
+        if (rows == null) {
+            return -1;
+        }
+        return rows[rows[0]];
+    }
+
+    /**
+     * <p>
+     * returns the keys of the index
+     * </p>
+     *
+     * @return the keys
+     */
+    Set<K> getKeys() {
+        return this.index.keySet();
+    }
+}
@@ -17,6 +17,7 @@ package de.ugoe.cs.cpdp.loader;
 import java.util.List;
 
 import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import de.ugoe.cs.cpdp.versions.VersionMetadata;
 
 /**
  * Implements the interface for loading software versions from a data source.
@@ -40,6 +41,93 @@ public interface IVersionLoader {
      */
     public void setClassType(String classType);
 
+    /**
+     * Returns the location of the data.
+     * 
+     * @return location of the data
+     */
+    public String getLocation();
+
+    /**
+     * Returns the type of class loading that is used, i.e., "binary" or "numeric".
+     * 
+     * @return the class type
+     */
+    public String getClassType();
+
+    /**
+     * Sets the number of versions that are loaded concurrently. Loaders that do not support the
+     * concurrent loading ignore this setting.
+     *
+     * @param parallelism
+     *            number of concurrently loaded versions
+     */
+    public void setParallelism(int parallelism);
+
+    /**
+     * Defines if the loaded data is cached in a binary format, such that later loads do not need to
+     * parse the data again. With caching, the metadata of the versions may also be stored in an
+     * index next to the data. Loaders that do not support caching ignore this setting.
+     *
+     * @param caching
+     *            true if the data is cached
+     */
+    public void setCaching(boolean caching);
+
+    /**
+     * Defines if the versions returned by {@link #loadVersions(List)} are lazy, i.e., if their
+     * data is only loaded when it is used and may be released if the memory is low. Loaders that
+     * do not support lazy versions ignore this setting. Note that {@link #loadMetadata()} may
+     * still have to load the data of all versions, e.g., if the metadata is not indexed yet.
+     *
+     * @param lazy
+     *            true if the versions are lazy
+     */
+    public void setLazy(boolean lazy);
+
+    /**
+     * Returns if the versions returned by {@link #loadVersions(List)} are lazy.
+     *
+     * @return true if the versions are lazy
+     */
+    public boolean isLazy();
+
+    /**
+     * Defines if the loaded data is stored compactly, i.e., as
+     * {@link de.ugoe.cs.cpdp.util.FloatInstance}s with single precision values, which roughly
+     * halves the memory required for the data. Loaders that do not support the compact storage
+     * ignore this setting.
+     *
+     * @param compact
+     *            true if the data is stored compactly
+     */
+    public void setCompact(boolean compact);
+
+    /**
+     * Returns if the loaded data is stored compactly.
+     *
+     * @return true if the data is stored compactly
+     */
+    public boolean isCompact();
+
+    /**
+     * Defines if the values of the loaded data are stored off-heap, i.e., in direct buffers or
+     * memory mapped files, such that large data sets that are kept for a long time do not burden
+     * the garbage collection. Loaders that do not support the off-heap storage ignore this
+     * setting.
+     *
+     * @param offHeap
+     *            true if the data is stored off-heap
+     */
+    public void setOffHeap(boolean offHeap);
+
+    /**
+     * Returns if the values of the loaded data are stored off-heap.
+     *
+     * @return true if the data is stored off-heap
+     */
+    public boolean isOffHeap();
+
     /**
      * Loads the data.
      * 
@@ -47,4 +135,22 @@ public interface IVersionLoader {
      */
     public List<SoftwareVersion> load();
 
+    /**
+     * Loads the metadata of all versions, in the same order as {@link #load()}. If possible, the
+     * metadata is loaded without loading the data of the versions, e.g., from an index. Thus, the
+     * versions can be filtered before their data is loaded.
+     * 
+     * @return the metadata of the versions
+     */
+    public List<VersionMetadata> loadMetadata();
+
+    /**
+     * Loads the data of selected versions.
+     * 
+     * @param metadata
+     *            metadata of the versions that are loaded, as returned by {@link #loadMetadata()}
+     * @return the data, in the order of the metadata
+     */
+    public List<SoftwareVersion> loadVersions(List<VersionMetadata> metadata);
+
 }
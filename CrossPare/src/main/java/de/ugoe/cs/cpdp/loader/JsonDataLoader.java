@@ -14,17 +14,24 @@
 
 package de.ugoe.cs.cpdp.loader;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 
-import org.apache.commons.io.FileUtils;
-import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
 import weka.core.Attribute;
 import weka.core.DenseInstance;
@@ -34,6 +41,12 @@ import weka.core.Instances;
  * <p>
  * Loader for JSON data for defect prediciton exported from SmartSHARK.
  * </p>
+ * <p>
+ * The data is streamed: the entities of the "product" array are parsed one at a time and their
+ * values are directly stored in primitive buffers, i.e., the JSON tree of the whole file is never
+ * created. The keys of the entities are discovered while the entities are read. Entities that do
+ * not contain all keys are ignored.
+ * </p>
  * 
  * @author Steffen Herbold
  */
@@ -45,37 +58,38 @@ public class JsonDataLoader implements SingleVersionLoader {
     private static Set<String> ignoredKeys = new HashSet<>(Arrays.asList(new String[]
         { "bugs", "file", "label", "imports", "type", "long_name" }));
 
+    /**
+     * Keys in JSON that contain boolean values
+     */
+    private static Set<String> booleanKeys = new HashSet<>(Arrays.asList(new String[]
+        { "gui", "db", "multithreading", "test", "network", "webservice", "fileio" }));
+
     /*
      * (non-Javadoc)
      * 
      * @see de.ugoe.cs.cpdp.loader.AbstractFolderLoader.SingleVersionLoader#load( java.io.File)
      */
+    @SuppressWarnings("boxing")
     @Override
     public Instances load(File file, boolean binaryClass) {
-        String jsonData = null;
-        try {
-            jsonData = FileUtils.readFileToString(file);
+        final EntityBuffer entities = new EntityBuffer(binaryClass);
+        try (Reader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+                                                                      Charset.defaultCharset())))
+        {
+            readProduct(new JSONTokener(reader), entities);
         }
         catch (IOException e) {
-            // TODO Auto-generated catch block
-            e.printStackTrace();
+            throw new RuntimeException(e);
         }
 
-        JSONObject product = new JSONObject(jsonData);
-        JSONArray entityArray = product.getJSONArray("product");
-        // first get all keys (in case of missing values)
-        Set<String> keySet = new TreeSet<>();
-        for (int i = 0; i < entityArray.length(); i++) {
-            keySet.addAll(entityArray.getJSONObject(i).keySet());
-        }
-        // configure Instances
+        // configure Instances; the keys are sorted by name
+        final List<String> keys = new ArrayList<>(entities.columns.keySet());
+        keys.sort(null);
         final ArrayList<Attribute> atts = new ArrayList<>();
-
-        for (String key : keySet) {
-            // filter keys that are not metrics
-            if (!ignoredKeys.contains(key)) {
-                atts.add(new Attribute(key));
-            }
+        final int[] attributeIndex = new int[keys.size()];
+        for (String key : keys) {
+            attributeIndex[entities.columns.get(key)] = atts.size();
+            atts.add(new Attribute(key));
         }
         Attribute classAtt;
         if(binaryClass) {
@@ -90,50 +104,233 @@ public class JsonDataLoader implements SingleVersionLoader {
         }
         atts.add(classAtt);
 
-        final Instances data = new Instances(file.getName(), atts, 0);
+        final Instances data = new Instances(file.getName(), atts, entities.numEntities);
         data.setClass(classAtt);
 
         // fetch data
-        for (int i = 0; i < entityArray.length(); i++) {
-            JSONObject entity = entityArray.getJSONObject(i);
+        for (int i = 0; i < entities.numEntities; i++) {
+            int start = i == 0 ? 0 : entities.entityEnds[i - 1];
+            if (entities.entityEnds[i] - start != keys.size()) {
+                // missing key, entity is ignored
+                // TODO consider allowing entities with missing values
+                continue;
+            }
+            // only add instances without missing values.
+            if (entities.classErrors.containsKey(i)) {
+                throw entities.classErrors.get(i);
+            }
             double[] values = new double[data.numAttributes()];
-            int j = 0;
-            boolean hasMissingValue = false;
-            for (String key : keySet) {
+            for (int k = start; k < entities.entityEnds[i]; k++) {
+                values[attributeIndex[entities.valueColumns[k]]] = entities.values[k];
+            }
+            values[values.length - 1] = entities.classValues[i];
+            data.add(new DenseInstance(1.0, values));
+        }
+        return data;
+    }
+
+    /**
+     * <p>
+     * Reads the top-level object of the JSON data and passes the entities of the "product" array
+     * to the buffer. The values of all other keys are skipped.
+     * </p>
+     *
+     * @param tokener
+     *            tokener for the JSON data
+     * @param entities
+     *            buffer for the entities
+     */
+    private static void readProduct(JSONTokener tokener, EntityBuffer entities) {
+        boolean productFound = false;
+        if (tokener.nextClean() != '{') {
+            throw tokener.syntaxError("A JSONObject text must begin with '{'");
+        }
+        char c = tokener.nextClean();
+        while (c != '}') {
+            if (c != '"' && c != '\'') {
+                throw tokener.syntaxError("Expected a key");
+            }
+            String key = tokener.nextString(c);
+            if (tokener.nextClean() != ':') {
+                throw tokener.syntaxError("Expected a ':' after a key");
+            }
+            if ("product".equals(key)) {
+                readEntities(tokener, entities);
+                productFound = true;
+            }
+            else {
+                tokener.nextValue();
+            }
+            c = tokener.nextClean();
+            if (c == ',') {
+                c = tokener.nextClean();
+            }
+            else if (c != '}') {
+                throw tokener.syntaxError("Expected a ',' or '}'");
+            }
+        }
+        if (!productFound) {
+            throw new JSONException("JSONObject[\"product\"] not found.");
+        }
+    }
+
+    /**
+     * <p>
+     * Reads the entities of the "product" array. Only one entity at a time is parsed into a
+     * {@link JSONObject}.
+     * </p>
+     *
+     * @param tokener
+     *            tokener for the JSON data, positioned before the array
+     * @param entities
+     *            buffer for the entities
+     */
+    private static void readEntities(JSONTokener tokener, EntityBuffer entities) {
+        if (tokener.nextClean() != '[') {
+            throw tokener.syntaxError("A JSONArray text must start with '['");
+        }
+        char c = tokener.nextClean();
+        while (c != ']') {
+            tokener.back();
+            Object entity = tokener.nextValue();
+            if (!(entity instanceof JSONObject)) {
+                throw new JSONException("JSONArray[" + entities.numEntities +
+                    "] is not a JSONObject.");
+            }
+            entities.add((JSONObject) entity);
+            c = tokener.nextClean();
+            if (c == ',') {
+                c = tokener.nextClean();
+            }
+            else if (c != ']') {
+                throw tokener.syntaxError("Expected a ',' or ']'");
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Buffer for the values of the entities. The metric values of all entities are stored
+     * consecutively together with the column of their key, i.e., the memory consumption is
+     * proportional to the number of values.
+     * </p>
+     * 
+     * @author Steffen Herbold
+     */
+    private static class EntityBuffer {
+
+        /**
+         * defines if the class is binary or numeric
+         */
+        private final boolean binaryClass;
+
+        /**
+         * columns of the metric keys, in the order in which the keys were discovered
+         */
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        /**
+         * metric values of all entities
+         */
+        private double[] values = new double[1024];
+
+        /**
+         * columns of the metric values
+         */
+        private int[] valueColumns = new int[1024];
+
+        /**
+         * number of metric values
+         */
+        private int numValues = 0;
+
+        /**
+         * end (exclusive) of the metric values of each entity
+         */
+        private int[] entityEnds = new int[64];
+
+        /**
+         * class values of the entities
+         */
+        private double[] classValues = new double[64];
+
+        /**
+         * errors while reading the class values; they are only relevant for entities without
+         * missing values and, therefore, thrown later
+         */
+        private final Map<Integer, JSONException> classErrors = new HashMap<>();
+
+        /**
+         * number of entities
+         */
+        private int numEntities = 0;
+
+        /**
+         * <p>
+         * Creates a new buffer.
+         * </p>
+         *
+         * @param binaryClass
+         *            defines if the class is binary or numeric
+         */
+        @SuppressWarnings("hiding")
+        private EntityBuffer(boolean binaryClass) {
+            this.binaryClass = binaryClass;
+        }
+
+        /**
+         * <p>
+         * Adds the values of an entity.
+         * </p>
+         *
+         * @param entity
+         *            the entity
+         */
+        @SuppressWarnings("boxing")
+        private void add(JSONObject entity) {
+            if (this.numEntities == this.entityEnds.length) {
+                this.entityEnds = Arrays.copyOf(this.entityEnds, 2 * this.numEntities);
+                this.classValues = Arrays.copyOf(this.classValues, 2 * this.numEntities);
+            }
+            for (String key : entity.keySet()) {
                 // filter keys that are not metrics
-                if (!ignoredKeys.contains(key)) {
-                    if (!entity.has(key)) {
-                        // missing key, entity is ignored
-                        // TODO consider allowing entities with missing values
-                        hasMissingValue = true;
-                    }
-                    else {
-                        if (key.equals("gui") || key.equals("db") || key.equals("multithreading") ||
-                            key.equals("test") || key.equals("network") ||
-                            key.equals("webservice") || key.equals("fileio"))
-                        {
-                            // keys with boolean values
-                            values[j] = entity.getBoolean(key) ? 1.0 : 0.0;
-                        }
-                        else {
-                            // keys with numeric values
-                            values[j] = entity.getDouble(key);
-                        }
-                    }
-                    j++;
+                if (ignoredKeys.contains(key)) {
+                    continue;
                 }
+                Integer column = this.columns.get(key);
+                if (column == null) {
+                    column = this.columns.size();
+                    this.columns.put(key, column);
+                }
+                if (this.numValues == this.values.length) {
+                    this.values = Arrays.copyOf(this.values, 2 * this.numValues);
+                    this.valueColumns = Arrays.copyOf(this.valueColumns, 2 * this.numValues);
+                }
+                if (booleanKeys.contains(key)) {
+                    // keys with boolean values
+                    this.values[this.numValues] = entity.getBoolean(key) ? 1.0 : 0.0;
+                }
+                else {
+                    // keys with numeric values
+                    this.values[this.numValues] = entity.getDouble(key);
+                }
+                this.valueColumns[this.numValues] = column;
+                this.numValues++;
             }
-            if (!hasMissingValue) {
-                // only add instances without missing values.
-                if(binaryClass) {
-                    values[values.length - 1] = entity.getBoolean("label") ? 1.0 : 0.0;
-                } else {
-                    values[values.length - 1] = entity.getDouble("bugs");
+            try {
+                if (this.binaryClass) {
+                    this.classValues[this.numEntities] = entity.getBoolean("label") ? 1.0 : 0.0;
                 }
-                data.add(new DenseInstance(1.0, values));
+                else {
+                    this.classValues[this.numEntities] = entity.getDouble("bugs");
+                }
+            }
+            catch (JSONException e) {
+                this.classErrors.put(this.numEntities, e);
             }
+            this.entityEnds[this.numEntities] = this.numValues;
+            this.numEntities++;
         }
-        return data;
     }
 
     /*
@@ -17,12 +17,11 @@ package de.ugoe.cs.cpdp.loader;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.logging.Level;
 
 import de.ugoe.cs.util.console.Console;
 import weka.core.Attribute;
+import weka.core.DenseInstance;
 import weka.core.Instance;
 import weka.core.Instances;
 import weka.core.converters.CSVLoader;
@@ -31,6 +30,12 @@ import weka.core.converters.CSVLoader;
  * <p>
  * Loads the genealogy data published by Herzig et al.
  * </p>
+ * <p>
+ * The file metrics, the network metrics, and the bugs of a project are stored in three files. The
+ * files are joined on the file names with a {@link HashJoinIndex} over the file metrics. The
+ * joined data is created at once, i.e., the structure of the loaded data is not changed
+ * attribute by attribute.
+ * </p>
  * 
  * @author Steffen Herbold
  */
@@ -41,7 +46,6 @@ public class NetgeneLoader implements SingleVersionLoader {
      * 
      * @see de.ugoe.cs.cpdp.loader.SingleVersionLoader#load(java.io.File)
      */
-    @SuppressWarnings("boxing")
     @Override
     public Instances load(File fileMetricsFile, boolean binaryClass) {
         // first determine all files
@@ -49,100 +53,32 @@ public class NetgeneLoader implements SingleVersionLoader {
         String project = fileMetricsFile.getName().split("_")[0];
         File bugsFile = new File(path + "/" + project + "_bugs_per_file.csv");
         File networkMetrics = new File(path + "/" + project + "_network_metrics.csv");
-        Instances metricsData = null;
+        Instances loadedData = null;
 
         try {
             CSVLoader wekaCsvLoader = new CSVLoader();
             wekaCsvLoader.setSource(fileMetricsFile);
-            metricsData = wekaCsvLoader.getDataSet();
+            Instances metricsData = wekaCsvLoader.getDataSet();
             wekaCsvLoader.setSource(bugsFile);
             Instances bugsData = wekaCsvLoader.getDataSet();
             wekaCsvLoader.setSource(networkMetrics);
             Instances networkData = wekaCsvLoader.getDataSet();
 
-            metricsData.setRelationName(project);
-
-            // fix nominal attributes (i.e., NA values)
-            for (int j = 2; j < networkData.numAttributes(); j++) {
-                if (networkData.attribute(j).isNominal()) {
-                    String attributeName = networkData.attribute(j).name();
-                    double[] tmpVals = new double[networkData.size()];
-                    // get temporary values
-                    for (int i = 0; i < networkData.size(); i++) {
-                        Instance inst = networkData.instance(i);
-                        if (!inst.isMissing(j)) {
-                            String val = networkData.instance(i).stringValue(j);
-                            try {
-                                tmpVals[i] = Double.parseDouble(val);
-                            }
-                            catch (@SuppressWarnings("unused") NumberFormatException e) {
-                                // not a number, using 0.0;
-                                tmpVals[i] = 0.0;
-                            }
-                        }
-                        else {
-                            tmpVals[i] = 0.0;
-                        }
-                    }
-                    // replace attribute
-                    networkData.deleteAttributeAt(j);
-                    networkData.insertAttributeAt(new Attribute(attributeName), j);
-                    for (int i = 0; i < networkData.size(); i++) {
-                        networkData.instance(i).setValue(j, tmpVals[i]);
-                    }
-                }
+            // attributes: file metrics without file name, network metrics, class
+            final ArrayList<Attribute> atts = new ArrayList<>();
+            for (int j = 1; j < metricsData.numAttributes(); j++) {
+                atts.add((Attribute) metricsData.attribute(j).copy());
             }
-            // fix string attributes
+            final int networkOffset = atts.size() - 2;
             for (int j = 2; j < networkData.numAttributes(); j++) {
-                if (networkData.attribute(j).isString()) {
-                    String attributeName = networkData.attribute(j).name();
-                    double[] tmpVals = new double[networkData.size()];
-                    // get temporary values
-                    for (int i = 0; i < networkData.size(); i++) {
-                        Instance inst = networkData.instance(i);
-                        if (!inst.isMissing(j)) {
-                            String val = networkData.instance(i).stringValue(j);
-                            try {
-                                tmpVals[i] = Double.parseDouble(val);
-                            }
-                            catch (@SuppressWarnings("unused") NumberFormatException e) {
-                                // not a number, using 0.0;
-                                tmpVals[i] = 0.0;
-                            }
-                        }
-                        else {
-                            tmpVals[i] = 0.0;
-                        }
-                    }
-                    // replace attribute
-                    networkData.deleteAttributeAt(j);
-                    networkData.insertAttributeAt(new Attribute(attributeName), j);
-                    for (int i = 0; i < networkData.size(); i++) {
-                        networkData.instance(i).setValue(j, tmpVals[i]);
-                    }
+                if (networkData.attribute(j).isNominal() || networkData.attribute(j).isString()) {
+                    // fix nominal (i.e., NA values) and string attributes
+                    atts.add(new Attribute(networkData.attribute(j).name()));
                 }
-            }
-
-            Map<String, Integer> filenames = new HashMap<>();
-            for (int j = 0; j < metricsData.size(); j++) {
-                filenames.put(metricsData.instance(j).stringValue(0), j);
-            }
-            // merge with network data
-            int attributeIndex;
-            for (int j = 2; j < networkData.numAttributes(); j++) {
-                attributeIndex = metricsData.numAttributes();
-                metricsData.insertAttributeAt(networkData.attribute(j), attributeIndex);
-                for (int i = 0; i < networkData.size(); i++) {
-                    Integer instanceIndex = filenames.get(networkData.instance(i).stringValue(1));
-                    if (instanceIndex != null) {
-                        metricsData.instance(instanceIndex)
-                            .setValue(attributeIndex, networkData.instance(i).value(j));
-                    }
+                else {
+                    atts.add((Attribute) networkData.attribute(j).copy());
                 }
             }
-
-            // add bug information
-            attributeIndex = metricsData.numAttributes();
             Attribute classAtt;
             if(binaryClass) {
                 // add nominal class attribute
@@ -154,49 +90,103 @@ public class NetgeneLoader implements SingleVersionLoader {
                 // add numeric class attribute
                 classAtt = new Attribute("bugs");
             }
-            metricsData.insertAttributeAt(classAtt, attributeIndex);
-            for (int i = 0; i < bugsData.size(); i++) {
-                if (bugsData.instance(i).value(2) > 0.0d) {
-                    Integer instanceIndex = filenames.get(bugsData.instance(i).stringValue(1));
-                    if (instanceIndex != null) {
+            atts.add(classAtt);
+            final int classIndex = atts.size() - 1;
+
+            // missing values are 0
+            final double[][] values = new double[metricsData.size()][atts.size()];
+            final HashJoinIndex<String> filenames = new HashJoinIndex<>();
+            for (int i = 0; i < metricsData.size(); i++) {
+                Instance instance = metricsData.instance(i);
+                filenames.add(instance.stringValue(0), i);
+                for (int j = 1; j < metricsData.numAttributes(); j++) {
+                    if (!instance.isMissing(j)) {
+                        values[i][j - 1] = instance.value(j);
+                    }
+                }
+            }
+
+            // merge with network data; later rows of the same file replace earlier rows
+            for (Instance instance : networkData) {
+                int row = filenames.getLastRow(instance.stringValue(1));
+                if (row >= 0) {
+                    for (int j = 2; j < networkData.numAttributes(); j++) {
+                        values[row][networkOffset + j] = getNetworkValue(instance, j);
+                    }
+                }
+            }
+
+            // add bug information
+            for (Instance instance : bugsData) {
+                if (instance.value(2) > 0.0d) {
+                    int row = filenames.getLastRow(instance.stringValue(1));
+                    if (row >= 0) {
                         if(binaryClass) {
                             // binary label
-                            metricsData.instance(instanceIndex).setValue(attributeIndex, 1.0);
+                            values[row][classIndex] = 1.0;
                         } else {
                             // bug count
-                            metricsData.instance(instanceIndex).setValue(attributeIndex, bugsData.instance(i).value(2));
+                            values[row][classIndex] = instance.value(2);
                         }
                     }
                 }
             }
 
-            // remove filenames
-            metricsData.deleteAttributeAt(0);
-            Attribute eigenvector = metricsData.attribute("eigenvector");
-            if (eigenvector != null) {
-                for (int j = 0; j < metricsData.numAttributes(); j++) {
-                    if (metricsData.attribute(j) == eigenvector) {
-                        metricsData.deleteAttributeAt(j);
-                    }
-                }
+            final Instances data = new Instances(project, atts, values.length);
+            // remove the eigenvector; cheap, because the data is still empty
+            Attribute eigenvector = data.attribute("eigenvector");
+            int eigenvectorIndex = eigenvector == null ? -1 : eigenvector.index();
+            if (eigenvectorIndex >= 0) {
+                data.deleteAttributeAt(eigenvectorIndex);
             }
-
-            metricsData.setClassIndex(metricsData.numAttributes() - 1);
-
-            // set all missing values to 0
-            for (int i = 0; i < metricsData.size(); i++) {
-                for (int j = 0; j < metricsData.numAttributes(); j++) {
-                    if (metricsData.instance(i).isMissing(j)) {
-                        metricsData.instance(i).setValue(j, 0.0d);
-                    }
+            data.setClassIndex(data.numAttributes() - 1);
+            for (double[] instanceValues : values) {
+                if (eigenvectorIndex >= 0) {
+                    double[] reducedValues = new double[instanceValues.length - 1];
+                    System.arraycopy(instanceValues, 0, reducedValues, 0, eigenvectorIndex);
+                    System.arraycopy(instanceValues, eigenvectorIndex + 1, reducedValues,
+                                     eigenvectorIndex, reducedValues.length - eigenvectorIndex);
+                    data.add(new DenseInstance(1.0, reducedValues));
+                }
+                else {
+                    data.add(new DenseInstance(1.0, instanceValues));
                 }
             }
+            loadedData = data;
         }
         catch (IOException e) {
             Console.traceln(Level.SEVERE, "failure reading file: " + e.getMessage());
-            metricsData = null;
+            loadedData = null;
+        }
+        return loadedData;
+    }
+
+    /**
+     * <p>
+     * returns a value of the network metrics; values of nominal and string attributes are parsed,
+     * values that are missing or not a number are 0
+     * </p>
+     *
+     * @param instance
+     *            instance of the network metrics
+     * @param index
+     *            index of the attribute
+     * @return the value
+     */
+    private static double getNetworkValue(Instance instance, int index) {
+        if (instance.isMissing(index)) {
+            return 0.0;
+        }
+        if (!instance.attribute(index).isNominal() && !instance.attribute(index).isString()) {
+            return instance.value(index);
+        }
+        try {
+            return Double.parseDouble(instance.stringValue(index));
+        }
+        catch (@SuppressWarnings("unused") NumberFormatException e) {
+            // not a number, using 0.0;
+            return 0.0;
         }
-        return metricsData;
     }
 
     /*
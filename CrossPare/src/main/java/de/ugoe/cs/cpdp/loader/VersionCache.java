@@ -0,0 +1,256 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.loader;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import de.ugoe.cs.cpdp.versions.IVersionFilter;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import de.ugoe.cs.cpdp.versions.VersionMetadata;
+import de.ugoe.cs.util.console.Console;
+
+/**
+ * <p>
+ * Process-wide cache for the {@link SoftwareVersion}s loaded by {@link IVersionLoader}s. Loaders
+ * are identified by their class, their location, and their class type, i.e., two loaders with the
+ * same identity share the loaded data.
+ * </p>
+ * <p>
+ * The cache is reference counted. Each experiment that will later load the data must first
+ * {@link #register(IVersionLoader)} its loaders. Each call of {@link #load(IVersionLoader)}
+ * consumes one registration. Once all registrations of a loader are consumed, the versions are
+ * evicted from the cache. Loaders that were never registered bypass the cache.
+ * </p>
+ * <p>
+ * The cached versions are shared between all experiments and must, therefore, not be modified.
+ * Each call to {@link #load(IVersionLoader)} returns a new list, i.e., the list itself may be
+ * modified, e.g., by version filters.
+ * </p>
+ * <p>
+ * The version filters of an experiment can be applied to the {@link VersionMetadata} before the
+ * data is loaded with {@link #load(IVersionLoader, List)}. Only the versions that pass the filters
+ * are loaded. Versions that are required by multiple experiments are only loaded once.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class VersionCache {
+
+    /**
+     * the process-wide instance of the cache
+     */
+    private static final VersionCache INSTANCE = new VersionCache();
+
+    /**
+     * cache entries identified by the loader key
+     */
+    private final Map<String, CacheEntry> entries = new HashMap<>();
+
+    /**
+     * <p>
+     * returns the process-wide instance of the cache
+     * </p>
+     *
+     * @return the cache
+     */
+    public static VersionCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>
+     * Registers that the data of a loader will be loaded through the cache later.
+     * </p>
+     *
+     * @param loader
+     *            loader that is registered
+     */
+    public synchronized void register(IVersionLoader loader) {
+        String key = getKey(loader);
+        CacheEntry entry = this.entries.get(key);
+        if (entry == null) {
+            entry = new CacheEntry();
+            this.entries.put(key, entry);
+        }
+        entry.references++;
+    }
+
+    /**
+     * <p>
+     * Loads the data of a loader. If the loader is registered, the data is only loaded once and
+     * shared between all registrations. The versions are evicted from the cache once the last
+     * registration is consumed.
+     * </p>
+     *
+     * @param loader
+     *            loader whose data is loaded
+     * @return the loaded versions
+     */
+    public List<SoftwareVersion> load(IVersionLoader loader) {
+        return load(loader, Collections.<IVersionFilter> emptyList());
+    }
+
+    /**
+     * <p>
+     * Loads the data of a loader. The version filters are applied to the metadata of the versions
+     * and only the versions that pass the filters are loaded. If the loader is registered, the
+     * metadata and the data are only loaded once and shared between all registrations. The
+     * versions are evicted from the cache once the last registration is consumed.
+     * </p>
+     *
+     * @param loader
+     *            loader whose data is loaded
+     * @param filters
+     *            version filters that are applied before the data is loaded
+     * @return the loaded versions that pass the filters
+     */
+    public List<SoftwareVersion> load(IVersionLoader loader, List<IVersionFilter> filters) {
+        String key = getKey(loader);
+        CacheEntry entry;
+        synchronized (this) {
+            entry = this.entries.get(key);
+        }
+        if (entry == null) {
+            return loader.loadVersions(select(loader.loadMetadata(), filters));
+        }
+        List<SoftwareVersion> versions;
+        synchronized (entry) {
+            if (entry.metadata == null) {
+                Console.traceln(Level.FINE, "loading " + key + " into version cache");
+                entry.metadata = loader.loadMetadata();
+            }
+            List<VersionMetadata> selected = select(entry.metadata, filters);
+            List<VersionMetadata> missing = new ArrayList<>();
+            for (VersionMetadata metadata : selected) {
+                if (!entry.versions.containsKey(metadata)) {
+                    missing.add(metadata);
+                }
+            }
+            // also called without missing versions, such that the loader can release the
+            // versions it loaded for the metadata
+            Iterator<SoftwareVersion> loaded = loader.loadVersions(missing).iterator();
+            for (VersionMetadata metadata : missing) {
+                entry.versions.put(metadata, loaded.next());
+            }
+            versions = new LinkedList<>();
+            for (VersionMetadata metadata : selected) {
+                versions.add(entry.versions.get(metadata));
+            }
+        }
+        synchronized (this) {
+            entry.references--;
+            if (entry.references <= 0) {
+                this.entries.remove(key);
+                Console.traceln(Level.FINE, "evicted " + key + " from version cache");
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * <p>
+     * Selects the versions that pass the version filters based on their metadata.
+     * </p>
+     *
+     * @param metadata
+     *            metadata of the versions
+     * @param filters
+     *            the version filters
+     * @return metadata of the versions that pass the filters
+     */
+    private static List<VersionMetadata> select(List<VersionMetadata> metadata,
+                                                List<IVersionFilter> filters)
+    {
+        List<VersionMetadata> selected = new ArrayList<>(metadata.size());
+        for (VersionMetadata versionMetadata : metadata) {
+            boolean filtered = false;
+            for (IVersionFilter filter : filters) {
+                filtered |= filter.apply(versionMetadata);
+            }
+            if (!filtered) {
+                selected.add(versionMetadata);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * <p>
+     * returns the number of loaders whose data is currently managed by the cache
+     * </p>
+     *
+     * @return number of cache entries
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * <p>
+     * Creates the key that identifies the data of a loader. Loaders that store the data
+     * differently or that create lazy versions do not share their data.
+     * </p>
+     *
+     * @param loader
+     *            the loader
+     * @return the key
+     */
+    private static String getKey(IVersionLoader loader) {
+        String key = loader.getClass().getName() + "|" + loader.getLocation() + "|" +
+            loader.getClassType();
+        if (loader.isOffHeap()) {
+            key += "|offheap";
+        }
+        else if (loader.isCompact()) {
+            key += "|compact";
+        }
+        if (loader.isLazy()) {
+            key += "|lazy";
+        }
+        return key;
+    }
+
+    /**
+     * <p>
+     * Entry of the cache.
+     * </p>
+     *
+     * @author Steffen Herbold
+     */
+    private static class CacheEntry {
+
+        /**
+         * number of outstanding registrations
+         */
+        private int references = 0;
+
+        /**
+         * metadata of all versions of the loader; null until loaded the first time
+         */
+        private List<VersionMetadata> metadata = null;
+
+        /**
+         * the loaded versions identified by their metadata
+         */
+        private final Map<VersionMetadata, SoftwareVersion> versions = new HashMap<>();
+    }
+}
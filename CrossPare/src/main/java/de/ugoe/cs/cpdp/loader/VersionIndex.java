@@ -0,0 +1,331 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.loader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import de.ugoe.cs.cpdp.versions.VersionMetadata;
+import de.ugoe.cs.util.console.Console;
+
+/**
+ * <p>
+ * Index file with the {@link VersionMetadata} of the versions loaded by an
+ * {@link AbstractFolderLoader}. The index file is stored next to the folder of the data, like the
+ * {@link BinaryVersionCache}. Each entry of the index is invalidated by the size and the
+ * modification time of its version file, i.e., only changed and new version files must be loaded
+ * to update the index.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+class VersionIndex {
+
+    /**
+     * file extension of the index files
+     */
+    static final String FILE_EXTENSION = ".cpdpindex";
+
+    /**
+     * magic number at the beginning of index files
+     */
+    private static final int MAGIC = 0x43504449;
+
+    /**
+     * version of the file format; must be changed whenever the format changes
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * folder of the data
+     */
+    private final File dataDir;
+
+    /**
+     * the index file
+     */
+    private final File indexFile;
+
+    /**
+     * entries of the index identified by the source of the metadata
+     */
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * true if the index was changed since it was read
+     */
+    private boolean modified = false;
+
+    /**
+     * <p>
+     * Creates a new index for a data folder and reads the existing index file. The name of the
+     * index file is derived from the name of the data folder, the loader, and the class type.
+     * </p>
+     *
+     * @param dataDir
+     *            folder of the data
+     * @param loaderName
+     *            name of the loader
+     * @param classType
+     *            type of the class attribute
+     */
+    @SuppressWarnings("hiding")
+    VersionIndex(File dataDir, String loaderName, String classType) {
+        this.dataDir = dataDir;
+        this.indexFile = new File(dataDir.getAbsoluteFile().getParentFile(), dataDir.getName() +
+            "." + loaderName + "." + classType + FILE_EXTENSION);
+        read();
+    }
+
+    /**
+     * <p>
+     * returns the index file
+     * </p>
+     *
+     * @return the index file
+     */
+    File getIndexFile() {
+        return this.indexFile;
+    }
+
+    /**
+     * <p>
+     * returns the metadata of a version
+     * </p>
+     *
+     * @param source
+     *            source of the version, i.e., the path of the version file relative to the data
+     *            folder
+     * @return the metadata; null if the version is not indexed or the version file changed
+     */
+    VersionMetadata get(String source) {
+        Entry entry = this.entries.get(source);
+        File versionFile = new File(this.dataDir, source);
+        if (entry == null || entry.length != versionFile.length() ||
+            entry.lastModified != versionFile.lastModified())
+        {
+            return null;
+        }
+        return entry.metadata;
+    }
+
+    /**
+     * <p>
+     * Adds the metadata of a version to the index.
+     * </p>
+     *
+     * @param metadata
+     *            the metadata; the source must be the path of the version file relative to the
+     *            data folder
+     */
+    void put(VersionMetadata metadata) {
+        File versionFile = new File(this.dataDir, metadata.getSource());
+        this.entries.put(metadata.getSource(), new Entry(versionFile.length(),
+                                                         versionFile.lastModified(), metadata));
+        this.modified = true;
+    }
+
+    /**
+     * <p>
+     * Writes the index file if the index was changed. The file is first written to a temporary
+     * file and then moved. Failures are only logged, because the index is optional.
+     * </p>
+     */
+    void write() {
+        if (!this.modified) {
+            return;
+        }
+        File tmpFile = new File(this.indexFile.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmpFile))))
+            {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(this.entries.size());
+                for (Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+                    writeEntry(out, entry.getKey(), entry.getValue());
+                }
+            }
+            Files.move(tmpFile.toPath(), this.indexFile.toPath(),
+                       StandardCopyOption.REPLACE_EXISTING);
+            this.modified = false;
+            Console.traceln(Level.FINE, "wrote " + this.entries.size() +
+                " versions to index file " + this.indexFile);
+        }
+        catch (IOException e) {
+            Console.traceln(Level.WARNING, "could not write index file " + this.indexFile + ": " +
+                e.getMessage());
+            tmpFile.delete();
+        }
+    }
+
+    /**
+     * <p>
+     * Reads the index file. Index files that cannot be read are ignored.
+     * </p>
+     */
+    private void read() {
+        if (!this.indexFile.isFile()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(new FileInputStream(this.indexFile))))
+        {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                Console.traceln(Level.FINE, "ignoring index file with unknown format: " +
+                    this.indexFile);
+                return;
+            }
+            int numEntries = in.readInt();
+            for (int i = 0; i < numEntries; i++) {
+                String source = in.readUTF();
+                this.entries.put(source, readEntry(in, source));
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            Console.traceln(Level.WARNING, "could not read index file " + this.indexFile + ": " +
+                e.getMessage());
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * <p>
+     * Writes an entry of the index.
+     * </p>
+     *
+     * @param out
+     *            stream to which the entry is written
+     * @param source
+     *            source of the entry
+     * @param entry
+     *            the entry
+     * @throws IOException
+     *             thrown if the entry cannot be written
+     */
+    private static void writeEntry(DataOutputStream out, String source, Entry entry)
+        throws IOException
+    {
+        VersionMetadata metadata = entry.metadata;
+        out.writeUTF(source);
+        out.writeLong(entry.length);
+        out.writeLong(entry.lastModified);
+        out.writeUTF(metadata.getDataset());
+        out.writeUTF(metadata.getProject());
+        out.writeUTF(metadata.getVersion());
+        out.writeInt(metadata.getNumInstances());
+        int[] classCounts = metadata.getClassCounts();
+        out.writeInt(classCounts.length);
+        for (int count : classCounts) {
+            out.writeInt(count);
+        }
+        out.writeInt(metadata.getAttributeNames().size());
+        for (String attributeName : metadata.getAttributeNames()) {
+            out.writeUTF(attributeName);
+        }
+    }
+
+    /**
+     * <p>
+     * Reads an entry of the index written by {@link #writeEntry(DataOutputStream, String, Entry)}.
+     * </p>
+     *
+     * @param in
+     *            stream from which the entry is read
+     * @param source
+     *            source of the entry
+     * @return the entry
+     * @throws IOException
+     *             thrown if the entry cannot be read
+     */
+    private static Entry readEntry(DataInputStream in, String source) throws IOException {
+        long length = in.readLong();
+        long lastModified = in.readLong();
+        String dataset = in.readUTF();
+        String project = in.readUTF();
+        String version = in.readUTF();
+        int numInstances = in.readInt();
+        int[] classCounts = new int[in.readInt()];
+        for (int k = 0; k < classCounts.length; k++) {
+            classCounts[k] = in.readInt();
+        }
+        int numAttributes = in.readInt();
+        List<String> attributeNames = new ArrayList<>(numAttributes);
+        for (int j = 0; j < numAttributes; j++) {
+            attributeNames.add(in.readUTF());
+        }
+        return new Entry(length, lastModified, new VersionMetadata(dataset, project, version,
+                                                                   source, numInstances,
+                                                                   classCounts, attributeNames));
+    }
+
+    /**
+     * <p>
+     * Entry of the index.
+     * </p>
+     *
+     * @author Steffen Herbold
+     */
+    private static class Entry {
+
+        /**
+         * size of the version file when the metadata was created
+         */
+        private final long length;
+
+        /**
+         * modification time of the version file when the metadata was created
+         */
+        private final long lastModified;
+
+        /**
+         * the metadata
+         */
+        private final VersionMetadata metadata;
+
+        /**
+         * <p>
+         * Creates a new entry.
+         * </p>
+         *
+         * @param length
+         *            size of the version file
+         * @param lastModified
+         *            modification time of the version file
+         * @param metadata
+         *            the metadata
+         */
+        @SuppressWarnings("hiding")
+        private Entry(long length, long lastModified, VersionMetadata metadata) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.metadata = metadata;
+        }
+    }
+}
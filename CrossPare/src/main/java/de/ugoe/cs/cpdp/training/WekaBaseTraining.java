@@ -20,6 +20,8 @@ import java.util.logging.Level;
 import de.ugoe.cs.util.console.Console;
 
 import weka.core.OptionHandler;
+import weka.core.Randomizable;
+import weka.core.Utils;
 import weka.classifiers.Classifier;
 import weka.classifiers.bayes.BayesNet;
 import weka.classifiers.meta.CVParameterSelection;
@@ -42,7 +44,7 @@ import weka.classifiers.meta.Vote;
  * 
  * @author Alexander Trautsch
  */
-public abstract class WekaBaseTraining implements IWekaCompatibleTrainer {
+public abstract class WekaBaseTraining implements IWekaCompatibleTrainer, Randomizable {
 
     /**
      * reference to the Weka classifier
@@ -64,6 +66,17 @@ public abstract class WekaBaseTraining implements IWekaCompatibleTrainer {
      */
     protected String[] classifierParams;
 
+    /**
+     * seed of the classifier; only used if it is set through {@link #setSeed(int)}
+     */
+    protected int seed = 0;
+
+    /**
+     * if true, the seed is used by randomized classifiers whose parameters do not define a seed
+     * with the option -S; a seed that is defined by the parameters always takes precedence
+     */
+    protected boolean isSeeded = false;
+
     /*
      * (non-Javadoc)
      * 
@@ -88,6 +101,28 @@ public abstract class WekaBaseTraining implements IWekaCompatibleTrainer {
         // classifier = setupClassifier();
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see weka.core.Randomizable#setSeed(int)
+     */
+    @SuppressWarnings("hiding")
+    @Override
+    public void setSeed(int seed) {
+        this.seed = seed;
+        this.isSeeded = true;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see weka.core.Randomizable#getSeed()
+     */
+    @Override
+    public int getSeed() {
+        return this.seed;
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -130,8 +165,12 @@ public abstract class WekaBaseTraining implements IWekaCompatibleTrainer {
                 }
             }
 
-            // set classifier params
+            // set classifier params; a seed defined by the params is not replaced
+            boolean hasSeedParam = Utils.getOptionPos('S', param) >= 0;
             ((OptionHandler) obj).setOptions(param);
+            if (this.isSeeded && !hasSeedParam && obj instanceof Randomizable) {
+                ((Randomizable) obj).setSeed(this.seed);
+            }
             cl = obj;
 
             if (cl instanceof Vote) {
@@ -148,6 +187,9 @@ public abstract class WekaBaseTraining implements IWekaCompatibleTrainer {
                 final CVParameterSelection ps = new CVParameterSelection();
                 ps.setClassifier(obj);
                 ps.setNumFolds(5);
+                if (this.isSeeded) {
+                    ps.setSeed(this.seed);
+                }
                 // ps.addCVParameter("I 5 25 5");
                 for (int i = 1; i < cvparam.length / 4; i++) {
                     ps.addCVParameter(Arrays.asList(Arrays.copyOfRange(cvparam, 0, 4 * i))
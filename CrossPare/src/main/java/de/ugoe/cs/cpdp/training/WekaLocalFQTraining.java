@@ -23,6 +23,7 @@ import java.util.Set;
 import java.util.logging.Level;
 
 import de.ugoe.cs.cpdp.training.QuadTree;
+import de.ugoe.cs.cpdp.util.DistanceKernels;
 import de.ugoe.cs.cpdp.util.WekaUtils;
 import de.ugoe.cs.util.console.Console;
 import weka.classifiers.AbstractClassifier;
@@ -185,6 +186,42 @@ public class WekaLocalFQTraining extends WekaBaseTraining implements ITrainingSt
             return instCopy;
         }
 
+        /**
+         * <p>
+         * Calculates the Weka Euclidean distances between all instances of the data. If all
+         * attributes are numeric and there are no missing values, the distances are calculated
+         * with {@link DistanceKernels} on the normalized values, which yields exactly the same
+         * distances as {@link EuclideanDistance}.
+         * </p>
+         *
+         * @param data
+         *            the data
+         * @return the distance matrix
+         */
+        private double[][] createDistanceMatrix(Instances data) {
+            boolean numeric = data.classIndex() < 0;
+            for (int j = 0; numeric && j < data.numAttributes(); j++) {
+                numeric = data.attribute(j).isNumeric();
+            }
+            double[][] rows = new double[data.size()][];
+            for (int i = 0; numeric && i < data.size(); i++) {
+                rows[i] = data.get(i).toDoubleArray();
+                numeric = !data.get(i).hasMissingValue();
+            }
+            if (numeric) {
+                return DistanceKernels.distances(DistanceKernels.normalizeRanges(rows));
+            }
+
+            EuclideanDistance dist = new EuclideanDistance(data);
+            double[][] distmat = new double[data.size()][data.size()];
+            for (int i = 0; i < data.size(); i++) {
+                for (int j = 0; j < data.size(); j++) {
+                    distmat[i][j] = dist.distance(data.get(i), data.get(j));
+                }
+            }
+            return distmat;
+        }
+
         /**
          * <p>
          * Because Fastmap saves only the image not the values of the attributes it used we can not
@@ -425,18 +462,7 @@ public class WekaLocalFQTraining extends WekaBaseTraining implements ITrainingSt
             train = Filter.useFilter(train, filter);
 
             // 3. calculate distance matrix (needed for Fastmap because it starts at dimension 1)
-            double biggest = 0;
-            EuclideanDistance dist = new EuclideanDistance(train);
-            double[][] distmat = new double[train.size()][train.size()];
-            for (int i = 0; i < train.size(); i++) {
-                for (int j = 0; j < train.size(); j++) {
-                    distmat[i][j] = dist.distance(train.get(i), train.get(j));
-                    if (distmat[i][j] > biggest) {
-                        biggest = distmat[i][j];
-                    }
-                }
-            }
-            // Console.traceln(Level.INFO, String.format("biggest distances: "+ biggest));
+            double[][] distmat = createDistanceMatrix(train);
 
             // 4. run fastmap for 2 dimensions on the distance matrix
             Fastmap FMAP = new Fastmap(2);
@@ -480,55 +506,61 @@ public class WekaLocalFQTraining extends WekaBaseTraining implements ITrainingSt
             // ("+big[0]+","+big[1]+")"));
 
             // 5. generate quadtree
-            QuadTree TREE = new QuadTree(null, qtp);
-            QuadTree.size = train.size();
-            QuadTree.alpha = Math.sqrt(train.size());
-            QuadTree.ccluster = new ArrayList<>();
-            QuadTree.csize = new HashMap<>();
-
-            // Console.traceln(Level.INFO, String.format("Generate QuadTree with "+ QuadTree.size +
-            // " size, Alpha: "+ QuadTree.alpha+ ""));
-
-            // set the size and then split the tree recursively at the median value for x, y
-            TREE.setSize(new double[]
-                { small[0], big[0] }, new double[]
-                { small[1], big[1] });
-
-            // recursive split und grid clustering eher static
-            QuadTree.recursiveSplit(TREE);
-
-            // generate list of nodes sorted by density (childs only)
-            ArrayList<QuadTree> l = new ArrayList<>(TREE.getList(TREE));
-
-            // recursive grid clustering (tree pruning), the values are stored in ccluster
-            TREE.gridClustering(l);
-
-            // wir iterieren durch die cluster und sammeln uns die instanzen daraus
-            // ctraindata.clear();
-            for (int i = 0; i < QuadTree.ccluster.size(); i++) {
-                ArrayList<QuadTreePayload<Instance>> current = QuadTree.ccluster.get(i);
-
-                // i is the clusternumber
-                // we only allow clusters with Instances > ALPHA, other clusters are not considered!
-                // if(current.size() > QuadTree.alpha) {
-                if (current.size() > 4) {
-                    for (int j = 0; j < current.size(); j++) {
-                        if (!this.ctraindata.containsKey(i)) {
-                            this.ctraindata.put(i, new Instances(train2));
-                            this.ctraindata.get(i).delete();
+            // the QuadTree keeps the state of the clustering in static fields; therefore, only one
+            // QuadTree is built at a time, even if multiple trainers or test versions are executed
+            // concurrently
+            synchronized (QuadTree.class) {
+                QuadTree TREE = new QuadTree(null, qtp);
+                QuadTree.size = train.size();
+                QuadTree.alpha = Math.sqrt(train.size());
+                QuadTree.ccluster = new ArrayList<>();
+                QuadTree.csize = new HashMap<>();
+
+                // Console.traceln(Level.INFO, String.format("Generate QuadTree with "+
+                // QuadTree.size + " size, Alpha: "+ QuadTree.alpha+ ""));
+
+                // set the size and then split the tree recursively at the median value for x, y
+                TREE.setSize(new double[]
+                    { small[0], big[0] }, new double[]
+                    { small[1], big[1] });
+
+                // recursive split und grid clustering eher static
+                QuadTree.recursiveSplit(TREE);
+
+                // generate list of nodes sorted by density (childs only)
+                ArrayList<QuadTree> l = new ArrayList<>(TREE.getList(TREE));
+
+                // recursive grid clustering (tree pruning), the values are stored in ccluster
+                TREE.gridClustering(l);
+
+                // wir iterieren durch die cluster und sammeln uns die instanzen daraus
+                // ctraindata.clear();
+                for (int i = 0; i < QuadTree.ccluster.size(); i++) {
+                    ArrayList<QuadTreePayload<Instance>> current = QuadTree.ccluster.get(i);
+
+                    // i is the clusternumber
+                    // we only allow clusters with Instances > ALPHA, other clusters are not
+                    // considered!
+                    // if(current.size() > QuadTree.alpha) {
+                    if (current.size() > 4) {
+                        for (int j = 0; j < current.size(); j++) {
+                            if (!this.ctraindata.containsKey(i)) {
+                                this.ctraindata.put(i, new Instances(train2));
+                                this.ctraindata.get(i).delete();
+                            }
+                            this.ctraindata.get(i).add(current.get(j).getInst());
                         }
-                        this.ctraindata.get(i).add(current.get(j).getInst());
+                    }
+                    else {
+                        Console.traceln(Level.INFO, String
+                            .format("drop cluster, only: " + current.size() + " instances"));
                     }
                 }
-                else {
-                    Console.traceln(Level.INFO, String
-                        .format("drop cluster, only: " + current.size() + " instances"));
-                }
-            }
 
-            // here we keep things we need later on
-            // QuadTree sizes for later use (matching new instances)
-            this.csize = new HashMap<>(QuadTree.csize);
+                // here we keep things we need later on
+                // QuadTree sizes for later use (matching new instances)
+                this.csize = new HashMap<>(QuadTree.csize);
+            }
 
             // pivot elements
             // this.cpivots.clear();
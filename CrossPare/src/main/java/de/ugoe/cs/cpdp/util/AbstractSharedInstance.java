@@ -0,0 +1,305 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.util;
+
+import weka.core.AbstractInstance;
+import weka.core.Instance;
+import weka.core.Utils;
+
+/**
+ * <p>
+ * Abstract Weka instance whose values are read from a storage that is shared with other
+ * instances, e.g., the copies of the instance. The shared storage is never modified. Once a value
+ * of the instance is set, the instance copies its values into its own array with double
+ * precision, i.e., it behaves like a {@link weka.core.DenseInstance} afterwards.
+ * </p>
+ * <p>
+ * Implementations only define how the shared values are read and must set {@link #m_AttValues} to
+ * null as long as the shared storage is used.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public abstract class AbstractSharedInstance extends AbstractInstance {
+
+    /**
+     * default serial version UID
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * number of times the values of the instance were replaced
+     */
+    private transient int modificationCount = 0;
+
+    /**
+     * <p>
+     * returns a value of the shared storage
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return the value
+     */
+    protected abstract double sharedValue(int attIndex);
+
+    /**
+     * <p>
+     * returns the number of values in the shared storage
+     * </p>
+     *
+     * @return number of values
+     */
+    protected abstract int numSharedValues();
+
+    /**
+     * <p>
+     * returns the shared storage; the identity of the storage must not change as long as it is
+     * used by the instance
+     * </p>
+     *
+     * @return the shared storage
+     */
+    protected abstract Object sharedStorage();
+
+    /**
+     * <p>
+     * Releases the shared storage, because the instance now uses its own values.
+     * </p>
+     */
+    protected abstract void releaseSharedStorage();
+
+    /**
+     * <p>
+     * returns if the values are read from the shared storage
+     * </p>
+     *
+     * @return true if the shared storage is used
+     */
+    protected boolean isShared() {
+        return this.m_AttValues == null;
+    }
+
+    /**
+     * <p>
+     * returns the object that currently stores the values, i.e., either the shared storage or the
+     * own values of the instance; the own values are replaced whenever a value is set
+     * </p>
+     *
+     * @return the storage
+     */
+    Object getStorage() {
+        return isShared() ? sharedStorage() : this.m_AttValues;
+    }
+
+    /**
+     * <p>
+     * returns the number of times the values of the instance were replaced; every modification of
+     * the values increases the count
+     * </p>
+     *
+     * @return the modification count
+     */
+    int getModificationCount() {
+        return this.modificationCount;
+    }
+
+    /**
+     * <p>
+     * Replaces all values of the instance with own double precision values.
+     * </p>
+     *
+     * @param values
+     *            the values; the array becomes part of the instance
+     */
+    void setValues(double[] values) {
+        releaseSharedStorage();
+        this.m_AttValues = values;
+        this.modificationCount++;
+    }
+
+    /*
+     * @see weka.core.Instance#copy(double[])
+     */
+    @Override
+    public Instance copy(double[] values) {
+        AbstractSharedInstance copy = (AbstractSharedInstance) copy();
+        copy.setValues(values);
+        return copy;
+    }
+
+    /*
+     * @see weka.core.Instance#index(int)
+     */
+    @Override
+    public int index(int position) {
+        return position;
+    }
+
+    /*
+     * @see weka.core.Instance#mergeInstance(weka.core.Instance)
+     */
+    @Override
+    public Instance mergeInstance(Instance inst) {
+        double[] values = new double[numAttributes() + inst.numAttributes()];
+        int m = 0;
+        for (int j = 0; j < numAttributes(); j++, m++) {
+            values[m] = value(j);
+        }
+        for (int j = 0; j < inst.numAttributes(); j++, m++) {
+            values[m] = inst.value(j);
+        }
+        AbstractSharedInstance merged = (AbstractSharedInstance) copy(values);
+        merged.m_Weight = 1.0;
+        merged.m_Dataset = null;
+        return merged;
+    }
+
+    /*
+     * @see weka.core.Instance#numAttributes()
+     */
+    @Override
+    public int numAttributes() {
+        return isShared() ? numSharedValues() : this.m_AttValues.length;
+    }
+
+    /*
+     * @see weka.core.Instance#numValues()
+     */
+    @Override
+    public int numValues() {
+        return numAttributes();
+    }
+
+    /*
+     * @see weka.core.Instance#replaceMissingValues(double[])
+     */
+    @Override
+    public void replaceMissingValues(double[] array) {
+        if (array == null || array.length != numAttributes()) {
+            throw new IllegalArgumentException("Unequal number of attributes!");
+        }
+        double[] values = null;
+        for (int j = 0; j < array.length; j++) {
+            if (isMissing(j)) {
+                if (values == null) {
+                    values = toDoubleArray();
+                }
+                values[j] = array[j];
+            }
+        }
+        if (values != null) {
+            setValues(values);
+        }
+    }
+
+    /*
+     * @see weka.core.Instance#setValue(int, double)
+     */
+    @Override
+    public void setValue(int attIndex, double value) {
+        // the own values may be shared with copies of the instance
+        double[] values = toDoubleArray();
+        values[attIndex] = value;
+        setValues(values);
+    }
+
+    /*
+     * @see weka.core.Instance#setValueSparse(int, double)
+     */
+    @Override
+    public void setValueSparse(int indexOfIndex, double value) {
+        setValue(indexOfIndex, value);
+    }
+
+    /*
+     * @see weka.core.Instance#toDoubleArray()
+     */
+    @Override
+    public double[] toDoubleArray() {
+        if (!isShared()) {
+            return this.m_AttValues.clone();
+        }
+        double[] values = new double[numSharedValues()];
+        for (int j = 0; j < values.length; j++) {
+            values[j] = sharedValue(j);
+        }
+        return values;
+    }
+
+    /*
+     * @see weka.core.Instance#toStringNoWeight()
+     */
+    @Override
+    public String toStringNoWeight() {
+        return toStringNoWeight(AbstractInstance.s_numericAfterDecimalPoint);
+    }
+
+    /*
+     * @see weka.core.Instance#toStringNoWeight(int)
+     */
+    @Override
+    public String toStringNoWeight(int afterDecimalPoint) {
+        StringBuilder text = new StringBuilder();
+        for (int j = 0; j < numAttributes(); j++) {
+            if (j > 0) {
+                text.append(',');
+            }
+            text.append(toString(j, afterDecimalPoint));
+        }
+        return text.toString();
+    }
+
+    /*
+     * @see weka.core.Instance#value(int)
+     */
+    @Override
+    public double value(int attIndex) {
+        return isShared() ? sharedValue(attIndex) : this.m_AttValues[attIndex];
+    }
+
+    /*
+     * @see weka.core.AbstractInstance#valueSparse(int)
+     */
+    @Override
+    public double valueSparse(int indexOfIndex) {
+        return value(indexOfIndex);
+    }
+
+    /*
+     * @see weka.core.AbstractInstance#forceDeleteAttributeAt(int)
+     */
+    @Override
+    protected void forceDeleteAttributeAt(int position) {
+        double[] oldValues = isShared() ? toDoubleArray() : this.m_AttValues;
+        double[] values = new double[oldValues.length - 1];
+        System.arraycopy(oldValues, 0, values, 0, position);
+        System.arraycopy(oldValues, position + 1, values, position, values.length - position);
+        setValues(values);
+    }
+
+    /*
+     * @see weka.core.AbstractInstance#forceInsertAttributeAt(int)
+     */
+    @Override
+    protected void forceInsertAttributeAt(int position) {
+        double[] oldValues = isShared() ? toDoubleArray() : this.m_AttValues;
+        double[] values = new double[oldValues.length + 1];
+        System.arraycopy(oldValues, 0, values, 0, position);
+        values[position] = Utils.missingValue();
+        System.arraycopy(oldValues, position, values, position + 1, oldValues.length - position);
+        setValues(values);
+    }
+}
@@ -0,0 +1,630 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.util;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+import weka.core.Attribute;
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Primitive view of the data of {@link Instances} for numeric hot paths. The values of all
+ * attributes except the class attribute are stored in a single array in row-major order, i.e., the
+ * values of an instance are contiguous. The column-major order, where the values of an attribute
+ * are contiguous, is created on demand. The columns of the matrix are the attributes of the data
+ * without the class attribute in their original order. The class values and the weights of the
+ * instances are stored separately.
+ * </p>
+ * <p>
+ * The matrix is a snapshot of the data. Matrices obtained with {@link #get(Instances)} are only
+ * cached for data that consists of {@link AbstractSharedInstance}s, because only these count the
+ * modifications of their values. Before a cached matrix is reused, the instances, their
+ * modification counts and weights, and the attributes of the data are compared with the matrix,
+ * i.e., the values themselves are not compared. For all other data, e.g., data with
+ * {@link weka.core.DenseInstance}s, a new matrix is created for each call. All arrays returned by a
+ * matrix are shared and must not be modified, unless stated otherwise.
+ * </p>
+ * <p>
+ * Results that are computed on a matrix are written back to Weka in bulk with
+ * {@link #setValues(Instances, double[])}, which replaces each instance with a copy that has the
+ * new values instead of copying the values of the instance for each modified attribute.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class DataMatrix {
+
+    /**
+     * cached matrices
+     */
+    private static final Map<DataKey, SoftReference<DataMatrix>> CACHE = new HashMap<>();
+
+    /**
+     * queue of data sets that were garbage collected
+     */
+    private static final ReferenceQueue<Instances> COLLECTED = new ReferenceQueue<>();
+
+    /**
+     * header of the data, i.e., the data without instances
+     */
+    private final Instances header;
+
+    /**
+     * number of rows, i.e., instances
+     */
+    private final int numRows;
+
+    /**
+     * number of columns, i.e., attributes without the class attribute
+     */
+    private final int numColumns;
+
+    /**
+     * attribute index of each column
+     */
+    private final int[] attributeIndices;
+
+    /**
+     * values in row-major order
+     */
+    private final double[] values;
+
+    /**
+     * values in column-major order; created on demand
+     */
+    private volatile double[] columnMajor = null;
+
+    /**
+     * values as one array per row; created on demand
+     */
+    private volatile double[][] rows = null;
+
+    /**
+     * statistics of the data; created on demand
+     */
+    private DataStatistics statistics = null;
+
+    /**
+     * class values; null if the data has no class attribute
+     */
+    private final double[] classValues;
+
+    /**
+     * weights of the instances
+     */
+    private final double[] weights;
+
+    /**
+     * instances from which the matrix was created
+     */
+    private final Instance[] instances;
+
+    /**
+     * modification counts of the instances when the matrix was created; -1 for instances that are
+     * not an {@link AbstractSharedInstance}
+     */
+    private final int[] modificationCounts;
+
+    /**
+     * true if all instances are an {@link AbstractSharedInstance}, i.e., if the matrix can be
+     * cached
+     */
+    private final boolean cacheable;
+
+    /**
+     * <p>
+     * Creates the matrix of the data.
+     * </p>
+     *
+     * @param data
+     *            the data
+     */
+    private DataMatrix(Instances data) {
+        this.header = new Instances(data, 0);
+        this.numRows = data.numInstances();
+        this.numColumns = data.classIndex() < 0 ? data.numAttributes() : data.numAttributes() - 1;
+        this.attributeIndices = new int[this.numColumns];
+        for (int j = 0, column = 0; j < data.numAttributes(); j++) {
+            if (j != data.classIndex()) {
+                this.attributeIndices[column++] = j;
+            }
+        }
+        this.values = new double[this.numRows * this.numColumns];
+        this.classValues = data.classIndex() < 0 ? null : new double[this.numRows];
+        this.weights = new double[this.numRows];
+
+        this.instances = new Instance[this.numRows];
+        this.modificationCounts = new int[this.numRows];
+
+        boolean allShared = true;
+        for (int i = 0; i < this.numRows; i++) {
+            Instance instance = data.instance(i);
+            this.instances[i] = instance;
+            this.modificationCounts[i] = modificationCount(instance);
+            allShared &= this.modificationCounts[i] >= 0;
+            int offset = i * this.numColumns;
+            for (int column = 0; column < this.numColumns; column++) {
+                this.values[offset + column] = instance.value(this.attributeIndices[column]);
+            }
+            if (this.classValues != null) {
+                this.classValues[i] = instance.value(data.classIndex());
+            }
+            this.weights[i] = instance.weight();
+        }
+        this.cacheable = allShared;
+    }
+
+    /**
+     * <p>
+     * Returns the matrix of the data. If the data consists of {@link AbstractSharedInstance}s, the
+     * matrix is reused as long as the data is not modified. Otherwise, a new matrix is created.
+     * </p>
+     *
+     * @param data
+     *            the data
+     * @return matrix of the data
+     */
+    public static DataMatrix get(Instances data) {
+        DataKey key = new DataKey(data, null);
+        SoftReference<DataMatrix> reference;
+        synchronized (CACHE) {
+            expungeCollected();
+            reference = CACHE.get(key);
+        }
+        DataMatrix matrix = reference == null ? null : reference.get();
+        if (matrix != null && matrix.isValid(data)) {
+            return matrix;
+        }
+        matrix = new DataMatrix(data);
+        if (matrix.cacheable) {
+            synchronized (CACHE) {
+                CACHE.put(new DataKey(data, COLLECTED), new SoftReference<>(matrix));
+            }
+        }
+        else if (reference != null) {
+            invalidate(data);
+        }
+        return matrix;
+    }
+
+    /**
+     * <p>
+     * Creates a new matrix of the data, without using or updating the cached matrix.
+     * </p>
+     *
+     * @param data
+     *            the data
+     * @return matrix of the data
+     */
+    public static DataMatrix create(Instances data) {
+        return new DataMatrix(data);
+    }
+
+    /**
+     * <p>
+     * Removes the cached matrix of the data. Modifications of shared instances are detected
+     * automatically, i.e., this is only required to release the memory of the matrix early.
+     * </p>
+     *
+     * @param data
+     *            the data
+     */
+    public static void invalidate(Instances data) {
+        synchronized (CACHE) {
+            expungeCollected();
+            CACHE.remove(new DataKey(data, null));
+        }
+    }
+
+    /**
+     * <p>
+     * Replaces all values of an instance, including the class value. The instance itself is
+     * modified, i.e., the values of instances that are not an {@link AbstractSharedInstance} are
+     * set one by one. The array becomes part of a shared instance, i.e., it must not be modified
+     * afterwards.
+     * </p>
+     *
+     * @param instance
+     *            the instance
+     * @param values
+     *            the new values; one value per attribute
+     */
+    @SuppressWarnings("hiding")
+    public static void setValues(Instance instance, double[] values) {
+        if (values.length != instance.numAttributes()) {
+            throw new IllegalArgumentException("number of values (" + values.length +
+                ") does not match the number of attributes (" + instance.numAttributes() + ")");
+        }
+        if (instance instanceof AbstractSharedInstance) {
+            ((AbstractSharedInstance) instance).setValues(values);
+            return;
+        }
+        for (int j = 0; j < values.length; j++) {
+            if (Double.compare(instance.value(j), values[j]) != 0) {
+                instance.setValue(j, values[j]);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Replaces the values of all attributes except the class attribute for all instances of the
+     * data. The class values and the weights are not changed. The values of an
+     * {@link AbstractSharedInstance} are replaced within the instance. All other instances are
+     * replaced with a copy that has the new values, i.e., references to the old instances do not
+     * see the new values.
+     * </p>
+     *
+     * @param data
+     *            the data
+     * @param values
+     *            the new values in the row-major order of the matrix of the data
+     */
+    @SuppressWarnings("hiding")
+    public static void setValues(Instances data, double[] values) {
+        int numColumns = data.classIndex() < 0 ? data.numAttributes() : data.numAttributes() - 1;
+        if (values.length != data.numInstances() * numColumns) {
+            throw new IllegalArgumentException("number of values (" + values.length +
+                ") does not match the size of the data (" + data.numInstances() + "x" +
+                numColumns + ")");
+        }
+        for (int i = 0; i < data.numInstances(); i++) {
+            Instance instance = data.instance(i);
+            double[] instanceValues = instance.toDoubleArray();
+            int offset = i * numColumns;
+            for (int j = 0, column = 0; j < instanceValues.length; j++) {
+                if (j != data.classIndex()) {
+                    instanceValues[j] = values[offset + column++];
+                }
+            }
+            if (instance instanceof AbstractSharedInstance) {
+                ((AbstractSharedInstance) instance).setValues(instanceValues);
+            }
+            else {
+                data.set(i, instance.copy(instanceValues));
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * returns the header of the data, i.e., the data without instances
+     * </p>
+     *
+     * @return the header
+     */
+    public Instances getHeader() {
+        return this.header;
+    }
+
+    /**
+     * <p>
+     * returns the number of rows, i.e., instances
+     * </p>
+     *
+     * @return number of rows
+     */
+    public int numRows() {
+        return this.numRows;
+    }
+
+    /**
+     * <p>
+     * returns the number of columns, i.e., attributes without the class attribute
+     * </p>
+     *
+     * @return number of columns
+     */
+    public int numColumns() {
+        return this.numColumns;
+    }
+
+    /**
+     * <p>
+     * returns the attribute index of a column
+     * </p>
+     *
+     * @param column
+     *            index of the column
+     * @return index of the attribute
+     */
+    public int getAttributeIndex(int column) {
+        return this.attributeIndices[column];
+    }
+
+    /**
+     * <p>
+     * returns the column of an attribute
+     * </p>
+     *
+     * @param attributeIndex
+     *            index of the attribute
+     * @return index of the column; -1 for the class attribute
+     */
+    public int getColumnIndex(int attributeIndex) {
+        if (attributeIndex == this.header.classIndex()) {
+            return -1;
+        }
+        return this.header.classIndex() >= 0 && attributeIndex > this.header.classIndex()
+            ? attributeIndex - 1 : attributeIndex;
+    }
+
+    /**
+     * <p>
+     * returns the attribute of a column
+     * </p>
+     *
+     * @param column
+     *            index of the column
+     * @return the attribute
+     */
+    public Attribute getAttribute(int column) {
+        return this.header.attribute(this.attributeIndices[column]);
+    }
+
+    /**
+     * <p>
+     * returns a value of the matrix
+     * </p>
+     *
+     * @param row
+     *            index of the row
+     * @param column
+     *            index of the column
+     * @return the value
+     */
+    public double value(int row, int column) {
+        return this.values[row * this.numColumns + column];
+    }
+
+    /**
+     * <p>
+     * returns all values in row-major order
+     * </p>
+     *
+     * @return the values
+     */
+    public double[] getRowMajor() {
+        return this.values;
+    }
+
+    /**
+     * <p>
+     * returns all values in column-major order
+     * </p>
+     *
+     * @return the values
+     */
+    public double[] getColumnMajor() {
+        double[] result = this.columnMajor;
+        if (result == null) {
+            result = new double[this.values.length];
+            for (int i = 0; i < this.numRows; i++) {
+                for (int column = 0; column < this.numColumns; column++) {
+                    result[column * this.numRows + i] = this.values[i * this.numColumns + column];
+                }
+            }
+            this.columnMajor = result;
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * returns all values as one array per row
+     * </p>
+     *
+     * @return the rows
+     */
+    public double[][] getRows() {
+        double[][] result = this.rows;
+        if (result == null) {
+            result = new double[this.numRows][];
+            for (int i = 0; i < this.numRows; i++) {
+                result[i] = getRow(i);
+            }
+            this.rows = result;
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * returns a copy of the values of a row
+     * </p>
+     *
+     * @param row
+     *            index of the row
+     * @return the values; the array may be modified
+     */
+    public double[] getRow(int row) {
+        double[] result = new double[this.numColumns];
+        System.arraycopy(this.values, row * this.numColumns, result, 0, this.numColumns);
+        return result;
+    }
+
+    /**
+     * <p>
+     * returns a copy of the values of a column
+     * </p>
+     *
+     * @param column
+     *            index of the column
+     * @return the values; the array may be modified
+     */
+    public double[] getColumn(int column) {
+        double[] result = new double[this.numRows];
+        System.arraycopy(getColumnMajor(), column * this.numRows, result, 0, this.numRows);
+        return result;
+    }
+
+    /**
+     * <p>
+     * returns the class values
+     * </p>
+     *
+     * @return the class values; null if the data has no class attribute
+     */
+    public double[] getClassValues() {
+        return this.classValues;
+    }
+
+    /**
+     * <p>
+     * returns the weights of the instances
+     * </p>
+     *
+     * @return the weights
+     */
+    public double[] getWeights() {
+        return this.weights;
+    }
+
+    /**
+     * <p>
+     * returns the statistics of the attributes of the data
+     * </p>
+     *
+     * @return the statistics
+     */
+    public synchronized DataStatistics getStatistics() {
+        if (this.statistics == null) {
+            this.statistics = new DataStatistics(this);
+        }
+        return this.statistics;
+    }
+
+    /**
+     * <p>
+     * Checks if the matrix still represents the data, i.e., if neither the instances nor their
+     * modification counts and weights changed. The values are not compared, i.e., this is only
+     * valid for cacheable matrices.
+     * </p>
+     *
+     * @param data
+     *            the data
+     * @return true if the matrix represents the data
+     */
+    private boolean isValid(Instances data) {
+        if (data.numInstances() != this.numRows ||
+            data.numAttributes() != this.header.numAttributes() ||
+            data.classIndex() != this.header.classIndex())
+        {
+            return false;
+        }
+        for (int j = 0; j < data.numAttributes(); j++) {
+            if (data.attribute(j) != this.header.attribute(j)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < this.numRows; i++) {
+            Instance instance = data.instance(i);
+            if (instance != this.instances[i] ||
+                modificationCount(instance) != this.modificationCounts[i] ||
+                Double.compare(instance.weight(), this.weights[i]) != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * <p>
+     * Removes the cached matrices of data sets that were garbage collected.
+     * </p>
+     */
+    private static void expungeCollected() {
+        Object collected;
+        while ((collected = COLLECTED.poll()) != null) {
+            CACHE.remove(collected);
+        }
+    }
+
+    /**
+     * <p>
+     * returns the modification count of a shared instance
+     * </p>
+     *
+     * @param instance
+     *            the instance
+     * @return the modification count; -1 if the instance is not an {@link AbstractSharedInstance}
+     */
+    private static int modificationCount(Instance instance) {
+        return instance instanceof AbstractSharedInstance
+            ? ((AbstractSharedInstance) instance).getModificationCount() : -1;
+    }
+
+    /**
+     * <p>
+     * Key of the cache. Data sets are identified by their identity, because the equality of
+     * {@link Instances} is based on their instances. The data set is only weakly referenced.
+     * </p>
+     *
+     * @author Steffen Herbold
+     */
+    private static class DataKey extends WeakReference<Instances> {
+
+        /**
+         * identity hash code of the data set
+         */
+        private final int hash;
+
+        /**
+         * <p>
+         * Creates a new key.
+         * </p>
+         *
+         * @param data
+         *            the data set
+         * @param queue
+         *            queue to which the key is added once the data set is garbage collected; may
+         *            be null
+         */
+        DataKey(Instances data, ReferenceQueue<Instances> queue) {
+            super(data, queue);
+            this.hash = System.identityHashCode(data);
+        }
+
+        /*
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        /*
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof DataKey)) {
+                return false;
+            }
+            Instances data = get();
+            return data != null && data == ((DataKey) other).get();
+        }
+    }
+}
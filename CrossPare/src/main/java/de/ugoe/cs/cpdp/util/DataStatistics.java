@@ -0,0 +1,427 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import weka.core.Attribute;
+import weka.core.AttributeStats;
+import weka.core.Instances;
+import weka.core.Utils;
+import weka.experiment.Stats;
+
+/**
+ * <p>
+ * Statistics of the attributes of a data set. The statistics of an attribute are computed in a
+ * single pass over the values of the attribute when they are requested for the first time and are
+ * then reused. The statistics belong to the {@link DataMatrix} of the data, i.e., they are only
+ * reused as long as the matrix is cached and discarded together with the matrix once the data is
+ * modified.
+ * </p>
+ * <p>
+ * The statistics are the same as the ones computed by Weka, i.e.,
+ * {@link #getAttributeStats(int)}, {@link #meanOrMode(int)}, {@link #variance(int)}, and
+ * {@link #kthSmallestValue(int, int)} return exactly the same values as the methods with the same
+ * names of {@link Instances}. The order quantiles are computed from a sorted copy of the values of
+ * an attribute, which is created on demand.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class DataStatistics {
+
+    /**
+     * matrix of the data
+     */
+    private final DataMatrix matrix;
+
+    /**
+     * Weka statistics of each attribute; null if not yet computed
+     */
+    private final AttributeStats[] attributeStats;
+
+    /**
+     * mean or mode of each attribute
+     */
+    private final double[] meanOrMode;
+
+    /**
+     * variance of each numeric attribute
+     */
+    private final double[] variance;
+
+    /**
+     * sorted values of each numeric attribute; missing values are replaced with
+     * {@link Double#MAX_VALUE}; null if not yet computed
+     */
+    private final double[][] sortedValues;
+
+    /**
+     * <p>
+     * Creates the statistics of the data of a matrix.
+     * </p>
+     *
+     * @param matrix
+     *            the matrix
+     */
+    @SuppressWarnings("hiding")
+    DataStatistics(DataMatrix matrix) {
+        this.matrix = matrix;
+        int numAttributes = matrix.getHeader().numAttributes();
+        this.attributeStats = new AttributeStats[numAttributes];
+        this.meanOrMode = new double[numAttributes];
+        this.variance = new double[numAttributes];
+        this.sortedValues = new double[numAttributes][];
+    }
+
+    /**
+     * <p>
+     * Returns the statistics of the data. The statistics are reused as long as the matrix of the
+     * data is cached, see {@link DataMatrix#get(Instances)}.
+     * </p>
+     *
+     * @param data
+     *            the data
+     * @return statistics of the data
+     */
+    public static DataStatistics get(Instances data) {
+        return DataMatrix.get(data).getStatistics();
+    }
+
+    /**
+     * <p>
+     * returns the Weka statistics of an attribute; the statistics are shared and must not be
+     * modified
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return the statistics
+     * @see Instances#attributeStats(int)
+     */
+    public AttributeStats getAttributeStats(int attIndex) {
+        return compute(attIndex);
+    }
+
+    /**
+     * <p>
+     * returns the minimal value of a numeric attribute
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return the minimum
+     */
+    public double getMin(int attIndex) {
+        return compute(attIndex).numericStats.min;
+    }
+
+    /**
+     * <p>
+     * returns the maximal value of a numeric attribute
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return the maximum
+     */
+    public double getMax(int attIndex) {
+        return compute(attIndex).numericStats.max;
+    }
+
+    /**
+     * <p>
+     * returns the mean of a numeric attribute as computed by the Weka statistics
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return the mean
+     */
+    public double getMean(int attIndex) {
+        return compute(attIndex).numericStats.mean;
+    }
+
+    /**
+     * <p>
+     * returns the standard deviation of a numeric attribute as computed by the Weka statistics
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return the standard deviation
+     */
+    public double getStdDev(int attIndex) {
+        return compute(attIndex).numericStats.stdDev;
+    }
+
+    /**
+     * <p>
+     * returns the number of instances for each value of a nominal attribute; the array is shared
+     * and must not be modified
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return the counts
+     */
+    public int[] getNominalCounts(int attIndex) {
+        return compute(attIndex).nominalCounts;
+    }
+
+    /**
+     * <p>
+     * returns the weighted mean of a numeric attribute or the mode of a nominal attribute
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return the mean or mode
+     * @see Instances#meanOrMode(int)
+     */
+    public double meanOrMode(int attIndex) {
+        compute(attIndex);
+        return this.meanOrMode[attIndex];
+    }
+
+    /**
+     * <p>
+     * returns the weighted variance of a numeric attribute
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return the variance
+     * @see Instances#variance(int)
+     */
+    public double variance(int attIndex) {
+        if (!this.matrix.getHeader().attribute(attIndex).isNumeric()) {
+            throw new IllegalArgumentException("attribute must be numeric to compute the " +
+                "variance: " + this.matrix.getHeader().attribute(attIndex).name());
+        }
+        compute(attIndex);
+        return this.variance[attIndex];
+    }
+
+    /**
+     * <p>
+     * returns the kth-smallest value of a numeric attribute; missing values are treated as
+     * {@link Double#MAX_VALUE}
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @param k
+     *            the value of k, starting with 1
+     * @return the kth-smallest value
+     * @see Instances#kthSmallestValue(int, int)
+     */
+    public double kthSmallestValue(int attIndex, int k) {
+        if (!this.matrix.getHeader().attribute(attIndex).isNumeric()) {
+            throw new IllegalArgumentException("attribute must be numeric to compute the " +
+                "kth-smallest value: " + this.matrix.getHeader().attribute(attIndex).name());
+        }
+        if (k < 1 || k > this.matrix.numRows()) {
+            throw new IllegalArgumentException("invalid value for k for computing the " +
+                "kth-smallest value: " + k);
+        }
+        return sortedValues(attIndex)[k - 1];
+    }
+
+    /**
+     * <p>
+     * returns the median of a numeric attribute, i.e., the kth-smallest value with k=(n+1)/2
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return the median
+     */
+    public double getMedian(int attIndex) {
+        return kthSmallestValue(attIndex, (this.matrix.numRows() + 1) >> 1);
+    }
+
+    /**
+     * <p>
+     * Computes the statistics of an attribute, if they are not yet computed.
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return the Weka statistics of the attribute
+     */
+    @SuppressWarnings("boxing")
+    private synchronized AttributeStats compute(int attIndex) {
+        if (this.attributeStats[attIndex] != null) {
+            return this.attributeStats[attIndex];
+        }
+        Attribute attribute = this.matrix.getHeader().attribute(attIndex);
+        double[] values = values(attIndex);
+        double[] weights = this.matrix.getWeights();
+
+        WekaAttributeStats stats = new WekaAttributeStats();
+        if (attribute.isNominal()) {
+            stats.nominalCounts = new int[attribute.numValues()];
+            stats.nominalWeights = new double[attribute.numValues()];
+        }
+        if (attribute.isNumeric()) {
+            stats.numericStats = new Stats();
+        }
+        stats.totalCount = values.length;
+        // the distinct values are counted and added to the statistics in the same order as by
+        // Weka, such that the floating point results are the same
+        Map<Double, double[]> distinctValues = new HashMap<>(2 * stats.totalCount);
+
+        double sum = 0.0;
+        double sumOfWeights = 0.0;
+        int[] modeCounts = attribute.isNominal() ? new int[attribute.numValues()] : null;
+        double mean = 0.0;
+        double var = Double.NaN;
+        double varianceWeights = 0.0;
+        for (int i = 0; i < values.length; i++) {
+            double value = values[i];
+            double weight = weights[i];
+            if (Utils.isMissingValue(value)) {
+                stats.missingCount++;
+                continue;
+            }
+            double[] counts = distinctValues.get(value);
+            if (counts == null) {
+                distinctValues.put(value, new double[] { 1.0, weight });
+            }
+            else {
+                counts[0] += 1.0;
+                counts[1] += weight;
+            }
+
+            // Instances.meanOrMode
+            if (modeCounts != null) {
+                modeCounts[(int) value] += weight;
+            }
+            sumOfWeights += weight;
+            sum += weight * value;
+
+            // Instances.variance
+            if (Double.isNaN(var)) {
+                mean = value;
+                varianceWeights = weight;
+                var = 0.0;
+            }
+            else {
+                double delta = weight * (value - mean);
+                varianceWeights += weight;
+                mean += delta / varianceWeights;
+                var += delta * (value - mean);
+            }
+        }
+        for (Map.Entry<Double, double[]> entry : distinctValues.entrySet()) {
+            stats.add(entry.getKey().doubleValue(), (int) entry.getValue()[0],
+                      entry.getValue()[1]);
+        }
+
+        if (attribute.isNumeric()) {
+            this.meanOrMode[attIndex] = sumOfWeights <= 0 ? 0.0 : sum / sumOfWeights;
+        }
+        else if (modeCounts != null) {
+            this.meanOrMode[attIndex] = Utils.maxIndex(modeCounts);
+        }
+        else {
+            this.meanOrMode[attIndex] = 0.0;
+        }
+        if (varianceWeights <= 1) {
+            this.variance[attIndex] = Double.NaN;
+        }
+        else {
+            var /= varianceWeights - 1;
+            this.variance[attIndex] = var < 0 ? 0.0 : var;
+        }
+        this.attributeStats[attIndex] = stats;
+        return stats;
+    }
+
+    /**
+     * <p>
+     * returns the sorted values of an attribute, where missing values are replaced with
+     * {@link Double#MAX_VALUE}
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return the sorted values
+     */
+    private synchronized double[] sortedValues(int attIndex) {
+        if (this.sortedValues[attIndex] == null) {
+            double[] values = values(attIndex);
+            for (int i = 0; i < values.length; i++) {
+                if (Utils.isMissingValue(values[i])) {
+                    values[i] = Double.MAX_VALUE;
+                }
+            }
+            Arrays.sort(values);
+            this.sortedValues[attIndex] = values;
+        }
+        return this.sortedValues[attIndex];
+    }
+
+    /**
+     * <p>
+     * returns a copy of the values of an attribute
+     * </p>
+     *
+     * @param attIndex
+     *            index of the attribute
+     * @return the values
+     */
+    private double[] values(int attIndex) {
+        int column = this.matrix.getColumnIndex(attIndex);
+        if (column == -1) {
+            return this.matrix.getClassValues().clone();
+        }
+        return this.matrix.getColumn(column);
+    }
+
+    /**
+     * <p>
+     * Weka statistics of an attribute that are computed from the values of a matrix.
+     * </p>
+     *
+     * @author Steffen Herbold
+     */
+    private static class WekaAttributeStats extends AttributeStats {
+
+        /**
+         * default serial version UID
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * <p>
+         * Adds a distinct value to the statistics.
+         * </p>
+         *
+         * @param value
+         *            the value
+         * @param count
+         *            number of instances with the value
+         * @param weight
+         *            sum of the weights of the instances with the value
+         */
+        void add(double value, int count, double weight) {
+            addDistinct(value, count, weight);
+        }
+    }
+}
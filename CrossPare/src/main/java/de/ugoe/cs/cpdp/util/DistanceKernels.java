@@ -0,0 +1,522 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * <p>
+ * Distances and kernels between the rows of data sets, e.g., the rows of a {@link DataMatrix}.
+ * All strategies should use these functions instead of their own implementations, such that the
+ * distances are computed consistently.
+ * </p>
+ * <p>
+ * The sums are always computed sequentially in the order of the attributes. Therefore, the
+ * results are exactly the same as the ones of {@link org.apache.commons.math3.util.MathArrays}
+ * and independent of the number of threads that are used. The distances between many rows are
+ * computed in blocks of rows that fit into the CPU cache. If there are enough rows, the blocks are
+ * computed concurrently by a dedicated thread pool, whose parallelism is configured with
+ * {@link #setParallelism(int)}.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class DistanceKernels {
+
+    /**
+     * number of rows of a block
+     */
+    private static final int BLOCK_SIZE = 64;
+
+    /**
+     * minimal number of multiplications for which the blocks are computed concurrently
+     */
+    private static final long PARALLEL_THRESHOLD = 1L << 18;
+
+    /**
+     * thread pool for the concurrent computation of blocks; null if the blocks are computed
+     * sequentially
+     */
+    private static ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * <p>
+     * Private constructor to prevent instantiation.
+     * </p>
+     */
+    private DistanceKernels() {
+        // utility class
+    }
+
+    /**
+     * <p>
+     * Sets the number of threads that compute blocks of rows concurrently. The threads are shared
+     * by all computations, i.e., concurrent experiments do not multiply the number of threads. By
+     * default, the number of threads is the number of available processors. The parallelism should
+     * be set before any distances are computed, because the previous threads are shut down.
+     * </p>
+     *
+     * @param parallelism
+     *            number of threads; 1 computes all blocks sequentially in the calling thread
+     * @throws IllegalArgumentException
+     *             thrown if the parallelism is less than 1
+     */
+    public static synchronized void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1: " + parallelism);
+        }
+        if (pool != null) {
+            pool.shutdown();
+        }
+        pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * <p>
+     * returns the number of threads that compute blocks of rows concurrently
+     * </p>
+     *
+     * @return number of threads
+     */
+    public static synchronized int getParallelism() {
+        return pool == null ? 1 : pool.getParallelism();
+    }
+
+    /**
+     * <p>
+     * Calculates the Euclidean distance between two rows.
+     * </p>
+     *
+     * @param x
+     *            first row
+     * @param y
+     *            second row
+     * @return the distance
+     */
+    public static double distance(double[] x, double[] y) {
+        return Math.sqrt(squaredDistance(x, y));
+    }
+
+    /**
+     * <p>
+     * Calculates the squared Euclidean distance between two rows.
+     * </p>
+     *
+     * @param x
+     *            first row
+     * @param y
+     *            second row
+     * @return the squared distance
+     */
+    public static double squaredDistance(double[] x, double[] y) {
+        double sum = 0.0;
+        for (int j = 0; j < x.length; j++) {
+            final double diff = x[j] - y[j];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    /**
+     * <p>
+     * Calculates the linear kernel, i.e., the dot product, of two rows.
+     * </p>
+     *
+     * @param x
+     *            first row
+     * @param y
+     *            second row
+     * @return the dot product
+     */
+    public static double dot(double[] x, double[] y) {
+        double sum = 0.0;
+        for (int j = 0; j < x.length; j++) {
+            sum += x[j] * y[j];
+        }
+        return sum;
+    }
+
+    /**
+     * <p>
+     * Calculates the Euclidean distances of a row to many rows.
+     * </p>
+     *
+     * @param x
+     *            the row
+     * @param rows
+     *            the rows
+     * @param result
+     *            array for the distances, may be null; array is reused if it has the correct size,
+     *            such that the distances of many rows can be computed one after another without
+     *            allocating a distance matrix
+     * @return distance of x to each of the rows
+     */
+    public static double[] distances(double[] x, double[][] rows, double[] result) {
+        double[] distances =
+            result != null && result.length == rows.length ? result : new double[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            distances[i] = distance(x, rows[i]);
+        }
+        return distances;
+    }
+
+    /**
+     * <p>
+     * Calculates the Euclidean distances between all rows of two data sets.
+     * </p>
+     *
+     * @param rows1
+     *            rows of the first data set
+     * @param rows2
+     *            rows of the second data set
+     * @return matrix with the distances; the element at (i,j) is the distance between rows1[i] and
+     *         rows2[j]
+     */
+    public static double[][] distances(double[][] rows1, double[][] rows2) {
+        return distances(rows1, 0, rows1.length, rows2);
+    }
+
+    /**
+     * <p>
+     * Calculates the Euclidean distances between a range of the rows of a data set and all rows of
+     * another data set. Processing the rows of large data sets range by range bounds the size of
+     * the distance matrix.
+     * </p>
+     *
+     * @param rows1
+     *            rows of the first data set
+     * @param from
+     *            index of the first row of the range (inclusive)
+     * @param to
+     *            index of the last row of the range (exclusive)
+     * @param rows2
+     *            rows of the second data set
+     * @return matrix with the distances; the element at (i,j) is the distance between
+     *         rows1[from+i] and rows2[j]
+     */
+    public static double[][] distances(double[][] rows1, int from, int to, double[][] rows2) {
+        final double[][] result = new double[to - from][rows2.length];
+        forEachBlock(to - from, rows2.length, dimension(rows1, rows2), (blockStart, blockEnd) -> {
+            for (int start = 0; start < rows2.length; start += BLOCK_SIZE) {
+                int end = Math.min(start + BLOCK_SIZE, rows2.length);
+                for (int i = blockStart; i < blockEnd; i++) {
+                    double[] x = rows1[from + i];
+                    for (int j = start; j < end; j++) {
+                        result[i][j] = distance(x, rows2[j]);
+                    }
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * <p>
+     * Calculates the Euclidean distances between all rows of a data set. Only half of the
+     * distances are calculated, because the distances are symmetric.
+     * </p>
+     *
+     * @param rows
+     *            the rows
+     * @return symmetric matrix with the distances
+     */
+    public static double[][] distances(double[][] rows) {
+        final double[][] result = new double[rows.length][rows.length];
+        distances(rows, (i, j, value) -> result[i][j] = value);
+        return result;
+    }
+
+    /**
+     * <p>
+     * Calculates the Euclidean distances between all rows of a data set and passes them to a
+     * target, e.g., the builder of another matrix type, without creating a distance matrix. Only
+     * half of the distances are calculated, because the distances are symmetric. Each element of
+     * the matrix is set exactly once, but the elements may be set concurrently.
+     * </p>
+     *
+     * @param rows
+     *            the rows
+     * @param target
+     *            target of the elements of the symmetric matrix with the distances
+     */
+    public static void distances(double[][] rows, MatrixTarget target) {
+        forEachSymmetric(rows, target, DistanceKernels::distance);
+    }
+
+    /**
+     * <p>
+     * Calculates the linear kernel, i.e., the dot products, between all rows of a data set. Only
+     * half of the dot products are calculated, because the kernel is symmetric.
+     * </p>
+     *
+     * @param rows
+     *            the rows
+     * @return symmetric kernel matrix
+     */
+    public static double[][] linearKernel(double[][] rows) {
+        final double[][] result = new double[rows.length][rows.length];
+        linearKernel(rows, (i, j, value) -> result[i][j] = value);
+        return result;
+    }
+
+    /**
+     * <p>
+     * Calculates the linear kernel, i.e., the dot products, between all rows of a data set and
+     * passes them to a target, e.g., the builder of another matrix type, without creating a
+     * kernel matrix. Only half of the dot products are calculated, because the kernel is
+     * symmetric. Each element of the matrix is set exactly once, but the elements may be set
+     * concurrently.
+     * </p>
+     *
+     * @param rows
+     *            the rows
+     * @param target
+     *            target of the elements of the symmetric kernel matrix
+     */
+    public static void linearKernel(double[][] rows, MatrixTarget target) {
+        forEachSymmetric(rows, target, DistanceKernels::dot);
+    }
+
+    /**
+     * <p>
+     * Normalizes the values of each column of the rows to the interval [0,1] with the minimal and
+     * maximal value of the column. The values of constant columns are set to zero. This is the
+     * same normalization that is used by {@link weka.core.EuclideanDistance}, i.e., the Euclidean
+     * distances between the normalized rows are exactly the distances of Weka, as long as the data
+     * has only numeric attributes and no missing values.
+     * </p>
+     *
+     * @param rows
+     *            the rows
+     * @return normalized copy of the rows
+     */
+    public static double[][] normalizeRanges(double[][] rows) {
+        final int dimension = rows.length == 0 ? 0 : rows[0].length;
+        double[] min = new double[dimension];
+        double[] max = new double[dimension];
+        for (int j = 0; j < dimension; j++) {
+            min[j] = Double.POSITIVE_INFINITY;
+            max[j] = Double.NEGATIVE_INFINITY;
+        }
+        for (double[] row : rows) {
+            for (int j = 0; j < dimension; j++) {
+                min[j] = Math.min(min[j], row[j]);
+                max[j] = Math.max(max[j], row[j]);
+            }
+        }
+        double[][] result = new double[rows.length][dimension];
+        for (int i = 0; i < rows.length; i++) {
+            for (int j = 0; j < dimension; j++) {
+                if (max[j] != min[j]) {
+                    result[i][j] = (rows[i][j] - min[j]) / (max[j] - min[j]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * <p>
+     * Target of the elements of a matrix that is computed by this class.
+     * </p>
+     *
+     * @author Steffen Herbold
+     */
+    @FunctionalInterface
+    public interface MatrixTarget {
+
+        /**
+         * <p>
+         * Sets an element of the matrix.
+         * </p>
+         *
+         * @param row
+         *            index of the row
+         * @param column
+         *            index of the column
+         * @param value
+         *            the value
+         */
+        void set(int row, int column, double value);
+    }
+
+    /**
+     * <p>
+     * Function of two rows.
+     * </p>
+     *
+     * @author Steffen Herbold
+     */
+    @FunctionalInterface
+    private interface RowFunction {
+
+        /**
+         * <p>
+         * Applies the function.
+         * </p>
+         *
+         * @param x
+         *            first row
+         * @param y
+         *            second row
+         * @return the result
+         */
+        double apply(double[] x, double[] y);
+    }
+
+    /**
+     * <p>
+     * Action on a block of rows.
+     * </p>
+     *
+     * @author Steffen Herbold
+     */
+    @FunctionalInterface
+    private interface BlockAction {
+
+        /**
+         * <p>
+         * Processes the rows of a block.
+         * </p>
+         *
+         * @param blockStart
+         *            index of the first row of the block (inclusive)
+         * @param blockEnd
+         *            index of the last row of the block (exclusive)
+         */
+        void apply(int blockStart, int blockEnd);
+    }
+
+    /**
+     * <p>
+     * Applies a symmetric function to all pairs of rows of a data set. The function is only
+     * computed for the lower triangle including the diagonal; the values are set for both
+     * triangles. Each block of rows sets different elements, i.e., the blocks do not interfere.
+     * </p>
+     *
+     * @param rows
+     *            the rows
+     * @param target
+     *            target of the elements of the symmetric matrix
+     * @param function
+     *            the symmetric function
+     */
+    private static void forEachSymmetric(double[][] rows,
+                                         MatrixTarget target,
+                                         RowFunction function)
+    {
+        final int dimension = dimension(rows, rows);
+        forEachBlock(rows.length, rows.length / 2, dimension, (blockStart, blockEnd) -> {
+            for (int start = 0; start < blockEnd; start += BLOCK_SIZE) {
+                for (int i = blockStart; i < blockEnd; i++) {
+                    int end = Math.min(start + BLOCK_SIZE, i + 1);
+                    for (int j = start; j < end; j++) {
+                        double value = function.apply(rows[i], rows[j]);
+                        target.set(i, j, value);
+                        if (i != j) {
+                            target.set(j, i, value);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * <p>
+     * Applies an action to all blocks of rows. The blocks are processed concurrently by the thread
+     * pool if the amount of work is large enough. Because the blocks are independent of each
+     * other, the results do not depend on the order in which the blocks are processed.
+     * </p>
+     *
+     * @param numRows
+     *            number of rows
+     * @param numPartners
+     *            average number of rows to which each row is compared
+     * @param dimension
+     *            number of values of each row
+     * @param action
+     *            action that is applied
+     */
+    private static void forEachBlock(int numRows,
+                                     int numPartners,
+                                     int dimension,
+                                     BlockAction action)
+    {
+        int numBlocks = (numRows + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        ForkJoinPool blockPool;
+        synchronized (DistanceKernels.class) {
+            blockPool = pool;
+        }
+        if (blockPool == null || numBlocks <= 1 ||
+            (long) numRows * numPartners * dimension < PARALLEL_THRESHOLD)
+        {
+            for (int block = 0; block < numBlocks; block++) {
+                action.apply(block * BLOCK_SIZE, Math.min((block + 1) * BLOCK_SIZE, numRows));
+            }
+            return;
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(numBlocks);
+        for (int block = 0; block < numBlocks; block++) {
+            final int blockStart = block * BLOCK_SIZE;
+            final int blockEnd = Math.min((block + 1) * BLOCK_SIZE, numRows);
+            tasks.add(() -> {
+                action.apply(blockStart, blockEnd);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : blockPool.invokeAll(tasks)) {
+                future.get();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("interrupted while computing the blocks of rows", e);
+        }
+        catch (ExecutionException e) {
+            throw new RuntimeException("error while computing the blocks of rows", e.getCause());
+        }
+    }
+
+    /**
+     * <p>
+     * returns the number of values of the rows of two data sets
+     * </p>
+     *
+     * @param rows1
+     *            rows of the first data set
+     * @param rows2
+     *            rows of the second data set
+     * @return number of values; zero if one of the data sets is empty
+     * @throws IllegalArgumentException
+     *             thrown if the rows have different numbers of values
+     */
+    private static int dimension(double[][] rows1, double[][] rows2) {
+        if (rows1.length == 0 || rows2.length == 0) {
+            return 0;
+        }
+        if (rows1[0].length != rows2[0].length) {
+            throw new IllegalArgumentException("rows have different numbers of values: " +
+                rows1[0].length + " and " + rows2[0].length);
+        }
+        return rows1[0].length;
+    }
+}
@@ -0,0 +1,145 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+
+package de.ugoe.cs.cpdp.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.Callable;
+
+/**
+ * <p>
+ * Captures the output that a thread writes to {@link System#err}. Replacing {@link System#err} with
+ * {@link System#setErr(PrintStream)} affects all threads of the JVM, i.e., it is not thread-safe
+ * if tasks are executed concurrently. Instead, {@link System#err} is replaced with a stream that
+ * forwards the output of each thread either to the target of the thread or, if the thread does not
+ * capture its output, to the original {@link System#err}. The stream is only installed while at
+ * least one thread captures its output. Afterwards, the original {@link System#err} is restored.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class ErrorStreamCapture {
+
+    /**
+     * targets of the threads that capture their output
+     */
+    private static final ThreadLocal<PrintStream> TARGETS = new ThreadLocal<>();
+
+    /**
+     * stream that forwards the output to the target of the writing thread
+     */
+    private static final PrintStream DISPATCHER = new PrintStream(new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+            getTarget().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            getTarget().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            getTarget().flush();
+        }
+    }, true);
+
+    /**
+     * {@link System#err} before it was replaced with the dispatcher
+     */
+    private static volatile PrintStream original = System.err;
+
+    /**
+     * number of captures that are currently executed, by all threads
+     */
+    private static int activeCaptures = 0;
+
+    /**
+     * <p>
+     * Executes a task and captures the output that the current thread writes to {@link System#err}
+     * during the execution. Captures may be nested, the innermost capture receives the output.
+     * </p>
+     *
+     * @param task
+     *            the task
+     * @param target
+     *            stream to which the output is written
+     * @return result of the task
+     * @throws Exception
+     *             thrown if the task fails
+     */
+    public static <T> T capture(Callable<T> task, OutputStream target) throws Exception {
+        install();
+        final PrintStream previous = TARGETS.get();
+        final PrintStream targetStream = new PrintStream(target, true);
+        TARGETS.set(targetStream);
+        try {
+            return task.call();
+        }
+        finally {
+            targetStream.flush();
+            if (previous == null) {
+                TARGETS.remove();
+            }
+            else {
+                TARGETS.set(previous);
+            }
+            uninstall();
+        }
+    }
+
+    /**
+     * <p>
+     * Replaces {@link System#err} with the dispatcher, unless this was already done by another
+     * capture that is still executed.
+     * </p>
+     */
+    private static synchronized void install() {
+        if (activeCaptures == 0 && System.err != DISPATCHER) {
+            original = System.err;
+            System.setErr(DISPATCHER);
+        }
+        activeCaptures++;
+    }
+
+    /**
+     * <p>
+     * Restores the original {@link System#err} after the last capture that is executed is
+     * finished. If {@link System#err} was replaced by someone else in the meantime, it is not
+     * changed.
+     * </p>
+     */
+    private static synchronized void uninstall() {
+        activeCaptures--;
+        if (activeCaptures == 0 && System.err == DISPATCHER) {
+            System.setErr(original);
+        }
+    }
+
+    /**
+     * <p>
+     * returns the target of the current thread
+     * </p>
+     *
+     * @return the target
+     */
+    private static PrintStream getTarget() {
+        final PrintStream target = TARGETS.get();
+        return target == null ? original : target;
+    }
+}
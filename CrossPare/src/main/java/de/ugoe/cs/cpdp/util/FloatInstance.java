@@ -0,0 +1,203 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.util;
+
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+/**
+ * <p>
+ * Compact Weka instance that stores its values with single precision, which halves the memory
+ * required for the values compared to a {@link weka.core.DenseInstance}. The instance is
+ * intended for large amounts of loaded data, e.g., the pooled training data of many products,
+ * whose metrics do not require double precision. The instance can be used like any other instance
+ * by Weka, e.g., for training and evaluating classifiers.
+ * </p>
+ * <p>
+ * Only the loaded values are rounded to single precision. Once a value of the instance is set,
+ * the instance switches to double precision, such that all values computed on the data, e.g., by
+ * the normalization, are the same as for dense instances with the rounded values. Like dense
+ * instances, copies share their values until one of them is modified.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class FloatInstance extends AbstractSharedInstance {
+
+    /**
+     * default serial version UID
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * values with single precision; null if the values are stored with double precision in
+     * {@link #m_AttValues}
+     */
+    private float[] floatValues;
+
+    /**
+     * <p>
+     * Creates a new instance with single precision values.
+     * </p>
+     *
+     * @param weight
+     *            weight of the instance
+     * @param values
+     *            the values; the array becomes part of the instance
+     */
+    public FloatInstance(double weight, float[] values) {
+        this(weight, values, null);
+    }
+
+    /**
+     * <p>
+     * Creates a compact copy of an instance. The values are rounded to single precision, unless
+     * the instance is a {@link FloatInstance}, whose values are shared. Like for
+     * {@link weka.core.DenseInstance}, the copy does not belong to a data set.
+     * </p>
+     *
+     * @param instance
+     *            the instance
+     */
+    public FloatInstance(Instance instance) {
+        this.m_Weight = instance.weight();
+        this.m_Dataset = null;
+        if (instance instanceof FloatInstance) {
+            this.floatValues = ((FloatInstance) instance).floatValues;
+            this.m_AttValues = ((FloatInstance) instance).m_AttValues;
+        }
+        else {
+            this.floatValues = new float[instance.numAttributes()];
+            for (int j = 0; j < this.floatValues.length; j++) {
+                this.floatValues[j] = (float) instance.value(j);
+            }
+        }
+    }
+
+    /**
+     * <p>
+     * Creates a new instance. Either the single or the double precision values must be defined.
+     * </p>
+     *
+     * @param weight
+     *            weight of the instance
+     * @param floatValues
+     *            single precision values
+     * @param values
+     *            double precision values
+     */
+    @SuppressWarnings("hiding")
+    private FloatInstance(double weight, float[] floatValues, double[] values) {
+        this.m_Weight = weight;
+        this.floatValues = floatValues;
+        this.m_AttValues = values;
+    }
+
+    /**
+     * <p>
+     * Replaces all instances of the data with {@link FloatInstance}s. The order of the instances,
+     * their weights, and the header of the data are not changed.
+     * </p>
+     *
+     * @param data
+     *            the data
+     */
+    public static void compact(Instances data) {
+        for (int i = 0; i < data.numInstances(); i++) {
+            if (!(data.instance(i) instanceof FloatInstance)) {
+                // the instance is copied by Instances.set, which shares the compact values
+                data.set(i, new FloatInstance(data.instance(i)));
+            }
+        }
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.util.AbstractSharedInstance#sharedValue(int)
+     */
+    @Override
+    protected double sharedValue(int attIndex) {
+        return this.floatValues[attIndex];
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.util.AbstractSharedInstance#numSharedValues()
+     */
+    @Override
+    protected int numSharedValues() {
+        return this.floatValues.length;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.util.AbstractSharedInstance#sharedStorage()
+     */
+    @Override
+    protected Object sharedStorage() {
+        return this.floatValues;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.util.AbstractSharedInstance#releaseSharedStorage()
+     */
+    @Override
+    protected void releaseSharedStorage() {
+        this.floatValues = null;
+    }
+
+    /*
+     * @see weka.core.Copyable#copy()
+     */
+    @Override
+    public Object copy() {
+        FloatInstance copy = new FloatInstance(this.m_Weight, this.floatValues, this.m_AttValues);
+        copy.m_Dataset = this.m_Dataset;
+        return copy;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.util.AbstractSharedInstance#forceDeleteAttributeAt(int)
+     */
+    @Override
+    protected void forceDeleteAttributeAt(int position) {
+        if (!isShared()) {
+            super.forceDeleteAttributeAt(position);
+            return;
+        }
+        // the values remain compact
+        float[] values = new float[this.floatValues.length - 1];
+        System.arraycopy(this.floatValues, 0, values, 0, position);
+        System.arraycopy(this.floatValues, position + 1, values, position,
+                         values.length - position);
+        this.floatValues = values;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.util.AbstractSharedInstance#forceInsertAttributeAt(int)
+     */
+    @Override
+    protected void forceInsertAttributeAt(int position) {
+        if (!isShared()) {
+            super.forceInsertAttributeAt(position);
+            return;
+        }
+        // the values remain compact
+        float[] values = new float[this.floatValues.length + 1];
+        System.arraycopy(this.floatValues, 0, values, 0, position);
+        values[position] = (float) Utils.missingValue();
+        System.arraycopy(this.floatValues, position, values, position + 1,
+                         this.floatValues.length - position);
+        this.floatValues = values;
+    }
+}
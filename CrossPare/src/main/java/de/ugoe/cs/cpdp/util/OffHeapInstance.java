@@ -0,0 +1,119 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.util;
+
+import weka.core.DenseInstance;
+
+/**
+ * <p>
+ * Weka instance that reads its values from a row of an {@link OffHeapStore}. The instance only
+ * holds the store, the index of the row, and its weight. Once a value of the instance is set, the
+ * instance copies its values to the heap.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class OffHeapInstance extends AbstractSharedInstance {
+
+    /**
+     * default serial version UID
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * the store; null if the values are stored in {@link #m_AttValues}
+     */
+    private OffHeapStore store;
+
+    /**
+     * index of the row of the instance in the store
+     */
+    private final int row;
+
+    /**
+     * <p>
+     * Creates a new instance.
+     * </p>
+     *
+     * @param store
+     *            the store
+     * @param row
+     *            index of the row of the instance in the store
+     * @param weight
+     *            weight of the instance
+     */
+    @SuppressWarnings("hiding")
+    public OffHeapInstance(OffHeapStore store, int row, double weight) {
+        this.store = store;
+        this.row = row;
+        this.m_Weight = weight;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.util.AbstractSharedInstance#sharedValue(int)
+     */
+    @Override
+    protected double sharedValue(int attIndex) {
+        return this.store.value(this.row, attIndex);
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.util.AbstractSharedInstance#numSharedValues()
+     */
+    @Override
+    protected int numSharedValues() {
+        return this.store.numAttributes();
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.util.AbstractSharedInstance#sharedStorage()
+     */
+    @Override
+    protected Object sharedStorage() {
+        return this.store;
+    }
+
+    /*
+     * @see de.ugoe.cs.cpdp.util.AbstractSharedInstance#releaseSharedStorage()
+     */
+    @Override
+    protected void releaseSharedStorage() {
+        this.store = null;
+    }
+
+    /*
+     * @see weka.core.Copyable#copy()
+     */
+    @Override
+    public Object copy() {
+        OffHeapInstance copy = new OffHeapInstance(this.store, this.row, this.m_Weight);
+        copy.m_AttValues = this.m_AttValues;
+        copy.m_Dataset = this.m_Dataset;
+        return copy;
+    }
+
+    /**
+     * <p>
+     * Serializes the instance as a {@link DenseInstance}, because the store is not serializable.
+     * </p>
+     *
+     * @return the dense instance that is serialized instead
+     */
+    private Object writeReplace() {
+        DenseInstance instance = new DenseInstance(this.m_Weight, toDoubleArray());
+        instance.setDataset(this.m_Dataset);
+        return instance;
+    }
+}
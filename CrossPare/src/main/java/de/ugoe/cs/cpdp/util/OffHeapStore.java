@@ -0,0 +1,227 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Read-only storage of the values of a data set outside of the Java heap. The values of all
+ * attributes, including the class attribute, are stored as columns of doubles, i.e., the values
+ * of an attribute are contiguous. The storage is either a direct buffer, to which the values are
+ * copied, or a view of a memory mapped file, e.g., the binary cache file of the loaders, which
+ * requires no copying at all. The memory of the storage is released once the storage and all
+ * instances that use it are garbage collected.
+ * </p>
+ * <p>
+ * Large data sets that are kept for a long time, e.g., the loaded versions from which the
+ * training data is pooled, do not burden the garbage collection of the heap if they are stored
+ * off-heap. Weka accesses the values through {@link OffHeapInstance}s, which are created by
+ * {@link #toInstances(Instances, double[])} and only hold the index of their row. Copies of the
+ * instances share the storage, i.e., pooling the data does not copy any values. Modified
+ * instances switch to values on the heap.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class OffHeapStore {
+
+    /**
+     * the values in column-major order
+     */
+    private final DoubleBuffer values;
+
+    /**
+     * number of rows, i.e., instances
+     */
+    private final int numRows;
+
+    /**
+     * number of attributes
+     */
+    private final int numAttributes;
+
+    /**
+     * <p>
+     * Creates a new store.
+     * </p>
+     *
+     * @param values
+     *            the values in column-major order
+     * @param numRows
+     *            number of rows
+     * @param numAttributes
+     *            number of attributes
+     */
+    @SuppressWarnings("hiding")
+    private OffHeapStore(DoubleBuffer values, int numRows, int numAttributes) {
+        this.values = values;
+        this.numRows = numRows;
+        this.numAttributes = numAttributes;
+    }
+
+    /**
+     * <p>
+     * Creates a store in a direct buffer that contains a copy of the values of the data.
+     * </p>
+     *
+     * @param data
+     *            the data
+     * @return the store
+     */
+    public static OffHeapStore create(Instances data) {
+        int numRows = data.numInstances();
+        int numAttributes = data.numAttributes();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(checkedSize(numRows, numAttributes))
+            .order(ByteOrder.nativeOrder());
+        DoubleBuffer values = buffer.asDoubleBuffer();
+        for (int i = 0; i < numRows; i++) {
+            Instance instance = data.instance(i);
+            for (int j = 0; j < numAttributes; j++) {
+                values.put(j * numRows + i, instance.value(j));
+            }
+        }
+        return new OffHeapStore(values, numRows, numAttributes);
+    }
+
+    /**
+     * <p>
+     * Creates a store that is a view of the columns of doubles at the current position of a
+     * buffer, e.g., a memory mapped file. The values are not copied. The position of the buffer is
+     * moved behind the columns.
+     * </p>
+     *
+     * @param buffer
+     *            the buffer; the byte order of the buffer is used
+     * @param numRows
+     *            number of rows
+     * @param numAttributes
+     *            number of attributes
+     * @return the store
+     */
+    public static OffHeapStore wrap(ByteBuffer buffer, int numRows, int numAttributes) {
+        int size = checkedSize(numRows, numAttributes);
+        ByteBuffer columns = buffer.duplicate();
+        columns.limit(buffer.position() + size);
+        columns = columns.slice().order(buffer.order());
+        buffer.position(buffer.position() + size);
+        return new OffHeapStore(columns.asDoubleBuffer(), numRows, numAttributes);
+    }
+
+    /**
+     * <p>
+     * Replaces all instances of the data with {@link OffHeapInstance}s whose values are stored in
+     * a new direct buffer. The order of the instances, their weights, and the header of the data
+     * are not changed.
+     * </p>
+     *
+     * @param data
+     *            the data
+     */
+    public static void moveOffHeap(Instances data) {
+        OffHeapStore store = create(data);
+        for (int i = 0; i < data.numInstances(); i++) {
+            // the instance is copied by Instances.set, which shares the store
+            data.set(i, new OffHeapInstance(store, i, data.instance(i).weight()));
+        }
+    }
+
+    /**
+     * <p>
+     * Creates the instances of the store.
+     * </p>
+     *
+     * @param header
+     *            header of the data; the instances are added to a copy of the header
+     * @param weights
+     *            weights of the instances
+     * @return the data
+     */
+    public Instances toInstances(Instances header, double[] weights) {
+        if (header.numAttributes() != this.numAttributes || weights.length != this.numRows) {
+            throw new IllegalArgumentException("header and weights do not match the size of the " +
+                "store (" + this.numRows + "x" + this.numAttributes + ")");
+        }
+        Instances data = new Instances(header, this.numRows);
+        for (int i = 0; i < this.numRows; i++) {
+            data.add(new OffHeapInstance(this, i, weights[i]));
+        }
+        return data;
+    }
+
+    /**
+     * <p>
+     * returns the number of rows, i.e., instances
+     * </p>
+     *
+     * @return number of rows
+     */
+    public int numRows() {
+        return this.numRows;
+    }
+
+    /**
+     * <p>
+     * returns the number of attributes
+     * </p>
+     *
+     * @return number of attributes
+     */
+    public int numAttributes() {
+        return this.numAttributes;
+    }
+
+    /**
+     * <p>
+     * returns a value; reading values is thread-safe
+     * </p>
+     *
+     * @param row
+     *            index of the row
+     * @param attIndex
+     *            index of the attribute
+     * @return the value
+     */
+    public double value(int row, int attIndex) {
+        return this.values.get(attIndex * this.numRows + row);
+    }
+
+    /**
+     * <p>
+     * returns the size of a store in bytes
+     * </p>
+     *
+     * @param numRows
+     *            number of rows
+     * @param numAttributes
+     *            number of attributes
+     * @return the size
+     * @throws IllegalArgumentException
+     *             thrown if the size exceeds the maximal size of a buffer
+     */
+    private static int checkedSize(int numRows, int numAttributes) {
+        long size = (long) numRows * numAttributes * Double.BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("data too large for an off-heap store: " + numRows +
+                "x" + numAttributes);
+        }
+        return (int) size;
+    }
+}
@@ -15,10 +15,9 @@
 package de.ugoe.cs.cpdp.util;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.logging.Level;
 
-import org.apache.commons.math3.ml.distance.EuclideanDistance;
-
 import de.ugoe.cs.util.console.Console;
 import weka.classifiers.Classifier;
 import weka.classifiers.functions.RBFNetwork;
@@ -37,6 +36,48 @@ import weka.core.Instances;
  */
 public class WekaUtils {
 
+    /**
+     * <p>
+     * Data set that allows adding instances without copying them. Used to concatenate data sets.
+     * </p>
+     * 
+     * @author Steffen Herbold
+     */
+    private static class ConcatenatedInstances extends Instances {
+
+        /**
+         * default serial version UID
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * <p>
+         * Constructor. Creates an empty data set with the header of another data set.
+         * </p>
+         *
+         * @param header
+         *            data set whose header is used
+         * @param capacity
+         *            number of instances of the data set
+         */
+        ConcatenatedInstances(Instances header, int capacity) {
+            super(header, capacity);
+        }
+
+        /**
+         * <p>
+         * Appends an instance without copying it. The instance then belongs to this data set.
+         * </p>
+         *
+         * @param instance
+         *            the instance
+         */
+        void append(Instance instance) {
+            instance.setDataset(this);
+            this.m_Instances.add(instance);
+        }
+    }
+
     /**
      * <p>
      * Data class for distance between instances within a data set based on their distributional
@@ -168,7 +209,6 @@ public class WekaUtils {
         int l = 0;
         double[] inst1 = new double[data.numAttributes() - 1];
         double[] inst2 = new double[data.numAttributes() - 1];
-        EuclideanDistance euclideanDistance = new EuclideanDistance();
         for (int i = 0; i < data.numInstances(); i++) {
             l = 0;
             for (int k = 0; k < data.numAttributes(); k++) {
@@ -184,7 +224,7 @@ public class WekaUtils {
                             inst2[l] = data.instance(j).value(k);
                         }
                     }
-                    distance = euclideanDistance.compute(inst1, inst2);
+                    distance = DistanceKernels.distance(inst1, inst2);
                     sumAll += distance;
                     sumAllQ += distance * distance;
                     numCmp++;
@@ -393,4 +433,36 @@ public class WekaUtils {
             throw new RuntimeException("class attribute invalid: neither numeric nor nominal");
         }
     }
+
+    /**
+     * <p>
+     * Concatenates data sets with the same header into a single data set. The data set is created
+     * with the total number of instances as capacity, i.e., it does not grow while the instances
+     * are added. If the instances are not copied, they are moved to the concatenated data set.
+     * This is only allowed if the original data sets are not used anymore afterwards.
+     * </p>
+     *
+     * @param datasets
+     *            data sets that are concatenated
+     * @param copyInstances
+     *            if true, the instances are copied; if false, the instances are moved
+     * @return concatenated data set; null if no data sets are given
+     */
+    public static Instances concatenate(Collection<Instances> datasets, boolean copyInstances) {
+        if (datasets.isEmpty()) {
+            return null;
+        }
+        int numInstances = 0;
+        for (Instances data : datasets) {
+            numInstances += data.numInstances();
+        }
+        ConcatenatedInstances concatenated =
+            new ConcatenatedInstances(datasets.iterator().next(), numInstances);
+        for (Instances data : datasets) {
+            for (Instance instance : data) {
+                concatenated.append(copyInstances ? (Instance) instance.copy() : instance);
+            }
+        }
+        return concatenated;
+    }
 }
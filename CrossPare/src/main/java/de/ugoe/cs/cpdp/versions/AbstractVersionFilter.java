@@ -18,12 +18,20 @@ import java.util.Iterator;
 import java.util.List;
 
 /**
- * Implements a skeletal {@link IVersionFilter}.
+ * Implements a skeletal {@link IVersionFilter}. Versions are filtered based on their metadata.
  * 
  * @author Steffen Herbold
  */
 public abstract class AbstractVersionFilter implements IVersionFilter {
 
+    /*
+     * @see de.ugoe.cs.cpdp.versions.IVersionFilter#apply(de.ugoe.cs.cpdp.versions.SoftwareVersion)
+     */
+    @Override
+    public boolean apply(SoftwareVersion version) {
+        return apply(version.getMetadata());
+    }
+
     /*
      * @see de.ugoe.cs.cpdp.versions.IVersionFilter#apply(java.util.List)
      */
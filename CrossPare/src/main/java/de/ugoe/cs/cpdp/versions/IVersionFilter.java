@@ -34,6 +34,16 @@ public interface IVersionFilter extends IParameterizable {
      */
     boolean apply(SoftwareVersion version);
 
+    /**
+     * Applies the filter to the metadata of a single version, i.e., before the data of the
+     * version is loaded.
+     * 
+     * @param metadata
+     *            metadata of the version
+     * @return true if filter applies to version, false otherwise
+     */
+    boolean apply(VersionMetadata metadata);
+
     /**
      * Applies the filter a a list of versions. Versions were the filter applies are automatically
      * removed from the list.
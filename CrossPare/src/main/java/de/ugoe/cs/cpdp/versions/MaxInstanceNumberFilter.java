@@ -28,11 +28,11 @@ public class MaxInstanceNumberFilter extends AbstractVersionFilter {
     private int maxInstances = 0;
 
     /**
-     * @see de.ugoe.cs.cpdp.versions.IVersionFilter#apply(de.ugoe.cs.cpdp.versions.SoftwareVersion)
+     * @see de.ugoe.cs.cpdp.versions.IVersionFilter#apply(de.ugoe.cs.cpdp.versions.VersionMetadata)
      */
     @Override
-    public boolean apply(SoftwareVersion version) {
-        return version.getInstances().numInstances() > this.maxInstances;
+    public boolean apply(VersionMetadata metadata) {
+        return metadata.getNumInstances() > this.maxInstances;
     }
 
     /**
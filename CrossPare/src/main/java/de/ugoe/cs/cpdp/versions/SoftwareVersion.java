@@ -14,13 +14,24 @@
 
 package de.ugoe.cs.cpdp.versions;
 
+import java.lang.ref.SoftReference;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 import weka.core.Instances;
 
 /**
  * Data class for software versions.
  * 
+ * <p>
+ * Versions are either eager or lazy. Eager versions hold their data for their whole lifetime.
+ * Lazy versions only hold their {@link VersionMetadata} and obtain their data from a supplier that
+ * is defined by the loader. The data of lazy versions is only softly referenced and retained by
+ * the {@link VersionDataCache} while it is in use. Hence, the data may be garbage collected if
+ * the memory is low and is then provided by the supplier again.
+ * </p>
+ * 
  * @author Steffen Herbold
  */
 public class SoftwareVersion implements Comparable<SoftwareVersion> {
@@ -38,19 +49,25 @@ public class SoftwareVersion implements Comparable<SoftwareVersion> {
     private final String version;
 
     /**
-     * data of the version
+     * data of the version, i.e., the instances, the review effort per instance, and the number of
+     * bugs per instance (binary 0/1 in case of nominal loading); null for lazy versions
      */
-    private final Instances instances;
+    private final VersionData data;
 
     /**
-     * Review effort per instance.
+     * supplier of the data of lazy versions; null for eager versions
      */
-    private final List<Double> efforts;
+    private final Supplier<VersionData> supplier;
 
     /**
-     * Number of bugs per instance. Binary 0/1 in case of nominal loading.
+     * soft reference to the data of lazy versions
      */
-    private final List<Double> numBugs;
+    private SoftReference<VersionData> reference;
+
+    /**
+     * metadata of the version; computed from the data if it is not defined by the loader
+     */
+    private VersionMetadata metadata;
 
     /**
      * Constructor. Creates a new version.
@@ -80,9 +97,62 @@ public class SoftwareVersion implements Comparable<SoftwareVersion> {
         this.dataset = dataset;
         this.project = project;
         this.version = version;
-        this.instances = instances;
-        this.efforts = efforts;
-        this.numBugs = numBugs;
+        this.data = new VersionData(instances, efforts, numBugs);
+        this.supplier = null;
+        this.reference = null;
+        this.metadata = null;
+    }
+
+    /**
+     * <p>
+     * Constructor. Creates a new version, whose name is defined by its metadata.
+     * </p>
+     *
+     * @param metadata
+     *            metadata of the version
+     * @param instances
+     *            data of the version
+     * @param efforts
+     *            review efforts for the version
+     * @param numBugs
+     *            number of bugs for the instances
+     */
+    @SuppressWarnings("hiding")
+    public SoftwareVersion(VersionMetadata metadata,
+                           Instances instances,
+                           List<Double> efforts,
+                           List<Double> numBugs)
+    {
+        this(metadata.getDataset(), metadata.getProject(), metadata.getVersion(), instances,
+             efforts, numBugs);
+        this.metadata = metadata;
+    }
+
+    /**
+     * <p>
+     * Constructor. Creates a new lazy version, whose data is provided by a supplier. The supplier
+     * may be called multiple times, because the data of lazy versions may be garbage collected.
+     * </p>
+     *
+     * @param metadata
+     *            metadata of the version
+     * @param supplier
+     *            supplier of the data of the version
+     * @param data
+     *            data of the version that is already loaded; may be null
+     */
+    @SuppressWarnings("hiding")
+    public SoftwareVersion(VersionMetadata metadata,
+                           Supplier<VersionData> supplier,
+                           VersionData data)
+    {
+        this.dataset = metadata.getDataset();
+        this.project = metadata.getProject();
+        this.version = metadata.getVersion();
+        this.data = null;
+        this.supplier = supplier;
+        this.reference = data == null ? null : new SoftReference<>(data);
+        this.metadata = metadata;
     }
 
     /**
@@ -115,34 +185,107 @@ public class SoftwareVersion implements Comparable<SoftwareVersion> {
     }
 
     /**
-     * returns the data of the version
+     * returns a copy of the data of the version. The copy may be modified.
      * 
      * @return data
      */
     public Instances getInstances() {
-        return new Instances(this.instances);
+        return new Instances(getData().getInstances());
     }
 
     /**
      * <p>
-     * returns the review effort of the version
+     * returns the data of the version without copying it. The data is shared with all other users
+     * of the version, possibly from other experiments and threads. Hence, the data must not be
+     * modified. Use {@link #getInstances()} to get a copy that may be modified.
+     * </p>
+     *
+     * @return data
+     */
+    public Instances getReadOnlyInstances() {
+        return getData().getInstances();
+    }
+
+    /**
+     * <p>
+     * returns the metadata of the version
+     * </p>
+     *
+     * @return the metadata
+     */
+    public synchronized VersionMetadata getMetadata() {
+        if (this.metadata == null) {
+            this.metadata = VersionMetadata.create(this.dataset, this.project, this.version, null,
+                                                   this.data.getInstances());
+        }
+        return this.metadata;
+    }
+
+    /**
+     * <p>
+     * returns the review effort of the version. The returned list is read-only, because versions
+     * may be shared between experiments.
      * </p>
      *
      * @return the review efforts
      */
     public List<Double> getEfforts() {
-        return this.efforts;
+        List<Double> efforts = getData().getEfforts();
+        if (efforts == null) {
+            return null;
+        }
+        return Collections.unmodifiableList(efforts);
     }
 
     /**
      * <p>
-     * returns the number of bugs for the instances
+     * returns the number of bugs for the instances. The returned list is read-only, because
+     * versions may be shared between experiments.
      * </p>
      *
      * @return the bug counts
      */
     public List<Double> getNumBugs() {
-        return this.numBugs;
+        List<Double> numBugs = getData().getNumBugs();
+        if (numBugs == null) {
+            return null;
+        }
+        return Collections.unmodifiableList(numBugs);
+    }
+
+    /**
+     * <p>
+     * returns true if the data of the version is provided by a supplier
+     * </p>
+     *
+     * @return true if the version is lazy
+     */
+    public boolean isLazy() {
+        return this.supplier != null;
+    }
+
+    /**
+     * <p>
+     * returns the data of the version. The data of lazy versions is obtained from the supplier if
+     * it is not referenced anymore and marked as recently used in the {@link VersionDataCache}.
+     * </p>
+     *
+     * @return the data
+     */
+    private VersionData getData() {
+        if (this.supplier == null) {
+            return this.data;
+        }
+        VersionData lazyData;
+        synchronized (this) {
+            lazyData = this.reference == null ? null : this.reference.get();
+            if (lazyData == null) {
+                lazyData = this.supplier.get();
+                this.reference = new SoftReference<>(lazyData);
+            }
+        }
+        VersionDataCache.getInstance().retain(this, lazyData);
+        return lazyData;
     }
 
     /**
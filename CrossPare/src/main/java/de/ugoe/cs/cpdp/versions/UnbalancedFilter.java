@@ -14,8 +14,6 @@
 
 package de.ugoe.cs.cpdp.versions;
 
-import weka.core.Instances;
-
 /**
  * Removes unbalanced data sets in terms of classification. All data sets that are outside of the
  * quantil defined by setParameter (default=0.1) are removed.
@@ -41,15 +39,13 @@ public class UnbalancedFilter extends AbstractVersionFilter {
     }
 
     /**
-     * @see de.ugoe.cs.cpdp.versions.IVersionFilter#apply(de.ugoe.cs.cpdp.versions.SoftwareVersion)
+     * @see de.ugoe.cs.cpdp.versions.IVersionFilter#apply(de.ugoe.cs.cpdp.versions.VersionMetadata)
      */
     @Override
-    public boolean apply(SoftwareVersion version) {
-        final Instances instances = version.getInstances();
-
-        final int[] counts = instances.attributeStats(instances.classIndex()).nominalCounts;
-        return ((double) counts[0]) / instances.numInstances() >= (1 - this.quantil) ||
-            ((double) counts[0]) / instances.numInstances() <= (this.quantil);
+    public boolean apply(VersionMetadata metadata) {
+        final int[] counts = metadata.getClassCounts();
+        return ((double) counts[0]) / metadata.getNumInstances() >= (1 - this.quantil) ||
+            ((double) counts[0]) / metadata.getNumInstances() <= (this.quantil);
     }
 
 }
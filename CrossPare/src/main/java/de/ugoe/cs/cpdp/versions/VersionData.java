@@ -0,0 +1,97 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.versions;
+
+import java.util.List;
+
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Data of a {@link SoftwareVersion}, i.e., the instances, the review efforts, and the number of
+ * bugs. The data is provided to lazy versions by the loaders.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class VersionData {
+
+    /**
+     * data of the version
+     */
+    private final Instances instances;
+
+    /**
+     * review effort per instance
+     */
+    private final List<Double> efforts;
+
+    /**
+     * number of bugs per instance
+     */
+    private final List<Double> numBugs;
+
+    /**
+     * <p>
+     * Creates new data.
+     * </p>
+     *
+     * @param instances
+     *            data of the version
+     * @param efforts
+     *            review efforts for the version
+     * @param numBugs
+     *            number of bugs for the instances
+     */
+    @SuppressWarnings("hiding")
+    public VersionData(Instances instances, List<Double> efforts, List<Double> numBugs) {
+        this.instances = instances;
+        this.efforts = efforts;
+        this.numBugs = numBugs;
+    }
+
+    /**
+     * <p>
+     * returns the instances
+     * </p>
+     *
+     * @return the instances
+     */
+    public Instances getInstances() {
+        return this.instances;
+    }
+
+    /**
+     * <p>
+     * returns the review efforts
+     * </p>
+     *
+     * @return the review efforts
+     */
+    public List<Double> getEfforts() {
+        return this.efforts;
+    }
+
+    /**
+     * <p>
+     * returns the number of bugs
+     * </p>
+     *
+     * @return the number of bugs
+     */
+    public List<Double> getNumBugs() {
+        return this.numBugs;
+    }
+}
@@ -0,0 +1,140 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.versions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Process-wide cache for the data of lazy {@link SoftwareVersion}s. Lazy versions only hold their
+ * data through soft references, i.e., the data may be garbage collected at any time and is then
+ * provided by the loader again. The cache holds strong references to the data of the most recently
+ * used versions, such that the data that is currently in use, e.g., the test version and the
+ * training versions of an iteration, is not collected. The number of cached versions is bounded by
+ * the capacity of the cache; the least recently used versions are evicted first.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class VersionDataCache {
+
+    /**
+     * default capacity of the cache
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * the process-wide instance of the cache
+     */
+    private static final VersionDataCache INSTANCE = new VersionDataCache();
+
+    /**
+     * maximal number of cached versions
+     */
+    private int capacity = DEFAULT_CAPACITY;
+
+    /**
+     * cached data in the order of its last use
+     */
+    private final Map<SoftwareVersion, VersionData> entries =
+        new LinkedHashMap<SoftwareVersion, VersionData>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SoftwareVersion, VersionData> eldest) {
+                return size() > VersionDataCache.this.capacity;
+            }
+        };
+
+    /**
+     * <p>
+     * returns the process-wide instance of the cache
+     * </p>
+     *
+     * @return the cache
+     */
+    public static VersionDataCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * <p>
+     * Sets the maximal number of versions whose data is cached. If the capacity is reduced, the
+     * least recently used versions are evicted.
+     * </p>
+     *
+     * @param capacity
+     *            the capacity; must not be negative
+     */
+    @SuppressWarnings("hiding")
+    public synchronized void setCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+        }
+        this.capacity = capacity;
+        while (this.entries.size() > capacity) {
+            this.entries.remove(this.entries.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * <p>
+     * returns the maximal number of versions whose data is cached
+     * </p>
+     *
+     * @return the capacity
+     */
+    public synchronized int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * <p>
+     * returns the number of versions whose data is currently cached
+     * </p>
+     *
+     * @return number of cached versions
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * <p>
+     * Removes all data from the cache.
+     * </p>
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+
+    /**
+     * <p>
+     * Marks the data of a version as recently used.
+     * </p>
+     *
+     * @param version
+     *            the version
+     * @param data
+     *            data of the version
+     */
+    synchronized void retain(SoftwareVersion version, VersionData data) {
+        if (this.capacity > 0) {
+            this.entries.put(version, data);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+// Copyright 2015 Georg-August-Universität Göttingen, Germany
+//
+//   Licensed under the Apache License, Version 2.0 (the "License");
+//   you may not use this file except in compliance with the License.
+//   You may obtain a copy of the License at
+//
+//       http://www.apache.org/licenses/LICENSE-2.0
+//
+//   Unless required by applicable law or agreed to in writing, software
+//   distributed under the License is distributed on an "AS IS" BASIS,
+//   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+//   See the License for the specific language governing permissions and
+//   limitations under the License.
+
+package de.ugoe.cs.cpdp.versions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import weka.core.Instance;
+import weka.core.Instances;
+
+/**
+ * <p>
+ * Lightweight description of a {@link SoftwareVersion}, i.e., the name of the version, the number
+ * of instances, the number of instances per class, and the names of the attributes. The metadata
+ * is sufficient for the {@link IVersionFilter}s, such that versions can be filtered before their
+ * data is loaded.
+ * </p>
+ * <p>
+ * The class counts are the number of instances of each value of a nominal class attribute. For
+ * numeric class attributes, the class counts are the number of instances whose value is zero and
+ * the number of instances whose value is not zero.
+ * </p>
+ *
+ * @author Steffen Herbold
+ */
+public class VersionMetadata {
+
+    /**
+     * name of the data set
+     */
+    private final String dataset;
+
+    /**
+     * name of the project
+     */
+    private final String project;
+
+    /**
+     * name of the version
+     */
+    private final String version;
+
+    /**
+     * source of the version that is used by the loader to load the data, e.g., the path of the
+     * version file relative to the data folder; may be null
+     */
+    private final String source;
+
+    /**
+     * number of instances
+     */
+    private final int numInstances;
+
+    /**
+     * number of instances per class
+     */
+    private final int[] classCounts;
+
+    /**
+     * names of the attributes
+     */
+    private final List<String> attributeNames;
+
+    /**
+     * <p>
+     * Creates new metadata.
+     * </p>
+     *
+     * @param dataset
+     *            name of the data set
+     * @param project
+     *            name of the project
+     * @param version
+     *            name of the version
+     * @param source
+     *            source of the version that is used by the loader to load the data; may be null
+     * @param numInstances
+     *            number of instances
+     * @param classCounts
+     *            number of instances per class
+     * @param attributeNames
+     *            names of the attributes
+     */
+    @SuppressWarnings("hiding")
+    public VersionMetadata(String dataset,
+                           String project,
+                           String version,
+                           String source,
+                           int numInstances,
+                           int[] classCounts,
+                           List<String> attributeNames)
+    {
+        this.dataset = dataset;
+        this.project = project;
+        this.version = version;
+        this.source = source;
+        this.numInstances = numInstances;
+        this.classCounts = classCounts.clone();
+        this.attributeNames = Collections.unmodifiableList(new ArrayList<>(attributeNames));
+    }
+
+    /**
+     * <p>
+     * Creates the metadata of the data of a version.
+     * </p>
+     *
+     * @param dataset
+     *            name of the data set
+     * @param project
+     *            name of the project
+     * @param version
+     *            name of the version
+     * @param source
+     *            source of the version that is used by the loader to load the data; may be null
+     * @param data
+     *            data of the version
+     * @return the metadata
+     */
+    public static VersionMetadata create(String dataset,
+                                         String project,
+                                         String version,
+                                         String source,
+                                         Instances data)
+    {
+        int[] classCounts;
+        if (data.classAttribute().isNominal()) {
+            classCounts = new int[data.classAttribute().numValues()];
+            for (Instance instance : data) {
+                if (!instance.classIsMissing()) {
+                    classCounts[(int) instance.classValue()]++;
+                }
+            }
+        }
+        else if (data.classAttribute().isNumeric()) {
+            // count values == 0.0 and values!=0
+            classCounts = new int[2];
+            for (Instance instance : data) {
+                if (instance.classValue() > 0.0 || instance.classValue() < 0.0) {
+                    classCounts[1]++;
+                }
+                else {
+                    classCounts[0]++;
+                }
+            }
+        }
+        else {
+            throw new RuntimeException("class attribute invalid: neither numeric nor nominal");
+        }
+        List<String> attributeNames = new ArrayList<>(data.numAttributes());
+        for (int j = 0; j < data.numAttributes(); j++) {
+            attributeNames.add(data.attribute(j).name());
+        }
+        return new VersionMetadata(dataset, project, version, source, data.numInstances(),
+                                   classCounts, attributeNames);
+    }
+
+    /**
+     * <p>
+     * returns the name of the data set
+     * </p>
+     *
+     * @return data set name
+     */
+    public String getDataset() {
+        return this.dataset;
+    }
+
+    /**
+     * <p>
+     * returns the name of the project
+     * </p>
+     *
+     * @return project name
+     */
+    public String getProject() {
+        return this.project;
+    }
+
+    /**
+     * <p>
+     * returns the name of the version
+     * </p>
+     *
+     * @return name of the version
+     */
+    public String getVersion() {
+        return this.version;
+    }
+
+    /**
+     * <p>
+     * returns the source of the version that is used by the loader to load the data
+     * </p>
+     *
+     * @return the source; may be null
+     */
+    public String getSource() {
+        return this.source;
+    }
+
+    /**
+     * <p>
+     * returns the number of instances
+     * </p>
+     *
+     * @return number of instances
+     */
+    public int getNumInstances() {
+        return this.numInstances;
+    }
+
+    /**
+     * <p>
+     * returns the number of instances per class
+     * </p>
+     *
+     * @return the class counts
+     */
+    public int[] getClassCounts() {
+        return this.classCounts.clone();
+    }
+
+    /**
+     * <p>
+     * returns the names of the attributes, including the class attribute
+     * </p>
+     *
+     * @return the attribute names
+     */
+    public List<String> getAttributeNames() {
+        return this.attributeNames;
+    }
+}
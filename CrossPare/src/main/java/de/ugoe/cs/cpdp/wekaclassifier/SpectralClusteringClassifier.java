@@ -4,13 +4,14 @@ package de.ugoe.cs.cpdp.wekaclassifier;
 import java.util.Arrays;
 import java.util.logging.Level;
 
-import org.apache.commons.math3.util.MathArrays;
 import org.ojalgo.access.Access2D.Builder;
 import org.ojalgo.matrix.PrimitiveMatrix;
 import org.ojalgo.matrix.jama.JamaEigenvalue;
 import org.ojalgo.matrix.jama.JamaEigenvalue.General;
 import org.ojalgo.matrix.jama.JamaMatrix;
 
+import de.ugoe.cs.cpdp.util.DataMatrix;
+import de.ugoe.cs.cpdp.util.DistanceKernels;
 import de.ugoe.cs.cpdp.util.WekaUtils;
 import de.ugoe.cs.util.console.Console;
 import weka.classifiers.AbstractClassifier;
@@ -158,23 +159,7 @@ public class SpectralClusteringClassifier extends AbstractClassifier {
     private static PrimitiveMatrix createAdjecencyMatrix(Instances traindata) {
         Builder<PrimitiveMatrix> adjecencyBuilder =
             PrimitiveMatrix.getBuilder(traindata.size(), traindata.size());
-
-        for (int i = 0; i < traindata.size(); i++) {
-            for (int j = 0; j < traindata.size(); j++) {
-                if (i == j) {
-                    adjecencyBuilder.set(i, j, 0.0);
-                }
-                else {
-                    double distance =
-                        MathArrays.distance(WekaUtils.instanceValues(traindata.get(i)),
-                                            WekaUtils.instanceValues(traindata.get(j)));
-                    if (distance < 0.0) {
-                        distance = 0.0;
-                    }
-                    adjecencyBuilder.set(i, j, distance);
-                }
-            }
-        }
+        DistanceKernels.distances(DataMatrix.get(traindata).getRows(), adjecencyBuilder::set);
 
         return adjecencyBuilder.build();
     }
@@ -21,6 +21,7 @@ import java.util.Random;
 import java.util.logging.Level;
 import java.util.stream.IntStream;
 
+import de.ugoe.cs.cpdp.util.DataStatistics;
 import de.ugoe.cs.cpdp.util.SortUtils;
 import de.ugoe.cs.util.console.Console;
 import weka.classifiers.AbstractClassifier;
@@ -252,10 +253,11 @@ public class VCBSVM extends AbstractClassifier implements ITestAwareClassifier {
         double[] maxAttValues = new double[data.numAttributes()];
         Double[] weights = new Double[data.numInstances()];
 
+        DataStatistics statistics = DataStatistics.get(this.testdata);
         for (int j = 0; j < data.numAttributes(); j++) {
             if (j != data.classIndex()) {
-                minAttValues[j] = this.testdata.attributeStats(j).numericStats.min;
-                maxAttValues[j] = this.testdata.attributeStats(j).numericStats.max;
+                minAttValues[j] = statistics.getMin(j);
+                maxAttValues[j] = statistics.getMax(j);
             }
         }
 
@@ -1,8 +1,16 @@
 package de.ugoe.cs.cpdp;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.ugoe.cs.cpdp.loader.DecentFolderLoader;
 
 import static org.junit.Assert.*;
 
@@ -15,6 +23,9 @@ import static org.junit.Assert.*;
  */
 public class ExperimentConfigurationTest {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void validateConfigurations() {
 		validateConfigurations("testdata/configurations");
@@ -37,4 +48,64 @@ public class ExperimentConfigurationTest {
 		if(error) fail();
 	}
 
+	@Test
+	public void testCopy() throws Exception {
+		File configFolder = new File("testdata/configurations");
+		for( File configFile : configFolder.listFiles() ) {
+			if( configFile.isFile() ) {
+				ExperimentConfiguration config = new ExperimentConfiguration(configFile);
+				ExperimentConfiguration copy = new ExperimentConfiguration(config);
+				String message = configFile.getName();
+				assertEquals(message, config.getConfigFile(), copy.getConfigFile());
+				assertEquals(message, config.getExperimentName(), copy.getExperimentName());
+				assertEquals(message, config.getResultsPath(), copy.getResultsPath());
+				assertEquals(message, config.getRepetitions(), copy.getRepetitions());
+				assertEquals(message, config.getRepetitionSeed(), copy.getRepetitionSeed());
+				assertEquals(message, config.getExecutionStrategy(), copy.getExecutionStrategy());
+				assertEquals(message, config.getLoaders(), copy.getLoaders());
+				assertEquals(message, config.getResultStorages(), copy.getResultStorages());
+				assertNewInstances(message, config.getVersionFilters(), copy.getVersionFilters());
+				assertNewInstances(message, config.getTestVersionFilters(), copy.getTestVersionFilters());
+				assertNewInstances(message, config.getTrainingVersionFilters(), copy.getTrainingVersionFilters());
+				assertNewInstances(message, config.getSetWisePreprocessors(), copy.getSetWisePreprocessors());
+				assertNewInstances(message, config.getSetWiseSelectors(), copy.getSetWiseSelectors());
+				assertNewInstances(message, config.getSetWisePostprocessors(), copy.getSetWisePostprocessors());
+				assertNewInstances(message, config.getSetWiseTrainers(), copy.getSetWiseTrainers());
+				assertNewInstances(message, config.getSetWiseTestdataAwareTrainers(), copy.getSetWiseTestdataAwareTrainers());
+				assertNewInstances(message, config.getPreProcessors(), copy.getPreProcessors());
+				assertNewInstances(message, config.getPointWiseSelectors(), copy.getPointWiseSelectors());
+				assertNewInstances(message, config.getPostProcessors(), copy.getPostProcessors());
+				assertNewInstances(message, config.getTrainers(), copy.getTrainers());
+				assertNewInstances(message, config.getTestAwareTrainers(), copy.getTestAwareTrainers());
+				assertNewInstances(message, config.getEvaluators(), copy.getEvaluators());
+			}
+		}
+	}
+
+	@Test
+	public void testLoader_concurrentTransformation() throws Exception {
+		File configFile = folder.newFile("exp.xml");
+		Files.write(configFile.toPath(), Arrays.asList(
+				"<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+				"<config xmlns=\"experimentconfig\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:schemaLocation=\"experimentconfig experimentconfig.xsd\">",
+				" <loader name=\"DecentFolderLoader\" datalocation=\"decent\" concurrenttransformation=\"true\"/>",
+				" <loader name=\"DecentFolderLoader\" datalocation=\"decent\"/>",
+				" <loader name=\"CSVFolderLoader\" datalocation=\"csv\" concurrenttransformation=\"true\"/>",
+				"</config>"), StandardCharsets.UTF_8);
+
+		ExperimentConfiguration config = new ExperimentConfiguration(configFile);
+
+		assertEquals(3, config.getLoaders().size());
+		assertTrue(((DecentFolderLoader) config.getLoaders().get(0)).isConcurrentTransformation());
+		assertFalse(((DecentFolderLoader) config.getLoaders().get(1)).isConcurrentTransformation());
+	}
+
+	private static void assertNewInstances(String message, List<?> expected, List<?> actual) {
+		assertEquals(message, expected.size(), actual.size());
+		for( int i=0; i<expected.size(); i++ ) {
+			assertEquals(message, expected.get(i).getClass(), actual.get(i).getClass());
+			assertNotSame(message, expected.get(i), actual.get(i));
+		}
+	}
+
 }
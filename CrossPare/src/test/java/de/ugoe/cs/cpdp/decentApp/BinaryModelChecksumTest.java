@@ -0,0 +1,98 @@
+package de.ugoe.cs.cpdp.decentApp;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.HashMap;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.ugoe.cs.cpdp.decentApp.models.arffx.ARFFxFactory;
+import de.ugoe.cs.cpdp.decentApp.models.arffx.ARFFxPackage;
+import de.ugoe.cs.cpdp.decentApp.models.arffx.Model;
+
+public class BinaryModelChecksumTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private ARFFxResourceTool tool;
+
+	private String modelLocation;
+
+	@Before
+	public void setUp() throws Exception {
+		tool = new ARFFxResourceTool();
+		modelLocation = new File(folder.getRoot(), "model.arffx").getAbsolutePath();
+		Model model = ARFFxFactory.eINSTANCE.createModel();
+		model.setName("original");
+		Resource resource = new ResourceImpl();
+		resource.getContents().add(model);
+		tool.storeResourceContents(resource.getContents(), modelLocation, "arffx");
+	}
+
+	private void convert() {
+		Resource resource = tool.loadResourceFromXMI(modelLocation, "arffx", ARFFxPackage.eINSTANCE);
+		ResourceTool.storeBinaryResourceContents(resource.getContents(), modelLocation + "bin",
+				"arffxbin");
+		BinaryModelChecksum.store(modelLocation);
+	}
+
+	private Resource loadBinary() {
+		return ResourceTool.loadResourceFromBinary(modelLocation + "bin", "arffxbin",
+				ARFFxPackage.eINSTANCE);
+	}
+
+	@Test
+	public void testNotConverted() {
+		assertFalse(BinaryModelChecksum.isUpToDate(modelLocation));
+	}
+
+	@Test
+	public void testConverted() {
+		convert();
+		assertTrue(BinaryModelChecksum.isUpToDate(modelLocation));
+		assertEquals("original", ((Model) loadBinary().getContents().get(0)).getName());
+	}
+
+	@Test
+	public void testBinaryStoredOnDisposal() throws Exception {
+		convert();
+
+		// a model loaded with write access stores the binary resource on disposal
+		Resource resource = loadBinary();
+		((Model) resource.getContents().get(0)).setName("preprocessed");
+		resource.save(new HashMap<>());
+		assertFalse(BinaryModelChecksum.isUpToDate(modelLocation));
+
+		convert();
+		assertTrue(BinaryModelChecksum.isUpToDate(modelLocation));
+		assertEquals("original", ((Model) loadBinary().getContents().get(0)).getName());
+	}
+
+	@Test
+	public void testXMIChanged() {
+		convert();
+
+		Resource resource = tool.loadResourceFromXMI(modelLocation, "arffx", ARFFxPackage.eINSTANCE);
+		((Model) resource.getContents().get(0)).setName("changed");
+		tool.storeResourceContents(resource.getContents(), modelLocation, "arffx");
+		assertFalse(BinaryModelChecksum.isUpToDate(modelLocation));
+
+		convert();
+		assertTrue(BinaryModelChecksum.isUpToDate(modelLocation));
+		assertEquals("changed", ((Model) loadBinary().getContents().get(0)).getName());
+	}
+
+	@Test
+	public void testChecksumMissing() {
+		convert();
+		assertTrue(new File(modelLocation + BinaryModelChecksum.CHECKSUM_EXTENSION).delete());
+		assertFalse(BinaryModelChecksum.isUpToDate(modelLocation));
+	}
+}
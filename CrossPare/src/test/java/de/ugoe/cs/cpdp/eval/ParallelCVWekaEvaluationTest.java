@@ -0,0 +1,71 @@
+package de.ugoe.cs.cpdp.eval;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.classifiers.Evaluation;
+import weka.classifiers.bayes.NaiveBayes;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+public class ParallelCVWekaEvaluationTest {
+
+	@Test
+	public void testCreateEvaluator_sameAsSequential() throws Exception {
+		Instances data = createData(200);
+		PrintStream systemErr = System.err;
+
+		Evaluation sequential = new Evaluation(data);
+		sequential.crossValidateModel(new NaiveBayes(), data, 10, new Random(1));
+		Evaluation parallel = new ParallelCVWekaEvaluation().createEvaluator(data, new NaiveBayes());
+
+		// the error stream is only replaced while the folds are evaluated
+		assertSame(systemErr, System.err);
+
+		assertEquals(sequential.numInstances(), parallel.numInstances(), 0.0);
+		double[][] expectedMatrix = sequential.confusionMatrix();
+		double[][] actualMatrix = parallel.confusionMatrix();
+		for (int i = 0; i < expectedMatrix.length; i++) {
+			assertArrayEquals(expectedMatrix[i], actualMatrix[i], 0.0);
+		}
+		assertEquals(sequential.areaUnderROC(1), parallel.areaUnderROC(1), 0.000001);
+	}
+
+	@Test
+	public void testCreateEvaluator_dataUnchanged() throws Exception {
+		Instances data = createData(50);
+		Instances original = new Instances(data);
+
+		new ParallelCVWekaEvaluation().createEvaluator(data, new NaiveBayes());
+
+		for (int i = 0; i < data.numInstances(); i++) {
+			assertArrayEquals(original.instance(i).toDoubleArray(), data.instance(i).toDoubleArray(), 0.0);
+		}
+	}
+
+	private static Instances createData(int numInstances) {
+		ArrayList<String> classValues = new ArrayList<>();
+		classValues.add("0");
+		classValues.add("1");
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("attr1"));
+		attributes.add(new Attribute("attr2"));
+		attributes.add(new Attribute("class", classValues));
+		Instances data = new Instances("test", attributes, numInstances);
+		data.setClassIndex(2);
+		Random rand = new Random(42);
+		for (int i = 0; i < numInstances; i++) {
+			double label = rand.nextInt(2);
+			data.add(new DenseInstance(1.0, new double[] { rand.nextGaussian() + label, rand.nextGaussian(), label }));
+		}
+		return data;
+	}
+}
@@ -0,0 +1,100 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.ExperimentConfigurationException;
+import weka.core.Randomizable;
+
+public class ConcurrentRepetitionsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testCreateConfiguration_seeds() throws IOException, ExperimentConfigurationException {
+		ExperimentConfiguration config = new ExperimentConfiguration(createConfig("exp", createData(), 1));
+
+		for( int repetition=0; repetition<3; repetition++ ) {
+			ExperimentConfiguration repetitionConfig = ConcurrentRepetitions.createConfiguration(config, repetition);
+			assertEquals(1, repetitionConfig.getPreProcessors().size());
+			assertNotSame(config.getPreProcessors().get(0), repetitionConfig.getPreProcessors().get(0));
+			assertEquals(42 + repetition, ((Randomizable) repetitionConfig.getPreProcessors().get(0)).getSeed());
+			assertEquals(1, repetitionConfig.getTrainers().size());
+			assertNotSame(config.getTrainers().get(0), repetitionConfig.getTrainers().get(0));
+			assertEquals(42 + repetition, ((Randomizable) repetitionConfig.getTrainers().get(0)).getSeed());
+		}
+	}
+
+	@Test
+	public void testRun_reproducible() throws IOException, ExperimentConfigurationException {
+		File dataDir = createData();
+		File firstConfig = createConfig("first", dataDir, 1);
+		File secondConfig = createConfig("second", dataDir, 1);
+		File concurrentConfig = createConfig("concurrent", dataDir, 3);
+
+		new CrossProjectExperiment(new ExperimentConfiguration(firstConfig)).run();
+		new CrossProjectExperiment(new ExperimentConfiguration(secondConfig)).run();
+		new CrossProjectExperiment(new ExperimentConfiguration(concurrentConfig)).run();
+
+		List<String> expected = readResults(firstConfig);
+		assertEquals(expected, readResults(secondConfig));
+		assertEquals(expected, readResults(concurrentConfig));
+
+		// one line per test version and repetition, tagged with the repetition
+		assertEquals(1 + 3 * 3, expected.size());
+		assertTrue(expected.get(0), expected.get(0).startsWith("version,repetition,"));
+		for( int i=1; i<expected.size(); i++ ) {
+			assertEquals(expected.get(i), String.valueOf((i - 1) % 3), expected.get(i).split(",")[1]);
+		}
+	}
+
+	private File createData() throws IOException {
+		File dataDir = folder.newFolder("JURECZKO");
+		copyVersion(dataDir, "ant", "ant-1.3.csv");
+		copyVersion(dataDir, "camel", "camel-1.0.csv");
+		copyVersion(dataDir, "ivy", "ivy-1.1.csv");
+		return dataDir;
+	}
+
+	private static void copyVersion(File dataDir, String project, String version) throws IOException {
+		File projectDir = new File(dataDir, project);
+		projectDir.mkdir();
+		Files.copy(new File("testdata/JURECZKO/" + project + "/" + version).toPath(), new File(projectDir, version).toPath());
+	}
+
+	private File createConfig(String name, File dataDir, int repetitionParallelism) throws IOException {
+		File configDir = folder.newFolder(name);
+		File resultsDir = new File(configDir, "results");
+		File configFile = new File(configDir, "exp.xml");
+		List<String> config = new ArrayList<>();
+		config.add("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+		config.add("<config xmlns=\"experimentconfig\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:schemaLocation=\"experimentconfig experimentconfig.xsd\">");
+		config.add(" <loader name=\"CSVFolderLoader\" datalocation=\"" + dataDir.getPath() + "\" relative=\"false\"/>");
+		config.add(" <resultspath path=\"" + resultsDir.getPath() + "\"/>");
+		config.add(" <preprocessor name=\"Undersampling\" param=\"\" />");
+		config.add(" <trainer name=\"WekaTraining\" param=\"DTB weka.classifiers.trees.REPTree\" />");
+		config.add(" <eval name=\"NormalWekaEvaluation\" param=\"\" />");
+		config.add(" <repetitions number=\"3\" seed=\"42\" />");
+		config.add(" <parallelism repetitions=\"" + repetitionParallelism + "\" />");
+		config.add("</config>");
+		Files.write(configFile.toPath(), config, StandardCharsets.UTF_8);
+		return configFile;
+	}
+
+	private static List<String> readResults(File configFile) throws IOException {
+		return Files.readAllLines(new File(configFile.getParentFile(), "results/exp.csv").toPath(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,81 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.ugoe.cs.cpdp.loader.CSVFolderLoader;
+import de.ugoe.cs.cpdp.training.ITestAwareTrainingStrategy;
+import de.ugoe.cs.cpdp.training.ITrainingStrategy;
+import de.ugoe.cs.cpdp.training.WekaTraining;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import weka.core.Instance;
+import weka.core.Instances;
+
+public class ConcurrentTrainingTest {
+
+	private static final String[] PARAMETERS = new String[] {
+			"NB weka.classifiers.bayes.NaiveBayes",
+			"DT weka.classifiers.trees.J48",
+			"KNN weka.classifiers.lazy.IBk",
+			"DTB weka.classifiers.trees.REPTree" };
+
+	@Test
+	public void testApply_sameAsSequential() throws Exception {
+		List<SoftwareVersion> versions = loadVersions();
+		Instances testdata = versions.get(0).getInstances();
+		Instances traindata = versions.get(1).getInstances();
+		List<ITestAwareTrainingStrategy> noTestAwareTrainers = Collections.emptyList();
+		PipelineProfiler.Scope profiling = PipelineProfiler.getInstance().scope("test", null);
+
+		List<ITrainingStrategy> sequentialTrainers = createTrainers();
+		ConcurrentTraining.apply(sequentialTrainers, noTestAwareTrainers, testdata, traindata, 1, profiling);
+		List<ITrainingStrategy> concurrentTrainers = createTrainers();
+		ConcurrentTraining.apply(concurrentTrainers, noTestAwareTrainers, testdata, traindata, 4, profiling);
+
+		for( int i=0; i<PARAMETERS.length; i++ ) {
+			WekaTraining expected = (WekaTraining) sequentialTrainers.get(i);
+			WekaTraining actual = (WekaTraining) concurrentTrainers.get(i);
+			for( Instance instance : testdata ) {
+				assertArrayEquals(PARAMETERS[i], expected.getClassifier().distributionForInstance(instance),
+						actual.getClassifier().distributionForInstance(instance), 0.0);
+			}
+		}
+		assertEquals(versions.get(1).getInstances().numInstances(), traindata.numInstances());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testApply_failure() {
+		ITrainingStrategy failing = new WekaTraining() {
+			@Override
+			public void apply(Instances traindata) {
+				throw new IllegalArgumentException("failure");
+			}
+		};
+		List<ITrainingStrategy> trainers = createTrainers();
+		trainers.add(failing);
+		Instances data = loadVersions().get(0).getInstances();
+		ConcurrentTraining.apply(trainers, Collections.emptyList(), data, data, 2,
+				PipelineProfiler.getInstance().scope("test", null));
+	}
+
+	private static List<SoftwareVersion> loadVersions() {
+		CSVFolderLoader loader = new CSVFolderLoader();
+		loader.setLocation("testdata/JURECZKO");
+		return loader.load();
+	}
+
+	private static List<ITrainingStrategy> createTrainers() {
+		List<ITrainingStrategy> trainers = new ArrayList<>();
+		for( String parameter : PARAMETERS ) {
+			WekaTraining trainer = new WekaTraining();
+			trainer.setParameter(parameter);
+			trainers.add(trainer);
+		}
+		return trainers;
+	}
+}
@@ -0,0 +1,139 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.ExperimentConfigurationException;
+import de.ugoe.cs.cpdp.eval.ExperimentResult;
+import de.ugoe.cs.cpdp.eval.IResultStorage;
+
+public class ExperimentWatcherTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testUpdate_incremental() throws IOException, ExperimentConfigurationException {
+		File dataDir = folder.newFolder("JURECZKO");
+		copyVersion(dataDir, "ant", "ant-1.3.csv");
+		copyVersion(dataDir, "ant", "ant-1.4.csv");
+		copyVersion(dataDir, "camel", "camel-1.0.csv");
+		File resultsDir = folder.newFolder("results");
+		File configFile = createConfig(dataDir, resultsDir);
+		ExperimentWatcher watcher = new ExperimentWatcher(new CrossProjectExperiment(new ExperimentConfiguration(configFile)));
+		File resultsFile = new File(resultsDir, "watch.csv");
+
+		assertEquals(3, watcher.update());
+		assertEquals(4, readResults(resultsFile).size());
+		assertTrue(readResults(resultsFile).get(0).startsWith("version,update,"));
+		assertTrue(readResults(resultsFile).get(1).startsWith("ant-1.3.csv,0,"));
+
+		assertEquals(0, watcher.update());
+		assertEquals(4, readResults(resultsFile).size());
+
+		// the new version is used for training by the versions of the other project
+		copyVersion(dataDir, "camel", "camel-1.2.csv");
+		assertEquals(3, watcher.update());
+		List<String> results = readResults(resultsFile);
+		assertEquals(7, results.size());
+		assertTrue(results.get(4).startsWith("ant-1.3.csv,1,"));
+		assertTrue(results.get(5).startsWith("ant-1.4.csv,1,"));
+		assertTrue(results.get(6).startsWith("camel-1.2.csv,1,"));
+
+		// the changed version is only used for training by the versions of the other project
+		File changedFile = new File(dataDir, "ant/ant-1.3.csv");
+		changedFile.setLastModified(changedFile.lastModified() - 10000);
+		assertEquals(3, watcher.update());
+		results = readResults(resultsFile);
+		assertEquals(10, results.size());
+		assertTrue(results.get(7).startsWith("ant-1.3.csv,2,"));
+		assertTrue(results.get(8).startsWith("camel-1.0.csv,2,"));
+		assertTrue(results.get(9).startsWith("camel-1.2.csv,2,"));
+	}
+
+	@Test
+	public void testUpdate_resultsAvailable() throws IOException, ExperimentConfigurationException {
+		File dataDir = folder.newFolder("JURECZKO");
+		copyVersion(dataDir, "ant", "ant-1.3.csv");
+		copyVersion(dataDir, "camel", "camel-1.0.csv");
+		File resultsDir = folder.newFolder("results");
+		ExperimentConfiguration config = new ExperimentConfiguration(createConfig(dataDir, resultsDir));
+		InMemoryResultStorage storage = new InMemoryResultStorage();
+		config.getResultStorages().add(storage);
+		ExperimentWatcher watcher = new ExperimentWatcher(new CrossProjectExperiment(config));
+
+		assertEquals(2, watcher.update());
+		assertEquals(2, storage.results.size());
+
+		// the stored results of the affected versions are outdated
+		File changedFile = new File(dataDir, "ant/ant-1.3.csv");
+		changedFile.setLastModified(changedFile.lastModified() - 10000);
+		assertEquals(2, watcher.update());
+		assertEquals(4, storage.results.size());
+		assertEquals("ant-1.3.csv", storage.results.get(2).getProductName());
+		assertEquals("camel-1.0.csv", storage.results.get(3).getProductName());
+	}
+
+	private static void copyVersion(File dataDir, String project, String version) throws IOException {
+		File projectDir = new File(dataDir, project);
+		projectDir.mkdir();
+		Files.copy(new File("testdata/JURECZKO/" + project + "/" + version).toPath(), new File(projectDir, version).toPath());
+	}
+
+	private File createConfig(File dataDir, File resultsDir) throws IOException {
+		File configFile = new File(folder.getRoot(), "watch.xml");
+		List<String> config = Arrays.asList(
+				"<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+				"<config xmlns=\"experimentconfig\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:schemaLocation=\"experimentconfig experimentconfig.xsd\">",
+				" <loader name=\"CSVFolderLoader\" datalocation=\"" + dataDir.getPath() + "\" relative=\"false\"/>",
+				" <resultspath path=\"" + resultsDir.getPath() + "\"/>",
+				" <trainer name=\"WekaTraining\" param=\"NB weka.classifiers.bayes.NaiveBayes\" />",
+				" <eval name=\"NormalWekaEvaluation\" param=\"\" />",
+				"</config>");
+		Files.write(configFile.toPath(), config, StandardCharsets.UTF_8);
+		return configFile;
+	}
+
+	private static List<String> readResults(File resultsFile) throws IOException {
+		return Files.readAllLines(resultsFile.toPath(), StandardCharsets.UTF_8);
+	}
+
+	private static class InMemoryResultStorage implements IResultStorage {
+
+		private final List<ExperimentResult> results = new ArrayList<>();
+
+		@Override
+		public synchronized void addResult(ExperimentResult result) {
+			results.add(result);
+		}
+
+		@Override
+		public synchronized int containsResult(String experimentName, String productName, String classifierName) {
+			int count = 0;
+			for (ExperimentResult result : results) {
+				if (result.getProductName().equals(productName)) {
+					count++;
+				}
+			}
+			return count;
+		}
+
+		@Override
+		public int containsHeterogeneousResult(String experimentName, String productName, String classifierName,
+				String trainProductName) {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class PipelineProfilerTest {
+
+	@After
+	public void tearDown() {
+		PipelineProfiler.getInstance().setEnabled(false);
+		PipelineProfiler.getInstance().clear();
+	}
+
+	@Test
+	public void testStart_disabled() {
+		PipelineProfiler profiler = PipelineProfiler.getInstance();
+		profiler.setEnabled(false);
+
+		profiler.scope("experiment", "version").start("trainer", this).stop();
+
+		assertTrue(profiler.getRecords().isEmpty());
+	}
+
+	@Test
+	public void testStart_enabled() {
+		PipelineProfiler profiler = PipelineProfiler.getInstance();
+		profiler.setEnabled(true);
+
+		PipelineProfiler.Measurement measurement = profiler.scope("experiment", null)
+				.start("loader", this);
+		double[] allocation = new double[100000];
+		allocation[0] = 1.0;
+		measurement.stop();
+
+		List<PipelineProfiler.Record> records = profiler.getRecords();
+		assertEquals(1, records.size());
+		PipelineProfiler.Record record = records.get(0);
+		assertEquals("experiment", record.experimentName);
+		assertNull(record.testVersion);
+		assertEquals("loader", record.stage);
+		assertEquals(PipelineProfilerTest.class.getName(), record.strategy);
+		assertEquals(Thread.currentThread().getName(), record.thread);
+		assertTrue(record.wallTime >= 0);
+		assertTrue(record.allocatedBytes == -1 || record.allocatedBytes >= 800000);
+	}
+}
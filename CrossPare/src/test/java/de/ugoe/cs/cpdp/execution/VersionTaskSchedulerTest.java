@@ -0,0 +1,100 @@
+package de.ugoe.cs.cpdp.execution;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.ugoe.cs.cpdp.ExperimentConfiguration;
+import de.ugoe.cs.cpdp.ExperimentConfigurationException;
+
+public class VersionTaskSchedulerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testRun_sameResultsAsSequential() throws IOException, ExperimentConfigurationException {
+		File dataDir = createData();
+		String[] trainers = new String[] {
+				" <trainer name=\"WekaTraining\" param=\"NB weka.classifiers.bayes.NaiveBayes\" />",
+				" <trainer name=\"WekaTraining\" param=\"DT weka.classifiers.trees.J48\" />" };
+
+		File sequentialConfig = createConfig("sequential", dataDir, trainers);
+		new CrossProjectExperiment(new ExperimentConfiguration(sequentialConfig)).run();
+
+		File scheduledConfig = createConfig("scheduled", dataDir, trainers);
+		runScheduler(scheduledConfig);
+
+		List<String> expected = readResults(sequentialConfig);
+		assertEquals(6, expected.size());
+		assertEquals(expected, readResults(scheduledConfig));
+	}
+
+	@Test
+	public void testRun_localTrainersOfConcurrentTestVersions() throws IOException, ExperimentConfigurationException {
+		// the results of WekaLocalFQTraining are random, therefore, only the completion is checked
+		File dataDir = createData();
+		File configFile = createConfig("scheduled", dataDir,
+				" <trainer name=\"WekaLocalFQTraining\" param=\"LNB weka.classifiers.bayes.NaiveBayes\" />");
+		runScheduler(configFile);
+
+		List<String> results = readResults(configFile);
+		assertEquals(6, results.size());
+		for( String line : results.subList(1, results.size()) ) {
+			assertEquals(line, results.get(0).split(",").length, line.split(",").length);
+		}
+	}
+
+	private void runScheduler(File configFile) throws ExperimentConfigurationException {
+		VersionTaskScheduler scheduler = new VersionTaskScheduler(4,
+				new RuntimeHistory(new File(folder.getRoot(), "runtimes.properties").getPath()));
+		scheduler.addExperiment(new CrossProjectExperiment(new ExperimentConfiguration(configFile)));
+		scheduler.run();
+	}
+
+	private File createData() throws IOException {
+		File dataDir = folder.newFolder("JURECZKO");
+		copyVersion(dataDir, "ant", "ant-1.3.csv");
+		copyVersion(dataDir, "ant", "ant-1.4.csv");
+		copyVersion(dataDir, "camel", "camel-1.0.csv");
+		copyVersion(dataDir, "camel", "camel-1.2.csv");
+		copyVersion(dataDir, "ivy", "ivy-1.1.csv");
+		return dataDir;
+	}
+
+	private static void copyVersion(File dataDir, String project, String version) throws IOException {
+		File projectDir = new File(dataDir, project);
+		projectDir.mkdir();
+		Files.copy(new File("testdata/JURECZKO/" + project + "/" + version).toPath(), new File(projectDir, version).toPath());
+	}
+
+	private File createConfig(String name, File dataDir, String... trainers) throws IOException {
+		File configDir = folder.newFolder(name);
+		File resultsDir = new File(configDir, "results");
+		File configFile = new File(configDir, "exp.xml");
+		List<String> config = new ArrayList<>();
+		config.add("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+		config.add("<config xmlns=\"experimentconfig\" xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:schemaLocation=\"experimentconfig experimentconfig.xsd\">");
+		config.add(" <loader name=\"CSVFolderLoader\" datalocation=\"" + dataDir.getPath() + "\" relative=\"false\"/>");
+		config.add(" <resultspath path=\"" + resultsDir.getPath() + "\"/>");
+		config.addAll(Arrays.asList(trainers));
+		config.add(" <eval name=\"NormalWekaEvaluation\" param=\"\" />");
+		config.add("</config>");
+		Files.write(configFile.toPath(), config, StandardCharsets.UTF_8);
+		return configFile;
+	}
+
+	private static List<String> readResults(File configFile) throws IOException {
+		return Files.readAllLines(new File(configFile.getParentFile(), "results/exp.csv").toPath(), StandardCharsets.UTF_8);
+	}
+}
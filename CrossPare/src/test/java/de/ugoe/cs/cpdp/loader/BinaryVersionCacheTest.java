@@ -0,0 +1,164 @@
+package de.ugoe.cs.cpdp.loader;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.ugoe.cs.cpdp.util.FloatInstance;
+import de.ugoe.cs.cpdp.util.OffHeapInstance;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import weka.core.Instances;
+
+public class BinaryVersionCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testLoad_cached() throws IOException {
+		File dataDir = createDataFolder();
+		List<SoftwareVersion> expected = createLoader(dataDir, false).load();
+
+		List<SoftwareVersion> versions1 = createLoader(dataDir, true).load();
+		BinaryVersionCache cache = new BinaryVersionCache(dataDir, "CSVFolderLoader", "binary");
+		assertTrue(cache.getCacheFile().isFile());
+		List<SoftwareVersion> versions2 = cache.read();
+
+		assertNotNull(versions2);
+		assertVersionsEqual(expected, versions1);
+		assertVersionsEqual(expected, versions2);
+	}
+
+	@Test
+	public void testLoad_offHeap() throws IOException {
+		File dataDir = createDataFolder();
+		List<SoftwareVersion> expected = createLoader(dataDir, false).load();
+
+		CSVFolderLoader loader = createLoader(dataDir, true);
+		loader.setOffHeap(true);
+		List<SoftwareVersion> versions1 = loader.load();
+		List<SoftwareVersion> versions2 = loader.load();
+
+		assertVersionsEqual(expected, versions1);
+		assertVersionsEqual(expected, versions2);
+		assertTrue(versions1.get(0).getReadOnlyInstances().instance(0) instanceof OffHeapInstance);
+		assertTrue(versions2.get(0).getReadOnlyInstances().instance(0) instanceof OffHeapInstance);
+	}
+
+	@Test
+	public void testLoad_compactThenDense() throws IOException {
+		File dataDir = createDataFolder();
+		List<SoftwareVersion> expected = createLoader(dataDir, false).load();
+
+		CSVFolderLoader compactLoader = createLoader(dataDir, true);
+		compactLoader.setCompact(true);
+		List<SoftwareVersion> compactVersions = compactLoader.load();
+		assertTrue(compactVersions.get(0).getReadOnlyInstances().instance(0) instanceof FloatInstance);
+		List<SoftwareVersion> versions = createLoader(dataDir, true).load();
+
+		assertFalse(versions.get(0).getReadOnlyInstances().instance(0) instanceof FloatInstance);
+		assertVersionsEqual(expected, versions);
+		assertVersionsEqual(expected, new BinaryVersionCache(dataDir, "CSVFolderLoader", "binary").read());
+	}
+
+	@Test
+	public void testRead_outdated() throws IOException {
+		File dataDir = createDataFolder();
+		createLoader(dataDir, true).load();
+		BinaryVersionCache cache = new BinaryVersionCache(dataDir, "CSVFolderLoader", "binary");
+		assertNotNull(cache.read());
+
+		File versionFile = new File(dataDir, "ant/ant-1.3.csv");
+		versionFile.setLastModified(versionFile.lastModified() - 10000);
+
+		assertNull(cache.read());
+	}
+
+	@Test
+	public void testRead_noCacheFile() throws IOException {
+		File dataDir = createDataFolder();
+		BinaryVersionCache cache = new BinaryVersionCache(dataDir, "CSVFolderLoader", "binary");
+
+		assertNull(cache.read());
+	}
+
+	@Test
+	public void testWrite_tooLarge() throws IOException {
+		File dataDir = createDataFolder();
+		List<SoftwareVersion> versions = createLoader(dataDir, false).load();
+		BinaryVersionCache cache = new BinaryVersionCache(dataDir, "CSVFolderLoader", "binary", 1000);
+
+		cache.write(versions);
+
+		assertFalse(cache.getCacheFile().exists());
+		assertArrayEquals(new String[] { "JURECZKO" }, folder.getRoot().list());
+	}
+
+	@Test
+	public void testRead_tooLarge() throws IOException {
+		File dataDir = createDataFolder();
+		List<SoftwareVersion> versions = createLoader(dataDir, false).load();
+		new BinaryVersionCache(dataDir, "CSVFolderLoader", "binary").write(versions);
+		BinaryVersionCache cache = new BinaryVersionCache(dataDir, "CSVFolderLoader", "binary", 1000);
+
+		assertTrue(cache.getCacheFile().isFile());
+		assertNull(cache.read());
+	}
+
+	@Test
+	public void testWrite_noTemporaryFiles() throws IOException {
+		File dataDir = createDataFolder();
+		List<SoftwareVersion> versions = createLoader(dataDir, false).load();
+		BinaryVersionCache cache = new BinaryVersionCache(dataDir, "CSVFolderLoader", "binary");
+
+		cache.write(versions);
+		cache.write(versions);
+
+		String[] files = folder.getRoot().list();
+		Arrays.sort(files);
+		assertArrayEquals(new String[] { "JURECZKO", cache.getCacheFile().getName() }, files);
+	}
+
+	private File createDataFolder() throws IOException {
+		File dataDir = folder.newFolder("JURECZKO");
+		File projectDir = new File(dataDir, "ant");
+		projectDir.mkdir();
+		Files.copy(new File("testdata/JURECZKO/ant/ant-1.3.csv").toPath(), new File(projectDir, "ant-1.3.csv").toPath());
+		Files.copy(new File("testdata/JURECZKO/ant/ant-1.4.csv").toPath(), new File(projectDir, "ant-1.4.csv").toPath());
+		return dataDir;
+	}
+
+	private static CSVFolderLoader createLoader(File dataDir, boolean caching) {
+		CSVFolderLoader loader = new CSVFolderLoader();
+		loader.setLocation(dataDir.getPath());
+		loader.setCaching(caching);
+		return loader;
+	}
+
+	private static void assertVersionsEqual(List<SoftwareVersion> expected, List<SoftwareVersion> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getDataset(), actual.get(i).getDataset());
+			assertEquals(expected.get(i).getProject(), actual.get(i).getProject());
+			assertEquals(expected.get(i).getVersion(), actual.get(i).getVersion());
+			assertEquals(expected.get(i).getEfforts(), actual.get(i).getEfforts());
+			assertEquals(expected.get(i).getNumBugs(), actual.get(i).getNumBugs());
+			Instances expectedData = expected.get(i).getInstances();
+			Instances actualData = actual.get(i).getInstances();
+			assertNull(expectedData.equalHeadersMsg(actualData));
+			assertEquals(expectedData.classIndex(), actualData.classIndex());
+			assertEquals(expectedData.numInstances(), actualData.numInstances());
+			for (int j = 0; j < expectedData.numInstances(); j++) {
+				assertArrayEquals(expectedData.instance(j).toDoubleArray(), actualData.instance(j).toDoubleArray(), 0.0);
+			}
+		}
+	}
+}
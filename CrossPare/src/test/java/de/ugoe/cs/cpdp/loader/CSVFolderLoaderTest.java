@@ -6,7 +6,9 @@ import java.util.List;
 
 import org.junit.Test;
 
+import de.ugoe.cs.cpdp.util.FloatInstance;
 import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import weka.core.Instances;
 
 // TODO update test
 public class CSVFolderLoaderTest {
@@ -20,4 +22,51 @@ public class CSVFolderLoaderTest {
 		assertEquals(65, versions.size());
 	}
 
+	@Test
+	public void testLoadVersions_parallel() {
+		CSVFolderLoader sequentialLoader = new CSVFolderLoader();
+		sequentialLoader.setLocation("testdata/JURECZKO");
+		List<SoftwareVersion> expected = sequentialLoader.load();
+
+		CSVFolderLoader loader = new CSVFolderLoader();
+		loader.setLocation("testdata/JURECZKO");
+		loader.setParallelism(4);
+		List<SoftwareVersion> versions = loader.load();
+
+		assertEquals(expected.size(), versions.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getProject(), versions.get(i).getProject());
+			assertEquals(expected.get(i).getVersion(), versions.get(i).getVersion());
+			assertEquals(expected.get(i).getInstances().numInstances(), versions.get(i).getInstances().numInstances());
+			assertEquals(expected.get(i).getEfforts(), versions.get(i).getEfforts());
+			assertEquals(expected.get(i).getNumBugs(), versions.get(i).getNumBugs());
+		}
+	}
+
+	@Test
+	public void testLoadVersions_compact() {
+		CSVFolderLoader denseLoader = new CSVFolderLoader();
+		denseLoader.setLocation("testdata/JURECZKO");
+		List<SoftwareVersion> expected = denseLoader.load();
+
+		CSVFolderLoader loader = new CSVFolderLoader();
+		loader.setLocation("testdata/JURECZKO");
+		loader.setCompact(true);
+		List<SoftwareVersion> versions = loader.load();
+
+		assertEquals(expected.size(), versions.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Instances expectedData = expected.get(i).getReadOnlyInstances();
+			Instances data = versions.get(i).getReadOnlyInstances();
+			assertEquals(expectedData.numInstances(), data.numInstances());
+			assertEquals(expected.get(i).getNumBugs(), versions.get(i).getNumBugs());
+			for (int k = 0; k < data.numInstances(); k++) {
+				assertTrue(data.instance(k) instanceof FloatInstance);
+				for (int j = 0; j < data.numAttributes(); j++) {
+					assertEquals((float) expectedData.instance(k).value(j), data.instance(k).value(j), 0.0);
+				}
+			}
+		}
+	}
+
 }
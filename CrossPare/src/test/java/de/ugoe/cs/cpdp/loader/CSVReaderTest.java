@@ -0,0 +1,122 @@
+package de.ugoe.cs.cpdp.loader;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CSVReaderTest {
+
+	@Test
+	public void testNext_records() throws IOException {
+		try (CSVReader reader = new CSVReader(new StringReader("a,b,c\r\n\n1, 2 ,3,,\n4"), ',')) {
+			assertTrue(reader.next());
+			assertEquals(3, reader.getNumFields());
+			assertEquals("c", reader.getString(2));
+			assertTrue(reader.next());
+			assertEquals(3, reader.getNumFields());
+			assertEquals(" 2 ", reader.getString(1));
+			assertTrue(reader.trimmedFieldEquals(1, "2"));
+			assertFalse(reader.fieldEquals(1, "2"));
+			assertTrue(reader.next());
+			assertEquals(1, reader.getNumFields());
+			assertEquals("4", reader.getLine());
+			assertFalse(reader.next());
+		}
+	}
+
+	@Test
+	public void testNext_longLines() throws IOException {
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 100000; i++) {
+			input.append(i).append(';');
+		}
+		input.append("\nx");
+		try (CSVReader reader = new CSVReader(new StringReader(input.toString()), ';')) {
+			assertTrue(reader.next());
+			assertEquals(100000, reader.getNumFields());
+			assertEquals(99999, reader.getInt(99999));
+			assertTrue(reader.next());
+			assertEquals("x", reader.getString(0));
+		}
+	}
+
+	@Test
+	public void testIsBlank() throws IOException {
+		try (CSVReader reader = new CSVReader(new StringReader("a; ;1"), ';')) {
+			reader.next();
+			assertFalse(reader.isBlank(0));
+			assertTrue(reader.isBlank(1));
+		}
+	}
+
+	@Test
+	public void testGetDouble_sameAsParseDouble() throws IOException {
+		Random rand = new Random(1);
+		String[] values = new String[10000];
+		for (int i = 0; i < values.length; i++) {
+			switch (i % 5)
+			{
+				case 0:
+					values[i] = Double.toString(rand.nextDouble() * Math.pow(10, rand.nextInt(20) - 10));
+					break;
+				case 1:
+					values[i] = Integer.toString(rand.nextInt() / (1 + rand.nextInt(1000)));
+					break;
+				case 2:
+					values[i] = String.format(Locale.US, "%.4f", rand.nextGaussian() * 1000);
+					break;
+				case 3:
+					values[i] = "0.000" + Math.abs(rand.nextLong());
+					break;
+				default:
+					values[i] = " -" + (rand.nextInt(1000) / 8.0) + " ";
+			}
+		}
+		try (CSVReader reader = new CSVReader(new StringReader(String.join(",", values)), ',')) {
+			reader.next();
+			for (int i = 0; i < values.length; i++) {
+				assertEquals(values[i], Double.doubleToLongBits(Double.parseDouble(values[i])), Double.doubleToLongBits(reader.getDouble(i)));
+			}
+		}
+	}
+
+	@Test
+	public void testGetDouble_specialValues() throws IOException {
+		try (CSVReader reader = new CSVReader(new StringReader("-0,1e3,NaN,.5,1.,x"), ',')) {
+			reader.next();
+			assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(reader.getDouble(0)));
+			assertEquals(1000.0, reader.getDouble(1), 0.0);
+			assertTrue(Double.isNaN(reader.getDouble(2)));
+			assertEquals(0.5, reader.getDouble(3), 0.0);
+			assertEquals(1.0, reader.getDouble(4), 0.0);
+			try {
+				reader.getDouble(5);
+				fail("expected NumberFormatException");
+			}
+			catch (NumberFormatException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testGetInt() throws IOException {
+		try (CSVReader reader = new CSVReader(new StringReader("-12;2147483647;1x"), ';')) {
+			reader.next();
+			assertEquals(-12, reader.getInt(0));
+			assertEquals(Integer.MAX_VALUE, reader.getInt(1));
+			try {
+				reader.getInt(2);
+				fail("expected NumberFormatException");
+			}
+			catch (NumberFormatException e) {
+				// expected
+			}
+		}
+	}
+}
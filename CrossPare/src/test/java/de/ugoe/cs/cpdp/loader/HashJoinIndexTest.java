@@ -0,0 +1,34 @@
+package de.ugoe.cs.cpdp.loader;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+public class HashJoinIndexTest {
+
+	@Test
+	public void testGetRows() {
+		HashJoinIndex<String> index = new HashJoinIndex<>();
+		for (int i = 0; i < 10; i++) {
+			index.add(i % 3 == 0 ? "a" : "b", i);
+		}
+		assertArrayEquals(new int[] { 0, 3, 6, 9 }, index.getRows("a"));
+		assertArrayEquals(new int[] { 1, 2, 4, 5, 7, 8 }, index.getRows("b"));
+		assertEquals(0, index.getRows("c").length);
+		assertEquals(new HashSet<>(Arrays.asList("a", "b")), index.getKeys());
+	}
+
+	@Test
+	public void testGetLastRow() {
+		HashJoinIndex<String> index = new HashJoinIndex<>();
+		index.add("a", 4);
+		index.add("b", 2);
+		index.add("a", 1);
+		assertEquals(1, index.getLastRow("a"));
+		assertEquals(2, index.getLastRow("b"));
+		assertEquals(-1, index.getLastRow("c"));
+	}
+}
@@ -0,0 +1,67 @@
+package de.ugoe.cs.cpdp.loader;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import weka.core.Instances;
+
+public class JsonDataLoaderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testLoad() throws IOException {
+		File file = createFile("{\"meta\": {\"list\": [1, 2]}, \"product\": [" +
+				"{\"file\": \"A.java\", \"wmc\": 2, \"gui\": true, \"loc\": 10.5, \"label\": true, \"bugs\": 2}," +
+				"{\"file\": \"B.java\", \"loc\": 3, \"wmc\": 1, \"gui\": false, \"label\": false, \"bugs\": 0}," +
+				"{\"file\": \"C.java\", \"loc\": 4, \"label\": true, \"bugs\": 1}" +
+				"], \"other\": \"value\"}");
+
+		Instances data = new JsonDataLoader().load(file, true);
+
+		assertEquals(4, data.numAttributes());
+		assertEquals("gui", data.attribute(0).name());
+		assertEquals("loc", data.attribute(1).name());
+		assertEquals("wmc", data.attribute(2).name());
+		assertEquals(3, data.classIndex());
+		assertEquals(2, data.numInstances());
+		assertArrayEquals(new double[] { 1.0, 10.5, 2.0, 1.0 }, data.instance(0).toDoubleArray(), 0.0);
+		assertArrayEquals(new double[] { 0.0, 3.0, 1.0, 0.0 }, data.instance(1).toDoubleArray(), 0.0);
+	}
+
+	@Test
+	public void testLoad_numericClass() throws IOException {
+		File file = createFile("{\"product\": [{\"loc\": 1, \"label\": true, \"bugs\": 3}]}");
+
+		Instances data = new JsonDataLoader().load(file, false);
+
+		assertTrue(data.classAttribute().isNumeric());
+		assertEquals(3.0, data.instance(0).classValue(), 0.0);
+	}
+
+	@Test
+	public void testLoad_emptyProduct() throws IOException {
+		File file = createFile("{\"product\": []}");
+
+		Instances data = new JsonDataLoader().load(file, true);
+
+		assertEquals(1, data.numAttributes());
+		assertEquals(0, data.numInstances());
+	}
+
+	private File createFile(String content) throws IOException {
+		File file = folder.newFile("test.json");
+		Files.write(file.toPath(), Collections.singletonList(content), Charset.defaultCharset());
+		return file;
+	}
+}
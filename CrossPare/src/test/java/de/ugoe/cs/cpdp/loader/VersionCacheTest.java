@@ -0,0 +1,140 @@
+package de.ugoe.cs.cpdp.loader;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.ugoe.cs.cpdp.util.FloatInstance;
+import de.ugoe.cs.cpdp.util.OffHeapInstance;
+import de.ugoe.cs.cpdp.versions.IVersionFilter;
+import de.ugoe.cs.cpdp.versions.MinInstanceNumberFilter;
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+
+public class VersionCacheTest {
+
+	@Test
+	public void testLoad_shared() {
+		VersionCache cache = VersionCache.getInstance();
+		CSVFolderLoader loader1 = new CSVFolderLoader();
+		loader1.setLocation("testdata/JURECZKO");
+		CSVFolderLoader loader2 = new CSVFolderLoader();
+		loader2.setLocation("testdata/JURECZKO");
+		cache.register(loader1);
+		cache.register(loader2);
+		
+		List<SoftwareVersion> versions1 = cache.load(loader1);
+		assertEquals(1, cache.size());
+		List<SoftwareVersion> versions2 = cache.load(loader2);
+		assertEquals(0, cache.size());
+		
+		assertEquals(65, versions1.size());
+		assertNotSame(versions1, versions2);
+		for( int i=0; i<versions1.size(); i++ ) {
+			assertSame(versions1.get(i), versions2.get(i));
+		}
+	}
+	
+	@Test
+	public void testLoad_differentClassType() {
+		VersionCache cache = VersionCache.getInstance();
+		CSVFolderLoader loader1 = new CSVFolderLoader();
+		loader1.setLocation("testdata/JURECZKO");
+		CSVFolderLoader loader2 = new CSVFolderLoader();
+		loader2.setLocation("testdata/JURECZKO");
+		loader2.setClassType("numeric");
+		cache.register(loader1);
+		cache.register(loader2);
+		assertEquals(2, cache.size());
+		
+		List<SoftwareVersion> versions1 = cache.load(loader1);
+		List<SoftwareVersion> versions2 = cache.load(loader2);
+		assertEquals(0, cache.size());
+		assertNotSame(versions1.get(0), versions2.get(0));
+	}
+	
+	@Test
+	public void testLoad_differentStorage() {
+		VersionCache cache = VersionCache.getInstance();
+		CSVFolderLoader loader1 = new CSVFolderLoader();
+		loader1.setLocation("testdata/JURECZKO");
+		CSVFolderLoader loader2 = new CSVFolderLoader();
+		loader2.setLocation("testdata/JURECZKO");
+		loader2.setCompact(true);
+		CSVFolderLoader loader3 = new CSVFolderLoader();
+		loader3.setLocation("testdata/JURECZKO");
+		loader3.setOffHeap(true);
+		cache.register(loader1);
+		cache.register(loader2);
+		cache.register(loader3);
+		assertEquals(3, cache.size());
+		
+		List<SoftwareVersion> versions1 = cache.load(loader1);
+		List<SoftwareVersion> versions2 = cache.load(loader2);
+		List<SoftwareVersion> versions3 = cache.load(loader3);
+		assertEquals(0, cache.size());
+		assertNotSame(versions1.get(0), versions2.get(0));
+		assertNotSame(versions1.get(0), versions3.get(0));
+		assertTrue(versions2.get(0).getReadOnlyInstances().instance(0) instanceof FloatInstance);
+		assertTrue(versions3.get(0).getReadOnlyInstances().instance(0) instanceof OffHeapInstance);
+	}
+	
+	@Test
+	public void testLoad_lazy() {
+		VersionCache cache = VersionCache.getInstance();
+		CSVFolderLoader loader1 = new CSVFolderLoader();
+		loader1.setLocation("testdata/JURECZKO");
+		CSVFolderLoader loader2 = new CSVFolderLoader();
+		loader2.setLocation("testdata/JURECZKO");
+		loader2.setLazy(true);
+		cache.register(loader1);
+		cache.register(loader2);
+		assertEquals(2, cache.size());
+		
+		List<SoftwareVersion> versions1 = cache.load(loader1);
+		List<SoftwareVersion> versions2 = cache.load(loader2);
+		assertEquals(0, cache.size());
+		assertNotSame(versions1.get(0), versions2.get(0));
+		assertEquals(versions1.get(0).getVersion(), versions2.get(0).getVersion());
+	}
+	
+	@Test
+	public void testLoad_notRegistered() {
+		VersionCache cache = VersionCache.getInstance();
+		CSVFolderLoader loader = new CSVFolderLoader();
+		loader.setLocation("testdata/JURECZKO");
+		
+		List<SoftwareVersion> versions = cache.load(loader);
+		assertEquals(65, versions.size());
+		assertEquals(0, cache.size());
+	}
+	
+	@Test
+	public void testLoad_filtered() {
+		VersionCache cache = VersionCache.getInstance();
+		CSVFolderLoader loader1 = new CSVFolderLoader();
+		loader1.setLocation("testdata/JURECZKO");
+		CSVFolderLoader loader2 = new CSVFolderLoader();
+		loader2.setLocation("testdata/JURECZKO");
+		cache.register(loader1);
+		cache.register(loader2);
+		IVersionFilter filter = new MinInstanceNumberFilter();
+		filter.setParameter("300");
+		
+		List<SoftwareVersion> versions1 = cache.load(loader1, Collections.singletonList(filter));
+		List<SoftwareVersion> versions2 = cache.load(loader2);
+		assertEquals(0, cache.size());
+		
+		assertEquals(65, versions2.size());
+		int expected = 0;
+		for( SoftwareVersion version : versions2 ) {
+			if( version.getInstances().numInstances()>=300 ) {
+				assertSame(version, versions1.get(expected));
+				expected++;
+			}
+		}
+		assertEquals(expected, versions1.size());
+	}
+}
@@ -0,0 +1,159 @@
+package de.ugoe.cs.cpdp.loader;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.ugoe.cs.cpdp.versions.SoftwareVersion;
+import de.ugoe.cs.cpdp.versions.VersionMetadata;
+import weka.core.Instances;
+
+public class VersionIndexTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testLoadMetadata_indexed() throws IOException {
+		File dataDir = createDataFolder();
+		List<SoftwareVersion> expected = createLoader(dataDir).load();
+
+		List<VersionMetadata> metadata1 = createLoader(dataDir).loadMetadata();
+		VersionIndex index = new VersionIndex(dataDir, "CSVFolderLoader", "binary");
+		assertTrue(index.getIndexFile().isFile());
+		List<VersionMetadata> metadata2 = createLoader(dataDir).loadMetadata();
+
+		assertEquals(expected.size(), metadata1.size());
+		assertEquals(expected.size(), metadata2.size());
+		for (int i = 0; i < expected.size(); i++) {
+			VersionMetadata expectedMetadata = expected.get(i).getMetadata();
+			assertEquals(expectedMetadata.getVersion(), metadata2.get(i).getVersion());
+			assertEquals(expectedMetadata.getProject(), metadata2.get(i).getProject());
+			assertEquals(expectedMetadata.getNumInstances(), metadata2.get(i).getNumInstances());
+			assertArrayEquals(expectedMetadata.getClassCounts(), metadata2.get(i).getClassCounts());
+			assertEquals(expectedMetadata.getAttributeNames(), metadata2.get(i).getAttributeNames());
+			assertEquals(metadata1.get(i).getSource(), metadata2.get(i).getSource());
+		}
+	}
+
+	@Test
+	public void testGet_outdated() throws IOException {
+		File dataDir = createDataFolder();
+		createLoader(dataDir).loadMetadata();
+		VersionIndex index = new VersionIndex(dataDir, "CSVFolderLoader", "binary");
+		assertNotNull(index.get("ant/ant-1.3.csv"));
+
+		File versionFile = new File(dataDir, "ant/ant-1.3.csv");
+		versionFile.setLastModified(versionFile.lastModified() - 10000);
+
+		assertNull(index.get("ant/ant-1.3.csv"));
+		assertNotNull(index.get("ant/ant-1.4.csv"));
+	}
+
+	@Test
+	public void testLoadVersions_selected() throws IOException {
+		File dataDir = createDataFolder();
+		createLoader(dataDir).loadMetadata();
+
+		CSVFolderLoader loader = createLoader(dataDir);
+		List<VersionMetadata> metadata = loader.loadMetadata();
+		List<SoftwareVersion> versions = loader.loadVersions(metadata.subList(1, 2));
+
+		assertEquals(1, versions.size());
+		assertEquals(metadata.get(1).getVersion(), versions.get(0).getVersion());
+		assertEquals(metadata.get(1).getNumInstances(), versions.get(0).getInstances().numInstances());
+	}
+
+	@Test
+	public void testLoadVersions_onlySelectedParsed() throws IOException {
+		File dataDir = createDataFolder();
+		CountingFolderLoader loader = new CountingFolderLoader(dataDir);
+		loader.loadMetadata();
+		assertEquals(2, loader.parsed.size());
+
+		// all versions are cached, only the selected version is read from the cache file
+		loader = new CountingFolderLoader(dataDir);
+		List<VersionMetadata> metadata = loader.loadMetadata();
+		List<SoftwareVersion> versions = loader.loadVersions(metadata.subList(1, 2));
+		assertEquals(1, versions.size());
+		assertEquals(metadata.get(1).getSource(), versions.get(0).getMetadata().getSource());
+		assertTrue(loader.parsed.isEmpty());
+
+		// without the cache file, only the selected version file is parsed
+		assertTrue(new BinaryVersionCache(dataDir, "CountingFolderLoader", "binary").getCacheFile().delete());
+		loader = new CountingFolderLoader(dataDir);
+		metadata = loader.loadMetadata();
+		versions = loader.loadVersions(metadata.subList(1, 2));
+		assertEquals(1, versions.size());
+		assertEquals(metadata.get(1).getNumInstances(), versions.get(0).getInstances().numInstances());
+		assertEquals(Arrays.asList(new File(metadata.get(1).getSource()).getName()), loader.parsed);
+	}
+
+	@Test
+	public void testLoadMetadata_notCached() throws IOException {
+		File dataDir = createDataFolder();
+		CSVFolderLoader loader = new CSVFolderLoader();
+		loader.setLocation(dataDir.getPath());
+
+		List<VersionMetadata> metadata = loader.loadMetadata();
+		List<SoftwareVersion> versions = loader.loadVersions(metadata);
+
+		assertFalse(new VersionIndex(dataDir, "CSVFolderLoader", "binary").getIndexFile().exists());
+		assertEquals(2, versions.size());
+		assertEquals(metadata.get(0).getNumInstances(), versions.get(0).getInstances().numInstances());
+	}
+
+	private File createDataFolder() throws IOException {
+		File dataDir = folder.newFolder("JURECZKO");
+		File projectDir = new File(dataDir, "ant");
+		projectDir.mkdir();
+		Files.copy(new File("testdata/JURECZKO/ant/ant-1.3.csv").toPath(), new File(projectDir, "ant-1.3.csv").toPath());
+		Files.copy(new File("testdata/JURECZKO/ant/ant-1.4.csv").toPath(), new File(projectDir, "ant-1.4.csv").toPath());
+		return dataDir;
+	}
+
+	private static class CountingFolderLoader extends CSVFolderLoader {
+
+		private final List<String> parsed = Collections.synchronizedList(new ArrayList<>());
+
+		CountingFolderLoader(File dataDir) {
+			setLocation(dataDir.getPath());
+			setCaching(true);
+		}
+
+		@Override
+		protected SingleVersionLoader getSingleLoader() {
+			final SingleVersionLoader loader = super.getSingleLoader();
+			return new SingleVersionLoader() {
+
+				@Override
+				public Instances load(File file, boolean binaryClass) {
+					CountingFolderLoader.this.parsed.add(file.getName());
+					return loader.load(file, binaryClass);
+				}
+
+				@Override
+				public boolean filenameFilter(String endsWith) {
+					return loader.filenameFilter(endsWith);
+				}
+			};
+		}
+	}
+
+	private static CSVFolderLoader createLoader(File dataDir) {
+		CSVFolderLoader loader = new CSVFolderLoader();
+		loader.setLocation(dataDir.getPath());
+		loader.setCaching(true);
+		return loader;
+	}
+}
@@ -0,0 +1,42 @@
+package de.ugoe.cs.cpdp.training;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import weka.classifiers.trees.REPTree;
+
+public class WekaTrainingTest {
+
+	@Test
+	public void testSetupClassifier_seed() {
+		WekaTraining training = new WekaTraining();
+		training.setParameter("REPTree weka.classifiers.trees.REPTree");
+		training.setSeed(3);
+
+		REPTree classifier = (REPTree) training.setupClassifier();
+
+		assertEquals(3, classifier.getSeed());
+	}
+
+	@Test
+	public void testSetupClassifier_seedParameter() {
+		WekaTraining training = new WekaTraining();
+		training.setParameter("REPTree weka.classifiers.trees.REPTree -S 7");
+		training.setSeed(3);
+
+		REPTree classifier = (REPTree) training.setupClassifier();
+
+		assertEquals(7, classifier.getSeed());
+	}
+
+	@Test
+	public void testSetupClassifier_notSeeded() {
+		WekaTraining training = new WekaTraining();
+		training.setParameter("REPTree weka.classifiers.trees.REPTree");
+
+		REPTree classifier = (REPTree) training.setupClassifier();
+
+		assertEquals(1, classifier.getSeed());
+	}
+}
@@ -0,0 +1,208 @@
+package de.ugoe.cs.cpdp.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+public class DataMatrixTest {
+
+	@Test
+	public void testCreate() {
+		Instances data = createData();
+
+		DataMatrix matrix = DataMatrix.create(data);
+
+		assertEquals(3, matrix.numRows());
+		assertEquals(2, matrix.numColumns());
+		assertEquals(0, matrix.getAttributeIndex(0));
+		assertEquals(2, matrix.getAttributeIndex(1));
+		assertEquals(0, matrix.getColumnIndex(0));
+		assertEquals(-1, matrix.getColumnIndex(1));
+		assertEquals(1, matrix.getColumnIndex(2));
+		assertEquals("a2", matrix.getAttribute(1).name());
+		assertArrayEquals(new double[] { 1.0, 10.0, 2.0, 20.0, 3.0, 30.0 }, matrix.getRowMajor(), 0.0);
+		assertArrayEquals(new double[] { 1.0, 2.0, 3.0, 10.0, 20.0, 30.0 }, matrix.getColumnMajor(), 0.0);
+		assertArrayEquals(new double[] { 2.0, 20.0 }, matrix.getRows()[1], 0.0);
+		assertArrayEquals(new double[] { 10.0, 20.0, 30.0 }, matrix.getColumn(1), 0.0);
+		assertEquals(20.0, matrix.value(1, 1), 0.0);
+		assertArrayEquals(new double[] { 0.0, 1.0, 0.0 }, matrix.getClassValues(), 0.0);
+		assertArrayEquals(new double[] { 1.0, 1.0, 0.5 }, matrix.getWeights(), 0.0);
+		assertEquals(0, matrix.getHeader().numInstances());
+		assertEquals(1, matrix.getHeader().classIndex());
+	}
+
+	@Test
+	public void testCreate_noClass() {
+		Instances data = createData();
+		data.setClassIndex(-1);
+
+		DataMatrix matrix = DataMatrix.create(data);
+
+		assertEquals(3, matrix.numColumns());
+		assertNull(matrix.getClassValues());
+		assertArrayEquals(new double[] { 2.0, 1.0, 20.0 }, matrix.getRow(1), 0.0);
+	}
+
+	@Test
+	public void testGet_cached() {
+		Instances data = createData();
+		FloatInstance.compact(data);
+
+		DataMatrix matrix = DataMatrix.get(data);
+
+		assertSame(matrix, DataMatrix.get(data));
+		assertNotSame(matrix, DataMatrix.get(new Instances(data)));
+		assertNotSame(matrix, DataMatrix.create(data));
+	}
+
+	@Test
+	public void testGet_notCached() {
+		Instances data = createData();
+
+		DataMatrix matrix = DataMatrix.get(data);
+
+		assertNotSame(matrix, DataMatrix.get(data));
+		assertArrayEquals(matrix.getRowMajor(), DataMatrix.get(data).getRowMajor(), 0.0);
+	}
+
+	@Test
+	public void testGet_notCachedAfterCopy() {
+		Instances data = createData();
+		FloatInstance.compact(data);
+		DataMatrix matrix = DataMatrix.get(data);
+
+		data.set(0, new DenseInstance(data.instance(0)));
+
+		DataMatrix result = DataMatrix.get(data);
+		assertNotSame(matrix, result);
+		assertNotSame(result, DataMatrix.get(data));
+	}
+
+	@Test
+	public void testGet_valueChanged() {
+		Instances data = createData();
+		FloatInstance.compact(data);
+		DataMatrix matrix = DataMatrix.get(data);
+
+		data.instance(2).setValue(2, 31.0);
+
+		DataMatrix result = DataMatrix.get(data);
+		assertNotSame(matrix, result);
+		assertEquals(31.0, result.value(2, 1), 0.0);
+		assertEquals(30.0, matrix.value(2, 1), 0.0);
+	}
+
+	@Test
+	public void testGet_classValueChanged() {
+		Instances data = createData();
+		FloatInstance.compact(data);
+		DataMatrix matrix = DataMatrix.get(data);
+
+		data.instance(0).setClassValue("1");
+
+		assertEquals(1.0, DataMatrix.get(data).getClassValues()[0], 0.0);
+		assertEquals(0.0, matrix.getClassValues()[0], 0.0);
+	}
+
+	@Test
+	public void testGet_weightChanged() {
+		Instances data = createData();
+		FloatInstance.compact(data);
+		DataMatrix matrix = DataMatrix.get(data);
+
+		data.instance(0).setWeight(2.0);
+
+		assertEquals(2.0, DataMatrix.get(data).getWeights()[0], 0.0);
+		assertEquals(1.0, matrix.getWeights()[0], 0.0);
+	}
+
+	@Test
+	public void testGet_instancesChanged() {
+		Instances data = createData();
+		FloatInstance.compact(data);
+		DataMatrix matrix = DataMatrix.get(data);
+
+		data.swap(0, 2);
+		assertEquals(3.0, DataMatrix.get(data).value(0, 0), 0.0);
+
+		data.delete(0);
+		assertEquals(2, DataMatrix.get(data).numRows());
+
+		data.deleteAttributeAt(0);
+		assertEquals(1, DataMatrix.get(data).numColumns());
+		assertEquals(3, matrix.numRows());
+	}
+
+	@Test
+	public void testInvalidate() {
+		Instances data = createData();
+		FloatInstance.compact(data);
+		DataMatrix matrix = DataMatrix.get(data);
+
+		DataMatrix.invalidate(data);
+
+		assertNotSame(matrix, DataMatrix.get(data));
+	}
+
+	@Test
+	public void testSetValues_instance() {
+		Instances data = createData();
+		FloatInstance.compact(data);
+		Instance instance = data.instance(1);
+		DataMatrix matrix = DataMatrix.get(data);
+
+		DataMatrix.setValues(instance, new double[] { 5.0, 0.0, 50.0 });
+
+		assertArrayEquals(new double[] { 5.0, 0.0, 50.0 }, instance.toDoubleArray(), 0.0);
+		assertNotSame(matrix, DataMatrix.get(data));
+		assertEquals(50.0, DataMatrix.get(data).value(1, 1), 0.0);
+	}
+
+	@Test
+	public void testSetValues_data() {
+		Instances data = createData();
+		Instance copy = (Instance) data.instance(0).copy();
+
+		DataMatrix.setValues(data, new double[] { -1.0, -10.0, -2.0, -20.0, -3.0, -30.0 });
+
+		assertArrayEquals(new double[] { -1.0, 0.0, -10.0 }, data.instance(0).toDoubleArray(), 0.0);
+		assertArrayEquals(new double[] { -2.0, 1.0, -20.0 }, data.instance(1).toDoubleArray(), 0.0);
+		assertArrayEquals(new double[] { -3.0, 0.0, -30.0 }, data.instance(2).toDoubleArray(), 0.0);
+		assertEquals(0.5, data.instance(2).weight(), 0.0);
+		assertSame(data, data.instance(2).dataset());
+		assertArrayEquals(new double[] { 1.0, 0.0, 10.0 }, copy.toDoubleArray(), 0.0);
+		assertArrayEquals(new double[] { -3.0, -30.0 }, DataMatrix.get(data).getRow(2), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetValues_wrongSize() {
+		DataMatrix.setValues(createData(), new double[] { 1.0, 2.0 });
+	}
+
+	private static Instances createData() {
+		ArrayList<String> classValues = new ArrayList<>();
+		classValues.add("0");
+		classValues.add("1");
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("a1"));
+		attributes.add(new Attribute("bug", classValues));
+		attributes.add(new Attribute("a2"));
+		Instances data = new Instances("test", attributes, 0);
+		data.setClassIndex(1);
+		data.add(new DenseInstance(1.0, new double[] { 1.0, 0.0, 10.0 }));
+		data.add(new DenseInstance(1.0, new double[] { 2.0, 1.0, 20.0 }));
+		data.add(new DenseInstance(0.5, new double[] { 3.0, 0.0, 30.0 }));
+		return data;
+	}
+}
@@ -0,0 +1,143 @@
+package de.ugoe.cs.cpdp.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.core.Attribute;
+import weka.core.AttributeStats;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class DataStatisticsTest {
+
+	@Test
+	public void testGet_cached() {
+		Instances data = createData(new Random(1), 50);
+		FloatInstance.compact(data);
+
+		DataStatistics statistics = DataStatistics.get(data);
+
+		assertSame(statistics, DataStatistics.get(data));
+		assertSame(statistics.getAttributeStats(0), DataStatistics.get(data).getAttributeStats(0));
+	}
+
+	@Test
+	public void testGet_valueChanged() {
+		Instances data = createData(new Random(1), 50);
+		DataStatistics statistics = DataStatistics.get(data);
+		double max = statistics.getMax(0);
+
+		data.instance(0).setValue(0, max + 1.0);
+
+		DataStatistics result = DataStatistics.get(data);
+		assertNotSame(statistics, result);
+		assertEquals(max + 1.0, result.getMax(0), 0.0);
+		assertEquals(max, statistics.getMax(0), 0.0);
+	}
+
+	@Test
+	public void testAttributeStats() {
+		Random rand = new Random(1);
+		for (int run = 0; run < 20; run++) {
+			Instances data = createData(rand, 1 + rand.nextInt(100));
+			DataStatistics statistics = DataStatistics.get(data);
+			for (int j = 0; j < data.numAttributes(); j++) {
+				AttributeStats expected = data.attributeStats(j);
+				AttributeStats result = statistics.getAttributeStats(j);
+				assertEquals(expected.toString(), result.toString());
+				assertEquals(expected.totalCount, result.totalCount);
+				assertEquals(expected.missingCount, result.missingCount);
+				assertEquals(expected.distinctCount, result.distinctCount);
+				assertEquals(expected.uniqueCount, result.uniqueCount);
+				if (data.attribute(j).isNumeric()) {
+					assertEquals(expected.numericStats.min, result.numericStats.min, 0.0);
+					assertEquals(expected.numericStats.max, result.numericStats.max, 0.0);
+					assertEquals(expected.numericStats.mean, statistics.getMean(j), 0.0);
+					assertEquals(expected.numericStats.stdDev, statistics.getStdDev(j), 0.0);
+				}
+				else {
+					assertArrayEquals(expected.nominalCounts, statistics.getNominalCounts(j));
+					assertArrayEquals(expected.nominalWeights, result.nominalWeights, 0.0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testMeanOrModeAndVariance() {
+		Random rand = new Random(2);
+		for (int run = 0; run < 20; run++) {
+			Instances data = createData(rand, 1 + rand.nextInt(100));
+			DataStatistics statistics = DataStatistics.get(data);
+			for (int j = 0; j < data.numAttributes(); j++) {
+				assertEquals(data.meanOrMode(j), statistics.meanOrMode(j), 0.0);
+				if (data.attribute(j).isNumeric()) {
+					assertEquals(data.variance(j), statistics.variance(j), 0.0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testKthSmallestValue() {
+		Random rand = new Random(3);
+		for (int run = 0; run < 20; run++) {
+			Instances data = createData(rand, 1 + rand.nextInt(100));
+			DataStatistics statistics = DataStatistics.get(data);
+			for (int j = 0; j < data.numAttributes(); j++) {
+				if (data.attribute(j).isNumeric()) {
+					for (int k = 1; k <= data.numInstances(); k++) {
+						assertEquals(data.kthSmallestValue(j, k), statistics.kthSmallestValue(j, k),
+								0.0);
+					}
+					assertEquals(data.kthSmallestValue(j, (data.numInstances() + 1) / 2),
+							statistics.getMedian(j), 0.0);
+				}
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testKthSmallestValue_invalidK() {
+		Instances data = createData(new Random(1), 10);
+		DataStatistics.get(data).kthSmallestValue(0, 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testVariance_nominal() {
+		Instances data = createData(new Random(1), 10);
+		DataStatistics.get(data).variance(data.classIndex());
+	}
+
+	private static Instances createData(Random rand, int numInstances) {
+		ArrayList<String> classValues = new ArrayList<>();
+		classValues.add("0");
+		classValues.add("1");
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("a1"));
+		attributes.add(new Attribute("a2"));
+		attributes.add(new Attribute("a3"));
+		attributes.add(new Attribute("bug", classValues));
+		Instances data = new Instances("test", attributes, numInstances);
+		data.setClassIndex(3);
+		for (int i = 0; i < numInstances; i++) {
+			double[] values = new double[4];
+			// continuous values, few distinct values, and values with missing values
+			values[0] = rand.nextGaussian() * 10.0;
+			values[1] = rand.nextInt(5);
+			values[2] = rand.nextDouble() < 0.2 ? Utils.missingValue() : rand.nextInt(20) - 10.0;
+			values[3] = rand.nextInt(2);
+			double weight = rand.nextDouble() < 0.5 ? 1.0 : rand.nextDouble() * 2.0;
+			data.add(new DenseInstance(weight, values));
+		}
+		return data;
+	}
+}
@@ -0,0 +1,222 @@
+package de.ugoe.cs.cpdp.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.apache.commons.math3.util.MathArrays;
+import org.junit.Test;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.EuclideanDistance;
+import weka.core.Instances;
+
+public class DistanceKernelsTest {
+
+	@Test
+	public void testDistance() {
+		Random rand = new Random(1);
+		for (int run = 0; run < 100; run++) {
+			double[] x = createRow(rand, 20);
+			double[] y = createRow(rand, 20);
+			assertEquals(MathArrays.distance(x, y), DistanceKernels.distance(x, y), 0.0);
+			assertEquals(DistanceKernels.distance(x, y), DistanceKernels.distance(y, x), 0.0);
+		}
+		assertEquals(5.0, DistanceKernels.distance(new double[] { 1.0, 1.0 }, new double[] { 4.0, 5.0 }), 0.0);
+	}
+
+	@Test
+	public void testDot() {
+		assertEquals(11.0, DistanceKernels.dot(new double[] { 1.0, 2.0 }, new double[] { 3.0, 4.0 }), 0.0);
+	}
+
+	@Test
+	public void testDistances_oneToMany() {
+		Random rand = new Random(1);
+		double[] x = createRow(rand, 10);
+		double[][] rows = createRows(rand, 30, 10);
+		double[] result = new double[rows.length];
+
+		assertEquals(result, DistanceKernels.distances(x, rows, result));
+		for (int i = 0; i < rows.length; i++) {
+			assertEquals(MathArrays.distance(x, rows[i]), result[i], 0.0);
+		}
+	}
+
+	@Test
+	public void testDistances_allPairs() {
+		Random rand = new Random(1);
+		// large enough to be computed concurrently in multiple blocks
+		double[][] rows1 = createRows(rand, 300, 20);
+		double[][] rows2 = createRows(rand, 200, 20);
+
+		double[][] result = DistanceKernels.distances(rows1, rows2);
+
+		assertEquals(rows1.length, result.length);
+		for (int i = 0; i < rows1.length; i++) {
+			assertEquals(rows2.length, result[i].length);
+			for (int j = 0; j < rows2.length; j++) {
+				assertEquals(MathArrays.distance(rows1[i], rows2[j]), result[i][j], 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testDistances_range() {
+		Random rand = new Random(1);
+		double[][] rows1 = createRows(rand, 100, 5);
+		double[][] rows2 = createRows(rand, 70, 5);
+
+		double[][] result = DistanceKernels.distances(rows1, 10, 90, rows2);
+
+		assertEquals(80, result.length);
+		for (int i = 0; i < result.length; i++) {
+			for (int j = 0; j < rows2.length; j++) {
+				assertEquals(MathArrays.distance(rows1[10 + i], rows2[j]), result[i][j], 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testDistances_symmetric() {
+		Random rand = new Random(1);
+		double[][] rows = createRows(rand, 250, 20);
+
+		double[][] result = DistanceKernels.distances(rows);
+
+		for (int i = 0; i < rows.length; i++) {
+			for (int j = 0; j < rows.length; j++) {
+				assertEquals(MathArrays.distance(rows[i], rows[j]), result[i][j], 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testLinearKernel() {
+		Random rand = new Random(1);
+		double[][] rows = createRows(rand, 250, 20);
+
+		double[][] result = DistanceKernels.linearKernel(rows);
+
+		for (int i = 0; i < rows.length; i++) {
+			for (int j = 0; j < rows.length; j++) {
+				assertEquals(DistanceKernels.dot(rows[i], rows[j]), result[i][j], 0.0);
+			}
+		}
+	}
+
+	@Test
+	public void testLinearKernel_target() {
+		Random rand = new Random(1);
+		double[][] rows = createRows(rand, 250, 20);
+		double[][] expected = DistanceKernels.linearKernel(rows);
+		double[][] result = new double[rows.length][rows.length];
+		int[][] counts = new int[rows.length][rows.length];
+
+		DistanceKernels.linearKernel(rows, (i, j, value) -> {
+			result[i][j] = value;
+			counts[i][j]++;
+		});
+
+		for (int i = 0; i < rows.length; i++) {
+			assertArrayEquals(expected[i], result[i], 0.0);
+			for (int j = 0; j < rows.length; j++) {
+				assertEquals(1, counts[i][j]);
+			}
+		}
+	}
+
+	@Test
+	public void testSetParallelism() {
+		Random rand = new Random(1);
+		double[][] rows = createRows(rand, 250, 20);
+		double[][] expected = DistanceKernels.distances(rows);
+		int parallelism = DistanceKernels.getParallelism();
+		try {
+			DistanceKernels.setParallelism(1);
+			assertEquals(1, DistanceKernels.getParallelism());
+			double[][] sequential = DistanceKernels.distances(rows);
+			DistanceKernels.setParallelism(3);
+			assertEquals(3, DistanceKernels.getParallelism());
+			double[][] concurrent = DistanceKernels.distances(rows);
+			for (int i = 0; i < rows.length; i++) {
+				assertArrayEquals(expected[i], sequential[i], 0.0);
+				assertArrayEquals(expected[i], concurrent[i], 0.0);
+			}
+		}
+		finally {
+			DistanceKernels.setParallelism(parallelism);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetParallelism_invalid() {
+		DistanceKernels.setParallelism(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDistances_differentDimensions() {
+		DistanceKernels.distances(new double[][] { { 1.0, 2.0 } }, new double[][] { { 1.0 } });
+	}
+
+	@Test
+	public void testDistances_empty() {
+		assertEquals(0, DistanceKernels.distances(new double[0][]).length);
+		assertEquals(0, DistanceKernels.distances(new double[][] { { 1.0 } }, new double[0][])[0].length);
+	}
+
+	@Test
+	public void testNormalizeRanges() {
+		double[][] rows = new double[][] { { 1.0, 2.0, 3.0 }, { 3.0, 2.0, 4.0 }, { 2.0, 2.0, 5.0 } };
+
+		double[][] result = DistanceKernels.normalizeRanges(rows);
+
+		assertArrayEquals(new double[] { 0.0, 0.0, 0.0 }, result[0], 0.0);
+		assertArrayEquals(new double[] { 1.0, 0.0, 0.5 }, result[1], 0.0);
+		assertArrayEquals(new double[] { 0.5, 0.0, 1.0 }, result[2], 0.0);
+		assertEquals(1.0, rows[0][0], 0.0);
+	}
+
+	@Test
+	public void testNormalizeRanges_weka() {
+		Random rand = new Random(1);
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		for (int j = 0; j < 10; j++) {
+			attributes.add(new Attribute("a" + j));
+		}
+		Instances data = new Instances("test", attributes, 0);
+		double[][] rows = createRows(rand, 50, 10);
+		for (double[] row : rows) {
+			row[3] = 7.0;
+			data.add(new DenseInstance(1.0, row.clone()));
+		}
+		EuclideanDistance wekaDistance = new EuclideanDistance(data);
+
+		double[][] result = DistanceKernels.distances(DistanceKernels.normalizeRanges(rows));
+
+		for (int i = 0; i < rows.length; i++) {
+			for (int j = 0; j < rows.length; j++) {
+				assertEquals(wekaDistance.distance(data.get(i), data.get(j)), result[i][j], 0.0);
+			}
+		}
+	}
+
+	private static double[][] createRows(Random rand, int numRows, int dimension) {
+		double[][] rows = new double[numRows][];
+		for (int i = 0; i < numRows; i++) {
+			rows[i] = createRow(rand, dimension);
+		}
+		return rows;
+	}
+
+	private static double[] createRow(Random rand, int dimension) {
+		double[] row = new double[dimension];
+		for (int j = 0; j < dimension; j++) {
+			row[j] = rand.nextGaussian() * 100.0;
+		}
+		return row;
+	}
+}
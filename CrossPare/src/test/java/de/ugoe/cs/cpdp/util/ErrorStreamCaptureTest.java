@@ -0,0 +1,100 @@
+package de.ugoe.cs.cpdp.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ErrorStreamCaptureTest {
+
+	private PrintStream systemErr;
+
+	private ByteArrayOutputStream uncaptured;
+
+	@Before
+	public void setUp() {
+		systemErr = System.err;
+		uncaptured = new ByteArrayOutputStream();
+		System.setErr(new PrintStream(uncaptured, true));
+	}
+
+	@After
+	public void tearDown() {
+		System.setErr(systemErr);
+	}
+
+	@Test
+	public void testCapture() throws Exception {
+		PrintStream original = System.err;
+		ByteArrayOutputStream captured = new ByteArrayOutputStream();
+
+		String result = ErrorStreamCapture.capture(() -> {
+			assertNotSame(original, System.err);
+			System.err.print("captured");
+			return "result";
+		}, captured);
+
+		assertEquals("result", result);
+		assertEquals("captured", captured.toString());
+		assertEquals("", uncaptured.toString());
+		assertSame(original, System.err);
+	}
+
+	@Test
+	public void testCapture_nested() throws Exception {
+		PrintStream original = System.err;
+		ByteArrayOutputStream outer = new ByteArrayOutputStream();
+		ByteArrayOutputStream inner = new ByteArrayOutputStream();
+
+		ErrorStreamCapture.capture(() -> {
+			System.err.print("outer");
+			ErrorStreamCapture.capture(() -> {
+				System.err.print("inner");
+				return null;
+			}, inner);
+			assertNotSame(original, System.err);
+			System.err.print("outer");
+			return null;
+		}, outer);
+
+		assertEquals("outerouter", outer.toString());
+		assertEquals("inner", inner.toString());
+		assertSame(original, System.err);
+	}
+
+	@Test
+	public void testCapture_otherThreads() throws Exception {
+		PrintStream original = System.err;
+		ByteArrayOutputStream captured = new ByteArrayOutputStream();
+
+		ErrorStreamCapture.capture(() -> {
+			Thread thread = new Thread(() -> System.err.print("uncaptured"));
+			thread.start();
+			thread.join();
+			return null;
+		}, captured);
+
+		assertEquals("", captured.toString());
+		assertEquals("uncaptured", uncaptured.toString());
+		assertSame(original, System.err);
+	}
+
+	@Test
+	public void testCapture_failure() {
+		PrintStream original = System.err;
+		try {
+			ErrorStreamCapture.capture(() -> {
+				throw new IllegalStateException("failure");
+			}, new ByteArrayOutputStream());
+			fail("exception expected");
+		}
+		catch (Exception e) {
+			assertEquals("failure", e.getMessage());
+		}
+		assertSame(original, System.err);
+	}
+}
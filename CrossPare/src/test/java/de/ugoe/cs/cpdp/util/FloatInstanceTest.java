@@ -0,0 +1,157 @@
+package de.ugoe.cs.cpdp.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import weka.classifiers.trees.J48;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.Utils;
+
+public class FloatInstanceTest {
+
+	@Test
+	public void testCreate() {
+		Instance instance = new DenseInstance(0.5, new double[] { 0.1, 1.0, Utils.missingValue() });
+
+		FloatInstance result = new FloatInstance(instance);
+
+		assertEquals(3, result.numAttributes());
+		assertEquals(3, result.numValues());
+		assertEquals(0.5, result.weight(), 0.0);
+		assertEquals((float) 0.1, result.value(0), 0.0);
+		assertEquals(1.0, result.value(1), 0.0);
+		assertTrue(result.isMissing(2));
+		assertArrayEquals(new double[] { (float) 0.1, 1.0, Utils.missingValue() }, result.toDoubleArray(), 0.0);
+	}
+
+	@Test
+	public void testSetValue() {
+		FloatInstance instance = new FloatInstance(1.0, new float[] { 1.5f, 2.5f });
+
+		instance.setValue(0, 0.1);
+
+		assertEquals(0.1, instance.value(0), 0.0);
+		assertEquals(2.5, instance.value(1), 0.0);
+	}
+
+	@Test
+	public void testCopy() {
+		FloatInstance instance = new FloatInstance(1.0, new float[] { 1.5f, 2.5f });
+
+		FloatInstance copy = (FloatInstance) instance.copy();
+
+		assertSame(instance.getStorage(), copy.getStorage());
+		copy.setValue(1, 3.0);
+		assertNotSame(instance.getStorage(), copy.getStorage());
+		assertEquals(2.5, instance.value(1), 0.0);
+		assertEquals(3.0, copy.value(1), 0.0);
+		Object storage = copy.getStorage();
+		copy.setValue(0, 4.0);
+		assertNotSame(storage, copy.getStorage());
+	}
+
+	@Test
+	public void testReplaceMissingValues() {
+		FloatInstance instance = new FloatInstance(1.0, new float[] { 1.5f, Float.NaN });
+
+		instance.replaceMissingValues(new double[] { 0.0, 0.1 });
+
+		assertArrayEquals(new double[] { 1.5, 0.1 }, instance.toDoubleArray(), 0.0);
+	}
+
+	@Test
+	public void testCompact() {
+		Instances data = createData();
+		Instances expected = new Instances(data);
+
+		FloatInstance.compact(data);
+
+		assertEquals(expected.numInstances(), data.numInstances());
+		for (int i = 0; i < data.numInstances(); i++) {
+			assertTrue(data.instance(i) instanceof FloatInstance);
+			assertSame(data, data.instance(i).dataset());
+			assertEquals(expected.instance(i).weight(), data.instance(i).weight(), 0.0);
+			assertArrayEquals(expected.instance(i).toDoubleArray(), data.instance(i).toDoubleArray(), 0.0);
+		}
+		assertTrue(new Instances(data).instance(0) instanceof FloatInstance);
+	}
+
+	@Test
+	public void testAttributes() {
+		Instances data = createData();
+		FloatInstance.compact(data);
+
+		data.insertAttributeAt(new Attribute("new"), 1);
+		assertTrue(data.instance(0).isMissing(1));
+		assertEquals(2.0, data.instance(0).value(2), 0.0);
+
+		data.deleteAttributeAt(0);
+		assertEquals(3, data.instance(0).numAttributes());
+		assertEquals(2.0, data.instance(0).value(1), 0.0);
+	}
+
+	@Test
+	public void testDataMatrix() {
+		Instances data = createData();
+		FloatInstance.compact(data);
+		DataMatrix matrix = DataMatrix.get(data);
+
+		assertSame(matrix, DataMatrix.get(data));
+		assertArrayEquals(new double[] { 1.0, 2.0 }, matrix.getRow(0), 0.0);
+
+		data.instance(0).setValue(0, 5.0);
+		assertNotSame(matrix, DataMatrix.get(data));
+		assertEquals(5.0, DataMatrix.get(data).value(0, 0), 0.0);
+
+		DataMatrix.setValues(data, new double[] { 0.1, 0.2, 0.3, 0.4, 0.5, 0.6, 0.7, 0.8 });
+		assertEquals(0.1, data.instance(0).value(0), 0.0);
+		assertEquals(0.8, DataMatrix.get(data).value(3, 1), 0.0);
+	}
+
+	@Test
+	public void testClassifier() throws Exception {
+		Instances data = createData();
+		Instances compactData = new Instances(data);
+		FloatInstance.compact(compactData);
+
+		J48 classifier = new J48();
+		classifier.setMinNumObj(1);
+		classifier.buildClassifier(data);
+		J48 compactClassifier = new J48();
+		compactClassifier.setMinNumObj(1);
+		compactClassifier.buildClassifier(compactData);
+
+		assertEquals(classifier.toString(), compactClassifier.toString());
+		for (int i = 0; i < data.numInstances(); i++) {
+			assertArrayEquals(classifier.distributionForInstance(data.instance(i)),
+					compactClassifier.distributionForInstance(compactData.instance(i)), 0.0);
+		}
+	}
+
+	private static Instances createData() {
+		ArrayList<String> classValues = new ArrayList<>();
+		classValues.add("0");
+		classValues.add("1");
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("a1"));
+		attributes.add(new Attribute("a2"));
+		attributes.add(new Attribute("bug", classValues));
+		Instances data = new Instances("test", attributes, 0);
+		data.setClassIndex(2);
+		data.add(new DenseInstance(1.0, new double[] { 1.0, 2.0, 0.0 }));
+		data.add(new DenseInstance(1.0, new double[] { 2.0, 4.0, 0.0 }));
+		data.add(new DenseInstance(0.5, new double[] { 3.0, 8.0, 1.0 }));
+		data.add(new DenseInstance(1.0, new double[] { 4.0, 16.0, 1.0 }));
+		return data;
+	}
+}
@@ -0,0 +1,184 @@
+package de.ugoe.cs.cpdp.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instance;
+import weka.core.Instances;
+
+public class OffHeapStoreTest {
+
+	@Test
+	public void testCreate() {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("a1"));
+		attributes.add(new Attribute("a2"));
+		Instances data = new Instances("test", attributes, 0);
+		data.add(new DenseInstance(1.0, new double[] { 1.0, 10.0 }));
+		data.add(new DenseInstance(1.0, new double[] { 2.0, 20.0 }));
+		data.add(new DenseInstance(1.0, new double[] { 3.0, 30.0 }));
+
+		OffHeapStore store = OffHeapStore.create(data);
+		data.instance(1).setValue(1, 21.0);
+
+		assertEquals(3, store.numRows());
+		assertEquals(2, store.numAttributes());
+		assertEquals(3.0, store.value(2, 0), 0.0);
+		assertEquals(20.0, store.value(1, 1), 0.0);
+	}
+
+	@Test
+	public void testWrap() {
+		ByteBuffer buffer = ByteBuffer.allocate(4 + 6 * 8 + 4);
+		buffer.putInt(42);
+		for (int k = 0; k < 6; k++) {
+			buffer.putDouble(k);
+		}
+		buffer.putInt(43);
+		buffer.position(4);
+
+		OffHeapStore store = OffHeapStore.wrap(buffer, 2, 3);
+
+		assertEquals(43, buffer.getInt());
+		assertEquals(0.0, store.value(0, 0), 0.0);
+		assertEquals(1.0, store.value(1, 0), 0.0);
+		assertEquals(4.0, store.value(0, 2), 0.0);
+	}
+
+	@Test
+	public void testWrap_view() {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(8 + 4 * 8).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putLong(-1L);
+
+		OffHeapStore store = OffHeapStore.wrap(buffer, 2, 2);
+		buffer.putDouble(8, 1.5);
+		buffer.putDouble(8 + 3 * 8, 2.5);
+
+		assertEquals(8 + 4 * 8, buffer.position());
+		assertEquals(1.5, store.value(0, 0), 0.0);
+		assertEquals(0.0, store.value(1, 0), 0.0);
+		assertEquals(2.5, store.value(1, 1), 0.0);
+	}
+
+	@Test
+	public void testToInstances() {
+		ArrayList<String> classValues = new ArrayList<>();
+		classValues.add("0");
+		classValues.add("1");
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("a1"));
+		attributes.add(new Attribute("bug", classValues));
+		Instances header = new Instances("test", attributes, 0);
+		header.setClassIndex(1);
+		ByteBuffer buffer = ByteBuffer.allocate(4 * 8);
+		buffer.putDouble(1.0).putDouble(2.0).putDouble(0.0).putDouble(1.0);
+		buffer.position(0);
+		OffHeapStore store = OffHeapStore.wrap(buffer, 2, 2);
+
+		Instances data = store.toInstances(header, new double[] { 1.0, 0.5 });
+
+		assertEquals(0, header.numInstances());
+		assertEquals(2, data.numInstances());
+		assertEquals(1, data.classIndex());
+		assertTrue(data.instance(0) instanceof OffHeapInstance);
+		assertSame(store, ((OffHeapInstance) data.instance(1)).getStorage());
+		assertArrayEquals(new double[] { 2.0, 1.0 }, data.instance(1).toDoubleArray(), 0.0);
+		assertEquals("1", data.instance(1).stringValue(1));
+		assertEquals(0.5, data.instance(1).weight(), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testToInstances_wrongSize() {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("a1"));
+		Instances header = new Instances("test", attributes, 0);
+		OffHeapStore store = OffHeapStore.wrap(ByteBuffer.allocate(2 * 8), 2, 1);
+
+		store.toInstances(header, new double[] { 1.0 });
+	}
+
+	@Test
+	public void testMoveOffHeap() {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("a1"));
+		attributes.add(new Attribute("a2"));
+		Instances data = new Instances("test", attributes, 0);
+		data.add(new DenseInstance(1.0, new double[] { 1.0, 10.0 }));
+		data.add(new DenseInstance(0.5, new double[] { 2.0, 20.0 }));
+
+		OffHeapStore.moveOffHeap(data);
+
+		assertTrue(data.instance(0) instanceof OffHeapInstance);
+		assertTrue(data.instance(1) instanceof OffHeapInstance);
+		Object store = ((OffHeapInstance) data.instance(0)).getStorage();
+		assertTrue(store instanceof OffHeapStore);
+		assertSame(store, ((OffHeapInstance) data.instance(1)).getStorage());
+		assertSame(data, data.instance(1).dataset());
+		assertEquals(0.5, data.instance(1).weight(), 0.0);
+		assertArrayEquals(new double[] { 2.0, 20.0 }, data.instance(1).toDoubleArray(), 0.0);
+	}
+
+	@Test
+	public void testSetValue_copyOnWrite() {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("a1"));
+		attributes.add(new Attribute("a2"));
+		Instances data = new Instances("test", attributes, 0);
+		data.add(new DenseInstance(1.0, new double[] { 1.0, 10.0 }));
+		data.add(new DenseInstance(1.0, new double[] { 2.0, 20.0 }));
+		OffHeapStore.moveOffHeap(data);
+		OffHeapInstance instance = (OffHeapInstance) data.instance(0);
+		Instance copy = (Instance) instance.copy();
+		OffHeapStore store = (OffHeapStore) instance.getStorage();
+
+		instance.setValue(1, 11.0);
+
+		assertTrue(instance.getStorage() instanceof double[]);
+		assertArrayEquals(new double[] { 1.0, 11.0 }, instance.toDoubleArray(), 0.0);
+		assertEquals(10.0, store.value(0, 1), 0.0);
+		assertSame(store, ((OffHeapInstance) copy).getStorage());
+		assertArrayEquals(new double[] { 1.0, 10.0 }, copy.toDoubleArray(), 0.0);
+		assertSame(store, ((OffHeapInstance) data.instance(1)).getStorage());
+	}
+
+	@Test
+	public void testSerialization() throws Exception {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("a1"));
+		attributes.add(new Attribute("a2"));
+		Instances data = new Instances("test", attributes, 0);
+		data.add(new DenseInstance(1.0, new double[] { 1.0, 10.0 }));
+		data.add(new DenseInstance(0.5, new double[] { 2.0, 20.0 }));
+		OffHeapStore.moveOffHeap(data);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(data);
+		}
+		Instances result;
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			result = (Instances) in.readObject();
+		}
+
+		assertTrue(data.instance(1) instanceof OffHeapInstance);
+		assertFalse(result.instance(1) instanceof OffHeapInstance);
+		assertTrue(result.instance(1) instanceof DenseInstance);
+		assertArrayEquals(new double[] { 2.0, 20.0 }, result.instance(1).toDoubleArray(), 0.0);
+		assertEquals(0.5, result.instance(1).weight(), 0.0);
+	}
+}
@@ -0,0 +1,79 @@
+package de.ugoe.cs.cpdp.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+public class WekaUtilsTest {
+
+	@Test
+	public void testConcatenate_copy() {
+		Instances data1 = createData(new double[] { 1.0, 2.0 });
+		Instances data2 = createData(new double[] { 3.0 });
+		List<Instances> datasets = new LinkedList<>();
+		datasets.add(data1);
+		datasets.add(data2);
+
+		Instances result = WekaUtils.concatenate(datasets, true);
+
+		assertEquals(3, result.numInstances());
+		assertEquals(1, result.classIndex());
+		assertEquals(1.0, result.instance(0).value(0), 0.0);
+		assertEquals(2.0, result.instance(1).value(0), 0.0);
+		assertEquals(3.0, result.instance(2).value(0), 0.0);
+		assertNotSame(data1.instance(0), result.instance(0));
+		assertSame(result, result.instance(2).dataset());
+		assertSame(data2, data2.instance(0).dataset());
+
+		result.instance(0).setValue(0, 5.0);
+		assertEquals(1.0, data1.instance(0).value(0), 0.0);
+	}
+
+	@Test
+	public void testConcatenate_move() {
+		Instances data1 = createData(new double[] { 1.0, 2.0 });
+		Instances data2 = createData(new double[] { 3.0 });
+		List<Instances> datasets = new LinkedList<>();
+		datasets.add(data1);
+		datasets.add(data2);
+
+		Instances result = WekaUtils.concatenate(datasets, false);
+
+		assertEquals(3, result.numInstances());
+		assertSame(data1.instance(1), result.instance(1));
+		assertSame(data2.instance(0), result.instance(2));
+		assertSame(result, result.instance(2).dataset());
+
+		result.add(new DenseInstance(1.0, new double[] { 4.0, 1.0 }));
+		assertEquals(4, result.numInstances());
+		assertEquals(4.0, result.instance(3).value(0), 0.0);
+	}
+
+	@Test
+	public void testConcatenate_empty() {
+		assertNull(WekaUtils.concatenate(new LinkedList<Instances>(), true));
+	}
+
+	private static Instances createData(double[] values) {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("metric"));
+		attributes.add(new Attribute("bug"));
+		Instances data = new Instances("data", attributes, 0);
+		data.setClassIndex(1);
+		for (double value : values) {
+			data.add(new DenseInstance(1.0, new double[] { value, 0.0 }));
+		}
+		return data;
+	}
+}
@@ -0,0 +1,152 @@
+package de.ugoe.cs.cpdp.versions;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import de.ugoe.cs.cpdp.loader.CSVFolderLoader;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+public class SoftwareVersionTest {
+
+	@After
+	public void tearDown() {
+		VersionDataCache.getInstance().setCapacity(VersionDataCache.DEFAULT_CAPACITY);
+		VersionDataCache.getInstance().clear();
+	}
+
+	@Test
+	public void testGetInstances_detachedCopy() {
+		VersionData data = createData();
+		SoftwareVersion version = new SoftwareVersion(createMetadata(data), data.getInstances(), data.getEfforts(), data.getNumBugs());
+
+		Instances copy = version.getInstances();
+		assertNotSame(version.getReadOnlyInstances(), copy);
+		copy.instance(0).setValue(0, 99.0);
+		copy.delete(1);
+
+		Instances readOnly = version.getReadOnlyInstances();
+		assertEquals(2, readOnly.numInstances());
+		assertEquals(10.0, readOnly.instance(0).value(0), 0.0);
+		assertEquals(2, version.getInstances().numInstances());
+		assertEquals(10.0, version.getInstances().instance(0).value(0), 0.0);
+	}
+
+	@Test
+	public void testGetReadOnlyInstances_shared() {
+		VersionData data = createData();
+		SoftwareVersion version = new SoftwareVersion(createMetadata(data), data.getInstances(), data.getEfforts(), data.getNumBugs());
+
+		assertSame(data.getInstances(), version.getReadOnlyInstances());
+		assertSame(version.getReadOnlyInstances(), version.getReadOnlyInstances());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testGetEfforts_unmodifiable() {
+		VersionData data = createData();
+		SoftwareVersion version = new SoftwareVersion(createMetadata(data), data.getInstances(), data.getEfforts(), data.getNumBugs());
+
+		assertEquals(Arrays.asList(10.0, 20.0), version.getEfforts());
+		version.getEfforts().set(0, 0.0);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testGetNumBugs_unmodifiable() {
+		VersionData data = createData();
+		SoftwareVersion version = new SoftwareVersion(createMetadata(data), data.getInstances(), data.getEfforts(), data.getNumBugs());
+
+		assertEquals(Arrays.asList(0.0, 1.0), version.getNumBugs());
+		version.getNumBugs().add(2.0);
+	}
+
+	@Test
+	public void testLazy_suppliedOnce() {
+		AtomicInteger calls = new AtomicInteger();
+		VersionData data = createData();
+		SoftwareVersion version = new SoftwareVersion(createMetadata(data), () -> {
+			calls.incrementAndGet();
+			return data;
+		}, null);
+
+		assertTrue(version.isLazy());
+		assertEquals(0, calls.get());
+		assertSame(data.getInstances(), version.getReadOnlyInstances());
+		assertEquals(data.getEfforts(), version.getEfforts());
+		assertEquals(data.getNumBugs(), version.getNumBugs());
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	public void testLazy_preloaded() {
+		VersionData data = createData();
+		SoftwareVersion version = new SoftwareVersion(createMetadata(data), () -> {
+			throw new AssertionError("supplier must not be called");
+		}, data);
+
+		assertSame(data.getInstances(), version.getReadOnlyInstances());
+		assertEquals("test", version.getMetadata().getVersion());
+	}
+
+	@Test
+	public void testLazy_cacheBounded() {
+		VersionDataCache cache = VersionDataCache.getInstance();
+		cache.clear();
+		cache.setCapacity(2);
+		List<SoftwareVersion> versions = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			VersionData data = createData();
+			versions.add(new SoftwareVersion(createMetadata(data), () -> data, null));
+		}
+		for (SoftwareVersion version : versions) {
+			version.getReadOnlyInstances();
+		}
+		assertEquals(2, cache.size());
+
+		cache.setCapacity(0);
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testLazy_loader() {
+		CSVFolderLoader loader = new CSVFolderLoader();
+		loader.setLocation("testdata/JURECZKO");
+		List<SoftwareVersion> expected = loader.load();
+
+		CSVFolderLoader lazyLoader = new CSVFolderLoader();
+		lazyLoader.setLocation("testdata/JURECZKO");
+		lazyLoader.setLazy(true);
+		List<SoftwareVersion> versions = lazyLoader.loadVersions(lazyLoader.loadMetadata());
+
+		assertEquals(expected.size(), versions.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertTrue(versions.get(i).isLazy());
+			assertEquals(expected.get(i).getVersion(), versions.get(i).getVersion());
+			assertEquals(expected.get(i).getNumBugs(), versions.get(i).getNumBugs());
+			assertEquals(expected.get(i).getEfforts(), versions.get(i).getEfforts());
+			assertEquals(expected.get(i).getInstances().numInstances(), versions.get(i).getInstances().numInstances());
+		}
+	}
+
+	private static VersionData createData() {
+		ArrayList<Attribute> attributes = new ArrayList<>();
+		attributes.add(new Attribute("loc"));
+		attributes.add(new Attribute("bug", Arrays.asList("0", "1")));
+		Instances instances = new Instances("test", attributes, 2);
+		instances.setClassIndex(1);
+		instances.add(new DenseInstance(1.0, new double[] { 10.0, 0.0 }));
+		instances.add(new DenseInstance(1.0, new double[] { 20.0, 1.0 }));
+		return new VersionData(instances, Arrays.asList(10.0, 20.0), Arrays.asList(0.0, 1.0));
+	}
+
+	private static VersionMetadata createMetadata(VersionData data) {
+		return VersionMetadata.create("dataset", "project", "test", null, data.getInstances());
+	}
+}